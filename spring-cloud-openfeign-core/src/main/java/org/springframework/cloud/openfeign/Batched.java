@@ -0,0 +1,57 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Batches concurrent invocations of the annotated single-item method into calls of a bulk
+ * method of the same Feign client. The annotated method must take the item key as its
+ * only parameter and return the item, either directly or wrapped in a
+ * {@link java.util.concurrent.CompletableFuture} or a {@code Mono}, the latter joining a
+ * batch when subscribed to. The bulk method must take a
+ * {@link java.util.Collection}, {@link java.util.List} or {@link java.util.Set} of keys
+ * and return either a {@link java.util.Map} of items by key or a
+ * {@link java.util.List} of items in the order of the keys.
+ *
+ * @see org.springframework.cloud.openfeign.batch.BatchingCapability
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Batched {
+
+	/**
+	 * @return name of the bulk method of the same Feign client
+	 */
+	String bulkMethod();
+
+	/**
+	 * @return maximum number of distinct keys sent in a single bulk call; a batch is sent
+	 * as soon as it is full
+	 */
+	int maxBatchSize() default 100;
+
+	/**
+	 * @return maximum time, in milliseconds, the first invocation of a batch waits for
+	 * others to join it
+	 */
+	long maxDelayMillis() default 10;
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+
+/**
+ * {@link FeignAsyncCircuitBreaker} adapting a blocking {@link CircuitBreaker}. The circuit
+ * breaker runs on the given executor, normally a dedicated bounded pool; calls rejected
+ * by the executor are routed to the fallback.
+ */
+class BlockingFeignAsyncCircuitBreaker implements FeignAsyncCircuitBreaker, DisposableBean {
+
+	private final CircuitBreakerFactory circuitBreakerFactory;
+
+	private final Executor executor;
+
+	BlockingFeignAsyncCircuitBreaker(CircuitBreakerFactory circuitBreakerFactory, Executor executor) {
+		this.circuitBreakerFactory = circuitBreakerFactory;
+		this.executor = executor;
+	}
+
+	@Override
+	public <T> CompletableFuture<T> run(String circuitName, String groupName, Supplier<T> toRun,
+			Function<Throwable, CompletableFuture<T>> fallback) {
+		CircuitBreaker circuitBreaker = groupName != null ? circuitBreakerFactory.create(circuitName, groupName)
+				: circuitBreakerFactory.create(circuitName);
+		try {
+			return CompletableFuture
+					.supplyAsync(() -> circuitBreaker.run(() -> CompletableFuture.completedFuture(toRun.get()),
+							fallback), executor)
+					.thenCompose(Function.identity());
+		}
+		catch (RejectedExecutionException exception) {
+			return fallback.apply(exception);
+		}
+	}
+
+	/**
+	 * A blocking {@link CircuitBreaker} can only observe the outcome of a call it waits
+	 * for, so a thread of the executor waits for the non-blocking call to complete.
+	 */
+	@Override
+	public <T> CompletableFuture<T> runNonBlocking(String circuitName, String groupName,
+			Supplier<CompletableFuture<T>> toRun, Function<Throwable, CompletableFuture<T>> fallback) {
+		return run(circuitName, groupName, () -> await(toRun.get()), fallback);
+	}
+
+	private static <T> T await(CompletableFuture<T> future) {
+		try {
+			return future.join();
+		}
+		catch (CompletionException exception) {
+			Throwable cause = exception.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw exception;
+		}
+	}
+
+	@Override
+	public void destroy() {
+		if (executor instanceof ExecutorService) {
+			((ExecutorService) executor).shutdown();
+		}
+	}
+
+}
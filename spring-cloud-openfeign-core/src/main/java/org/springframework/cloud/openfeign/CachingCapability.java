@@ -30,13 +30,25 @@ public class CachingCapability implements Capability {
 
 	private final CacheInterceptor cacheInterceptor;
 
+	private final FeignCacheRefresher cacheRefresher;
+
 	public CachingCapability(CacheInterceptor cacheInterceptor) {
+		this(cacheInterceptor, null);
+	}
+
+	/**
+	 * @param cacheInterceptor the interceptor applying the @Cache* annotations
+	 * @param cacheRefresher refreshes cached results ahead of their expiry, may be
+	 * {@code null}
+	 */
+	public CachingCapability(CacheInterceptor cacheInterceptor, FeignCacheRefresher cacheRefresher) {
 		this.cacheInterceptor = cacheInterceptor;
+		this.cacheRefresher = cacheRefresher;
 	}
 
 	@Override
 	public InvocationHandlerFactory enrich(InvocationHandlerFactory invocationHandlerFactory) {
-		return new FeignCachingInvocationHandlerFactory(invocationHandlerFactory, cacheInterceptor);
+		return new FeignCachingInvocationHandlerFactory(invocationHandlerFactory, cacheInterceptor, cacheRefresher);
 	}
 
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs Feign methods returning {@link CompletableFuture} through a circuit breaker. The
+ * calling thread only receives the future and never waits for the call or for the
+ * circuit breaker's time limiter.
+ */
+interface FeignAsyncCircuitBreaker {
+
+	/**
+	 * Executes the given call through the circuit breaker with the given name.
+	 * @param circuitName name of the circuit breaker
+	 * @param groupName group of the circuit breaker, {@code null} if groups are disabled
+	 * @param toRun the blocking Feign call
+	 * @param fallback invoked with the failure cause when the call fails or is rejected
+	 * @param <T> the result type
+	 * @return a future completed with the result of the call or of the fallback
+	 */
+	<T> CompletableFuture<T> run(String circuitName, String groupName, Supplier<T> toRun,
+			Function<Throwable, CompletableFuture<T>> fallback);
+
+	/**
+	 * Executes the given non-blocking call through the circuit breaker with the given
+	 * name. The call is started on the calling thread and its outcome is recorded once
+	 * the future it returns completes.
+	 * @param circuitName name of the circuit breaker
+	 * @param groupName group of the circuit breaker, {@code null} if groups are disabled
+	 * @param toRun starts the Feign call and returns its future without blocking
+	 * @param fallback invoked with the failure cause when the call fails or is rejected
+	 * @param <T> the result type
+	 * @return a future completed with the result of the call or of the fallback
+	 */
+	<T> CompletableFuture<T> runNonBlocking(String circuitName, String groupName,
+			Supplier<CompletableFuture<T>> toRun, Function<Throwable, CompletableFuture<T>> fallback);
+
+}
@@ -20,23 +20,31 @@ import java.io.IOException;
 import java.lang.reflect.Method;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import javax.annotation.PreDestroy;
 
 import com.fasterxml.jackson.databind.Module;
+import feign.AsyncClient;
 import feign.Capability;
 import feign.Client;
 import feign.Feign;
 import feign.RequestInterceptor;
 import feign.Target;
 import feign.hc5.ApacheHttp5Client;
+import feign.hc5.AsyncApacheHttp5Client;
 import feign.httpclient.ApacheHttpClient;
 import feign.okhttp.OkHttpClient;
 import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.http.client.HttpClient;
@@ -45,6 +53,9 @@ import org.apache.http.config.RegistryBuilder;
 import org.apache.http.conn.HttpClientConnectionManager;
 import org.apache.http.impl.client.CloseableHttpClient;
 
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
@@ -56,24 +67,56 @@ import org.springframework.cache.interceptor.CacheInterceptor;
 import org.springframework.cloud.client.actuator.HasFeatures;
 import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
 import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFactory;
 import org.springframework.cloud.client.loadbalancer.LoadBalancerInterceptor;
 import org.springframework.cloud.client.loadbalancer.RetryLoadBalancerInterceptor;
 import org.springframework.cloud.commons.httpclient.ApacheHttpClientConnectionManagerFactory;
 import org.springframework.cloud.commons.httpclient.ApacheHttpClientFactory;
 import org.springframework.cloud.commons.httpclient.OkHttpClientConnectionPoolFactory;
 import org.springframework.cloud.commons.httpclient.OkHttpClientFactory;
+import org.springframework.cloud.openfeign.batch.FeignBatchExecutor;
+import org.springframework.cloud.openfeign.batch.FeignBatchMetrics;
+import org.springframework.cloud.openfeign.bulkhead.FeignBulkheadMetrics;
+import org.springframework.cloud.openfeign.bulkhead.FeignBulkheadRegistry;
+import org.springframework.cloud.openfeign.httpcache.FeignHttpCacheProperties;
+import org.springframework.cloud.openfeign.httpcache.HttpCacheMetrics;
+import org.springframework.cloud.openfeign.httpcache.HttpCacheStore;
+import org.springframework.cloud.openfeign.httpcache.HttpCachingCapability;
+import org.springframework.cloud.openfeign.httpcache.InMemoryHttpCacheStore;
+import org.springframework.cloud.openfeign.httpcache.MappedHttpCacheStore;
+import org.springframework.cloud.openfeign.httpcache.OffHeapHttpCacheStore;
+import org.springframework.cloud.openfeign.httpcache.TieredHttpCacheStore;
+import org.springframework.cloud.openfeign.memoization.FeignMemoizationScope;
+import org.springframework.cloud.openfeign.memoization.RequestAttributesMemoizationScope;
+import org.springframework.cloud.openfeign.memoization.RequestMemoizationCapability;
+import org.springframework.cloud.openfeign.propagation.CompositeFeignContextPropagator;
+import org.springframework.cloud.openfeign.propagation.FeignContextPropagator;
+import org.springframework.cloud.openfeign.propagation.FeignContextPropagator.Scope;
+import org.springframework.cloud.openfeign.propagation.MdcContextPropagator;
+import org.springframework.cloud.openfeign.propagation.RequestAttributesContextPropagator;
+import org.springframework.cloud.openfeign.propagation.SecurityContextPropagator;
+import org.springframework.cloud.openfeign.reactive.AsyncReactiveFeignClient;
+import org.springframework.cloud.openfeign.reactive.BlockingReactiveFeignClient;
+import org.springframework.cloud.openfeign.reactive.ReactiveFeignClient;
+import org.springframework.cloud.openfeign.reactive.ReactorNettyClient;
 import org.springframework.cloud.openfeign.security.OAuth2FeignRequestInterceptor;
 import org.springframework.cloud.openfeign.security.OAuth2FeignRequestInterceptorConfigurer;
+import org.springframework.cloud.openfeign.streaming.OkHttpStreamingRequestInterceptor;
+import org.springframework.cloud.openfeign.streaming.StreamingRequests;
+import org.springframework.cloud.openfeign.support.BlockingAsyncClient;
 import org.springframework.cloud.openfeign.support.FeignEncoderProperties;
 import org.springframework.cloud.openfeign.support.FeignHttpClientProperties;
 import org.springframework.cloud.openfeign.support.PageJacksonModule;
+import org.springframework.cloud.openfeign.support.SharedHttp2Client;
 import org.springframework.cloud.openfeign.support.SortJacksonModule;
+import org.springframework.cloud.openfeign.support.VirtualThreads;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.security.oauth2.client.OAuth2ClientContext;
 import org.springframework.security.oauth2.client.resource.OAuth2ProtectedResourceDetails;
 
@@ -97,7 +140,7 @@ import static org.springframework.cloud.openfeign.security.OAuth2FeignRequestInt
 @Configuration(proxyBeanMethods = false)
 @ConditionalOnClass(Feign.class)
 @EnableConfigurationProperties({ FeignClientProperties.class, FeignHttpClientProperties.class,
-		FeignEncoderProperties.class })
+		FeignEncoderProperties.class, FeignHttpCacheProperties.class })
 public class FeignAutoConfiguration {
 
 	private static final Log LOG = LogFactory.getLog(FeignAutoConfiguration.class);
@@ -116,17 +159,152 @@ public class FeignAutoConfiguration {
 	 * 然后按照 FeignClient 单独隔离开，每个 FeignClient 都有自己的上下文来获取装配过程中的所需资源。
 	 */
 	@Bean
-	public FeignContext feignContext() {
+	public FeignContext feignContext(FeignClientProperties properties,
+			@Value("${" + FeignClientsRegistrar.LAZY_INIT_PROPERTY + ":false}") boolean lazyInit) {
 		FeignContext context = new FeignContext();
 		context.setConfigurations(this.configurations);
+		// 配置类和指标设置相同的 FeignClient 共用同一个子容器
+		context.setShareContexts(properties.isShareContexts());
+		// 所有单例创建完成后在线程池中并行创建各个 FeignClient 的子容器并解析接口元数据；懒加载时客户端在首次调用时才创建，不做并行初始化
+		if (properties.getParallelInit().isEnabled() && !lazyInit) {
+			context.setParallelInitialization(properties.getParallelInit().getParallelism());
+		}
 		return context;
 	}
 
+	/**
+	 * 所有单例创建完成后再并行创建各个 FeignClient 的子容器，此时主线程不持有单例锁，不会与子容器的创建互相等待
+	 */
+	@Bean
+	@ConditionalOnProperty(FeignClientsRegistrar.PARALLEL_INIT_PROPERTY)
+	public SmartInitializingSingleton feignContextInitializer(FeignContext feignContext) {
+		return feignContext::initializeContexts;
+	}
+
+	@Bean
+	@ConditionalOnProperty(value = "feign.cache.enabled", matchIfMissing = true)
+	@ConditionalOnBean(CacheInterceptor.class)
+	public Capability cachingCapability(CacheInterceptor cacheInterceptor,
+			ObjectProvider<FeignCacheRefresher> feignCacheRefresher) {
+		FeignCacheRefresher cacheRefresher = feignCacheRefresher.getIfAvailable();
+		return new CachingCapability(cacheInterceptor,
+				cacheRefresher != null && cacheRefresher.hasPolicies() ? cacheRefresher : null);
+	}
+
+	/**
+	 * 在缓存结果即将过期或刚刚过期时于后台刷新，避免调用方等待远程调用
+	 */
 	@Bean
+	@ConditionalOnMissingBean
 	@ConditionalOnProperty(value = "feign.cache.enabled", matchIfMissing = true)
 	@ConditionalOnBean(CacheInterceptor.class)
-	public Capability cachingCapability(CacheInterceptor cacheInterceptor) {
-		return new CachingCapability(cacheInterceptor);
+	public FeignCacheRefresher feignCacheRefresher(FeignClientProperties properties,
+			ObjectProvider<FeignContextPropagator> contextPropagators, BeanFactory beanFactory) {
+		return new FeignCacheRefresher(properties.getCacheRefresh(),
+				new CompositeFeignContextPropagator(contextPropagators.orderedStream().collect(Collectors.toList())),
+				beanFactory);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	public FeignBulkheadRegistry feignBulkheadRegistry() {
+		return new FeignBulkheadRegistry();
+	}
+
+	/**
+	 * 合并 @Batched 方法的并发调用，所有 FeignClient 共享同一个调度线程和执行批量请求的线程池
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	public FeignBatchExecutor feignBatchExecutor(
+			@Value("${" + VirtualThreads.ENABLED_PROPERTY + ":false}") boolean virtualThreads) {
+		if (VirtualThreads.isEnabled(virtualThreads)) {
+			return new FeignBatchExecutor(VirtualThreads.newThreadPerTaskExecutor("feign-batch-"));
+		}
+		return new FeignBatchExecutor();
+	}
+
+	/**
+	 * 按照 HTTP 缓存语义（RFC 9111）缓存响应，所有 FeignClient 共享同一个缓存存储
+	 */
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnProperty("feign.httpcache.enabled")
+	protected static class HttpCacheConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean
+		public HttpCacheStore feignHttpCacheStore(FeignHttpCacheProperties properties) {
+			HttpCacheStore store = properties.getStore() == FeignHttpCacheProperties.StoreType.OFF_HEAP
+					? new OffHeapHttpCacheStore(properties.getMaxSize().toBytes())
+					: new InMemoryHttpCacheStore(properties.getMaxSize().toBytes());
+			FeignHttpCacheProperties.Disk disk = properties.getDisk();
+			if (!disk.isEnabled()) {
+				return store;
+			}
+			// 磁盘层在重启后保留缓存的响应，索引在首次使用时才加载
+			return new TieredHttpCacheStore(store, new MappedHttpCacheStore(disk.getDirectory(),
+					disk.getMaxSize().toBytes(), (int) disk.getSegmentSize().toBytes()));
+		}
+
+		@Bean
+		public Capability httpCachingCapability(HttpCacheStore feignHttpCacheStore,
+				FeignHttpCacheProperties properties) {
+			return new HttpCachingCapability(feignHttpCacheStore, properties.isShared(),
+					properties.getMaxEntrySize().toBytes());
+		}
+
+		@Configuration(proxyBeanMethods = false)
+		@ConditionalOnClass(name = "io.micrometer.core.instrument.binder.MeterBinder")
+		@ConditionalOnProperty(name = "feign.metrics.enabled", matchIfMissing = true)
+		protected static class HttpCacheMetricsConfiguration {
+
+			@Bean
+			@ConditionalOnMissingBean
+			public HttpCacheMetrics feignHttpCacheMetrics(HttpCacheStore feignHttpCacheStore) {
+				return new HttpCacheMetrics(feignHttpCacheStore);
+			}
+
+		}
+
+	}
+
+	/**
+	 * 在一次入站请求内对幂等的 Feign 调用结果做记忆化，相同参数的调用只访问一次服务端
+	 */
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnProperty("feign.memoization.enabled")
+	protected static class MemoizationConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean
+		public FeignMemoizationScope feignMemoizationScope() {
+			return new RequestAttributesMemoizationScope();
+		}
+
+		@Bean
+		public Capability requestMemoizationCapability(FeignMemoizationScope feignMemoizationScope) {
+			return new RequestMemoizationCapability(feignMemoizationScope);
+		}
+
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(name = "io.micrometer.core.instrument.binder.MeterBinder")
+	@ConditionalOnProperty(name = "feign.metrics.enabled", matchIfMissing = true)
+	protected static class FeignBulkheadMetricsConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean
+		public FeignBulkheadMetrics feignBulkheadMetrics(FeignBulkheadRegistry feignBulkheadRegistry) {
+			return new FeignBulkheadMetrics(feignBulkheadRegistry);
+		}
+
+		@Bean
+		@ConditionalOnMissingBean
+		public FeignBatchMetrics feignBatchMetrics(FeignBatchExecutor feignBatchExecutor) {
+			return new FeignBatchMetrics(feignBatchExecutor);
+		}
+
 	}
 
 	@Configuration(proxyBeanMethods = false)
@@ -205,9 +383,94 @@ public class FeignAutoConfiguration {
 		@ConditionalOnBean(CircuitBreakerFactory.class)
 		public Targeter circuitBreakerFeignTargeter(CircuitBreakerFactory circuitBreakerFactory,
 				@Value("${feign.circuitbreaker.group.enabled:false}") boolean circuitBreakerGroupEnabled,
-				CircuitBreakerNameResolver circuitBreakerNameResolver) {
+				CircuitBreakerNameResolver circuitBreakerNameResolver,
+				ObjectProvider<FeignAsyncCircuitBreaker> asyncCircuitBreaker,
+				ObjectProvider<FeignContextPropagator> contextPropagators) {
+			List<FeignContextPropagator> propagators = contextPropagators.orderedStream()
+					.collect(Collectors.toList());
+			FeignContextPropagator contextPropagator = propagators.isEmpty() ? () -> () -> Scope.NOOP
+					: new CompositeFeignContextPropagator(propagators);
 			return new FeignCircuitBreakerTargeter(circuitBreakerFactory, circuitBreakerGroupEnabled,
-					circuitBreakerNameResolver);
+					circuitBreakerNameResolver, asyncCircuitBreaker.getIfAvailable(), contextPropagator);
+		}
+
+		/**
+		 * 用于执行返回 CompletableFuture 的方法，熔断器在独立的有界线程池中执行，调用方线程不会被阻塞
+		 */
+		@Bean
+		@ConditionalOnMissingBean(FeignAsyncCircuitBreaker.class)
+		@ConditionalOnBean(CircuitBreakerFactory.class)
+		public FeignAsyncCircuitBreaker feignAsyncCircuitBreaker(CircuitBreakerFactory circuitBreakerFactory,
+				@Value("${feign.circuitbreaker.async.pool-size:10}") int poolSize,
+				@Value("${feign.circuitbreaker.async.queue-capacity:100}") int queueCapacity,
+				@Value("${" + VirtualThreads.ENABLED_PROPERTY + ":false}") boolean virtualThreads) {
+			return new BlockingFeignAsyncCircuitBreaker(circuitBreakerFactory,
+					asyncCircuitBreakerExecutor(poolSize, queueCapacity, virtualThreads));
+		}
+
+		static ExecutorService asyncCircuitBreakerExecutor(int poolSize, int queueCapacity, boolean virtualThreads) {
+			if (VirtualThreads.isEnabled(virtualThreads)) {
+				// 虚拟线程阻塞时不占用平台线程，每个调用使用一个新的虚拟线程，不再需要线程池和队列
+				return VirtualThreads.newThreadPerTaskExecutor("feign-circuitbreaker-");
+			}
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+					new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("feign-circuitbreaker-"));
+			executor.allowCoreThreadTimeOut(true);
+			return executor;
+		}
+
+		/**
+		 * 熔断器在其他线程中执行时，只传递需要的上下文（请求属性、MDC、安全上下文），执行完成后恢复并清理
+		 */
+		@Configuration(proxyBeanMethods = false)
+		protected static class ContextPropagationConfiguration {
+
+			@Bean
+			@ConditionalOnClass(name = "org.springframework.web.context.request.RequestContextHolder")
+			@ConditionalOnProperty(value = "feign.circuitbreaker.context-propagation.request-attributes.enabled",
+					matchIfMissing = true)
+			public FeignContextPropagator requestAttributesContextPropagator() {
+				return new RequestAttributesContextPropagator();
+			}
+
+			@Bean
+			@ConditionalOnClass(name = "org.slf4j.MDC")
+			@ConditionalOnProperty("feign.circuitbreaker.context-propagation.mdc-keys")
+			public FeignContextPropagator mdcContextPropagator(
+					@Value("${feign.circuitbreaker.context-propagation.mdc-keys}") String[] mdcKeys) {
+				return new MdcContextPropagator(Arrays.asList(mdcKeys));
+			}
+
+			@Bean
+			@ConditionalOnClass(name = "org.springframework.security.core.context.SecurityContextHolder")
+			@ConditionalOnProperty(value = "feign.circuitbreaker.context-propagation.security-context.enabled",
+					havingValue = "true")
+			public FeignContextPropagator securityContextPropagator() {
+				return new SecurityContextPropagator();
+			}
+
+		}
+
+		/**
+		 * Prefers a {@link ReactiveCircuitBreakerFactory} when one is available, so that
+		 * time limits are enforced without parking a thread per call.
+		 */
+		@Configuration(proxyBeanMethods = false)
+		@ConditionalOnClass(name = "reactor.core.publisher.Mono")
+		@ConditionalOnBean(ReactiveCircuitBreakerFactory.class)
+		protected static class ReactiveAsyncCircuitBreakerConfiguration {
+
+			@Bean
+			@ConditionalOnMissingBean(FeignAsyncCircuitBreaker.class)
+			public FeignAsyncCircuitBreaker reactiveFeignAsyncCircuitBreaker(
+					ReactiveCircuitBreakerFactory<?, ?> reactiveCircuitBreakerFactory,
+					@Value("${feign.circuitbreaker.async.pool-size:10}") int poolSize,
+					@Value("${feign.circuitbreaker.async.queue-capacity:100}") int queueCapacity,
+					@Value("${" + VirtualThreads.ENABLED_PROPERTY + ":false}") boolean virtualThreads) {
+				return new ReactiveFeignAsyncCircuitBreaker(reactiveCircuitBreakerFactory,
+						asyncCircuitBreakerExecutor(poolSize, queueCapacity, virtualThreads));
+			}
+
 		}
 
 		static class DefaultCircuitBreakerNameResolver implements CircuitBreakerNameResolver {
@@ -234,6 +497,79 @@ public class FeignAutoConfiguration {
 
 	/* --------------------------------- Client注入开始 ------------------------------------ */
 
+	// =============== Http2Client ===============
+	// once enabled, this takes precedence over the Apache HttpClient enabled by default,
+	// see Http2ClientDisabledConditions.
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(name = { "feign.http2client.Http2Client", "java.net.http.HttpClient" })
+	@ConditionalOnProperty(value = "feign.http2client.enabled", havingValue = "true")
+	@Import(org.springframework.cloud.openfeign.clientconfig.Http2ClientFeignConfiguration.class)
+	protected static class Http2ClientFeignConfiguration {
+
+		// 注入基于 JDK HttpClient 的 Client 实现，所有 FeignClient 共享同一个支持 HTTP/2 多路复用的 HttpClient
+		@Bean
+		@ConditionalOnMissingBean(Client.class)
+		public Client feignClient(java.net.http.HttpClient http2Client) {
+			return new SharedHttp2Client(http2Client);
+		}
+
+	}
+
+	// =============== AsyncApacheHttp5Client ===============
+	// once enabled, this takes precedence over the Apache HttpClient enabled by default,
+	// see AsyncHttpClient5DisabledConditions.
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(AsyncApacheHttp5Client.class)
+	@ConditionalOnProperty(value = "feign.httpclient.hc5.async.enabled", havingValue = "true")
+	@Import(org.springframework.cloud.openfeign.clientconfig.AsyncHttpClient5FeignConfiguration.class)
+	protected static class AsyncHttpClient5FeignConfiguration {
+
+		// 注入基于 CloseableHttpAsyncClient 的 Client 实现，阻塞调用与异步调用共享同一组 I/O 线程
+		@Bean
+		@ConditionalOnMissingBean(Client.class)
+		public Client feignClient(AsyncClient<?> feignAsyncClient) {
+			return new BlockingAsyncClient(feignAsyncClient);
+		}
+
+		// 返回 CompletableFuture、Mono、Flux 的方法直接使用 AsyncClient 执行，不再占用调用线程
+		@Configuration(proxyBeanMethods = false)
+		@ConditionalOnClass(name = "reactor.core.publisher.Mono")
+		protected static class AsyncReactiveFeignClientConfiguration {
+
+			@Bean
+			@ConditionalOnMissingBean(ReactiveFeignClient.class)
+			public ReactiveFeignClient reactiveFeignClient(AsyncClient<?> feignAsyncClient) {
+				return new AsyncReactiveFeignClient(feignAsyncClient);
+			}
+
+		}
+
+	}
+
+	// =============== ReactorNettyClient ===============
+	// once enabled, this takes precedence over the Apache HttpClient enabled by default,
+	// see ReactorNettyDisabledConditions.
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(name = "reactor.netty.http.client.HttpClient")
+	@ConditionalOnProperty(value = "feign.reactor-netty.enabled", havingValue = "true")
+	@Import(org.springframework.cloud.openfeign.clientconfig.ReactorNettyFeignConfiguration.class)
+	protected static class ReactorNettyFeignConfiguration {
+
+		// 注入基于 Reactor Netty 的非阻塞 Client，返回 Mono/Flux 的方法直接使用，其余方法通过阻塞桥接调用
+		@Bean
+		@ConditionalOnMissingBean(ReactiveFeignClient.class)
+		public ReactiveFeignClient reactiveFeignClient(reactor.netty.http.client.HttpClient reactorNettyHttpClient) {
+			return new ReactorNettyClient(reactorNettyHttpClient);
+		}
+
+		@Bean
+		@ConditionalOnMissingBean(Client.class)
+		public Client feignClient(ReactiveFeignClient reactiveFeignClient) {
+			return new BlockingReactiveFeignClient(reactiveFeignClient);
+		}
+
+	}
+
 	// ============= ApacheHttpClient ===========
 	// the following configuration is for alternate feign clients if
 	// SC loadbalancer is not on the class path.
@@ -243,7 +579,8 @@ public class FeignAutoConfiguration {
 	@ConditionalOnClass(ApacheHttpClient.class)
 	@ConditionalOnMissingBean(CloseableHttpClient.class)
 	@ConditionalOnProperty(value = "feign.httpclient.enabled", matchIfMissing = true)
-	@Conditional(HttpClient5DisabledConditions.class)
+	@Conditional({ HttpClient5DisabledConditions.class, Http2ClientDisabledConditions.class,
+			AsyncHttpClient5DisabledConditions.class, ReactorNettyDisabledConditions.class })
 	protected static class HttpClientFeignConfiguration {
 
 		private final Timer connectionManagerTimer = new Timer(
@@ -329,14 +666,22 @@ public class FeignAutoConfiguration {
 
 		@Bean
 		public okhttp3.OkHttpClient client(OkHttpClientFactory httpClientFactory, ConnectionPool connectionPool,
-				FeignHttpClientProperties httpClientProperties) {
+				FeignHttpClientProperties httpClientProperties,
+				@Value("${" + VirtualThreads.ENABLED_PROPERTY + ":false}") boolean virtualThreads) {
 			boolean followRedirects = httpClientProperties.isFollowRedirects();
 			int connectTimeout = httpClientProperties.getConnectionTimeout();
 			boolean disableSslValidation = httpClientProperties.isDisableSslValidation();
 			Duration readTimeout = httpClientProperties.getOkHttp().getReadTimeout();
-			this.okHttpClient = httpClientFactory.createBuilder(disableSslValidation)
+			okhttp3.OkHttpClient.Builder builder = httpClientFactory.createBuilder(disableSslValidation)
 					.connectTimeout(connectTimeout, TimeUnit.MILLISECONDS).followRedirects(followRedirects)
-					.readTimeout(readTimeout).connectionPool(connectionPool).build();
+					.readTimeout(readTimeout).connectionPool(connectionPool)
+					// 流式请求体在调用线程上写入连接
+					.addInterceptor(new OkHttpStreamingRequestInterceptor());
+			if (VirtualThreads.isEnabled(virtualThreads)) {
+				// OkHttp 分发器执行的异步调用改为使用虚拟线程
+				builder.dispatcher(new Dispatcher(VirtualThreads.newThreadPerTaskExecutor("feign-okhttp-")));
+			}
+			this.okHttpClient = builder.build();
 			return this.okHttpClient;
 		}
 
@@ -355,6 +700,11 @@ public class FeignAutoConfiguration {
 			return new OkHttpClient(client);
 		}
 
+		@Bean
+		public StreamingRequests.Transport feignOkHttpStreamingRequestTransport() {
+			return new StreamingRequests.Transport(OkHttpClient.class);
+		}
+
 	}
 
 	// =============== ApacheHttp5Client ===============
@@ -0,0 +1,412 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.interceptor.CacheInterceptor;
+import org.springframework.cache.interceptor.CacheOperation;
+import org.springframework.cache.interceptor.CacheOperationSource;
+import org.springframework.cache.interceptor.CachePutOperation;
+import org.springframework.cache.interceptor.CacheableOperation;
+import org.springframework.cloud.openfeign.propagation.FeignContextPropagator;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Refreshes the results of {@code @Cacheable} Feign client methods before, or shortly
+ * after, they expire, so callers of hot methods do not wait for the remote call. For
+ * every cache configured under {@code feign.client.cache-refresh.caches}, the time each
+ * result was loaded is tracked: a result read within {@code refresh-ahead} of its
+ * {@code ttl}, or less than {@code grace} after it, is returned immediately while a
+ * single background refresh puts a new result in the cache. Older results are loaded
+ * again on the calling thread.
+ * <p>
+ * Refreshes are computed with the key, condition and {@code unless} expressions of the
+ * {@code @Cacheable} operation, as if the method was annotated with {@code @CachePut}.
+ */
+public class FeignCacheRefresher implements DisposableBean {
+
+	private static final Log LOG = LogFactory.getLog(FeignCacheRefresher.class);
+
+	private static final int PURGE_INTERVAL = 1024;
+
+	private final Map<String, FeignClientProperties.CachePolicy> caches;
+
+	private final Executor executor;
+
+	private final FeignContextPropagator contextPropagator;
+
+	private final BeanFactory beanFactory;
+
+	private final Clock clock;
+
+	private final ConcurrentMap<Method, Optional<Policy>> policies = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<LoadKey, Load> loads = new ConcurrentHashMap<>();
+
+	private final AtomicInteger recorded = new AtomicInteger();
+
+	private final Lock lock = new ReentrantLock();
+
+	private volatile CacheInterceptor refreshingInterceptor;
+
+	public FeignCacheRefresher(FeignClientProperties.CacheRefreshProperties properties,
+			FeignContextPropagator contextPropagator, BeanFactory beanFactory) {
+		this(properties.getCaches(), newExecutor(properties), contextPropagator, beanFactory, Clock.systemUTC());
+	}
+
+	FeignCacheRefresher(Map<String, FeignClientProperties.CachePolicy> caches, Executor executor,
+			FeignContextPropagator contextPropagator, BeanFactory beanFactory, Clock clock) {
+		this.caches = caches;
+		this.executor = executor;
+		this.contextPropagator = contextPropagator;
+		this.beanFactory = beanFactory;
+		this.clock = clock;
+	}
+
+	/**
+	 * @return {@code true} if refresh settings are configured for at least one cache
+	 */
+	public boolean hasPolicies() {
+		return caches.values().stream().anyMatch(policy -> policy.getTtl() != null);
+	}
+
+	/**
+	 * @param cacheName the name of a cache
+	 * @return {@code true} if refresh settings are configured for the cache
+	 */
+	boolean hasPolicy(String cacheName) {
+		FeignClientProperties.CachePolicy policy = caches.get(cacheName);
+		return policy != null && policy.getTtl() != null;
+	}
+
+	/**
+	 * Invokes a Feign client method through the cache interceptor, refreshing its cached
+	 * result when it is about to expire or expired.
+	 * @param cacheInterceptor the interceptor applying the {@code @Cache*} annotations
+	 * @param invocation the invocation of the Feign client method
+	 * @return the result of the method
+	 * @throws Throwable if the method fails
+	 */
+	Object invoke(CacheInterceptor cacheInterceptor, MethodInvocation invocation) throws Throwable {
+		Policy policy = policies.computeIfAbsent(invocation.getMethod(),
+				method -> Optional.ofNullable(policy(cacheInterceptor, method, invocation.getThis().getClass())))
+				.orElse(null);
+		if (policy == null) {
+			return cacheInterceptor.invoke(invocation);
+		}
+		LoadKey key = new LoadKey(invocation.getMethod(), invocation.getArguments());
+		Load load = loads.get(key);
+		long now = clock.millis();
+		if (load != null && now - load.time >= policy.ttl + policy.grace) {
+			return refreshingInterceptor(cacheInterceptor).invoke(new LoadingInvocation(invocation, key, policy));
+		}
+		if (load != null && now - load.time >= policy.ttl - policy.refreshAhead) {
+			refreshInBackground(cacheInterceptor, invocation, key, policy, load);
+		}
+		Object result = cacheInterceptor.invoke(new LoadingInvocation(invocation, key, policy));
+		if (load == null) {
+			// a result cached before it could be tracked, for instance by a
+			// previous run of the application, is considered loaded when it is
+			// first read
+			loads.putIfAbsent(key, new Load(now, policy));
+		}
+		return result;
+	}
+
+	private void refreshInBackground(CacheInterceptor cacheInterceptor, MethodInvocation invocation, LoadKey key,
+			Policy policy, Load load) {
+		if (!load.refreshing.compareAndSet(false, true)) {
+			return;
+		}
+		FeignContextPropagator.Snapshot snapshot = contextPropagator.capture();
+		try {
+			executor.execute(() -> {
+				try (FeignContextPropagator.Scope scope = snapshot.restore()) {
+					refreshingInterceptor(cacheInterceptor).invoke(new LoadingInvocation(invocation, key, policy));
+				}
+				catch (Throwable e) {
+					LOG.debug("Background refresh of " + invocation.getMethod() + " failed", e);
+				}
+				finally {
+					load.refreshing.set(false);
+				}
+			});
+		}
+		catch (RejectedExecutionException e) {
+			load.refreshing.set(false);
+			LOG.debug("Background refresh of " + invocation.getMethod() + " skipped, the refresh queue is full");
+		}
+	}
+
+	private void loaded(LoadKey key, Policy policy) {
+		long now = clock.millis();
+		loads.put(key, new Load(now, policy));
+		if (recorded.incrementAndGet() % PURGE_INTERVAL == 0) {
+			loads.values().removeIf(load -> now - load.time >= load.maxAge);
+		}
+	}
+
+	private Policy policy(CacheInterceptor cacheInterceptor, Method method, Class<?> targetClass) {
+		CacheOperationSource source = cacheInterceptor.getCacheOperationSource();
+		Collection<CacheOperation> operations = source != null ? source.getCacheOperations(method, targetClass)
+				: null;
+		if (operations == null) {
+			return null;
+		}
+		for (CacheOperation operation : operations) {
+			if (!(operation instanceof CacheableOperation)) {
+				continue;
+			}
+			for (String cacheName : operation.getCacheNames()) {
+				FeignClientProperties.CachePolicy policy = caches.get(cacheName);
+				if (policy != null && policy.getTtl() != null) {
+					return new Policy(policy);
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * The refreshing interceptor shares the caches, key generator and error handler of
+	 * the application's interceptor, and turns every {@code @Cacheable} operation into a
+	 * {@code @CachePut} one.
+	 */
+	private CacheInterceptor refreshingInterceptor(CacheInterceptor cacheInterceptor) {
+		CacheInterceptor interceptor = refreshingInterceptor;
+		if (interceptor == null) {
+			lock.lock();
+			try {
+				interceptor = refreshingInterceptor;
+				if (interceptor == null) {
+					interceptor = new CacheInterceptor();
+					interceptor.setCacheOperationSource(
+							new RefreshingOperationSource(cacheInterceptor.getCacheOperationSource()));
+					interceptor.setKeyGenerator(cacheInterceptor.getKeyGenerator());
+					interceptor.setCacheResolver(cacheInterceptor.getCacheResolver());
+					interceptor.setErrorHandler(cacheInterceptor.getErrorHandler());
+					if (beanFactory != null) {
+						interceptor.setBeanFactory(beanFactory);
+					}
+					interceptor.afterPropertiesSet();
+					interceptor.afterSingletonsInstantiated();
+					refreshingInterceptor = interceptor;
+				}
+			}
+			finally {
+				lock.unlock();
+			}
+		}
+		return interceptor;
+	}
+
+	@Override
+	public void destroy() {
+		if (executor instanceof ExecutorService) {
+			((ExecutorService) executor).shutdown();
+		}
+	}
+
+	private static ExecutorService newExecutor(FeignClientProperties.CacheRefreshProperties properties) {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("feign-cache-refresh-");
+		threadFactory.setDaemon(true);
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(), 60,
+				TimeUnit.SECONDS, new LinkedBlockingQueue<>(properties.getQueueCapacity()), threadFactory,
+				new ThreadPoolExecutor.AbortPolicy());
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	private static final class Policy {
+
+		private final long ttl;
+
+		private final long refreshAhead;
+
+		private final long grace;
+
+		private Policy(FeignClientProperties.CachePolicy policy) {
+			this.ttl = policy.getTtl().toMillis();
+			this.refreshAhead = Math.min(ttl, millis(policy.getRefreshAhead()));
+			this.grace = millis(policy.getGrace());
+		}
+
+		private static long millis(Duration duration) {
+			return duration != null ? duration.toMillis() : 0;
+		}
+
+	}
+
+	private static final class Load {
+
+		private final long time;
+
+		private final long maxAge;
+
+		private final AtomicBoolean refreshing = new AtomicBoolean();
+
+		private Load(long time, Policy policy) {
+			this.time = time;
+			this.maxAge = policy.ttl + policy.grace;
+		}
+
+	}
+
+	private static final class LoadKey {
+
+		private final Method method;
+
+		private final Object[] arguments;
+
+		private final int hashCode;
+
+		private LoadKey(Method method, Object[] arguments) {
+			this.method = method;
+			this.arguments = arguments.clone();
+			this.hashCode = 31 * method.hashCode() + Arrays.deepHashCode(this.arguments);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof LoadKey)) {
+				return false;
+			}
+			LoadKey that = (LoadKey) o;
+			return method.equals(that.method) && Arrays.deepEquals(arguments, that.arguments);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+	}
+
+	/**
+	 * Records the time the result is loaded when the method is actually called.
+	 */
+	private final class LoadingInvocation implements MethodInvocation {
+
+		private final MethodInvocation invocation;
+
+		private final LoadKey key;
+
+		private final Policy policy;
+
+		private LoadingInvocation(MethodInvocation invocation, LoadKey key, Policy policy) {
+			this.invocation = invocation;
+			this.key = key;
+			this.policy = policy;
+		}
+
+		@Override
+		public Method getMethod() {
+			return invocation.getMethod();
+		}
+
+		@Override
+		public Object[] getArguments() {
+			return invocation.getArguments();
+		}
+
+		@Override
+		public Object proceed() throws Throwable {
+			Object result = invocation.proceed();
+			loaded(key, policy);
+			return result;
+		}
+
+		@Override
+		public Object getThis() {
+			return invocation.getThis();
+		}
+
+		@Override
+		public AccessibleObject getStaticPart() {
+			return invocation.getStaticPart();
+		}
+
+	}
+
+	private static final class RefreshingOperationSource implements CacheOperationSource {
+
+		private final CacheOperationSource source;
+
+		private RefreshingOperationSource(CacheOperationSource source) {
+			this.source = source;
+		}
+
+		@Override
+		public Collection<CacheOperation> getCacheOperations(Method method, Class<?> targetClass) {
+			Collection<CacheOperation> operations = source != null ? source.getCacheOperations(method, targetClass)
+					: null;
+			if (operations == null) {
+				return null;
+			}
+			List<CacheOperation> puts = new ArrayList<>();
+			for (CacheOperation operation : operations) {
+				if (operation instanceof CacheableOperation) {
+					CacheableOperation cacheable = (CacheableOperation) operation;
+					CachePutOperation.Builder put = new CachePutOperation.Builder();
+					put.setName(cacheable.getName());
+					put.setCacheNames(cacheable.getCacheNames().toArray(new String[0]));
+					put.setKey(cacheable.getKey());
+					put.setKeyGenerator(cacheable.getKeyGenerator());
+					put.setCacheManager(cacheable.getCacheManager());
+					put.setCacheResolver(cacheable.getCacheResolver());
+					put.setCondition(cacheable.getCondition());
+					put.setUnless(cacheable.getUnless());
+					puts.add(put.build());
+				}
+			}
+			return puts.isEmpty() ? null : puts;
+		}
+
+	}
+
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.CacheErrorHandler;
+import org.springframework.cache.interceptor.CacheInterceptor;
+import org.springframework.cache.interceptor.CacheOperation;
+import org.springframework.cache.interceptor.CacheOperationSource;
+import org.springframework.cache.interceptor.CacheResolver;
+import org.springframework.cache.interceptor.CacheableOperation;
+import org.springframework.cache.interceptor.SimpleCacheResolver;
+import org.springframework.cache.interceptor.SimpleKeyGenerator;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@code @Cacheable} metadata of a Feign client method, parsed once when the client is
+ * created. The key is computed by direct access to the arguments instead of evaluating a
+ * SpEL expression on each call. Only the methods with a single {@code @Cacheable}
+ * operation without {@code condition}, {@code unless}, {@code sync} or custom key
+ * generator, cache manager or cache resolver, and whose key is either the default one or
+ * a reference to a single argument ({@code #name}, {@code #p0}, {@code #a0} or
+ * {@code #root.args[0]}), are compiled; all others are handled by the
+ * {@link CacheInterceptor}.
+ */
+final class FeignCacheableMethod {
+
+	private static final Pattern ARGUMENT_INDEX = Pattern.compile("#(?:p|a|root\\.args\\[)(\\d+)]?");
+
+	private static final Pattern ARGUMENT_NAME = Pattern.compile("#([a-zA-Z_$][\\w$]*)");
+
+	private static final ParameterNameDiscoverer PARAMETER_NAMES = new DefaultParameterNameDiscoverer();
+
+	private final String[] cacheNames;
+
+	private final Function<Object[], Object> keyFunction;
+
+	private final boolean defaultKey;
+
+	private final boolean optional;
+
+	private volatile Cache[] caches;
+
+	private volatile boolean unsupported;
+
+	private FeignCacheableMethod(Method method, String[] cacheNames, Function<Object[], Object> keyFunction) {
+		this.cacheNames = cacheNames;
+		this.keyFunction = keyFunction != null ? keyFunction : SimpleKeyGenerator::generateKey;
+		this.defaultKey = keyFunction == null;
+		this.optional = method.getReturnType() == Optional.class;
+	}
+
+	/**
+	 * @param method a Feign client method
+	 * @param targetClass the class the cache operations are looked up for
+	 * @param cacheInterceptor the interceptor applying the {@code @Cache*} annotations
+	 * @return the compiled metadata of the method, or {@code null} if the method is not
+	 * cached or has to be handled by the interceptor
+	 */
+	static FeignCacheableMethod compile(Method method, Class<?> targetClass, CacheInterceptor cacheInterceptor) {
+		CacheOperationSource source = cacheInterceptor.getCacheOperationSource();
+		if (source == null) {
+			return null;
+		}
+		Collection<CacheOperation> operations = source.getCacheOperations(method, targetClass);
+		if (operations == null || operations.size() != 1
+				|| !(operations.iterator().next() instanceof CacheableOperation)) {
+			return null;
+		}
+		CacheableOperation operation = (CacheableOperation) operations.iterator().next();
+		if (operation.isSync() || StringUtils.hasText(operation.getCondition())
+				|| StringUtils.hasText(operation.getUnless()) || StringUtils.hasText(operation.getKeyGenerator())
+				|| StringUtils.hasText(operation.getCacheManager())
+				|| StringUtils.hasText(operation.getCacheResolver()) || operation.getCacheNames().isEmpty()) {
+			return null;
+		}
+		String[] cacheNames = operation.getCacheNames().toArray(new String[0]);
+		if (!StringUtils.hasText(operation.getKey())) {
+			return new FeignCacheableMethod(method, cacheNames, null);
+		}
+		int index = argumentIndex(method, operation.getKey().trim());
+		if (index < 0) {
+			return null;
+		}
+		return new FeignCacheableMethod(method, cacheNames, args -> args[index]);
+	}
+
+	private static int argumentIndex(Method method, String key) {
+		Matcher matcher = ARGUMENT_INDEX.matcher(key);
+		if (matcher.matches() && (key.startsWith("#root") == key.endsWith("]"))) {
+			int index = Integer.parseInt(matcher.group(1));
+			return index < method.getParameterCount() ? index : -1;
+		}
+		matcher = ARGUMENT_NAME.matcher(key);
+		// #root and #this never refer to an argument
+		if (matcher.matches() && !"root".equals(matcher.group(1)) && !"this".equals(matcher.group(1))) {
+			String[] names = PARAMETER_NAMES.getParameterNames(method);
+			if (names != null) {
+				for (int i = 0; i < names.length; i++) {
+					if (matcher.group(1).equals(names[i])) {
+						return i;
+					}
+				}
+			}
+		}
+		return -1;
+	}
+
+	String[] getCacheNames() {
+		return cacheNames;
+	}
+
+	/**
+	 * @param args the arguments of the invocation
+	 * @return the cache key, or {@code null} if it cannot be computed here
+	 */
+	Object key(Object[] args) {
+		return keyFunction.apply(args);
+	}
+
+	/**
+	 * Resolves the caches on first use, since the interceptor is only fully configured
+	 * once all singletons are instantiated.
+	 * @param cacheInterceptor the interceptor applying the {@code @Cache*} annotations
+	 * @return the caches of the method, or {@code null} if the invocation has to be
+	 * handled by the interceptor
+	 */
+	Cache[] caches(CacheInterceptor cacheInterceptor) {
+		Cache[] resolved = caches;
+		if (resolved != null || unsupported) {
+			return resolved;
+		}
+		CacheResolver cacheResolver = cacheInterceptor.getCacheResolver();
+		if (cacheResolver == null) {
+			return null;
+		}
+		if (cacheResolver.getClass() != SimpleCacheResolver.class
+				|| (defaultKey && cacheInterceptor.getKeyGenerator().getClass() != SimpleKeyGenerator.class)) {
+			unsupported = true;
+			return null;
+		}
+		CacheManager cacheManager = ((SimpleCacheResolver) cacheResolver).getCacheManager();
+		resolved = new Cache[cacheNames.length];
+		for (int i = 0; i < cacheNames.length; i++) {
+			resolved[i] = cacheManager.getCache(cacheNames[i]);
+			if (resolved[i] == null) {
+				return null;
+			}
+		}
+		caches = resolved;
+		return resolved;
+	}
+
+	/**
+	 * Returns the cached result of the invocation, or proceeds with it and caches its
+	 * result, the way the {@link CacheInterceptor} does for a {@code @Cacheable} method.
+	 * @param cacheInterceptor the interceptor whose error handler is used
+	 * @param caches the caches of the method
+	 * @param key the cache key
+	 * @param invocation the invocation of the Feign client method
+	 * @return the result of the method
+	 * @throws Throwable if the method fails
+	 */
+	Object invoke(CacheInterceptor cacheInterceptor, Cache[] caches, Object key, Invocation invocation)
+			throws Throwable {
+		CacheErrorHandler errorHandler = cacheInterceptor.getErrorHandler();
+		for (Cache cache : caches) {
+			Cache.ValueWrapper cached = get(errorHandler, cache, key);
+			if (cached != null) {
+				Object value = cached.get();
+				return optional && (value == null || value.getClass() != Optional.class) ? Optional.ofNullable(value)
+						: value;
+			}
+		}
+		Object result = invocation.proceed();
+		Object value = ObjectUtils.unwrapOptional(result);
+		for (Cache cache : caches) {
+			try {
+				cache.put(key, value);
+			}
+			catch (RuntimeException e) {
+				errorHandler.handleCachePutError(e, cache, key, value);
+			}
+		}
+		return result;
+	}
+
+	private static Cache.ValueWrapper get(CacheErrorHandler errorHandler, Cache cache, Object key) {
+		try {
+			return cache.get(key);
+		}
+		catch (RuntimeException e) {
+			errorHandler.handleCacheGetError(e, cache, key);
+			return null;
+		}
+	}
+
+	@FunctionalInterface
+	interface Invocation {
+
+		Object proceed() throws Throwable;
+
+	}
+
+}
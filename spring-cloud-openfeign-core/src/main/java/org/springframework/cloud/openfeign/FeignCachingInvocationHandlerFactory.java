@@ -19,13 +19,16 @@ package org.springframework.cloud.openfeign;
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import feign.InvocationHandlerFactory;
 import feign.Target;
 import org.aopalliance.intercept.MethodInvocation;
 
+import org.springframework.cache.Cache;
 import org.springframework.cache.interceptor.CacheInterceptor;
 
 /**
@@ -39,18 +42,36 @@ public class FeignCachingInvocationHandlerFactory implements InvocationHandlerFa
 
 	private final CacheInterceptor cacheInterceptor;
 
+	private final FeignCacheRefresher cacheRefresher;
+
 	public FeignCachingInvocationHandlerFactory(InvocationHandlerFactory delegateFactory,
 			CacheInterceptor cacheInterceptor) {
+		this(delegateFactory, cacheInterceptor, null);
+	}
+
+	public FeignCachingInvocationHandlerFactory(InvocationHandlerFactory delegateFactory,
+			CacheInterceptor cacheInterceptor, FeignCacheRefresher cacheRefresher) {
 		this.delegateFactory = delegateFactory;
 		this.cacheInterceptor = cacheInterceptor;
+		this.cacheRefresher = cacheRefresher;
 	}
 
 	@Override
 	public InvocationHandler create(Target target, Map<Method, MethodHandler> dispatch) {
 		final InvocationHandler delegateHandler = delegateFactory.create(target, dispatch);
+		final Map<Method, FeignCacheableMethod> cacheableMethods = compile(target, dispatch.keySet());
 		return (proxy, method, argsNullable) -> {
 			Object[] args = Optional.ofNullable(argsNullable).orElseGet(() -> new Object[0]);
-			return cacheInterceptor.invoke(new MethodInvocation() {
+			FeignCacheableMethod cacheableMethod = cacheableMethods.get(method);
+			if (cacheableMethod != null) {
+				Cache[] caches = cacheableMethod.caches(cacheInterceptor);
+				Object key = caches != null ? cacheableMethod.key(args) : null;
+				if (key != null) {
+					return cacheableMethod.invoke(cacheInterceptor, caches, key,
+							() -> delegateHandler.invoke(proxy, method, args));
+				}
+			}
+			MethodInvocation invocation = new MethodInvocation() {
 				@Override
 				public Method getMethod() {
 					return method;
@@ -75,8 +96,37 @@ public class FeignCachingInvocationHandlerFactory implements InvocationHandlerFa
 				public AccessibleObject getStaticPart() {
 					return method;
 				}
-			});
+			};
+			return cacheRefresher != null ? cacheRefresher.invoke(cacheInterceptor, invocation)
+					: cacheInterceptor.invoke(invocation);
 		};
 	}
 
+	/**
+	 * Parses the {@code @Cacheable} metadata of the methods once, so that the simple ones
+	 * are cached without going through the interceptor on each call.
+	 */
+	private Map<Method, FeignCacheableMethod> compile(Target target, Set<Method> methods) {
+		Map<Method, FeignCacheableMethod> cacheableMethods = new HashMap<>();
+		for (Method method : methods) {
+			FeignCacheableMethod cacheableMethod = FeignCacheableMethod.compile(method, target.getClass(),
+					cacheInterceptor);
+			if (cacheableMethod != null && !isRefreshed(cacheableMethod)) {
+				cacheableMethods.put(method, cacheableMethod);
+			}
+		}
+		return cacheableMethods;
+	}
+
+	private boolean isRefreshed(FeignCacheableMethod cacheableMethod) {
+		if (cacheRefresher != null) {
+			for (String cacheName : cacheableMethod.getCacheNames()) {
+				if (cacheRefresher.hasPolicy(cacheName)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
 }
@@ -16,11 +16,20 @@
 
 package org.springframework.cloud.openfeign;
 
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import feign.Contract;
 import feign.Feign;
+import feign.MethodMetadata;
 import feign.Target;
+import feign.Util;
 
 import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
 import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.cloud.openfeign.propagation.FeignContextPropagator;
 
 /**
  * 对 feignClient 提供熔断降级功能
@@ -63,6 +72,10 @@ public final class FeignCircuitBreaker {
 
 		private CircuitBreakerNameResolver circuitBreakerNameResolver;
 
+		private FeignAsyncCircuitBreaker asyncCircuitBreaker;
+
+		private FeignContextPropagator contextPropagator;
+
 		Builder circuitBreakerFactory(CircuitBreakerFactory circuitBreakerFactory) {
 			this.circuitBreakerFactory = circuitBreakerFactory;
 			return this;
@@ -83,6 +96,27 @@ public final class FeignCircuitBreaker {
 			return this;
 		}
 
+		Builder asyncCircuitBreaker(FeignAsyncCircuitBreaker asyncCircuitBreaker) {
+			this.asyncCircuitBreaker = asyncCircuitBreaker;
+			return this;
+		}
+
+		Builder contextPropagator(FeignContextPropagator contextPropagator) {
+			this.contextPropagator = contextPropagator;
+			return this;
+		}
+
+		/**
+		 * Methods returning {@link CompletableFuture} are executed asynchronously by
+		 * {@link FeignCircuitBreakerInvocationHandler}, so the response has to be decoded
+		 * into the type wrapped by the future.
+		 */
+		@Override
+		public Builder contract(Contract contract) {
+			super.contract(new AsyncReturnTypeContract(contract));
+			return this;
+		}
+
 		/**
 		 * 以下三个方法分别对应 {@link FeignCircuitBreakerTargeter#target} 中的三种情况
 		 */
@@ -128,7 +162,8 @@ public final class FeignCircuitBreaker {
 			// 这里将 circuitBreakerFactory 等熔断器相关配置都作为参数传到了 InvocationHandler 中，因此它在拦截代理对象的方法调用时可以做很多事。
 			super.invocationHandlerFactory((target, dispatch) -> new FeignCircuitBreakerInvocationHandler(
 					circuitBreakerFactory, feignClientName, target, dispatch, nullableFallbackFactory,
-					circuitBreakerGroupEnabled, circuitBreakerNameResolver
+					circuitBreakerGroupEnabled, circuitBreakerNameResolver, asyncCircuitBreaker,
+					contextPropagator
 				)
 			);
 			// 调用 builder.build() 方法创建 Feign 对象(ReflectiveFeign)，这里要看 openfeign 的源码，去我的 GitHub 看吧
@@ -137,4 +172,31 @@ public final class FeignCircuitBreaker {
 
 	}
 
+	/**
+	 * {@link Contract} resolving the type wrapped by a {@link CompletableFuture} return
+	 * type, so that the decoder produces the value the future is completed with.
+	 */
+	static final class AsyncReturnTypeContract implements Contract {
+
+		private final Contract delegate;
+
+		AsyncReturnTypeContract(Contract delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public List<MethodMetadata> parseAndValidateMetadata(Class<?> targetType) {
+			List<MethodMetadata> metadata = delegate.parseAndValidateMetadata(targetType);
+			for (MethodMetadata methodMetadata : metadata) {
+				Type returnType = methodMetadata.returnType();
+				if (returnType instanceof ParameterizedType
+						&& CompletableFuture.class.equals(((ParameterizedType) returnType).getRawType())) {
+					methodMetadata.returnType(Util.resolveLastTypeParameter(returnType, CompletableFuture.class));
+				}
+			}
+			return metadata;
+		}
+
+	}
+
 }
@@ -22,6 +22,7 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -31,8 +32,9 @@ import feign.Target;
 import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
 import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
 import org.springframework.cloud.client.circuitbreaker.NoFallbackAvailableException;
-import org.springframework.web.context.request.RequestAttributes;
-import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.cloud.openfeign.propagation.FeignContextPropagator;
+import org.springframework.cloud.openfeign.propagation.RequestAttributesContextPropagator;
+import org.springframework.cloud.openfeign.reactive.NonBlockingMethodHandler;
 
 import static feign.Util.checkNotNull;
 
@@ -57,6 +59,10 @@ class FeignCircuitBreakerInvocationHandler implements InvocationHandler {
 
 	private final CircuitBreakerNameResolver circuitBreakerNameResolver;
 
+	private final FeignAsyncCircuitBreaker asyncCircuitBreaker;
+
+	private final FeignContextPropagator contextPropagator;
+
 	/**
 	 * 这个构造函数会在 {@link InvocationHandlerFactory#create(Target, Map)} 方法调用时执行，
 	 * 因为之前在 {@link FeignCircuitBreaker.Builder#build(FallbackFactory)} 中传入的 lambda 表达式代码逻辑就是执行这个构造函数。
@@ -64,7 +70,8 @@ class FeignCircuitBreakerInvocationHandler implements InvocationHandler {
 	 */
 	FeignCircuitBreakerInvocationHandler(CircuitBreakerFactory factory, String feignClientName, Target<?> target,
 			Map<Method, InvocationHandlerFactory.MethodHandler> dispatch, FallbackFactory<?> nullableFallbackFactory,
-			boolean circuitBreakerGroupEnabled, CircuitBreakerNameResolver circuitBreakerNameResolver) {
+			boolean circuitBreakerGroupEnabled, CircuitBreakerNameResolver circuitBreakerNameResolver,
+			FeignAsyncCircuitBreaker asyncCircuitBreaker, FeignContextPropagator contextPropagator) {
 		this.factory = factory;
 		this.feignClientName = feignClientName;
 		this.target = checkNotNull(target, "target");
@@ -73,6 +80,9 @@ class FeignCircuitBreakerInvocationHandler implements InvocationHandler {
 		this.nullableFallbackFactory = nullableFallbackFactory;
 		this.circuitBreakerGroupEnabled = circuitBreakerGroupEnabled;
 		this.circuitBreakerNameResolver = circuitBreakerNameResolver;
+		this.asyncCircuitBreaker = asyncCircuitBreaker;
+		this.contextPropagator = contextPropagator != null ? contextPropagator
+				: new RequestAttributesContextPropagator();
 	}
 
 	/**
@@ -104,6 +114,9 @@ class FeignCircuitBreakerInvocationHandler implements InvocationHandler {
 		// 使用 CircuitBreakerFactory 创建熔断器，可以使用不同的熔断器，只要符合 spring cloud 对 CircuitBreaker 的规范即可，
 		// 比如 spring cloud 对 Hystrix 就封装了 HystrixCircuitBreakerFactory
 		String circuitName = circuitBreakerNameResolver.resolveCircuitBreakerName(feignClientName, target, method);
+		if (isAsync(method)) {
+			return invokeAsync(circuitName, method, args, supplier);
+		}
 		CircuitBreaker circuitBreaker = circuitBreakerGroupEnabled ? factory.create(circuitName, feignClientName) : factory.create(circuitName);
 
 		// 有降级逻辑
@@ -128,6 +141,57 @@ class FeignCircuitBreakerInvocationHandler implements InvocationHandler {
 		return circuitBreaker.run(supplier);
 	}
 
+	/**
+	 * Runs methods returning {@link CompletableFuture} through the non-blocking circuit
+	 * breaker path, so that the caller never waits for the call to complete. The fallback
+	 * method is expected to return a {@link CompletableFuture} as well. Without a
+	 * {@link FeignAsyncCircuitBreaker} the call is rejected instead of running the
+	 * circuit breaker on the calling thread.
+	 */
+	@SuppressWarnings("unchecked")
+	private Object invokeAsync(String circuitName, Method method, Object[] args, Supplier<Object> supplier) {
+		if (asyncCircuitBreaker == null) {
+			throw new IllegalStateException("No FeignAsyncCircuitBreaker configured for Feign client '"
+					+ feignClientName + "', cannot run " + method.getName()
+					+ " without blocking the calling thread");
+		}
+		String groupName = circuitBreakerGroupEnabled ? feignClientName : null;
+		Function<Throwable, CompletableFuture<Object>> fallbackFunction = throwable -> {
+			if (this.nullableFallbackFactory == null) {
+				return failedFuture(throwable);
+			}
+			Object fallback = this.nullableFallbackFactory.create(throwable);
+			try {
+				return (CompletableFuture<Object>) this.fallbackMethodMap.get(method).invoke(fallback, args);
+			}
+			catch (Exception exception) {
+				try {
+					unwrapAndRethrow(exception);
+				}
+				catch (RuntimeException rethrown) {
+					return failedFuture(rethrown);
+				}
+				return failedFuture(exception);
+			}
+		};
+		if (dispatch.get(method) instanceof NonBlockingMethodHandler) {
+			// 方法处理器本身不会阻塞，直接在调用方线程发起请求，熔断器在 future 完成时记录结果
+			return asyncCircuitBreaker.runNonBlocking(circuitName, groupName,
+					() -> (CompletableFuture<Object>) supplier.get(), fallbackFunction);
+		}
+		return asyncCircuitBreaker.run(circuitName, groupName, supplier, fallbackFunction);
+	}
+
+	private static boolean isAsync(Method method) {
+		return CompletableFuture.class.equals(method.getReturnType());
+	}
+
+	private static CompletableFuture<Object> failedFuture(Throwable throwable) {
+		CompletableFuture<Object> future = new CompletableFuture<>();
+		future.completeExceptionally(throwable);
+		return future;
+	}
+
 	private void unwrapAndRethrow(Exception exception) {
 		if (exception instanceof InvocationTargetException || exception instanceof NoFallbackAvailableException) {
 			Throwable underlyingException = exception.getCause();
@@ -145,10 +209,10 @@ class FeignCircuitBreakerInvocationHandler implements InvocationHandler {
 	 * 将方法处理器的执行逻辑封装为 Supplier，方便交给熔断器去调用
 	 */
 	private Supplier<Object> asSupplier(final Method method, final Object[] args) {
-		final RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+		// 在调用方线程中捕获上下文快照，执行完成后在执行线程中恢复原有上下文，避免上下文泄漏到池化线程中
+		final FeignContextPropagator.Snapshot snapshot = contextPropagator.capture();
 		return () -> {
-			try {
-				RequestContextHolder.setRequestAttributes(requestAttributes);
+			try (FeignContextPropagator.Scope scope = snapshot.restore()) {
 				// 从 dispatch 中获取目标方法的方法处理器，执行 invoke() 方法，返回结果
 				return dispatch.get(method).invoke(args);
 			}
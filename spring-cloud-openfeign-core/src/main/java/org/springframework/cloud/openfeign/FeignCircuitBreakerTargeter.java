@@ -20,6 +20,7 @@ import feign.Feign;
 import feign.Target;
 
 import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.cloud.openfeign.propagation.FeignContextPropagator;
 import org.springframework.util.StringUtils;
 
 /**
@@ -34,14 +35,26 @@ class FeignCircuitBreakerTargeter implements Targeter {
 
 	private final CircuitBreakerNameResolver circuitBreakerNameResolver;
 
+	private final FeignAsyncCircuitBreaker asyncCircuitBreaker;
+
+	private final FeignContextPropagator contextPropagator;
+
 	/**
 	 * 构造器，自动配置中调用该构造器注入 Targeter Bean
 	 */
 	FeignCircuitBreakerTargeter(CircuitBreakerFactory circuitBreakerFactory, boolean circuitBreakerGroupEnabled,
 			CircuitBreakerNameResolver circuitBreakerNameResolver) {
+		this(circuitBreakerFactory, circuitBreakerGroupEnabled, circuitBreakerNameResolver, null, null);
+	}
+
+	FeignCircuitBreakerTargeter(CircuitBreakerFactory circuitBreakerFactory, boolean circuitBreakerGroupEnabled,
+			CircuitBreakerNameResolver circuitBreakerNameResolver, FeignAsyncCircuitBreaker asyncCircuitBreaker,
+			FeignContextPropagator contextPropagator) {
 		this.circuitBreakerFactory = circuitBreakerFactory;
 		this.circuitBreakerGroupEnabled = circuitBreakerGroupEnabled;
 		this.circuitBreakerNameResolver = circuitBreakerNameResolver;
+		this.asyncCircuitBreaker = asyncCircuitBreaker;
+		this.contextPropagator = contextPropagator;
 	}
 
 	/**
@@ -120,7 +133,9 @@ class FeignCircuitBreakerTargeter implements Targeter {
 			// 指定 feignClient 的名称，也就是 @FeignClient 中指定的服务名称
 			.feignClientName(feignClientName)
 			.circuitBreakerGroupEnabled(circuitBreakerGroupEnabled)
-			.circuitBreakerNameResolver(circuitBreakerNameResolver);
+			.circuitBreakerNameResolver(circuitBreakerNameResolver)
+			.asyncCircuitBreaker(asyncCircuitBreaker)
+			.contextPropagator(contextPropagator);
 	}
 
 }
@@ -22,6 +22,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import feign.Capability;
 import feign.Client;
@@ -47,13 +48,37 @@ import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.cloud.openfeign.batch.BatchingCapability;
+import org.springframework.cloud.openfeign.batch.FeignBatchExecutor;
+import org.springframework.cloud.openfeign.batch.ScatterGatherCapability;
+import org.springframework.cloud.openfeign.bulkhead.BulkheadCapability;
+import org.springframework.cloud.openfeign.bulkhead.BulkheadReactiveFeignClient;
+import org.springframework.cloud.openfeign.bulkhead.FeignBulkhead;
+import org.springframework.cloud.openfeign.bulkhead.FeignBulkheadRegistry;
 import org.springframework.cloud.openfeign.clientconfig.FeignClientConfigurer;
+import org.springframework.cloud.openfeign.httpcache.HttpCachingCapability;
+import org.springframework.cloud.openfeign.httpcache.HttpCachingReactiveFeignClient;
 import org.springframework.cloud.openfeign.loadbalancer.FeignBlockingLoadBalancerClient;
+import org.springframework.cloud.openfeign.loadbalancer.ReactiveFeignLoadBalancerClient;
 import org.springframework.cloud.openfeign.loadbalancer.RetryableFeignBlockingLoadBalancerClient;
+import org.springframework.cloud.openfeign.negativecache.FeignNegativeCache;
+import org.springframework.cloud.openfeign.negativecache.NegativeCachingCapability;
+import org.springframework.cloud.openfeign.propagation.CompositeFeignContextPropagator;
+import org.springframework.cloud.openfeign.propagation.FeignContextPropagator;
+import org.springframework.cloud.openfeign.reactive.ReactiveFeignClient;
+import org.springframework.cloud.openfeign.reactive.ReactiveMethodCapability;
+import org.springframework.cloud.openfeign.streaming.FileDownloadCapability;
+import org.springframework.cloud.openfeign.streaming.StreamingCapability;
+import org.springframework.cloud.openfeign.streaming.StreamingDecoder;
+import org.springframework.cloud.openfeign.streaming.StreamingRequestCapability;
+import org.springframework.cloud.openfeign.streaming.StreamingRequests;
+import org.springframework.cloud.openfeign.support.PaginationCapability;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.core.env.Environment;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -84,6 +109,12 @@ public class FeignClientFactoryBean implements FactoryBean<Object>, Initializing
 
 	private static Log LOG = LogFactory.getLog(FeignClientFactoryBean.class);
 
+	private static final boolean REACTOR_PRESENT = ClassUtils.isPresent("reactor.core.publisher.Mono",
+			FeignClientFactoryBean.class.getClassLoader());
+
+	private static final boolean SPRING_DATA_PRESENT = ClassUtils
+			.isPresent("org.springframework.data.domain.Pageable", FeignClientFactoryBean.class.getClassLoader());
+
 	// =================== 以下为 @FeignClient 注解中指定的属性 ====================
 
 	private Class<?> type;
@@ -124,6 +155,12 @@ public class FeignClientFactoryBean implements FactoryBean<Object>, Initializing
 
 	private final List<FeignBuilderCustomizer> additionalCustomizers = new ArrayList<>();
 
+	private FeignClientProperties.BulkheadProperties bulkheadProperties;
+
+	private FeignClientProperties.RangedDownloadProperties rangedDownloadProperties;
+
+	private FeignClientProperties.NegativeCacheProperties negativeCacheProperties;
+
 	/**
 	 * 在完成配置注入后做一些校验工作
 	 */
@@ -148,7 +185,7 @@ public class FeignClientFactoryBean implements FactoryBean<Object>, Initializing
 				.logger(logger) // 日志
 				.encoder(get(context, Encoder.class)) // 填充 Http 请求编码器
 				.decoder(get(context, Decoder.class)) // 填充 Http 响应解码器
-				.contract(get(context, Contract.class)); // 填充 SpringMVC 注解适配器
+				.contract(context.getContract(contextId, type, get(context, Contract.class))); // 填充 SpringMVC 注解适配器，并行初始化时复用已解析的元数据
 		// @formatter:on
 
 		// 将配置文件中的各种属性填充到 feignBuilder
@@ -190,6 +227,196 @@ public class FeignClientFactoryBean implements FactoryBean<Object>, Initializing
 		else {
 			configureUsingConfiguration(context, builder);
 		}
+		configureBulkhead(builder);
+		configureBatching(builder);
+		configureScatterGather(builder);
+		configurePagination(builder);
+		configureStreaming(builder);
+		configureDownloads(builder);
+		configureNegativeCaching(builder);
+	}
+
+	/**
+	 * Bulkheads are isolated per contextId, so a single bulkhead is created from the most
+	 * specific configuration, even when it is inherited from the default configuration.
+	 */
+	private void configureBulkhead(Feign.Builder builder) {
+		FeignBulkhead bulkhead = getBulkhead();
+		if (bulkhead != null) {
+			builder.addCapability(new BulkheadCapability(bulkhead));
+		}
+	}
+
+	private FeignBulkhead getBulkhead() {
+		if (bulkheadProperties == null || !Boolean.TRUE.equals(bulkheadProperties.getEnabled())) {
+			return null;
+		}
+		FeignBulkheadRegistry bulkheadRegistry = beanFactory != null
+				? beanFactory.getBean(FeignBulkheadRegistry.class)
+				: applicationContext.getBean(FeignBulkheadRegistry.class);
+		return bulkheadRegistry.bulkhead(contextId, bulkheadProperties);
+	}
+
+	private void configureBatching(Feign.Builder builder) {
+		if (!BatchingCapability.hasBatchedMethods(type)) {
+			return;
+		}
+		FeignBatchExecutor batchExecutor = beanFactory != null
+				? beanFactory.getBean(FeignBatchExecutor.class)
+				: applicationContext.getBean(FeignBatchExecutor.class);
+		builder.addCapability(new BatchingCapability(contextId, batchExecutor));
+	}
+
+	private void configureScatterGather(Feign.Builder builder) {
+		if (!ScatterGatherCapability.hasPartitionedMethods(type)) {
+			return;
+		}
+		BeanFactory beans = beanFactory != null ? beanFactory : applicationContext;
+		FeignBatchExecutor batchExecutor = beans.getBean(FeignBatchExecutor.class);
+		// 拆分后的请求在其他线程执行，需要传递调用方线程的上下文
+		builder.addCapability(new ScatterGatherCapability(batchExecutor, contextPropagator(beans),
+				combinerType -> getOrInstantiate(combinerType)));
+	}
+
+	/**
+	 * Methods taking a {@code Pageable} and returning a {@code PagedIterable} or a
+	 * {@code Stream} iterate over all pages, prefetching the following pages.
+	 */
+	private void configurePagination(Feign.Builder builder) {
+		if (!SPRING_DATA_PRESENT || !PaginationCapability.hasPaginatedMethods(type)) {
+			return;
+		}
+		BeanFactory beans = beanFactory != null ? beanFactory : applicationContext;
+		FeignBatchExecutor batchExecutor = beans.getBean(FeignBatchExecutor.class);
+		// 预取的页在其他线程请求，同样需要传递调用方线程的上下文
+		builder.addCapability(new PaginationCapability(batchExecutor, contextPropagator(beans)));
+	}
+
+	/**
+	 * Streamed responses are read while the caller consumes them, so the response must
+	 * not be closed once the method returns.
+	 */
+	private void configureStreaming(Feign.Builder builder) {
+		if (!StreamingCapability.hasStreamingMethods(type)) {
+			return;
+		}
+		builder.doNotCloseAfterDecode();
+		builder.addCapability(new StreamingCapability(maxEventSize()));
+	}
+
+	/**
+	 * Methods writing the response body to a file or a channel; downloads to a file are
+	 * split into ranges fetched concurrently when ranged downloads are enabled.
+	 */
+	private void configureDownloads(Feign.Builder builder) {
+		if (!FileDownloadCapability.hasDownloadMethods(type)) {
+			return;
+		}
+		if (rangedDownloadProperties == null || !Boolean.TRUE.equals(rangedDownloadProperties.getEnabled())) {
+			builder.addCapability(new FileDownloadCapability());
+			return;
+		}
+		BeanFactory beans = beanFactory != null ? beanFactory : applicationContext;
+		FeignBatchExecutor batchExecutor = beans.getBean(FeignBatchExecutor.class);
+		// 各个分段在其他线程请求，需要传递调用方线程的上下文
+		builder.addCapability(new FileDownloadCapability(rangedDownloadProperties.getConcurrency(),
+				rangedDownloadProperties.getChunkSize().toBytes(), batchExecutor::execute, contextPropagator(beans)));
+	}
+
+	/**
+	 * Not-found and empty results of {@link NegativeCached} methods are cached for a short
+	 * time, in a cache of their own bounded per contextId.
+	 */
+	private void configureNegativeCaching(Feign.Builder builder) {
+		if (!NegativeCachingCapability.hasNegativeCachedMethods(type)) {
+			return;
+		}
+		FeignClientProperties.NegativeCacheProperties negativeCache = negativeCacheProperties != null
+				? negativeCacheProperties : new FeignClientProperties.NegativeCacheProperties();
+		builder.addCapability(new NegativeCachingCapability(new FeignNegativeCache(negativeCache.getMaxEntries()),
+				negativeCache.getTtl()));
+	}
+
+	/**
+	 * Request bodies of type {@code InputStream}, {@code Resource}, {@code Stream} or
+	 * {@code Iterable} are written directly to the connection when the HTTP client
+	 * supports it, and encoded into the request otherwise.
+	 */
+	private void configureStreamingRequests(FeignContext context, Feign.Builder builder, Client client) {
+		if (!StreamingRequestCapability.hasStreamingBodies(type)) {
+			return;
+		}
+		Client delegate = client;
+		if (delegate instanceof FeignBlockingLoadBalancerClient) {
+			delegate = ((FeignBlockingLoadBalancerClient) delegate).getDelegate();
+		}
+		if (delegate instanceof RetryableFeignBlockingLoadBalancerClient) {
+			delegate = ((RetryableFeignBlockingLoadBalancerClient) delegate).getDelegate();
+		}
+		Client transport = delegate;
+		Map<String, StreamingRequests.Transport> transports = context.getInstances(contextId,
+				StreamingRequests.Transport.class);
+		// 只有底层 HTTP 客户端能够发送流式请求体时才启用，否则由编码器写入字节数组
+		if (transports != null && transports.values().stream().anyMatch(candidate -> candidate.supports(transport))) {
+			builder.addCapability(new StreamingRequestCapability());
+		}
+	}
+
+	private int maxEventSize() {
+		Environment environment = beanFactory != null ? beanFactory.getBean(Environment.class)
+				: applicationContext.getBean(Environment.class);
+		return environment.getProperty(StreamingDecoder.MAX_EVENT_SIZE_PROPERTY, Integer.class,
+				StreamingDecoder.DEFAULT_MAX_EVENT_SIZE);
+	}
+
+	private FeignContextPropagator contextPropagator(BeanFactory beans) {
+		return new CompositeFeignContextPropagator(
+				beans.getBeanProvider(FeignContextPropagator.class).orderedStream().collect(Collectors.toList()));
+	}
+
+	/**
+	 * Methods returning {@code Mono} or {@code Flux} are executed by the
+	 * {@link ReactiveFeignClient} when one is available, selecting the service instance
+	 * through the reactive load balancer unless a url is set.
+	 */
+	private void configureReactiveMethods(FeignContext context, Feign.Builder builder, boolean loadBalanced) {
+		if (!REACTOR_PRESENT) {
+			return;
+		}
+		ReactiveFeignClient reactiveClient = getOptional(context, ReactiveFeignClient.class);
+		// 返回 CompletableFuture 的方法只有在存在非阻塞 Client 时才接管，否则仍由熔断器线程池执行
+		if (!ReactiveMethodCapability.hasReactiveMethods(type)
+				&& (reactiveClient == null || !ReactiveMethodCapability.hasFutureMethods(type))) {
+			return;
+		}
+		if (!loadBalanced && reactiveClient instanceof ReactiveFeignLoadBalancerClient) {
+			// not load balancing because we have a url, so unwrap
+			reactiveClient = ((ReactiveFeignLoadBalancerClient) reactiveClient).getDelegate();
+		}
+		if (reactiveClient != null) {
+			reactiveClient = applyClientPolicies(context, reactiveClient);
+		}
+		builder.addCapability(new ReactiveMethodCapability(reactiveClient,
+				getInheritedAwareOptional(context, ErrorDecoder.class), decode404, maxEventSize()));
+	}
+
+	/**
+	 * The non-blocking client bypasses the {@link Client} decorated by the capabilities, so
+	 * the HTTP cache and the bulkhead are applied to it as well, in the same order as for
+	 * blocking calls.
+	 */
+	private ReactiveFeignClient applyClientPolicies(FeignContext context, ReactiveFeignClient reactiveClient) {
+		Map<String, Capability> capabilities = getInheritedAwareInstances(context, Capability.class);
+		if (capabilities != null) {
+			for (Capability capability : capabilities.values()) {
+				if (capability instanceof HttpCachingCapability) {
+					reactiveClient = new HttpCachingReactiveFeignClient(reactiveClient,
+							(HttpCachingCapability) capability);
+				}
+			}
+		}
+		FeignBulkhead bulkhead = getBulkhead();
+		return bulkhead != null ? new BulkheadReactiveFeignClient(reactiveClient, bulkhead) : reactiveClient;
 	}
 
 	protected void configureUsingConfiguration(FeignContext context, Feign.Builder builder) {
@@ -320,6 +547,18 @@ public class FeignClientFactoryBean implements FactoryBean<Object>, Initializing
 		if (config.getQueryMapEncoder() != null) {
 			builder.queryMapEncoder(getOrInstantiate(config.getQueryMapEncoder()));
 		}
+
+		if (config.getBulkhead() != null) {
+			bulkheadProperties = config.getBulkhead();
+		}
+
+		if (config.getRangedDownload() != null) {
+			rangedDownloadProperties = config.getRangedDownload();
+		}
+
+		if (config.getNegativeCache() != null) {
+			negativeCacheProperties = config.getNegativeCache();
+		}
 	}
 
 	private void addDefaultQueryParams(FeignClientProperties.FeignClientConfiguration config, Feign.Builder builder) {
@@ -402,6 +641,8 @@ public class FeignClientFactoryBean implements FactoryBean<Object>, Initializing
 		if (client != null) {
 			// 将 client 填充到 feignBuilder 中
 			builder.client(client);
+			configureStreamingRequests(context, builder, client);
+			configureReactiveMethods(context, builder, true);
 			// 执行自定义配置修改 feignBuilder
 			applyBuildCustomizers(context, builder);
 			// 从 FeignContext 中获取 Targeter，在 FeignAutoConfiguration 中会自动根据配置决定注入何种 Targeter
@@ -489,7 +730,9 @@ public class FeignClientFactoryBean implements FactoryBean<Object>, Initializing
 				client = ((RetryableFeignBlockingLoadBalancerClient) client).getDelegate();
 			}
 			builder.client(client);
+			configureStreamingRequests(context, builder, client);
 		}
+		configureReactiveMethods(context, builder, false);
 
 		applyBuildCustomizers(context, builder);
 
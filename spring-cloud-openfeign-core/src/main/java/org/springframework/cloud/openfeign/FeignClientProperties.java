@@ -16,6 +16,7 @@
 
 package org.springframework.cloud.openfeign;
 
+import java.time.Duration;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -34,6 +35,7 @@ import feign.codec.Encoder;
 import feign.codec.ErrorDecoder;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /**
  * @author Eko Kurniawan Khannedy
@@ -58,6 +60,23 @@ public class FeignClientProperties {
 	 */
 	private boolean decodeSlash = true;
 
+	/**
+	 * Refresh-ahead and stale-while-revalidate settings of the caches used by
+	 * {@code @Cacheable} Feign client methods.
+	 */
+	private CacheRefreshProperties cacheRefresh = new CacheRefreshProperties();
+
+	/**
+	 * Parallel creation of the contexts of the Feign clients during startup.
+	 */
+	private ParallelInitProperties parallelInit = new ParallelInitProperties();
+
+	/**
+	 * Whether Feign clients with the same configuration classes and metrics settings
+	 * share a single child context.
+	 */
+	private boolean shareContexts;
+
 	public boolean isDefaultToProperties() {
 		return defaultToProperties;
 	}
@@ -90,6 +109,30 @@ public class FeignClientProperties {
 		this.decodeSlash = decodeSlash;
 	}
 
+	public CacheRefreshProperties getCacheRefresh() {
+		return cacheRefresh;
+	}
+
+	public void setCacheRefresh(CacheRefreshProperties cacheRefresh) {
+		this.cacheRefresh = cacheRefresh;
+	}
+
+	public ParallelInitProperties getParallelInit() {
+		return parallelInit;
+	}
+
+	public void setParallelInit(ParallelInitProperties parallelInit) {
+		this.parallelInit = parallelInit;
+	}
+
+	public boolean isShareContexts() {
+		return shareContexts;
+	}
+
+	public void setShareContexts(boolean shareContexts) {
+		this.shareContexts = shareContexts;
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) {
@@ -100,12 +143,15 @@ public class FeignClientProperties {
 		}
 		FeignClientProperties that = (FeignClientProperties) o;
 		return defaultToProperties == that.defaultToProperties && Objects.equals(defaultConfig, that.defaultConfig)
-				&& Objects.equals(config, that.config) && Objects.equals(decodeSlash, that.decodeSlash);
+				&& Objects.equals(config, that.config) && Objects.equals(decodeSlash, that.decodeSlash)
+				&& Objects.equals(cacheRefresh, that.cacheRefresh) && Objects.equals(parallelInit, that.parallelInit)
+				&& shareContexts == that.shareContexts;
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(defaultToProperties, defaultConfig, config, decodeSlash);
+		return Objects.hash(defaultToProperties, defaultConfig, config, decodeSlash, cacheRefresh, parallelInit,
+				shareContexts);
 	}
 
 	/**
@@ -147,6 +193,12 @@ public class FeignClientProperties {
 
 		private Boolean followRedirects;
 
+		private BulkheadProperties bulkhead;
+
+		private RangedDownloadProperties rangedDownload;
+
+		private NegativeCacheProperties negativeCache;
+
 		public Logger.Level getLoggerLevel() {
 			return loggerLevel;
 		}
@@ -283,6 +335,30 @@ public class FeignClientProperties {
 			this.followRedirects = followRedirects;
 		}
 
+		public BulkheadProperties getBulkhead() {
+			return bulkhead;
+		}
+
+		public void setBulkhead(BulkheadProperties bulkhead) {
+			this.bulkhead = bulkhead;
+		}
+
+		public RangedDownloadProperties getRangedDownload() {
+			return rangedDownload;
+		}
+
+		public void setRangedDownload(RangedDownloadProperties rangedDownload) {
+			this.rangedDownload = rangedDownload;
+		}
+
+		public NegativeCacheProperties getNegativeCache() {
+			return negativeCache;
+		}
+
+		public void setNegativeCache(NegativeCacheProperties negativeCache) {
+			this.negativeCache = negativeCache;
+		}
+
 		@Override
 		public boolean equals(Object o) {
 			if (this == o) {
@@ -303,14 +379,17 @@ public class FeignClientProperties {
 					&& Objects.equals(defaultQueryParameters, that.defaultQueryParameters)
 					&& Objects.equals(capabilities, that.capabilities)
 					&& Objects.equals(queryMapEncoder, that.queryMapEncoder) && Objects.equals(metrics, that.metrics)
-					&& Objects.equals(followRedirects, that.followRedirects);
+					&& Objects.equals(followRedirects, that.followRedirects)
+					&& Objects.equals(bulkhead, that.bulkhead) && Objects.equals(rangedDownload, that.rangedDownload)
+					&& Objects.equals(negativeCache, that.negativeCache);
 		}
 
 		@Override
 		public int hashCode() {
 			return Objects.hash(loggerLevel, connectTimeout, readTimeout, retryer, errorDecoder, requestInterceptors,
 					decode404, encoder, decoder, contract, exceptionPropagationPolicy, defaultQueryParameters,
-					defaultRequestHeaders, capabilities, queryMapEncoder, metrics, followRedirects);
+					defaultRequestHeaders, capabilities, queryMapEncoder, metrics, followRedirects, bulkhead,
+					rangedDownload, negativeCache);
 		}
 
 	}
@@ -350,4 +429,416 @@ public class FeignClientProperties {
 
 	}
 
+	/**
+	 * Bulkhead configuration for Feign Client.
+	 */
+	public static class BulkheadProperties {
+
+		/**
+		 * Enables the bulkhead for the Feign Client.
+		 */
+		private Boolean enabled = true;
+
+		/**
+		 * Isolation mode of the bulkhead.
+		 */
+		private BulkheadType type = BulkheadType.SEMAPHORE;
+
+		/**
+		 * Maximum number of calls executed concurrently; in thread-pool mode, the size of
+		 * the pool.
+		 */
+		private int maxConcurrentCalls = 25;
+
+		/**
+		 * Maximum time a call waits for a permit in semaphore mode before it is rejected.
+		 */
+		private Duration maxWaitDuration = Duration.ZERO;
+
+		/**
+		 * Capacity of the queue of calls waiting for a thread in thread-pool mode.
+		 */
+		private int queueCapacity = 100;
+
+		public Boolean getEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(Boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public BulkheadType getType() {
+			return type;
+		}
+
+		public void setType(BulkheadType type) {
+			this.type = type;
+		}
+
+		public int getMaxConcurrentCalls() {
+			return maxConcurrentCalls;
+		}
+
+		public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+			this.maxConcurrentCalls = maxConcurrentCalls;
+		}
+
+		public Duration getMaxWaitDuration() {
+			return maxWaitDuration;
+		}
+
+		public void setMaxWaitDuration(Duration maxWaitDuration) {
+			this.maxWaitDuration = maxWaitDuration;
+		}
+
+		public int getQueueCapacity() {
+			return queueCapacity;
+		}
+
+		public void setQueueCapacity(int queueCapacity) {
+			this.queueCapacity = queueCapacity;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			BulkheadProperties that = (BulkheadProperties) o;
+			return Objects.equals(enabled, that.enabled) && type == that.type
+					&& maxConcurrentCalls == that.maxConcurrentCalls
+					&& Objects.equals(maxWaitDuration, that.maxWaitDuration) && queueCapacity == that.queueCapacity;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(enabled, type, maxConcurrentCalls, maxWaitDuration, queueCapacity);
+		}
+
+		/**
+		 * Enumeration of bulkhead isolation modes.
+		 */
+		public enum BulkheadType {
+
+			/**
+			 * Limits concurrent calls with a semaphore; calls run on the calling thread.
+			 */
+			SEMAPHORE,
+
+			/**
+			 * Runs calls on a dedicated, bounded thread pool with a bounded queue.
+			 */
+			THREAD_POOL
+
+		}
+
+	}
+
+	/**
+	 * Ranged download configuration for Feign Client.
+	 */
+	public static class RangedDownloadProperties {
+
+		/**
+		 * Enables downloads to a {@code Path} in ranges fetched concurrently.
+		 */
+		private Boolean enabled = true;
+
+		/**
+		 * Maximum number of ranges of a file fetched concurrently.
+		 */
+		private int concurrency = 4;
+
+		/**
+		 * Size of a range.
+		 */
+		private DataSize chunkSize = DataSize.ofMegabytes(8);
+
+		public Boolean getEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(Boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getConcurrency() {
+			return concurrency;
+		}
+
+		public void setConcurrency(int concurrency) {
+			this.concurrency = concurrency;
+		}
+
+		public DataSize getChunkSize() {
+			return chunkSize;
+		}
+
+		public void setChunkSize(DataSize chunkSize) {
+			this.chunkSize = chunkSize;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			RangedDownloadProperties that = (RangedDownloadProperties) o;
+			return Objects.equals(enabled, that.enabled) && concurrency == that.concurrency
+					&& Objects.equals(chunkSize, that.chunkSize);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(enabled, concurrency, chunkSize);
+		}
+
+	}
+
+	/**
+	 * Negative caching configuration for the {@link NegativeCached} methods of a Feign
+	 * Client.
+	 */
+	public static class NegativeCacheProperties {
+
+		/**
+		 * Time a not-found or empty result is returned without calling the server again,
+		 * unless the method sets its own.
+		 */
+		private Duration ttl = Duration.ofSeconds(30);
+
+		/**
+		 * Maximum number of not-found or empty results kept for the Feign Client; the
+		 * least recently used are evicted first.
+		 */
+		private int maxEntries = 1000;
+
+		public Duration getTtl() {
+			return ttl;
+		}
+
+		public void setTtl(Duration ttl) {
+			this.ttl = ttl;
+		}
+
+		public int getMaxEntries() {
+			return maxEntries;
+		}
+
+		public void setMaxEntries(int maxEntries) {
+			this.maxEntries = maxEntries;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			NegativeCacheProperties that = (NegativeCacheProperties) o;
+			return Objects.equals(ttl, that.ttl) && maxEntries == that.maxEntries;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(ttl, maxEntries);
+		}
+
+	}
+
+	/**
+	 * Refresh-ahead settings of the caches used by {@code @Cacheable} Feign client
+	 * methods, keyed by cache name.
+	 */
+	public static class CacheRefreshProperties {
+
+		/**
+		 * Number of threads refreshing cache entries in the background.
+		 */
+		private int threads = 2;
+
+		/**
+		 * Capacity of the queue of pending background refreshes; refreshes that do not
+		 * fit are skipped.
+		 */
+		private int queueCapacity = 100;
+
+		/**
+		 * Refresh settings by cache name.
+		 */
+		private Map<String, CachePolicy> caches = new HashMap<>();
+
+		public int getThreads() {
+			return threads;
+		}
+
+		public void setThreads(int threads) {
+			this.threads = threads;
+		}
+
+		public int getQueueCapacity() {
+			return queueCapacity;
+		}
+
+		public void setQueueCapacity(int queueCapacity) {
+			this.queueCapacity = queueCapacity;
+		}
+
+		public Map<String, CachePolicy> getCaches() {
+			return caches;
+		}
+
+		public void setCaches(Map<String, CachePolicy> caches) {
+			this.caches = caches;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			CacheRefreshProperties that = (CacheRefreshProperties) o;
+			return threads == that.threads && queueCapacity == that.queueCapacity
+					&& Objects.equals(caches, that.caches);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(threads, queueCapacity, caches);
+		}
+
+	}
+
+	/**
+	 * Parallel creation of the contexts of the Feign clients, and parsing of their
+	 * contract metadata, during startup.
+	 */
+	public static class ParallelInitProperties {
+
+		/**
+		 * Whether the contexts of all Feign clients are created on a pool of threads
+		 * once all the singletons are instantiated.
+		 */
+		private boolean enabled;
+
+		/**
+		 * Number of threads creating contexts; defaults to the number of available
+		 * processors.
+		 */
+		private int parallelism;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getParallelism() {
+			return parallelism;
+		}
+
+		public void setParallelism(int parallelism) {
+			this.parallelism = parallelism;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			ParallelInitProperties that = (ParallelInitProperties) o;
+			return enabled == that.enabled && parallelism == that.parallelism;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(enabled, parallelism);
+		}
+
+	}
+
+	/**
+	 * Refresh settings of a single cache. The cache itself must keep its entries for at
+	 * least {@code ttl} plus {@code grace}.
+	 */
+	public static class CachePolicy {
+
+		/**
+		 * Time after which a cached result is expired.
+		 */
+		private Duration ttl;
+
+		/**
+		 * Time before expiry from which a cached result is refreshed in the background
+		 * when it is read.
+		 */
+		private Duration refreshAhead = Duration.ZERO;
+
+		/**
+		 * Time after expiry during which a cached result is still returned while it is
+		 * refreshed in the background.
+		 */
+		private Duration grace = Duration.ZERO;
+
+		public Duration getTtl() {
+			return ttl;
+		}
+
+		public void setTtl(Duration ttl) {
+			this.ttl = ttl;
+		}
+
+		public Duration getRefreshAhead() {
+			return refreshAhead;
+		}
+
+		public void setRefreshAhead(Duration refreshAhead) {
+			this.refreshAhead = refreshAhead;
+		}
+
+		public Duration getGrace() {
+			return grace;
+		}
+
+		public void setGrace(Duration grace) {
+			this.grace = grace;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			CachePolicy that = (CachePolicy) o;
+			return Objects.equals(ttl, that.ttl) && Objects.equals(refreshAhead, that.refreshAhead)
+					&& Objects.equals(grace, that.grace);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(ttl, refreshAhead, grace);
+		}
+
+	}
+
 }
@@ -80,6 +80,22 @@ class FeignClientsRegistrar implements ImportBeanDefinitionRegistrar, ResourceLo
 	// patterned after Spring Integration IntegrationComponentScanRegistrar
 	// and RibbonClientsConfigurationRegistgrar
 
+	/**
+	 * Attribute of the bean definition of a Feign client holding its
+	 * {@link FeignClientFactoryBean}.
+	 */
+	static final String FACTORY_BEAN_ATTRIBUTE = "feignClientsRegistrarFactoryBean";
+
+	/**
+	 * Property enabling the creation of Feign clients on their first method call.
+	 */
+	static final String LAZY_INIT_PROPERTY = "feign.client.lazy-init";
+
+	/**
+	 * Property enabling the creation of the contexts of Feign clients in parallel.
+	 */
+	static final String PARALLEL_INIT_PROPERTY = "feign.client.parallel-init.enabled";
+
 	// 资源加载器
 	private ResourceLoader resourceLoader;
 
@@ -263,6 +279,8 @@ class FeignClientsRegistrar implements ImportBeanDefinitionRegistrar, ResourceLo
 		factoryBean.setContextId(contextId);
 		factoryBean.setType(clazz);
 		factoryBean.setRefreshableClient(isClientRefreshEnabled());
+		// 并行初始化时也先注册轻量代理，所有单例创建完成后再并行创建子容器并构建客户端
+		boolean lazyInit = isLazyInitEnabled() || isParallelInitEnabled();
 
 		// 3. 创建 definitionBuilder，用于生成接口的 BeanDefinition。在注入比较复杂的对象时经常用这种方式来做
 		// 使用 BeanDefinitionBuilder 来构造，可以指定实例化对象的方法，后面传入的 lambda 函数就是
@@ -282,6 +300,10 @@ class FeignClientsRegistrar implements ImportBeanDefinitionRegistrar, ResourceLo
 				factoryBean.setFallbackFactory(fallbackFactory instanceof Class ? (Class<?>) fallbackFactory
 						: ClassUtils.resolveClassName(fallbackFactory.toString(), null));
 			}
+			// 懒加载模式下先返回轻量代理，首次调用方法时才创建子容器、feignBuilder 并解析接口
+			if (lazyInit) {
+				return LazyFeignClientInvocationHandler.newProxy(clazz, contextId, factoryBean::getObject);
+			}
 			// 最终生成接口代理对象的方法，实际是通过 factoryBean 生成接口的代理对象(即 feignClient)
 			return factoryBean.getObject();
 		});
@@ -293,7 +315,7 @@ class FeignClientsRegistrar implements ImportBeanDefinitionRegistrar, ResourceLo
 		// 这里的 BeanDefinition 中持有了代理对象的生成方法即上面的 lambda 函数
 		AbstractBeanDefinition beanDefinition = definitionBuilder.getBeanDefinition();
 		beanDefinition.setAttribute(FactoryBean.OBJECT_TYPE_ATTRIBUTE, className);
-		beanDefinition.setAttribute("feignClientsRegistrarFactoryBean", factoryBean);
+		beanDefinition.setAttribute(FACTORY_BEAN_ATTRIBUTE, factoryBean);
 
 		// has a default, won't be null
 		boolean primary = (Boolean) attributes.get("primary");
@@ -498,4 +520,12 @@ class FeignClientsRegistrar implements ImportBeanDefinitionRegistrar, ResourceLo
 		return environment.getProperty("feign.client.refresh-enabled", Boolean.class, false);
 	}
 
+	private boolean isLazyInitEnabled() {
+		return environment.getProperty(LAZY_INIT_PROPERTY, Boolean.class, false);
+	}
+
+	private boolean isParallelInitEnabled() {
+		return environment.getProperty(PARALLEL_INIT_PROPERTY, Boolean.class, false);
+	}
+
 }
@@ -16,11 +16,18 @@
 
 package org.springframework.cloud.openfeign;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import feign.Contract;
 
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.cloud.context.named.NamedContextFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.lang.Nullable;
 
 /**
@@ -39,10 +46,128 @@ import org.springframework.lang.Nullable;
  */
 public class FeignContext extends NamedContextFactory<FeignClientSpecification> {
 
+	private ParallelContextInitializer parallelInitializer;
+
+	private boolean shareContexts;
+
+	private final Map<String, FeignClientSpecification> specifications = new ConcurrentHashMap<>();
+
+	private final Map<String, String> sharedNames = new ConcurrentHashMap<>();
+
+	private final Map<List<Object>, String> sharedContexts = new ConcurrentHashMap<>();
+
 	public FeignContext() {
 		super(FeignClientsConfiguration.class, "feign", "feign.client.name");
 	}
 
+	/**
+	 * Creates the contexts of all Feign clients on a pool of threads once all the
+	 * singletons of the parent context are instantiated, instead of one after another
+	 * when each client is built. The clients have to be registered as lazy proxies.
+	 * @param parallelism the number of threads creating contexts, or {@code 0} for the
+	 * number of available processors
+	 */
+	public void setParallelInitialization(int parallelism) {
+		this.parallelInitializer = new ParallelContextInitializer(this, parallelism);
+	}
+
+	/**
+	 * Lets the Feign clients with equivalent specifications, that is with the same
+	 * configuration classes and metrics settings, share a single context, named after
+	 * the first of them.
+	 * @param shareContexts whether equivalent clients share their context
+	 */
+	public void setShareContexts(boolean shareContexts) {
+		this.shareContexts = shareContexts;
+	}
+
+	@Override
+	public void setConfigurations(List<FeignClientSpecification> configurations) {
+		super.setConfigurations(configurations);
+		for (FeignClientSpecification specification : configurations) {
+			specifications.put(specification.getName(), specification);
+		}
+	}
+
+	@Override
+	protected AnnotationConfigApplicationContext getContext(String name) {
+		String contextName = getContextName(name);
+		if (parallelInitializer != null) {
+			AnnotationConfigApplicationContext context = parallelInitializer.getContext(contextName);
+			if (context != null) {
+				return context;
+			}
+		}
+		return super.getContext(contextName);
+	}
+
+	/**
+	 * @param name the name of a Feign client context
+	 * @return the name of the context actually used by the client, which is the name of
+	 * the first equivalent client when contexts are shared
+	 */
+	String getContextName(String name) {
+		if (!shareContexts) {
+			return name;
+		}
+		return sharedNames.computeIfAbsent(name,
+				clientName -> sharedContexts.computeIfAbsent(equivalenceKey(clientName), key -> clientName));
+	}
+
+	/**
+	 * The content of a context only depends on the name through the configuration
+	 * classes of its specification and the per-client metrics setting, see
+	 * {@link FeignClientMetricsEnabledCondition}.
+	 */
+	private List<Object> equivalenceKey(String name) {
+		FeignClientSpecification specification = specifications.get(name);
+		Class<?>[] configuration = specification != null && specification.getConfiguration() != null
+				? specification.getConfiguration() : new Class<?>[0];
+		Boolean metricsEnabled = null;
+		ApplicationContext parent = getParent();
+		FeignClientProperties properties = parent != null
+				? parent.getBeanProvider(FeignClientProperties.class).getIfAvailable() : null;
+		if (properties != null && properties.getConfig() != null && properties.getConfig().get(name) != null
+				&& properties.getConfig().get(name).getMetrics() != null) {
+			metricsEnabled = properties.getConfig().get(name).getMetrics().getEnabled();
+		}
+		return Arrays.asList(Arrays.asList(configuration), metricsEnabled);
+	}
+
+	/**
+	 * Creates the contexts of the Feign clients in parallel, if enabled, and builds the
+	 * clients.
+	 */
+	void initializeContexts() {
+		if (parallelInitializer != null) {
+			parallelInitializer.initialize();
+		}
+	}
+
+	AnnotationConfigApplicationContext createChildContext(String name) {
+		return createContext(name);
+	}
+
+	/**
+	 * @param contextId the context of a Feign client
+	 * @param type the Feign client interface
+	 * @param contract the contract the client is built with
+	 * @return the contract, reusing the metadata of the interface parsed during parallel
+	 * initialization
+	 */
+	Contract getContract(String contextId, Class<?> type, Contract contract) {
+		return parallelInitializer != null
+				? parallelInitializer.contract(getContextName(contextId), type, contract) : contract;
+	}
+
+	@Override
+	public void destroy() {
+		if (parallelInitializer != null) {
+			parallelInitializer.close();
+		}
+		super.destroy();
+	}
+
 	@Nullable
 	public <T> T getInstanceWithoutAncestors(String name, Class<T> type) {
 		try {
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * {@link InvocationHandler} of a lightweight proxy standing for a Feign client until its
+ * first method call. The child context of the client, its {@code Feign.Builder} and the
+ * parsing of its interface only happen on that call, once, whichever thread makes it.
+ * If building the client fails, the next call tries again.
+ */
+final class LazyFeignClientInvocationHandler implements InvocationHandler {
+
+	private final Class<?> type;
+
+	private final String contextId;
+
+	private final Supplier<Object> factory;
+
+	private final Lock lock = new ReentrantLock();
+
+	private volatile Object target;
+
+	private LazyFeignClientInvocationHandler(Class<?> type, String contextId, Supplier<Object> factory) {
+		this.type = type;
+		this.contextId = contextId;
+		this.factory = factory;
+	}
+
+	/**
+	 * @param type the Feign client interface
+	 * @param contextId the context id of the client
+	 * @param factory builds the client
+	 * @param <T> the type of the client
+	 * @return a proxy building the client on its first method call
+	 */
+	static <T> T newProxy(Class<T> type, String contextId, Supplier<Object> factory) {
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+				new LazyFeignClientInvocationHandler(type, contextId, factory)));
+	}
+
+	/**
+	 * Builds the client behind the given proxy now, if it is a proxy created by
+	 * {@link #newProxy}.
+	 * @param client a Feign client bean
+	 */
+	static void initialize(Object client) {
+		if (client != null && Proxy.isProxyClass(client.getClass())
+				&& Proxy.getInvocationHandler(client) instanceof LazyFeignClientInvocationHandler) {
+			((LazyFeignClientInvocationHandler) Proxy.getInvocationHandler(client)).target();
+		}
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		if (ReflectionUtils.isEqualsMethod(method)) {
+			return proxy == args[0];
+		}
+		if (ReflectionUtils.isHashCodeMethod(method)) {
+			return System.identityHashCode(proxy);
+		}
+		Object client = target;
+		if (ReflectionUtils.isToStringMethod(method) && client == null) {
+			return "LazyFeignClient(type=" + type.getSimpleName() + ", contextId=" + contextId + ")";
+		}
+		if (client == null) {
+			client = target();
+		}
+		try {
+			return method.invoke(client, args);
+		}
+		catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	private Object target() {
+		Object client = target;
+		if (client == null) {
+			// building the client can take long; unlike a monitor, the lock does not pin
+			// virtual threads waiting for it
+			lock.lock();
+			try {
+				client = target;
+				if (client == null) {
+					client = factory.get();
+					target = client;
+				}
+			}
+			finally {
+				lock.unlock();
+			}
+		}
+		return client;
+	}
+
+	boolean isInitialized() {
+		return target != null;
+	}
+
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Caches the not-found and empty results of the annotated method for a short time, so
+ * repeated lookups of missing items do not each cost a round trip. A result is negative
+ * when it is {@code null}, an empty {@link java.util.Optional}, or a
+ * {@link org.springframework.http.ResponseEntity} with a {@code 404} status, which is what
+ * Feign returns for a {@code 404} response when {@code decode404} is enabled. Other
+ * results are never cached.
+ *
+ * @see org.springframework.cloud.openfeign.negativecache.NegativeCachingCapability
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface NegativeCached {
+
+	/**
+	 * @return time, in milliseconds, a negative result is cached; a negative value uses
+	 * the {@code negative-cache.ttl} of the Feign client
+	 */
+	long ttlMillis() default -1;
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Configures the pagination of a method taking a Spring Data
+ * {@link org.springframework.data.domain.Pageable} and returning a
+ * {@link org.springframework.cloud.openfeign.support.PagedIterable} or a
+ * {@link java.util.stream.Stream} of the elements of the pages. Such methods are
+ * paginated with the defaults of this annotation when it is absent.
+ *
+ * @see org.springframework.cloud.openfeign.support.PaginationCapability
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Paginated {
+
+	/**
+	 * @return number of elements of a page, used when the method is invoked with a
+	 * {@code null} or unpaged {@code Pageable}
+	 */
+	int pageSize() default 20;
+
+	/**
+	 * @return number of pages requested in the background while the current page is
+	 * consumed, {@code 0} to request every page only when it is reached
+	 */
+	int prefetch() default 1;
+
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import feign.Contract;
+import feign.MethodMetadata;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * Creates the child contexts of all Feign clients, and parses the contract metadata of
+ * their interfaces, on a {@link ForkJoinPool} once all the singletons of the parent
+ * context are instantiated. The clients are registered as lazy proxies until then, so
+ * that building them never waits for a context while holding the singleton lock of the
+ * parent bean factory; the calling thread holds no such lock while it waits for the
+ * pool, and builds the clients afterwards. A context needed earlier, by a client called
+ * while the singletons are instantiated, is created by the thread needing it.
+ */
+final class ParallelContextInitializer {
+
+	private static final Log LOG = LogFactory.getLog(ParallelContextInitializer.class);
+
+	private final FeignContext feignContext;
+
+	private final int parallelism;
+
+	private final Map<String, PreparedContext> contexts = new ConcurrentHashMap<>();
+
+	private final Lock lock = new ReentrantLock();
+
+	private boolean closed;
+
+	ParallelContextInitializer(FeignContext feignContext, int parallelism) {
+		this.feignContext = feignContext;
+		this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+	}
+
+	/**
+	 * @param name the name of a child context
+	 * @return the context, or {@code null} if it is not created by this initializer
+	 */
+	AnnotationConfigApplicationContext getContext(String name) {
+		PreparedContext prepared = contexts.get(name);
+		return prepared != null ? prepared.get() : null;
+	}
+
+	/**
+	 * @param name the name of a child context
+	 * @param type a Feign client interface
+	 * @param contract the contract the client is built with
+	 * @return the contract, returning the metadata of the interface parsed in parallel
+	 * when it was parsed by the same contract
+	 */
+	Contract contract(String name, Class<?> type, Contract contract) {
+		PreparedContext prepared = contexts.get(name);
+		List<MethodMetadata> metadata = prepared != null ? prepared.takeMetadata(type, contract) : null;
+		return metadata != null ? new ParsedContract(contract, type, metadata) : contract;
+	}
+
+	/**
+	 * Creates the contexts not created yet in parallel, waits for them, and then builds
+	 * the clients already injected into other beans. Must be called once all the
+	 * singletons of the parent context are instantiated.
+	 */
+	void initialize() {
+		ApplicationContext parent = feignContext.getParent();
+		if (!(parent instanceof ConfigurableApplicationContext)) {
+			return;
+		}
+		ConfigurableListableBeanFactory beanFactory = ((ConfigurableApplicationContext) parent).getBeanFactory();
+		Set<String> created = feignContext.getContextNames();
+		Map<String, List<Class<?>>> clients = new LinkedHashMap<>();
+		List<String> clientBeanNames = new ArrayList<>();
+		for (String beanName : beanFactory.getBeanDefinitionNames()) {
+			Object factoryBean = beanFactory.getBeanDefinition(beanName)
+					.getAttribute(FeignClientsRegistrar.FACTORY_BEAN_ATTRIBUTE);
+			if (factoryBean instanceof FeignClientFactoryBean) {
+				FeignClientFactoryBean feignClientFactoryBean = (FeignClientFactoryBean) factoryBean;
+				String contextName = feignContext.getContextName(feignClientFactoryBean.getContextId());
+				if (!created.contains(contextName)) {
+					clients.computeIfAbsent(contextName, name -> new ArrayList<>())
+							.add(feignClientFactoryBean.getType());
+				}
+				clientBeanNames.add(beanName);
+			}
+		}
+		if (!clients.isEmpty()) {
+			createContexts(parent.getClassLoader(), clients);
+		}
+		// configuration errors of the clients are still reported at startup
+		for (String beanName : clientBeanNames) {
+			if (beanFactory.containsSingleton(beanName)) {
+				LazyFeignClientInvocationHandler.initialize(beanFactory.getSingleton(beanName));
+			}
+		}
+	}
+
+	void close() {
+		lock.lock();
+		try {
+			closed = true;
+			contexts.values().forEach(PreparedContext::close);
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	private void createContexts(ClassLoader classLoader, Map<String, List<Class<?>>> clients) {
+		ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, clients.size()), forkJoinPool -> {
+			ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+			thread.setName("feign-init-" + thread.getPoolIndex());
+			thread.setContextClassLoader(classLoader);
+			return thread;
+		}, null, false);
+		long start = System.nanoTime();
+		List<ForkJoinTask<?>> tasks = new ArrayList<>();
+		List<PreparedContext> prepared = new ArrayList<>();
+		clients.forEach((name, types) -> {
+			PreparedContext context = new PreparedContext(name, types);
+			contexts.put(name, context);
+			prepared.add(context);
+			tasks.add(pool.submit(context::prepare));
+		});
+		pool.shutdown();
+		tasks.forEach(ForkJoinTask::join);
+		long elapsed = System.nanoTime() - start;
+		long sequential = prepared.stream().mapToLong(context -> context.buildNanos).sum();
+		if (LOG.isInfoEnabled()) {
+			LOG.info("Created the contexts of " + clients.size() + " Feign clients on " + pool.getParallelism()
+					+ " threads in " + millis(elapsed) + " ms, saving " + millis(Math.max(0, sequential - elapsed))
+					+ " ms of startup time");
+		}
+	}
+
+	private static long millis(long nanos) {
+		return TimeUnit.NANOSECONDS.toMillis(nanos);
+	}
+
+	private final class PreparedContext {
+
+		private final String name;
+
+		private final List<Class<?>> types;
+
+		private final CompletableFuture<AnnotationConfigApplicationContext> context = new CompletableFuture<>();
+
+		private final Map<Class<?>, ParsedMetadata> metadata = new ConcurrentHashMap<>();
+
+		private volatile long buildNanos;
+
+		private PreparedContext(String name, List<Class<?>> types) {
+			this.name = name;
+			this.types = types;
+		}
+
+		private void prepare() {
+			long start = System.nanoTime();
+			try {
+				AnnotationConfigApplicationContext created = feignContext.createChildContext(name);
+				parseMetadata(created);
+				buildNanos = System.nanoTime() - start;
+				publish(created);
+				if (LOG.isDebugEnabled()) {
+					LOG.debug("Context of Feign client '" + name + "' created in parallel in " + millis(buildNanos)
+							+ " ms");
+				}
+			}
+			catch (Throwable ex) {
+				if (LOG.isDebugEnabled()) {
+					LOG.debug("Could not create the context of Feign client '" + name + "' in parallel", ex);
+				}
+				context.completeExceptionally(ex);
+			}
+		}
+
+		private void parseMetadata(AnnotationConfigApplicationContext created) {
+			Contract contract;
+			try {
+				contract = created.getBean(Contract.class);
+			}
+			catch (BeansException ex) {
+				return;
+			}
+			for (Class<?> type : types) {
+				try {
+					metadata.put(type, new ParsedMetadata(contract, contract.parseAndValidateMetadata(type)));
+				}
+				catch (RuntimeException ex) {
+					// reported when the client is built
+				}
+			}
+		}
+
+		private void publish(AnnotationConfigApplicationContext created) {
+			lock.lock();
+			try {
+				if (closed) {
+					created.close();
+				}
+				context.complete(created);
+			}
+			finally {
+				lock.unlock();
+			}
+		}
+
+		/**
+		 * @return the context, or {@code null} if it could not be created in parallel, in
+		 * which case it is created the usual way and the failure is reported there
+		 */
+		private AnnotationConfigApplicationContext get() {
+			try {
+				return context.join();
+			}
+			catch (CompletionException ex) {
+				return null;
+			}
+		}
+
+		private List<MethodMetadata> takeMetadata(Class<?> type, Contract contract) {
+			ParsedMetadata parsed = metadata.remove(type);
+			return parsed != null && parsed.contract == contract ? parsed.metadata : null;
+		}
+
+		private void close() {
+			if (context.isDone() && !context.isCompletedExceptionally()) {
+				context.join().close();
+			}
+		}
+
+	}
+
+	private static final class ParsedMetadata {
+
+		private final Contract contract;
+
+		private final List<MethodMetadata> metadata;
+
+		private ParsedMetadata(Contract contract, List<MethodMetadata> metadata) {
+			this.contract = contract;
+			this.metadata = metadata;
+		}
+
+	}
+
+	/**
+	 * {@link Contract} returning the metadata parsed in parallel once, and delegating
+	 * afterwards.
+	 */
+	private static final class ParsedContract implements Contract {
+
+		private final Contract delegate;
+
+		private final Class<?> type;
+
+		private final AtomicReference<List<MethodMetadata>> metadata;
+
+		private ParsedContract(Contract delegate, Class<?> type, List<MethodMetadata> metadata) {
+			this.delegate = delegate;
+			this.type = type;
+			this.metadata = new AtomicReference<>(metadata);
+		}
+
+		@Override
+		public List<MethodMetadata> parseAndValidateMetadata(Class<?> targetType) {
+			List<MethodMetadata> parsed = targetType == type ? metadata.getAndSet(null) : null;
+			return parsed != null ? parsed : delegate.parseAndValidateMetadata(targetType);
+		}
+
+	}
+
+}
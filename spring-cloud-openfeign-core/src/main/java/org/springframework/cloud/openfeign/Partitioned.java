@@ -0,0 +1,57 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.cloud.openfeign.batch.DefaultResultCombiner;
+import org.springframework.cloud.openfeign.batch.ResultCombiner;
+
+/**
+ * Splits the annotated {@link java.util.Collection} or array argument into chunks of at
+ * most {@link #size()} elements. Each chunk is sent as a separate request, expanded like
+ * the whole argument would have been, for instance with the {@link CollectionFormat} of
+ * a {@code @RequestParam}, and the results of the requests are merged with the
+ * {@link #combiner()}. Load-balanced clients spread the requests across instances.
+ *
+ * @see org.springframework.cloud.openfeign.batch.ScatterGatherCapability
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Partitioned {
+
+	/**
+	 * @return maximum number of elements sent in a single request
+	 */
+	int size();
+
+	/**
+	 * @return maximum number of requests of a single invocation executed concurrently
+	 */
+	int maxConcurrency() default 4;
+
+	/**
+	 * @return merges the results of the requests, resolved as a bean of the application
+	 * context or instantiated otherwise; by default lists, sets, maps, arrays and Spring
+	 * Data pages are merged
+	 */
+	Class<? extends ResultCombiner> combiner() default DefaultResultCombiner.class;
+
+}
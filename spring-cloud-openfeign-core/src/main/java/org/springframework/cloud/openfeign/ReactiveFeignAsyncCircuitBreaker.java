@@ -0,0 +1,77 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreaker;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFactory;
+
+/**
+ * {@link FeignAsyncCircuitBreaker} backed by a {@link ReactiveCircuitBreaker}. Timeouts
+ * are enforced by the reactive circuit breaker without parking a thread; a blocking Feign
+ * call is subscribed on a dedicated bounded executor, while a non-blocking one is started
+ * on the calling thread.
+ */
+class ReactiveFeignAsyncCircuitBreaker implements FeignAsyncCircuitBreaker, DisposableBean {
+
+	private final ReactiveCircuitBreakerFactory<?, ?> circuitBreakerFactory;
+
+	private final ExecutorService executorService;
+
+	private final Scheduler scheduler;
+
+	ReactiveFeignAsyncCircuitBreaker(ReactiveCircuitBreakerFactory<?, ?> circuitBreakerFactory,
+			ExecutorService executorService) {
+		this.circuitBreakerFactory = circuitBreakerFactory;
+		this.executorService = executorService;
+		this.scheduler = Schedulers.fromExecutorService(executorService);
+	}
+
+	@Override
+	public <T> CompletableFuture<T> run(String circuitName, String groupName, Supplier<T> toRun,
+			Function<Throwable, CompletableFuture<T>> fallback) {
+		ReactiveCircuitBreaker circuitBreaker = groupName != null
+				? circuitBreakerFactory.create(circuitName, groupName) : circuitBreakerFactory.create(circuitName);
+		return circuitBreaker.run(Mono.fromSupplier(toRun).subscribeOn(scheduler),
+				throwable -> Mono.fromFuture(fallback.apply(throwable))).toFuture();
+	}
+
+	@Override
+	public <T> CompletableFuture<T> runNonBlocking(String circuitName, String groupName,
+			Supplier<CompletableFuture<T>> toRun, Function<Throwable, CompletableFuture<T>> fallback) {
+		ReactiveCircuitBreaker circuitBreaker = groupName != null
+				? circuitBreakerFactory.create(circuitName, groupName) : circuitBreakerFactory.create(circuitName);
+		return circuitBreaker.run(Mono.defer(() -> Mono.fromFuture(toRun.get())),
+				throwable -> Mono.fromFuture(fallback.apply(throwable))).toFuture();
+	}
+
+	@Override
+	public void destroy() {
+		scheduler.dispose();
+		executorService.shutdown();
+	}
+
+}
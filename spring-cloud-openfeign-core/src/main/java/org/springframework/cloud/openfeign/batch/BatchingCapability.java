@@ -0,0 +1,192 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.batch;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import feign.Capability;
+import feign.Feign;
+import feign.InvocationHandlerFactory;
+import feign.InvocationHandlerFactory.MethodHandler;
+import feign.Target;
+
+import org.springframework.cloud.openfeign.Batched;
+import org.springframework.cloud.openfeign.reactive.NonBlockingMethodHandler;
+import org.springframework.cloud.openfeign.reactive.NonBlockingResults;
+import org.springframework.util.Assert;
+
+/**
+ * {@link Capability} batching the invocations of the methods annotated with
+ * {@link Batched}. Each invocation only registers its key and waits for the result,
+ * while the bulk method is executed once per batch by the {@link FeignBatchExecutor}.
+ * The bulk call goes through the Feign method handler, so it is encoded, intercepted,
+ * load balanced and decoded like any other call of the client.
+ */
+public class BatchingCapability implements Capability {
+
+	private final String clientName;
+
+	private final FeignBatchExecutor batchExecutor;
+
+	public BatchingCapability(String clientName, FeignBatchExecutor batchExecutor) {
+		this.clientName = clientName;
+		this.batchExecutor = batchExecutor;
+	}
+
+	/**
+	 * @param type a Feign client interface
+	 * @return {@code true} if the interface declares methods annotated with
+	 * {@link Batched}
+	 */
+	public static boolean hasBatchedMethods(Class<?> type) {
+		for (Method method : type.getMethods()) {
+			if (method.isAnnotationPresent(Batched.class)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public InvocationHandlerFactory enrich(InvocationHandlerFactory invocationHandlerFactory) {
+		return (target, dispatch) -> {
+			Map<Method, MethodHandler> handlers = new LinkedHashMap<>(dispatch);
+			for (Map.Entry<Method, MethodHandler> entry : handlers.entrySet()) {
+				Batched batched = entry.getKey().getAnnotation(Batched.class);
+				if (batched != null) {
+					entry.setValue(batchingHandler(target, entry.getKey(), batched, dispatch));
+				}
+			}
+			return invocationHandlerFactory.create(target, handlers);
+		};
+	}
+
+	private MethodHandler batchingHandler(Target<?> target, Method method, Batched batched,
+			Map<Method, MethodHandler> dispatch) {
+		Assert.isTrue(method.getParameterCount() == 1,
+				() -> "@Batched method " + method + " must take the item key as its only parameter");
+		Assert.isTrue(batched.maxBatchSize() > 0, () -> "maxBatchSize of " + method + " must be positive");
+		Method bulkMethod = bulkMethod(target.type(), method, batched.bulkMethod());
+		MethodHandler bulkHandler = dispatch.get(bulkMethod);
+		Class<?> keysType = bulkMethod.getParameterTypes()[0];
+		FeignBatcher batcher = new FeignBatcher(clientName, Feign.configKey(target.type(), method),
+				batched.maxBatchSize(), Duration.ofMillis(batched.maxDelayMillis()),
+				keys -> toResults(keys, bulkHandler.invoke(new Object[] { toParameter(keys, keysType) })),
+				batchExecutor);
+		if (NonBlockingResults.isSingleValue(method)) {
+			return new FutureBatchingMethodHandler(batcher, method);
+		}
+		return new BatchingMethodHandler(batcher);
+	}
+
+	private static Method bulkMethod(Class<?> type, Method method, String name) {
+		for (Method candidate : type.getMethods()) {
+			if (candidate.getName().equals(name) && candidate.getParameterCount() == 1
+					&& !candidate.isAnnotationPresent(Batched.class)) {
+				Class<?> parameterType = candidate.getParameterTypes()[0];
+				Assert.isTrue(parameterType.isAssignableFrom(List.class) || parameterType.isAssignableFrom(Set.class),
+						() -> "Bulk method " + candidate + " must take a Collection, List or Set of keys");
+				return candidate;
+			}
+		}
+		throw new IllegalStateException(
+				"No bulk method '" + name + "' with a single parameter found for @Batched method " + method);
+	}
+
+	private static Collection<Object> toParameter(List<Object> keys, Class<?> keysType) {
+		return keysType.isAssignableFrom(List.class) ? keys : new LinkedHashSet<>(keys);
+	}
+
+	private static Map<?, ?> toResults(List<Object> keys, Object result) {
+		if (result == null) {
+			return Collections.emptyMap();
+		}
+		if (result instanceof Map) {
+			return (Map<?, ?>) result;
+		}
+		if (result instanceof List) {
+			List<?> items = (List<?>) result;
+			if (items.size() != keys.size()) {
+				throw new IllegalStateException("Bulk method returned " + items.size() + " items for " + keys.size()
+						+ " keys; a List result must contain one item per key, in order");
+			}
+			Map<Object, Object> results = new HashMap<>();
+			Iterator<?> iterator = items.iterator();
+			for (Object key : keys) {
+				results.put(key, iterator.next());
+			}
+			return results;
+		}
+		throw new IllegalStateException("Bulk method must return a Map or a List, but returned " + result.getClass());
+	}
+
+	private static final class BatchingMethodHandler implements MethodHandler {
+
+		private final FeignBatcher batcher;
+
+		BatchingMethodHandler(FeignBatcher batcher) {
+			this.batcher = batcher;
+		}
+
+		@Override
+		public Object invoke(Object[] argv) throws Throwable {
+			CompletableFuture<Object> result = batcher.submit(argv[0]);
+			try {
+				return result.get();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw e;
+			}
+			catch (ExecutionException e) {
+				throw e.getCause();
+			}
+		}
+
+	}
+
+	private static final class FutureBatchingMethodHandler implements NonBlockingMethodHandler {
+
+		private final FeignBatcher batcher;
+
+		private final Method method;
+
+		FutureBatchingMethodHandler(FeignBatcher batcher, Method method) {
+			this.batcher = batcher;
+			this.method = method;
+		}
+
+		@Override
+		public Object invoke(Object[] argv) {
+			return NonBlockingResults.fromFuture(method, () -> batcher.submit(argv[0]));
+		}
+
+	}
+
+}
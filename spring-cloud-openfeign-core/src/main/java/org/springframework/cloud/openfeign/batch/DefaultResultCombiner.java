@@ -0,0 +1,79 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.batch;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.util.ClassUtils;
+
+/**
+ * {@link ResultCombiner} concatenating lists, sets and arrays, merging maps, and merging
+ * Spring Data {@code Page} instances when Spring Data is on the classpath. {@code null}
+ * results are skipped.
+ */
+public class DefaultResultCombiner implements ResultCombiner {
+
+	private static final boolean SPRING_DATA_PRESENT = ClassUtils.isPresent("org.springframework.data.domain.Page",
+			DefaultResultCombiner.class.getClassLoader());
+
+	@Override
+	public Object combine(List<Object> results, Type returnType) {
+		Class<?> type = ResolvableType.forType(returnType).resolve(Object.class);
+		if (type == void.class || type == Void.class) {
+			return null;
+		}
+		if (SPRING_DATA_PRESENT && PageResultCombiner.isPage(type)) {
+			return new PageResultCombiner().combine(results, returnType);
+		}
+		if (Map.class.isAssignableFrom(type)) {
+			Map<Object, Object> merged = new LinkedHashMap<>();
+			results.stream().filter(result -> result != null).forEach(result -> merged.putAll((Map<?, ?>) result));
+			return merged;
+		}
+		if (Collection.class.isAssignableFrom(type)) {
+			Collection<Object> merged = Set.class.isAssignableFrom(type) ? new LinkedHashSet<>() : new ArrayList<>();
+			results.stream().filter(result -> result != null)
+					.forEach(result -> merged.addAll((Collection<?>) result));
+			return merged;
+		}
+		if (type.isArray()) {
+			int length = results.stream().filter(result -> result != null).mapToInt(Array::getLength).sum();
+			Object merged = Array.newInstance(type.getComponentType(), length);
+			int offset = 0;
+			for (Object result : results) {
+				if (result != null) {
+					int resultLength = Array.getLength(result);
+					System.arraycopy(result, 0, merged, offset, resultLength);
+					offset += resultLength;
+				}
+			}
+			return merged;
+		}
+		throw new IllegalStateException("Don't know how to combine results of type " + returnType
+				+ ", specify a ResultCombiner in @Partitioned");
+	}
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.batch;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Describes a bulk call executed on behalf of a batch of single-item invocations.
+ */
+public class FeignBatchEvent {
+
+	private final String clientName;
+
+	private final String methodKey;
+
+	private final int size;
+
+	private final List<Duration> waitTimes;
+
+	public FeignBatchEvent(String clientName, String methodKey, int size, List<Duration> waitTimes) {
+		this.clientName = clientName;
+		this.methodKey = methodKey;
+		this.size = size;
+		this.waitTimes = waitTimes;
+	}
+
+	/**
+	 * @return context id of the Feign client
+	 */
+	public String getClientName() {
+		return clientName;
+	}
+
+	/**
+	 * @return config key of the batched single-item method
+	 */
+	public String getMethodKey() {
+		return methodKey;
+	}
+
+	/**
+	 * @return number of distinct keys sent in the bulk call
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * @return time each invocation of the batch waited before the bulk call was started
+	 */
+	public List<Duration> getWaitTimes() {
+		return waitTimes;
+	}
+
+}
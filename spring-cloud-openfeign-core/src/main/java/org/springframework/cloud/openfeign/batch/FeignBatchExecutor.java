@@ -0,0 +1,105 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.batch;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Schedules and executes the bulk calls of every batched Feign method, the chunks of
+ * partitioned arguments and the prefetched pages of paginated methods. A single timer
+ * thread closes batches once their delay elapses, and the calls themselves run on a
+ * separate executor so that a slow downstream does not delay other batches.
+ */
+public class FeignBatchExecutor implements DisposableBean {
+
+	private static final Log LOG = LogFactory.getLog(FeignBatchExecutor.class);
+
+	private final ScheduledExecutorService scheduler;
+
+	private final ExecutorService executor;
+
+	private final List<Consumer<FeignBatchEvent>> listeners = new CopyOnWriteArrayList<>();
+
+	public FeignBatchExecutor() {
+		this(Executors.newCachedThreadPool(daemonThreadFactory("feign-batch-")));
+	}
+
+	/**
+	 * @param executor executor running the bulk calls, shut down with this instance
+	 */
+	public FeignBatchExecutor(ExecutorService executor) {
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreadFactory("feign-batch-scheduler-"));
+		this.executor = executor;
+	}
+
+	/**
+	 * Registers a listener notified after every bulk call.
+	 * @param listener the listener
+	 */
+	public void onBatch(Consumer<FeignBatchEvent> listener) {
+		listeners.add(listener);
+	}
+
+	ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+		return scheduler.schedule(task, delay, unit);
+	}
+
+	/**
+	 * Executes a Feign call in the background.
+	 * @param task the call
+	 */
+	public void execute(Runnable task) {
+		executor.execute(task);
+	}
+
+	void publish(FeignBatchEvent event) {
+		for (Consumer<FeignBatchEvent> listener : listeners) {
+			try {
+				listener.accept(event);
+			}
+			catch (RuntimeException e) {
+				LOG.warn("Batch listener failed", e);
+			}
+		}
+	}
+
+	@Override
+	public void destroy() {
+		scheduler.shutdown();
+		executor.shutdown();
+	}
+
+	private static CustomizableThreadFactory daemonThreadFactory(String prefix) {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(prefix);
+		threadFactory.setDaemon(true);
+		return threadFactory;
+	}
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.batch;
+
+import java.time.Duration;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * {@link MeterBinder} recording the size of every bulk call made by a batched Feign
+ * method and the time each invocation waited for its batch to be sent.
+ */
+public class FeignBatchMetrics implements MeterBinder {
+
+	private final FeignBatchExecutor batchExecutor;
+
+	public FeignBatchMetrics(FeignBatchExecutor batchExecutor) {
+		this.batchExecutor = batchExecutor;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		batchExecutor.onBatch(event -> record(registry, event));
+	}
+
+	private void record(MeterRegistry registry, FeignBatchEvent event) {
+		Tags tags = Tags.of("client", event.getClientName(), "method", event.getMethodKey());
+		DistributionSummary.builder("feign.batch.size").tags(tags).baseUnit("keys")
+				.description("Number of distinct keys sent in a bulk call").register(registry).record(event.getSize());
+		Timer waitTimer = Timer.builder("feign.batch.wait").tags(tags)
+				.description("Time an invocation waited for its batch to be sent").register(registry);
+		for (Duration waitTime : event.getWaitTimes()) {
+			waitTimer.record(waitTime);
+		}
+	}
+
+}
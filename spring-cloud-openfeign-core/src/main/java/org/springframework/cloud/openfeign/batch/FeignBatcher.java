@@ -0,0 +1,177 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.batch;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Collects the keys requested by concurrent invocations of a single-item method until
+ * either the batch is full or its delay elapses, then resolves all of them with one bulk
+ * call. Invocations requesting the same key within a batch share its result.
+ */
+class FeignBatcher {
+
+	private final String clientName;
+
+	private final String methodKey;
+
+	private final int maxBatchSize;
+
+	private final long maxDelayNanos;
+
+	private final BulkCall bulkCall;
+
+	private final FeignBatchExecutor batchExecutor;
+
+	private final Lock lock = new ReentrantLock();
+
+	private Batch current;
+
+	FeignBatcher(String clientName, String methodKey, int maxBatchSize, Duration maxDelay, BulkCall bulkCall,
+			FeignBatchExecutor batchExecutor) {
+		this.clientName = clientName;
+		this.methodKey = methodKey;
+		this.maxBatchSize = maxBatchSize;
+		this.maxDelayNanos = maxDelay.toNanos();
+		this.bulkCall = bulkCall;
+		this.batchExecutor = batchExecutor;
+	}
+
+	CompletableFuture<Object> submit(Object key) {
+		CompletableFuture<Object> result = new CompletableFuture<>();
+		Batch full = null;
+		lock.lock();
+		try {
+			if (current == null) {
+				Batch batch = new Batch();
+				batch.timeout = batchExecutor.schedule(() -> close(batch), maxDelayNanos, TimeUnit.NANOSECONDS);
+				current = batch;
+			}
+			current.add(key, result);
+			if (current.size() >= maxBatchSize) {
+				full = current;
+				current = null;
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+		if (full != null) {
+			full.timeout.cancel(false);
+			dispatch(full);
+		}
+		return result;
+	}
+
+	private void close(Batch batch) {
+		lock.lock();
+		try {
+			if (current != batch) {
+				// already dispatched because it was full
+				return;
+			}
+			current = null;
+		}
+		finally {
+			lock.unlock();
+		}
+		dispatch(batch);
+	}
+
+	private void dispatch(Batch batch) {
+		try {
+			batchExecutor.execute(() -> execute(batch));
+		}
+		catch (RejectedExecutionException e) {
+			batch.fail(e);
+		}
+	}
+
+	private void execute(Batch batch) {
+		long start = System.nanoTime();
+		List<Object> keys = new ArrayList<>(batch.entries.keySet());
+		try {
+			Map<?, ?> results = bulkCall.execute(keys);
+			batch.complete(results);
+		}
+		catch (Throwable throwable) {
+			batch.fail(throwable);
+		}
+		batchExecutor.publish(new FeignBatchEvent(clientName, methodKey, keys.size(), batch.waitTimes(start)));
+	}
+
+	/**
+	 * Executes the bulk method for the given keys.
+	 */
+	@FunctionalInterface
+	interface BulkCall {
+
+		/**
+		 * @param keys distinct keys of the batch
+		 * @return the items by key; missing keys resolve to {@code null}
+		 * @throws Throwable if the bulk call fails
+		 */
+		Map<?, ?> execute(List<Object> keys) throws Throwable;
+
+	}
+
+	private static final class Batch {
+
+		private final Map<Object, List<CompletableFuture<Object>>> entries = new LinkedHashMap<>();
+
+		private final List<Long> enqueuedAt = new ArrayList<>();
+
+		private ScheduledFuture<?> timeout;
+
+		void add(Object key, CompletableFuture<Object> result) {
+			entries.computeIfAbsent(key, k -> new ArrayList<>(1)).add(result);
+			enqueuedAt.add(System.nanoTime());
+		}
+
+		int size() {
+			return entries.size();
+		}
+
+		void complete(Map<?, ?> results) {
+			entries.forEach((key, futures) -> futures.forEach(future -> future.complete(results.get(key))));
+		}
+
+		void fail(Throwable throwable) {
+			entries.values().forEach(futures -> futures.forEach(future -> future.completeExceptionally(throwable)));
+		}
+
+		List<Duration> waitTimes(long start) {
+			List<Duration> waitTimes = new ArrayList<>(enqueuedAt.size());
+			for (long enqueued : enqueuedAt) {
+				waitTimes.add(Duration.ofNanos(start - enqueued));
+			}
+			return waitTimes;
+		}
+
+	}
+
+}
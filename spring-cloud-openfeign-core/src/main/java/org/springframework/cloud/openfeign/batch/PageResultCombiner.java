@@ -0,0 +1,51 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.batch;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * {@link ResultCombiner} merging Spring Data {@link Page} results: the content of the
+ * pages is concatenated and their total elements added up.
+ */
+public class PageResultCombiner implements ResultCombiner {
+
+	static boolean isPage(Class<?> type) {
+		return Page.class.isAssignableFrom(type);
+	}
+
+	@Override
+	public Object combine(List<Object> results, Type returnType) {
+		List<Object> content = new ArrayList<>();
+		long total = 0;
+		for (Object result : results) {
+			if (result != null) {
+				Page<?> page = (Page<?>) result;
+				content.addAll(page.getContent());
+				total += page.getTotalElements();
+			}
+		}
+		return new PageImpl<>(content, Pageable.unpaged(), Math.max(total, content.size()));
+	}
+
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.batch;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Merges the results of the requests made for each chunk of a
+ * {@link org.springframework.cloud.openfeign.Partitioned} argument into the result of
+ * the invoked method.
+ */
+@FunctionalInterface
+public interface ResultCombiner {
+
+	/**
+	 * @param results the decoded result of every chunk, in the order of the chunks
+	 * @param returnType the generic return type of the invoked method
+	 * @return the merged result
+	 */
+	Object combine(List<Object> results, Type returnType);
+
+}
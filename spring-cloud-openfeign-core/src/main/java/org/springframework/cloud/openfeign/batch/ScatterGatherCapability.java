@@ -0,0 +1,235 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.batch;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+import feign.Capability;
+import feign.InvocationHandlerFactory;
+import feign.InvocationHandlerFactory.MethodHandler;
+
+import org.springframework.cloud.openfeign.Partitioned;
+import org.springframework.cloud.openfeign.propagation.FeignContextPropagator;
+import org.springframework.util.Assert;
+
+/**
+ * {@link Capability} splitting {@link Partitioned} arguments into chunks. Each chunk is
+ * executed through the Feign method handler on the {@link FeignBatchExecutor}, with the
+ * context of the calling thread restored by the {@link FeignContextPropagator}, and at
+ * most {@link Partitioned#maxConcurrency()} chunks of an invocation run at the same time.
+ * The calling thread waits for all of them; the first failure is rethrown and stops the
+ * remaining chunks from being sent.
+ */
+public class ScatterGatherCapability implements Capability {
+
+	private final FeignBatchExecutor batchExecutor;
+
+	private final FeignContextPropagator contextPropagator;
+
+	private final Function<Class<? extends ResultCombiner>, ResultCombiner> combiners;
+
+	/**
+	 * @param batchExecutor executes the chunks
+	 * @param contextPropagator propagates the context of the calling thread to the chunks
+	 * @param combiners resolves the {@link Partitioned#combiner()} of a method
+	 */
+	public ScatterGatherCapability(FeignBatchExecutor batchExecutor, FeignContextPropagator contextPropagator,
+			Function<Class<? extends ResultCombiner>, ResultCombiner> combiners) {
+		this.batchExecutor = batchExecutor;
+		this.contextPropagator = contextPropagator;
+		this.combiners = combiners;
+	}
+
+	/**
+	 * @param type a Feign client interface
+	 * @return {@code true} if the interface declares methods with a {@link Partitioned}
+	 * parameter
+	 */
+	public static boolean hasPartitionedMethods(Class<?> type) {
+		for (Method method : type.getMethods()) {
+			if (partitionedIndex(method) >= 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static int partitionedIndex(Method method) {
+		Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+		for (int i = 0; i < parameterAnnotations.length; i++) {
+			for (Annotation annotation : parameterAnnotations[i]) {
+				if (annotation instanceof Partitioned) {
+					return i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public InvocationHandlerFactory enrich(InvocationHandlerFactory invocationHandlerFactory) {
+		return (target, dispatch) -> {
+			Map<Method, MethodHandler> handlers = new LinkedHashMap<>(dispatch);
+			handlers.replaceAll((method, handler) -> {
+				int index = partitionedIndex(method);
+				return index >= 0 ? new ScatterGatherMethodHandler(method, index, handler) : handler;
+			});
+			return invocationHandlerFactory.create(target, handlers);
+		};
+	}
+
+	private final class ScatterGatherMethodHandler implements MethodHandler {
+
+		private final MethodHandler delegate;
+
+		private final int index;
+
+		private final Partitioned partitioned;
+
+		private final Type returnType;
+
+		private final ResultCombiner combiner;
+
+		ScatterGatherMethodHandler(Method method, int index, MethodHandler delegate) {
+			Class<?> parameterType = method.getParameterTypes()[index];
+			Assert.isTrue(Collection.class.isAssignableFrom(parameterType) || parameterType.isArray(),
+					() -> "@Partitioned parameter of " + method + " must be a Collection or an array");
+			Assert.isTrue(method.getReturnType() != CompletableFuture.class
+					&& !method.getReturnType().getName().startsWith("reactor.core.publisher."),
+					() -> "@Partitioned is only supported on methods returning a value, not on " + method);
+			this.delegate = delegate;
+			this.index = index;
+			this.partitioned = method.getParameters()[index].getAnnotation(Partitioned.class);
+			Assert.isTrue(partitioned.size() > 0 && partitioned.maxConcurrency() > 0,
+					() -> "size and maxConcurrency of @Partitioned on " + method + " must be positive");
+			this.returnType = method.getGenericReturnType();
+			this.combiner = combiners.apply(partitioned.combiner());
+		}
+
+		@Override
+		public Object invoke(Object[] argv) throws Throwable {
+			List<Object[]> chunks = partition(argv);
+			if (chunks.size() <= 1) {
+				return delegate.invoke(argv);
+			}
+			FeignContextPropagator.Snapshot snapshot = contextPropagator.capture();
+			Semaphore permits = new Semaphore(partitioned.maxConcurrency());
+			List<CompletableFuture<Object>> results = new ArrayList<>(chunks.size());
+			CompletableFuture<Object> failure = new CompletableFuture<>();
+			for (Object[] chunk : chunks) {
+				permits.acquire();
+				if (failure.isDone()) {
+					permits.release();
+					break;
+				}
+				CompletableFuture<Object> result = new CompletableFuture<>();
+				results.add(result);
+				try {
+					batchExecutor.execute(() -> {
+						try (FeignContextPropagator.Scope scope = snapshot.restore()) {
+							result.complete(delegate.invoke(chunk));
+						}
+						catch (Throwable throwable) {
+							result.completeExceptionally(throwable);
+							failure.completeExceptionally(throwable);
+						}
+						finally {
+							permits.release();
+						}
+					});
+				}
+				catch (RejectedExecutionException e) {
+					permits.release();
+					result.completeExceptionally(e);
+					failure.completeExceptionally(e);
+				}
+			}
+			List<Object> values = new ArrayList<>(results.size());
+			try {
+				if (failure.isDone()) {
+					failure.get();
+				}
+				for (CompletableFuture<Object> result : results) {
+					values.add(result.get());
+				}
+			}
+			catch (ExecutionException e) {
+				throw e.getCause();
+			}
+			return combiner.combine(values, returnType);
+		}
+
+		private List<Object[]> partition(Object[] argv) {
+			Object argument = argv[index];
+			if (argument == null) {
+				return Collections.singletonList(argv);
+			}
+			List<Object> elements = argument.getClass().isArray() ? arrayElements(argument)
+					: new ArrayList<>((Collection<?>) argument);
+			int size = partitioned.size();
+			List<Object[]> chunks = new ArrayList<>((elements.size() + size - 1) / size);
+			for (int from = 0; from < elements.size(); from += size) {
+				List<Object> chunk = elements.subList(from, Math.min(from + size, elements.size()));
+				Object[] chunkArgv = argv.clone();
+				chunkArgv[index] = toArgument(argument, chunk);
+				chunks.add(chunkArgv);
+			}
+			return chunks.isEmpty() ? Collections.singletonList(argv) : chunks;
+		}
+
+		private List<Object> arrayElements(Object array) {
+			int length = Array.getLength(array);
+			List<Object> elements = new ArrayList<>(length);
+			for (int i = 0; i < length; i++) {
+				elements.add(Array.get(array, i));
+			}
+			return elements;
+		}
+
+		private Object toArgument(Object argument, List<Object> chunk) {
+			if (argument.getClass().isArray()) {
+				Object array = Array.newInstance(argument.getClass().getComponentType(), chunk.size());
+				for (int i = 0; i < chunk.size(); i++) {
+					Array.set(array, i, chunk.get(i));
+				}
+				return array;
+			}
+			if (argument instanceof Set) {
+				return new LinkedHashSet<>(chunk);
+			}
+			return new ArrayList<>(chunk);
+		}
+
+	}
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.bulkhead;
+
+import java.io.IOException;
+
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+/**
+ * {@link Capability} running every request of a Feign client within a
+ * {@link FeignBulkhead}. The bulkhead wraps the {@link Client}, so when circuit breakers
+ * are enabled, rejected calls are recorded as failures and routed to the fallback.
+ */
+public class BulkheadCapability implements Capability {
+
+	private final FeignBulkhead bulkhead;
+
+	public BulkheadCapability(FeignBulkhead bulkhead) {
+		this.bulkhead = bulkhead;
+	}
+
+	@Override
+	public Client enrich(Client client) {
+		return new BulkheadClient(client, bulkhead);
+	}
+
+	static class BulkheadClient implements Client {
+
+		private final Client delegate;
+
+		private final FeignBulkhead bulkhead;
+
+		BulkheadClient(Client delegate, FeignBulkhead bulkhead) {
+			this.delegate = delegate;
+			this.bulkhead = bulkhead;
+		}
+
+		@Override
+		public Response execute(Request request, Request.Options options) throws IOException {
+			return bulkhead.execute(delegate, request, options);
+		}
+
+	}
+
+}
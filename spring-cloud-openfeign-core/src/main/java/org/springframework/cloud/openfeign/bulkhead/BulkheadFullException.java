@@ -0,0 +1,29 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.bulkhead;
+
+/**
+ * Thrown when a {@link FeignBulkhead} rejects a call because all permits are in use and
+ * no permit became available in time, or because its queue is full.
+ */
+public class BulkheadFullException extends RuntimeException {
+
+	public BulkheadFullException(String bulkheadName) {
+		super("Bulkhead '" + bulkheadName + "' is full and does not permit further calls");
+	}
+
+}
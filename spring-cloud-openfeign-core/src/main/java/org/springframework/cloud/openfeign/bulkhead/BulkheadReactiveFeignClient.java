@@ -0,0 +1,67 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.bulkhead;
+
+import java.util.function.BiFunction;
+
+import feign.Request;
+import feign.Response;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.cloud.openfeign.reactive.ReactiveFeignClient;
+
+/**
+ * {@link ReactiveFeignClient} executing every call within a {@link FeignBulkhead}. The
+ * permit is held until the returned publisher terminates or is cancelled, so streamed
+ * responses count against the bulkhead for as long as they are consumed.
+ */
+public class BulkheadReactiveFeignClient implements ReactiveFeignClient {
+
+	private final ReactiveFeignClient delegate;
+
+	private final FeignBulkhead bulkhead;
+
+	public BulkheadReactiveFeignClient(ReactiveFeignClient delegate, FeignBulkhead bulkhead) {
+		this.delegate = delegate;
+		this.bulkhead = bulkhead;
+	}
+
+	@Override
+	public Mono<Response> exchange(Request request, Request.Options options) {
+		return Mono.defer(() -> {
+			bulkhead.acquireNonBlockingPermit();
+			return delegate.exchange(request, options).doFinally(signal -> bulkhead.releaseNonBlockingPermit());
+		});
+	}
+
+	@Override
+	public <T> Flux<T> exchange(Request request, Request.Options options,
+			BiFunction<Response, Flux<byte[]>, Publisher<T>> handler) {
+		return Flux.defer(() -> {
+			bulkhead.acquireNonBlockingPermit();
+			return delegate.exchange(request, options, handler)
+					.doFinally(signal -> bulkhead.releaseNonBlockingPermit());
+		});
+	}
+
+	public ReactiveFeignClient getDelegate() {
+		return delegate;
+	}
+
+}
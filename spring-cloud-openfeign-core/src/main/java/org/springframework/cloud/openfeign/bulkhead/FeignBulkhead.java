@@ -0,0 +1,103 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.bulkhead;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+/**
+ * Limits the number of concurrent calls a single Feign client can make, so that one slow
+ * downstream service cannot exhaust the threads of the calling application.
+ */
+public abstract class FeignBulkhead {
+
+	private final String name;
+
+	private final int maxConcurrentCalls;
+
+	private final LongAdder rejectedCalls = new LongAdder();
+
+	protected FeignBulkhead(String name, int maxConcurrentCalls) {
+		this.name = name;
+		this.maxConcurrentCalls = maxConcurrentCalls;
+	}
+
+	/**
+	 * Executes the request with the delegate client within the bulkhead.
+	 * @param delegate the client performing the request
+	 * @param request the request to execute
+	 * @param options the request options
+	 * @return the response
+	 * @throws IOException if the delegate fails to execute the request
+	 * @throws BulkheadFullException if the bulkhead rejects the call
+	 */
+	public abstract Response execute(Client delegate, Request request, Request.Options options) throws IOException;
+
+	/**
+	 * Acquires a permit for a call that does not occupy a thread while in flight, such as
+	 * a call executed by a non-blocking client. Such calls never wait for a permit.
+	 * @throws BulkheadFullException if no permit is available
+	 */
+	public abstract void acquireNonBlockingPermit();
+
+	/**
+	 * Releases a permit acquired with {@link #acquireNonBlockingPermit()}.
+	 */
+	public abstract void releaseNonBlockingPermit();
+
+	/**
+	 * @return the number of calls currently executing
+	 */
+	public abstract int getActiveCalls();
+
+	/**
+	 * @return the number of calls waiting to be executed
+	 */
+	public abstract int getQueueDepth();
+
+	/**
+	 * Releases the resources held by the bulkhead.
+	 */
+	public void destroy() {
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getMaxConcurrentCalls() {
+		return maxConcurrentCalls;
+	}
+
+	public int getAvailablePermits() {
+		return Math.max(maxConcurrentCalls - getActiveCalls(), 0);
+	}
+
+	public long getRejectedCalls() {
+		return rejectedCalls.sum();
+	}
+
+	protected BulkheadFullException reject() {
+		rejectedCalls.increment();
+		return new BulkheadFullException(name);
+	}
+
+}
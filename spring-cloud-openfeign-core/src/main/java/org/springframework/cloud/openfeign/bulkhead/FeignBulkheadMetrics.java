@@ -0,0 +1,54 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.bulkhead;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * {@link MeterBinder} exposing the queue depth, active and available permits and the
+ * number of rejected calls of every {@link FeignBulkhead}.
+ */
+public class FeignBulkheadMetrics implements MeterBinder {
+
+	private final FeignBulkheadRegistry bulkheadRegistry;
+
+	public FeignBulkheadMetrics(FeignBulkheadRegistry bulkheadRegistry) {
+		this.bulkheadRegistry = bulkheadRegistry;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		bulkheadRegistry.onBulkheadCreated(bulkhead -> bindTo(registry, bulkhead));
+	}
+
+	private void bindTo(MeterRegistry registry, FeignBulkhead bulkhead) {
+		Tags tags = Tags.of("client", bulkhead.getName());
+		Gauge.builder("feign.bulkhead.queue.depth", bulkhead, FeignBulkhead::getQueueDepth).tags(tags)
+				.description("Number of calls waiting to be executed").register(registry);
+		Gauge.builder("feign.bulkhead.active.calls", bulkhead, FeignBulkhead::getActiveCalls).tags(tags)
+				.description("Number of calls currently executing").register(registry);
+		Gauge.builder("feign.bulkhead.available.permits", bulkhead, FeignBulkhead::getAvailablePermits).tags(tags)
+				.description("Number of calls that can still be executed concurrently").register(registry);
+		FunctionCounter.builder("feign.bulkhead.rejected", bulkhead, FeignBulkhead::getRejectedCalls).tags(tags)
+				.description("Number of calls rejected by the bulkhead").register(registry);
+	}
+
+}
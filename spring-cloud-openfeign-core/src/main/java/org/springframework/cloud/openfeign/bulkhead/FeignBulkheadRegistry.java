@@ -0,0 +1,101 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.bulkhead;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.openfeign.FeignClientProperties;
+
+/**
+ * Holds the {@link FeignBulkhead} of each Feign client, keyed by client context id.
+ * Registration is guarded by a {@link Lock} rather than {@code synchronized}, so that a
+ * virtual thread waiting for it does not pin its carrier thread.
+ */
+public class FeignBulkheadRegistry implements DisposableBean {
+
+	private final Map<String, FeignBulkhead> bulkheads = new ConcurrentHashMap<>();
+
+	private final List<Consumer<FeignBulkhead>> listeners = new ArrayList<>();
+
+	private final Lock lock = new ReentrantLock();
+
+	/**
+	 * Returns the bulkhead registered with the given name, creating it from the given
+	 * properties if necessary.
+	 * @param name name of the bulkhead, usually the context id of the Feign client
+	 * @param properties bulkhead configuration
+	 * @return the bulkhead
+	 */
+	public FeignBulkhead bulkhead(String name, FeignClientProperties.BulkheadProperties properties) {
+		FeignBulkhead bulkhead = bulkheads.get(name);
+		if (bulkhead != null) {
+			return bulkhead;
+		}
+		lock.lock();
+		try {
+			bulkhead = bulkheads.get(name);
+			if (bulkhead == null) {
+				bulkhead = create(name, properties);
+				bulkheads.put(name, bulkhead);
+				for (Consumer<FeignBulkhead> listener : listeners) {
+					listener.accept(bulkhead);
+				}
+			}
+			return bulkhead;
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Registers a listener notified of every bulkhead, including the ones already
+	 * created.
+	 * @param listener the listener
+	 */
+	public void onBulkheadCreated(Consumer<FeignBulkhead> listener) {
+		lock.lock();
+		try {
+			listeners.add(listener);
+			bulkheads.values().forEach(listener);
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	private FeignBulkhead create(String name, FeignClientProperties.BulkheadProperties properties) {
+		if (properties.getType() == FeignClientProperties.BulkheadProperties.BulkheadType.THREAD_POOL) {
+			return new ThreadPoolFeignBulkhead(name, properties.getMaxConcurrentCalls(),
+					properties.getQueueCapacity());
+		}
+		return new SemaphoreFeignBulkhead(name, properties.getMaxConcurrentCalls(), properties.getMaxWaitDuration());
+	}
+
+	@Override
+	public void destroy() {
+		bulkheads.values().forEach(FeignBulkhead::destroy);
+	}
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.bulkhead;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+/**
+ * {@link FeignBulkhead} limiting concurrent calls with a fair {@link Semaphore}. Calls are
+ * executed on the calling thread and wait at most {@code maxWaitDuration} for a permit.
+ */
+public class SemaphoreFeignBulkhead extends FeignBulkhead {
+
+	private final Semaphore semaphore;
+
+	private final long maxWaitNanos;
+
+	public SemaphoreFeignBulkhead(String name, int maxConcurrentCalls, Duration maxWaitDuration) {
+		super(name, maxConcurrentCalls);
+		this.semaphore = new Semaphore(maxConcurrentCalls, true);
+		this.maxWaitNanos = maxWaitDuration != null ? maxWaitDuration.toNanos() : 0;
+	}
+
+	@Override
+	public Response execute(Client delegate, Request request, Request.Options options) throws IOException {
+		acquirePermit();
+		try {
+			return delegate.execute(request, options);
+		}
+		finally {
+			semaphore.release();
+		}
+	}
+
+	@Override
+	public void acquireNonBlockingPermit() {
+		if (!semaphore.tryAcquire()) {
+			throw reject();
+		}
+	}
+
+	@Override
+	public void releaseNonBlockingPermit() {
+		semaphore.release();
+	}
+
+	private void acquirePermit() throws InterruptedIOException {
+		boolean acquired;
+		try {
+			acquired = maxWaitNanos > 0 ? semaphore.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)
+					: semaphore.tryAcquire();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for bulkhead '" + getName() + "'");
+		}
+		if (!acquired) {
+			throw reject();
+		}
+	}
+
+	@Override
+	public int getActiveCalls() {
+		return getMaxConcurrentCalls() - semaphore.availablePermits();
+	}
+
+	@Override
+	public int getQueueDepth() {
+		return semaphore.getQueueLength();
+	}
+
+}
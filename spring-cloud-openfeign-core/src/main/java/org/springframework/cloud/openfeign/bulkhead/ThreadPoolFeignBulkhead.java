@@ -0,0 +1,140 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.bulkhead;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * {@link FeignBulkhead} executing calls on a dedicated thread pool with a bounded queue.
+ * Calls are rejected once all threads are busy and the queue is full. Non-blocking calls
+ * do not need a thread of the pool, and are limited to {@code maxConcurrentCalls} on
+ * their own. The caller waits at most the connect and read timeouts of the call, queueing
+ * time included, before the call is cancelled. Active calls are counted once, whether
+ * they run on the pool or hold a non-blocking permit.
+ */
+public class ThreadPoolFeignBulkhead extends FeignBulkhead {
+
+	private final ThreadPoolExecutor executor;
+
+	private final Semaphore nonBlockingPermits;
+
+	private final AtomicInteger activeCalls = new AtomicInteger();
+
+	public ThreadPoolFeignBulkhead(String name, int maxConcurrentCalls, int queueCapacity) {
+		super(name, maxConcurrentCalls);
+		this.executor = new ThreadPoolExecutor(maxConcurrentCalls, maxConcurrentCalls, 60L, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("feign-bulkhead-" + name + "-"));
+		this.executor.allowCoreThreadTimeOut(true);
+		this.nonBlockingPermits = new Semaphore(maxConcurrentCalls);
+	}
+
+	@Override
+	public Response execute(Client delegate, Request request, Request.Options options) throws IOException {
+		Future<Response> response;
+		try {
+			response = executor.submit(() -> {
+				activeCalls.incrementAndGet();
+				try {
+					return delegate.execute(request, options);
+				}
+				finally {
+					activeCalls.decrementAndGet();
+				}
+			});
+		}
+		catch (RejectedExecutionException e) {
+			throw reject();
+		}
+		try {
+			return response.get(maxWaitMillis(options), TimeUnit.MILLISECONDS);
+		}
+		catch (TimeoutException e) {
+			response.cancel(true);
+			throw new SocketTimeoutException("Timed out waiting for a response through bulkhead '" + getName() + "'");
+		}
+		catch (InterruptedException e) {
+			response.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for bulkhead '" + getName() + "'");
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IOException(cause);
+		}
+	}
+
+	private static long maxWaitMillis(Request.Options options) {
+		return options.connectTimeoutUnit().toMillis(options.connectTimeout())
+				+ options.readTimeoutUnit().toMillis(options.readTimeout());
+	}
+
+	@Override
+	public void acquireNonBlockingPermit() {
+		if (!nonBlockingPermits.tryAcquire()) {
+			throw reject();
+		}
+		activeCalls.incrementAndGet();
+	}
+
+	@Override
+	public void releaseNonBlockingPermit() {
+		activeCalls.decrementAndGet();
+		nonBlockingPermits.release();
+	}
+
+	@Override
+	public int getActiveCalls() {
+		return activeCalls.get();
+	}
+
+	@Override
+	public int getQueueDepth() {
+		return executor.getQueue().size();
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdown();
+	}
+
+}
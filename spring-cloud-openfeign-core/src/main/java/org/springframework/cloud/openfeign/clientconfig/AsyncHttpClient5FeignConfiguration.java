@@ -0,0 +1,131 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.clientconfig;
+
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+
+import feign.AsyncClient;
+import feign.hc5.AsyncApacheHttp5Client;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.nio.AsyncClientConnectionManager;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.client5.http.ssl.ClientTlsStrategyBuilder;
+import org.apache.hc.core5.http.ssl.TLS;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.ssl.SSLContexts;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.cloud.openfeign.support.FeignHttpClientProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Default configuration for {@link CloseableHttpAsyncClient} and the
+ * {@link AsyncApacheHttp5Client} built on top of it. Connections are multiplexed over a
+ * small, fixed number of I/O reactor threads.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnMissingBean(CloseableHttpAsyncClient.class)
+public class AsyncHttpClient5FeignConfiguration {
+
+	private static final Log LOG = LogFactory.getLog(AsyncHttpClient5FeignConfiguration.class);
+
+	private CloseableHttpAsyncClient asyncHttpClient5;
+
+	@Bean
+	@ConditionalOnMissingBean(AsyncClientConnectionManager.class)
+	public AsyncClientConnectionManager hc5AsyncConnectionManager(FeignHttpClientProperties httpClientProperties) {
+		return PoolingAsyncClientConnectionManagerBuilder.create()
+				.setTlsStrategy(ClientTlsStrategyBuilder.create()
+						.setSslContext(sslContext(httpClientProperties.isDisableSslValidation()))
+						.setTlsVersions(TLS.V_1_3, TLS.V_1_2).build())
+				.setMaxConnTotal(httpClientProperties.getMaxConnections())
+				.setMaxConnPerRoute(httpClientProperties.getMaxConnectionsPerRoute())
+				.setConnPoolPolicy(PoolReusePolicy.valueOf(httpClientProperties.getHc5().getPoolReusePolicy().name()))
+				.setPoolConcurrencyPolicy(
+						PoolConcurrencyPolicy.valueOf(httpClientProperties.getHc5().getPoolConcurrencyPolicy().name()))
+				.setConnectionTimeToLive(
+						TimeValue.of(httpClientProperties.getTimeToLive(), httpClientProperties.getTimeToLiveUnit()))
+				.build();
+	}
+
+	@Bean
+	public CloseableHttpAsyncClient asyncHttpClient5(AsyncClientConnectionManager asyncConnectionManager,
+			FeignHttpClientProperties httpClientProperties) {
+		FeignHttpClientProperties.Hc5Properties hc5Properties = httpClientProperties.getHc5();
+		asyncHttpClient5 = HttpAsyncClients.custom().disableCookieManagement().useSystemProperties()
+				.setConnectionManager(asyncConnectionManager).evictExpiredConnections()
+				.setVersionPolicy(HttpVersionPolicy.valueOf(hc5Properties.getHttpVersionPolicy().name()))
+				.setIOReactorConfig(IOReactorConfig.custom().setIoThreadCount(hc5Properties.getIoThreadCount())
+						.setSoTimeout(Timeout.of(hc5Properties.getSocketTimeout(), hc5Properties.getSocketTimeoutUnit()))
+						.build())
+				.setDefaultRequestConfig(RequestConfig.custom()
+						.setConnectTimeout(
+								Timeout.of(httpClientProperties.getConnectionTimeout(), TimeUnit.MILLISECONDS))
+						.setRedirectsEnabled(httpClientProperties.isFollowRedirects()).build())
+				.build();
+		asyncHttpClient5.start();
+		return asyncHttpClient5;
+	}
+
+	@Bean
+	@ConditionalOnMissingBean(AsyncClient.class)
+	public AsyncClient<HttpClientContext> feignAsyncClient(CloseableHttpAsyncClient asyncHttpClient5) {
+		return new AsyncApacheHttp5Client(asyncHttpClient5);
+	}
+
+	@PreDestroy
+	public void destroy() {
+		if (asyncHttpClient5 != null) {
+			asyncHttpClient5.close(CloseMode.GRACEFUL);
+		}
+	}
+
+	private SSLContext sslContext(boolean isDisableSslValidation) {
+		if (isDisableSslValidation) {
+			try {
+				SSLContext sslContext = SSLContext.getInstance("SSL");
+				sslContext.init(null,
+						new TrustManager[] { new HttpClient5FeignConfiguration.DisabledValidationTrustManager() },
+						new SecureRandom());
+				return sslContext;
+			}
+			catch (GeneralSecurityException e) {
+				LOG.warn("Error creating SSLContext", e);
+			}
+		}
+		return SSLContexts.createSystemDefault();
+	}
+
+}
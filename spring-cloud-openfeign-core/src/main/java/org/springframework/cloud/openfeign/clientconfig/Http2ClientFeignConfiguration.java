@@ -0,0 +1,99 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.clientconfig;
+
+import java.net.http.HttpClient;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.annotation.PreDestroy;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.cloud.openfeign.streaming.StreamingRequests;
+import org.springframework.cloud.openfeign.support.FeignHttpClientProperties;
+import org.springframework.cloud.openfeign.support.SharedHttp2Client;
+import org.springframework.cloud.openfeign.support.VirtualThreads;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Default configuration for the JDK {@link HttpClient}. A single client, and a single
+ * executor, is shared by all Feign clients. The executor uses virtual threads when
+ * {@code feign.virtual-threads.enabled} is set.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnMissingBean(HttpClient.class)
+public class Http2ClientFeignConfiguration {
+
+	private static final Log LOG = LogFactory.getLog(Http2ClientFeignConfiguration.class);
+
+	private ExecutorService executorService;
+
+	@Bean
+	public HttpClient http2Client(FeignHttpClientProperties httpClientProperties,
+			@Value("${" + VirtualThreads.ENABLED_PROPERTY + ":false}") boolean virtualThreads) {
+		if (VirtualThreads.isEnabled(virtualThreads)) {
+			executorService = VirtualThreads.newThreadPerTaskExecutor("feign-http2client-");
+		}
+		else {
+			CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("feign-http2client-");
+			threadFactory.setDaemon(true);
+			executorService = Executors.newCachedThreadPool(threadFactory);
+		}
+		HttpClient.Builder builder = HttpClient.newBuilder().executor(executorService)
+				.version(HttpClient.Version.valueOf(httpClientProperties.getHttp2().getVersion().name()))
+				.connectTimeout(Duration.ofMillis(httpClientProperties.getConnectionTimeout()))
+				.followRedirects(httpClientProperties.isFollowRedirects() ? HttpClient.Redirect.ALWAYS
+						: HttpClient.Redirect.NEVER);
+		if (httpClientProperties.isDisableSslValidation()) {
+			try {
+				SSLContext sslContext = SSLContext.getInstance("TLS");
+				sslContext.init(null,
+						new TrustManager[] { new HttpClient5FeignConfiguration.DisabledValidationTrustManager() },
+						new SecureRandom());
+				builder.sslContext(sslContext);
+			}
+			catch (GeneralSecurityException e) {
+				LOG.warn("Error creating SSLContext", e);
+			}
+		}
+		return builder.build();
+	}
+
+	@Bean
+	public StreamingRequests.Transport http2ClientStreamingRequestTransport() {
+		return new StreamingRequests.Transport(SharedHttp2Client.class);
+	}
+
+	@PreDestroy
+	public void destroy() {
+		if (executorService != null) {
+			executorService.shutdown();
+		}
+	}
+
+}
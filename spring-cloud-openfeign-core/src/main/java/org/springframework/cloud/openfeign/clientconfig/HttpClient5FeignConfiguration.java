@@ -28,6 +28,7 @@ import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
 
+import feign.hc5.ApacheHttp5Client;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.hc.client5.http.config.RequestConfig;
@@ -47,6 +48,8 @@ import org.apache.hc.core5.util.TimeValue;
 import org.apache.hc.core5.util.Timeout;
 
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.cloud.openfeign.streaming.HttpClient5StreamingRequestHandler;
+import org.springframework.cloud.openfeign.streaming.StreamingRequests;
 import org.springframework.cloud.openfeign.support.FeignHttpClientProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -87,6 +90,8 @@ public class HttpClient5FeignConfiguration {
 			FeignHttpClientProperties httpClientProperties) {
 		httpClient5 = HttpClients.custom().disableCookieManagement().useSystemProperties()
 				.setConnectionManager(connectionManager).evictExpiredConnections()
+				.addExecInterceptorFirst(HttpClient5StreamingRequestHandler.NAME,
+						new HttpClient5StreamingRequestHandler())
 				.setDefaultRequestConfig(RequestConfig.custom()
 						.setConnectTimeout(
 								Timeout.of(httpClientProperties.getConnectionTimeout(), TimeUnit.MILLISECONDS))
@@ -95,6 +100,11 @@ public class HttpClient5FeignConfiguration {
 		return httpClient5;
 	}
 
+	@Bean
+	public StreamingRequests.Transport httpClient5StreamingRequestTransport() {
+		return new StreamingRequests.Transport(ApacheHttp5Client.class);
+	}
+
 	@PreDestroy
 	public void destroy() {
 		if (httpClient5 != null) {
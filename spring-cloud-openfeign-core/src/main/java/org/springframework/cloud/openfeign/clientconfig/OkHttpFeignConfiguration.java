@@ -22,12 +22,17 @@ import java.util.concurrent.TimeUnit;
 import javax.annotation.PreDestroy;
 
 import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.cloud.commons.httpclient.OkHttpClientConnectionPoolFactory;
 import org.springframework.cloud.commons.httpclient.OkHttpClientFactory;
+import org.springframework.cloud.openfeign.streaming.OkHttpStreamingRequestInterceptor;
+import org.springframework.cloud.openfeign.streaming.StreamingRequests;
 import org.springframework.cloud.openfeign.support.FeignHttpClientProperties;
+import org.springframework.cloud.openfeign.support.VirtualThreads;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -57,16 +62,27 @@ public class OkHttpFeignConfiguration {
 
 	@Bean
 	public okhttp3.OkHttpClient client(OkHttpClientFactory httpClientFactory, ConnectionPool connectionPool,
-			FeignHttpClientProperties httpClientProperties) {
+			FeignHttpClientProperties httpClientProperties,
+			@Value("${" + VirtualThreads.ENABLED_PROPERTY + ":false}") boolean virtualThreads) {
 		boolean followRedirects = httpClientProperties.isFollowRedirects();
 		int connectTimeout = httpClientProperties.getConnectionTimeout();
 		Duration reaTimeout = httpClientProperties.getOkHttp().getReadTimeout();
-		this.okHttpClient = httpClientFactory.createBuilder(httpClientProperties.isDisableSslValidation())
+		OkHttpClient.Builder builder = httpClientFactory.createBuilder(httpClientProperties.isDisableSslValidation())
 				.connectTimeout(connectTimeout, TimeUnit.MILLISECONDS).followRedirects(followRedirects)
-				.readTimeout(reaTimeout).connectionPool(connectionPool).build();
+				.readTimeout(reaTimeout).connectionPool(connectionPool)
+				.addInterceptor(new OkHttpStreamingRequestInterceptor());
+		if (VirtualThreads.isEnabled(virtualThreads)) {
+			builder.dispatcher(new Dispatcher(VirtualThreads.newThreadPerTaskExecutor("feign-okhttp-")));
+		}
+		this.okHttpClient = builder.build();
 		return this.okHttpClient;
 	}
 
+	@Bean
+	public StreamingRequests.Transport okHttpStreamingRequestTransport() {
+		return new StreamingRequests.Transport(feign.okhttp.OkHttpClient.class);
+	}
+
 	@PreDestroy
 	public void destroy() {
 		if (this.okHttpClient != null) {
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.clientconfig;
+
+import java.time.Duration;
+
+import javax.annotation.PreDestroy;
+import javax.net.ssl.SSLException;
+
+import io.netty.channel.ChannelOption;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.cloud.openfeign.reactive.ReactorNettyClient;
+import org.springframework.cloud.openfeign.support.FeignHttpClientProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Default configuration for the Reactor Netty {@link HttpClient} used by
+ * {@link ReactorNettyClient}. Connections are pooled per host and all I/O runs on the
+ * shared Reactor Netty event loops.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnMissingBean(HttpClient.class)
+public class ReactorNettyFeignConfiguration {
+
+	private ConnectionProvider connectionProvider;
+
+	@Bean
+	public HttpClient reactorNettyHttpClient(FeignHttpClientProperties httpClientProperties) {
+		FeignHttpClientProperties.ReactorNetty reactorNettyProperties = httpClientProperties.getReactorNetty();
+		connectionProvider = ConnectionProvider.builder("feign")
+				.maxConnections(httpClientProperties.getMaxConnectionsPerRoute())
+				.pendingAcquireMaxCount(reactorNettyProperties.getPendingAcquireMaxCount())
+				.pendingAcquireTimeout(reactorNettyProperties.getPendingAcquireTimeout())
+				.maxLifeTime(Duration.ofMillis(
+						httpClientProperties.getTimeToLiveUnit().toMillis(httpClientProperties.getTimeToLive())))
+				.build();
+		HttpClient httpClient = HttpClient.create(connectionProvider)
+				.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, httpClientProperties.getConnectionTimeout())
+				.followRedirect(httpClientProperties.isFollowRedirects());
+		if (httpClientProperties.isDisableSslValidation()) {
+			httpClient = httpClient.secure(spec -> spec.sslContext(insecureSslContext()));
+		}
+		return httpClient;
+	}
+
+	@PreDestroy
+	public void destroy() {
+		if (connectionProvider != null) {
+			connectionProvider.dispose();
+		}
+	}
+
+	private static SslContext insecureSslContext() {
+		try {
+			return SslContextBuilder.forClient().trustManager(InsecureTrustManagerFactory.INSTANCE).build();
+		}
+		catch (SSLException e) {
+			throw new IllegalStateException("Error creating SslContext", e);
+		}
+	}
+
+}
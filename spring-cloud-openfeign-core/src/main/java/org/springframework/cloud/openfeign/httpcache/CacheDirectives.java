@@ -0,0 +1,110 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.httpcache;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Directives of the {@code Cache-Control} header of a request or a response, falling
+ * back to {@code Pragma: no-cache} when there is no {@code Cache-Control} header.
+ */
+final class CacheDirectives {
+
+	static final String NO_STORE = "no-store";
+
+	static final String NO_CACHE = "no-cache";
+
+	static final String MAX_AGE = "max-age";
+
+	static final String S_MAXAGE = "s-maxage";
+
+	static final String MAX_STALE = "max-stale";
+
+	static final String MIN_FRESH = "min-fresh";
+
+	static final String ONLY_IF_CACHED = "only-if-cached";
+
+	static final String MUST_REVALIDATE = "must-revalidate";
+
+	static final String PROXY_REVALIDATE = "proxy-revalidate";
+
+	static final String PRIVATE = "private";
+
+	static final String PUBLIC = "public";
+
+	private static final CacheDirectives NONE = new CacheDirectives(Collections.emptyMap());
+
+	private final Map<String, String> directives;
+
+	private CacheDirectives(Map<String, String> directives) {
+		this.directives = directives;
+	}
+
+	static CacheDirectives of(Map<String, ? extends Collection<String>> headers) {
+		Collection<String> cacheControl = HttpCachePolicy.headers(headers, HttpHeaders.CACHE_CONTROL);
+		if (cacheControl.isEmpty()) {
+			Collection<String> pragma = HttpCachePolicy.headers(headers, HttpHeaders.PRAGMA);
+			return pragma.stream().anyMatch(value -> value.toLowerCase(Locale.ROOT).contains(NO_CACHE))
+					? new CacheDirectives(Collections.singletonMap(NO_CACHE, "")) : NONE;
+		}
+		Map<String, String> directives = new HashMap<>();
+		for (String value : cacheControl) {
+			for (String directive : value.split(",")) {
+				int equals = directive.indexOf('=');
+				String name = (equals < 0 ? directive : directive.substring(0, equals)).trim()
+						.toLowerCase(Locale.ROOT);
+				String argument = equals < 0 ? "" : directive.substring(equals + 1).trim();
+				if (argument.length() > 1 && argument.startsWith("\"") && argument.endsWith("\"")) {
+					argument = argument.substring(1, argument.length() - 1);
+				}
+				if (!name.isEmpty()) {
+					directives.putIfAbsent(name, argument);
+				}
+			}
+		}
+		return new CacheDirectives(directives);
+	}
+
+	boolean has(String directive) {
+		return directives.containsKey(directive);
+	}
+
+	/**
+	 * @return the delta-seconds argument of the directive, or {@code -1} if the directive
+	 * is absent or its argument invalid
+	 */
+	long seconds(String directive) {
+		String argument = directives.get(directive);
+		if (argument == null || argument.isEmpty()) {
+			return -1;
+		}
+		try {
+			return Math.max(0, Long.parseLong(argument));
+		}
+		catch (NumberFormatException e) {
+			// delta-seconds overflowing a long are treated as the largest value
+			return argument.chars().allMatch(Character::isDigit) ? Long.MAX_VALUE / 1000 : -1;
+		}
+	}
+
+}
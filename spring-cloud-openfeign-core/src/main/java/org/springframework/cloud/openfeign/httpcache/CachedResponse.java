@@ -0,0 +1,203 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.httpcache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import feign.Request;
+import feign.Response;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * A response stored by a {@link HttpCacheStore}, together with the times it was requested
+ * and received and the request header values selected by its {@code Vary} header.
+ */
+public final class CachedResponse {
+
+	private static final long OVERHEAD = 64;
+
+	private final int status;
+
+	private final String reason;
+
+	private final Map<String, Collection<String>> headers;
+
+	private final byte[] body;
+
+	private final long requestTime;
+
+	private final long responseTime;
+
+	private final Map<String, List<String>> varyValues;
+
+	private final long size;
+
+	private volatile CacheDirectives directives;
+
+	public CachedResponse(int status, String reason, Map<String, ? extends Collection<String>> headers, byte[] body,
+			long requestTime, long responseTime, Map<String, List<String>> varyValues) {
+		this.status = status;
+		this.reason = reason;
+		this.headers = Collections.unmodifiableMap(copy(headers));
+		this.body = body;
+		this.requestTime = requestTime;
+		this.responseTime = responseTime;
+		this.varyValues = Collections.unmodifiableMap(new LinkedHashMap<>(varyValues));
+		long size = OVERHEAD + body.length + (reason != null ? reason.length() : 0);
+		for (Map.Entry<String, Collection<String>> header : this.headers.entrySet()) {
+			size += header.getKey().length();
+			for (String value : header.getValue()) {
+				size += value.length();
+			}
+		}
+		this.size = size;
+	}
+
+	static CachedResponse of(Request request, Response response, byte[] body, long requestTime,
+			long responseTime) {
+		Map<String, List<String>> varyValues = new LinkedHashMap<>();
+		for (String field : HttpCachePolicy.varyFields(response.headers())) {
+			varyValues.put(field, new ArrayList<>(HttpCachePolicy.headers(request.headers(), field)));
+		}
+		return new CachedResponse(response.status(), response.reason(), response.headers(), body, requestTime,
+				responseTime, varyValues);
+	}
+
+	public int status() {
+		return status;
+	}
+
+	public String reason() {
+		return reason;
+	}
+
+	public Map<String, Collection<String>> headers() {
+		return headers;
+	}
+
+	public byte[] body() {
+		return body;
+	}
+
+	public long requestTime() {
+		return requestTime;
+	}
+
+	public long responseTime() {
+		return responseTime;
+	}
+
+	public Map<String, List<String>> varyValues() {
+		return varyValues;
+	}
+
+	/**
+	 * @return an estimate of the number of bytes held by this response
+	 */
+	public long size() {
+		return size;
+	}
+
+	CacheDirectives directives() {
+		CacheDirectives directives = this.directives;
+		if (directives == null) {
+			directives = CacheDirectives.of(headers);
+			this.directives = directives;
+		}
+		return directives;
+	}
+
+	/**
+	 * @return {@code true} if the request selects this response, see RFC 9111 section
+	 * 4.1
+	 */
+	boolean matches(Request request) {
+		for (Map.Entry<String, List<String>> vary : varyValues.entrySet()) {
+			List<String> values = new ArrayList<>(HttpCachePolicy.headers(request.headers(), vary.getKey()));
+			if (!Objects.equals(values, vary.getValue())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the validators of this response as conditional request headers
+	 */
+	Map<String, Collection<String>> conditionalHeaders() {
+		Map<String, Collection<String>> conditional = new LinkedHashMap<>();
+		String etag = HttpCachePolicy.header(headers, HttpHeaders.ETAG);
+		if (etag != null) {
+			conditional.put(HttpHeaders.IF_NONE_MATCH, Collections.singletonList(etag));
+		}
+		String lastModified = HttpCachePolicy.header(headers, HttpHeaders.LAST_MODIFIED);
+		if (lastModified != null) {
+			conditional.put(HttpHeaders.IF_MODIFIED_SINCE, Collections.singletonList(lastModified));
+		}
+		return conditional;
+	}
+
+	/**
+	 * Freshens this response with the header fields of a {@code 304 Not Modified}
+	 * response, see RFC 9111 section 4.3.4.
+	 * @param notModified headers of the {@code 304} response
+	 * @param requestTime time the conditional request was sent
+	 * @param responseTime time the {@code 304} response was received
+	 * @return the updated response
+	 */
+	CachedResponse revalidated(Map<String, ? extends Collection<String>> notModified, long requestTime,
+			long responseTime) {
+		Map<String, Collection<String>> merged = copy(headers);
+		for (Map.Entry<String, ? extends Collection<String>> header : notModified.entrySet()) {
+			if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(header.getKey())
+					&& !HttpHeaders.TRANSFER_ENCODING.equalsIgnoreCase(header.getKey())) {
+				merged.put(header.getKey(), header.getValue());
+			}
+		}
+		return new CachedResponse(status, reason, merged, body, requestTime, responseTime, varyValues);
+	}
+
+	Response toResponse(Request request, long ageMillis) {
+		Map<String, Collection<String>> responseHeaders = copy(headers);
+		responseHeaders.put(HttpHeaders.AGE, Collections.singletonList(String.valueOf(ageMillis / 1000)));
+		return Response.builder().status(status).reason(reason).request(request).headers(responseHeaders).body(body)
+				.build();
+	}
+
+	@Override
+	public String toString() {
+		return "CachedResponse{status=" + status + ", size=" + size + ", etag="
+				+ HttpCachePolicy.header(headers, HttpHeaders.ETAG) + ", body="
+				+ new String(body, 0, Math.min(body.length, 32), StandardCharsets.UTF_8) + "}";
+	}
+
+	private static Map<String, Collection<String>> copy(Map<String, ? extends Collection<String>> headers) {
+		Map<String, Collection<String>> copy = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		headers.forEach((name, values) -> copy.put(name, Collections.unmodifiableList(new ArrayList<>(values))));
+		return copy;
+	}
+
+}
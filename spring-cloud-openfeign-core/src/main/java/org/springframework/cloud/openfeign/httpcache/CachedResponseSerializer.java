@@ -0,0 +1,128 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.httpcache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary form of a {@link CachedResponse}, used by the stores keeping responses outside
+ * of the heap.
+ */
+final class CachedResponseSerializer {
+
+	private static final int VERSION = 1;
+
+	private CachedResponseSerializer() {
+		throw new IllegalStateException("Can't instantiate a utility class");
+	}
+
+	static byte[] serialize(CachedResponse response) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream((int) Math.min(Integer.MAX_VALUE, response.size()));
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeInt(VERSION);
+			out.writeInt(response.status());
+			writeString(out, response.reason());
+			out.writeLong(response.requestTime());
+			out.writeLong(response.responseTime());
+			writeValues(out, response.headers());
+			writeValues(out, response.varyValues());
+			out.writeInt(response.body().length);
+			out.write(response.body());
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	static CachedResponse deserialize(byte[] data) throws IOException {
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+			int version = in.readInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported cached response version " + version);
+			}
+			int status = in.readInt();
+			String reason = readString(in);
+			long requestTime = in.readLong();
+			long responseTime = in.readLong();
+			Map<String, List<String>> headers = readValues(in);
+			Map<String, List<String>> varyValues = readValues(in);
+			byte[] body = new byte[in.readInt()];
+			in.readFully(body);
+			return new CachedResponse(status, reason, headers, body, requestTime, responseTime, varyValues);
+		}
+	}
+
+	private static void writeValues(DataOutputStream out, Map<String, ? extends Collection<String>> values)
+			throws IOException {
+		out.writeInt(values.size());
+		for (Map.Entry<String, ? extends Collection<String>> entry : values.entrySet()) {
+			writeString(out, entry.getKey());
+			out.writeInt(entry.getValue().size());
+			for (String value : entry.getValue()) {
+				writeString(out, value);
+			}
+		}
+	}
+
+	private static Map<String, List<String>> readValues(DataInputStream in) throws IOException {
+		int count = in.readInt();
+		Map<String, List<String>> values = new LinkedHashMap<>();
+		for (int i = 0; i < count; i++) {
+			String name = readString(in);
+			int valueCount = in.readInt();
+			List<String> list = new ArrayList<>(valueCount);
+			for (int j = 0; j < valueCount; j++) {
+				list.add(readString(in));
+			}
+			values.put(name, list);
+		}
+		return values;
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.httpcache;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Properties for the HTTP response cache shared by all Feign clients.
+ */
+@ConfigurationProperties("feign.httpcache")
+public class FeignHttpCacheProperties {
+
+	/**
+	 * Enables caching of responses according to their HTTP caching headers.
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * Maximum number of bytes held by the cache; least recently used responses are
+	 * evicted first.
+	 */
+	private DataSize maxSize = DataSize.ofMegabytes(64);
+
+	/**
+	 * Maximum size of a cached response body; larger bodies are not cached.
+	 */
+	private DataSize maxEntrySize = DataSize.ofMegabytes(1);
+
+	/**
+	 * Whether the cache behaves as a shared cache, honoring {@code s-maxage} and not
+	 * storing {@code private} responses.
+	 */
+	private boolean shared = true;
+
+	/**
+	 * Where cached responses are kept; {@code off-heap} keeps their serialized form in
+	 * direct memory so large cached datasets do not weigh on garbage collection.
+	 */
+	private StoreType store = StoreType.HEAP;
+
+	/**
+	 * Persistent tier of the cache, kept in memory-mapped files so cached responses
+	 * survive restarts.
+	 */
+	private Disk disk = new Disk();
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public DataSize getMaxSize() {
+		return maxSize;
+	}
+
+	public void setMaxSize(DataSize maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	public DataSize getMaxEntrySize() {
+		return maxEntrySize;
+	}
+
+	public void setMaxEntrySize(DataSize maxEntrySize) {
+		this.maxEntrySize = maxEntrySize;
+	}
+
+	public boolean isShared() {
+		return shared;
+	}
+
+	public void setShared(boolean shared) {
+		this.shared = shared;
+	}
+
+	public StoreType getStore() {
+		return store;
+	}
+
+	public void setStore(StoreType store) {
+		this.store = store;
+	}
+
+	public Disk getDisk() {
+		return disk;
+	}
+
+	public void setDisk(Disk disk) {
+		this.disk = disk;
+	}
+
+	/**
+	 * Storage of the cached responses.
+	 */
+	public enum StoreType {
+
+		/**
+		 * Responses are kept on the Java heap.
+		 */
+		HEAP,
+
+		/**
+		 * Serialized responses are kept in direct memory.
+		 */
+		OFF_HEAP
+
+	}
+
+	/**
+	 * Persistent tier of the cache.
+	 */
+	public static class Disk {
+
+		/**
+		 * Enables the persistent tier.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Directory holding the segment files of the persistent tier.
+		 */
+		private Path directory = Paths.get(System.getProperty("java.io.tmpdir"), "feign-httpcache");
+
+		/**
+		 * Maximum total size of the segment files; the oldest segment is deleted when it
+		 * is exceeded.
+		 */
+		private DataSize maxSize = DataSize.ofGigabytes(1);
+
+		/**
+		 * Size of each memory-mapped segment file; responses larger than a segment are
+		 * not persisted.
+		 */
+		private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public Path getDirectory() {
+			return directory;
+		}
+
+		public void setDirectory(Path directory) {
+			this.directory = directory;
+		}
+
+		public DataSize getMaxSize() {
+			return maxSize;
+		}
+
+		public void setMaxSize(DataSize maxSize) {
+			this.maxSize = maxSize;
+		}
+
+		public DataSize getSegmentSize() {
+			return segmentSize;
+		}
+
+		public void setSegmentSize(DataSize segmentSize) {
+			this.segmentSize = segmentSize;
+		}
+
+	}
+
+}
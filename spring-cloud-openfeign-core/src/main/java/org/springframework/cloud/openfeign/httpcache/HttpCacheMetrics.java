@@ -0,0 +1,73 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.httpcache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * {@link MeterBinder} exposing the hits, misses, evictions and memory usage of the
+ * {@link HttpCacheStore} of the HTTP response cache, when it keeps
+ * {@link HttpCacheStatistics}. The tiers of a {@link TieredHttpCacheStore} are tagged
+ * {@code memory} and {@code disk}.
+ */
+public class HttpCacheMetrics implements MeterBinder {
+
+	private final HttpCacheStore store;
+
+	public HttpCacheMetrics(HttpCacheStore store) {
+		this.store = store;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		if (store instanceof TieredHttpCacheStore) {
+			bindTo(registry, ((TieredHttpCacheStore) store).getMemory(), "memory");
+			bindTo(registry, ((TieredHttpCacheStore) store).getPersistent(), "disk");
+		}
+		else {
+			bindTo(registry, store, "memory");
+		}
+	}
+
+	private void bindTo(MeterRegistry registry, HttpCacheStore tier, String tierName) {
+		if (!(tier instanceof HttpCacheStatistics)) {
+			return;
+		}
+		HttpCacheStatistics statistics = (HttpCacheStatistics) tier;
+		Tags tags = Tags.of("tier", tierName);
+		FunctionCounter.builder("feign.httpcache.requests", statistics, HttpCacheStatistics::hitCount).tags(tags)
+				.tag("result", "hit").description("Number of lookups that found a cached response")
+				.register(registry);
+		FunctionCounter.builder("feign.httpcache.requests", statistics, HttpCacheStatistics::missCount).tags(tags)
+				.tag("result", "miss").description("Number of lookups that found no cached response")
+				.register(registry);
+		FunctionCounter.builder("feign.httpcache.evictions", statistics, HttpCacheStatistics::evictionCount)
+				.tags(tags).description("Number of cached responses evicted to make room for others")
+				.register(registry);
+		Gauge.builder("feign.httpcache.entries", statistics, HttpCacheStatistics::count).tags(tags)
+				.description("Number of cached responses").register(registry);
+		Gauge.builder("feign.httpcache.size", statistics, HttpCacheStatistics::size).tags(tags).baseUnit("bytes")
+				.description("Memory used by the cached responses").register(registry);
+		Gauge.builder("feign.httpcache.max.size", statistics, HttpCacheStatistics::maxSize).tags(tags)
+				.baseUnit("bytes").description("Maximum memory used by the cached responses").register(registry);
+	}
+
+}
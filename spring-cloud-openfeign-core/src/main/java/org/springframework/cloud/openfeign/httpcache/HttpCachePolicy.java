@@ -0,0 +1,208 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.httpcache;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import feign.Request;
+import feign.Response;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Storage and freshness rules of RFC 9111 for a private or a shared cache.
+ */
+final class HttpCachePolicy {
+
+	/**
+	 * Status codes heuristically cacheable, see RFC 9110 section 15.1.
+	 */
+	private static final Set<Integer> CACHEABLE_BY_DEFAULT = new HashSet<>(
+			Arrays.asList(200, 203, 204, 300, 301, 308, 404, 405, 410, 414, 501));
+
+	private static final long MAX_HEURISTIC_LIFETIME = 24 * 60 * 60 * 1000L;
+
+	private HttpCachePolicy() {
+		throw new IllegalStateException("Can't instantiate a utility class");
+	}
+
+	/**
+	 * @return {@code true} if the response to the request may be stored, see RFC 9111
+	 * section 3
+	 */
+	static boolean isStorable(Request request, Response response, CacheDirectives requestDirectives,
+			boolean shared) {
+		CacheDirectives directives = CacheDirectives.of(response.headers());
+		if (request.httpMethod() != Request.HttpMethod.GET || response.status() < 200 || response.status() == 206
+				|| response.status() == 304 || requestDirectives.has(CacheDirectives.NO_STORE)
+				|| directives.has(CacheDirectives.NO_STORE) || varyFields(response.headers()).contains("*")) {
+			return false;
+		}
+		if (shared && directives.has(CacheDirectives.PRIVATE)) {
+			return false;
+		}
+		if (shared && !headers(request.headers(), HttpHeaders.AUTHORIZATION).isEmpty()
+				&& !directives.has(CacheDirectives.PUBLIC) && !directives.has(CacheDirectives.S_MAXAGE)
+				&& !directives.has(CacheDirectives.MUST_REVALIDATE)) {
+			return false;
+		}
+		boolean explicitFreshness = directives.has(CacheDirectives.MAX_AGE)
+				|| shared && directives.has(CacheDirectives.S_MAXAGE)
+				|| header(response.headers(), HttpHeaders.EXPIRES) != null;
+		boolean validator = header(response.headers(), HttpHeaders.ETAG) != null
+				|| header(response.headers(), HttpHeaders.LAST_MODIFIED) != null;
+		return explicitFreshness || directives.has(CacheDirectives.PUBLIC)
+				|| validator && CACHEABLE_BY_DEFAULT.contains(response.status());
+	}
+
+	/**
+	 * @return {@code true} if the stored response can be served without contacting the
+	 * server, see RFC 9111 section 4.2
+	 */
+	static boolean isFresh(CachedResponse cached, CacheDirectives requestDirectives, long now, boolean shared) {
+		CacheDirectives directives = cached.directives();
+		if (directives.has(CacheDirectives.NO_CACHE) || requestDirectives.has(CacheDirectives.NO_CACHE)) {
+			return false;
+		}
+		long age = currentAge(cached, now);
+		long maxAge = requestDirectives.seconds(CacheDirectives.MAX_AGE);
+		if (maxAge >= 0 && age > maxAge * 1000) {
+			return false;
+		}
+		long minFresh = requestDirectives.seconds(CacheDirectives.MIN_FRESH);
+		if (minFresh > 0) {
+			age += minFresh * 1000;
+		}
+		long lifetime = freshnessLifetime(cached, shared);
+		if (age < lifetime) {
+			return true;
+		}
+		if (requestDirectives.has(CacheDirectives.MAX_STALE) && !mustRevalidate(directives, shared)) {
+			long maxStale = requestDirectives.seconds(CacheDirectives.MAX_STALE);
+			return maxStale < 0 || age - lifetime <= maxStale * 1000;
+		}
+		return false;
+	}
+
+	static boolean mustRevalidate(CacheDirectives directives, boolean shared) {
+		return directives.has(CacheDirectives.MUST_REVALIDATE)
+				|| shared && directives.has(CacheDirectives.PROXY_REVALIDATE);
+	}
+
+	/**
+	 * @return the freshness lifetime of the stored response in milliseconds, see RFC 9111
+	 * section 4.2.1
+	 */
+	static long freshnessLifetime(CachedResponse cached, boolean shared) {
+		CacheDirectives directives = cached.directives();
+		long sharedMaxAge = shared ? directives.seconds(CacheDirectives.S_MAXAGE) : -1;
+		if (sharedMaxAge >= 0) {
+			return sharedMaxAge * 1000;
+		}
+		long maxAge = directives.seconds(CacheDirectives.MAX_AGE);
+		if (maxAge >= 0) {
+			return maxAge * 1000;
+		}
+		long date = date(cached.headers(), HttpHeaders.DATE);
+		long origin = date >= 0 ? date : cached.responseTime();
+		if (header(cached.headers(), HttpHeaders.EXPIRES) != null) {
+			long expires = date(cached.headers(), HttpHeaders.EXPIRES);
+			return expires >= 0 ? Math.max(0, expires - origin) : 0;
+		}
+		long lastModified = date(cached.headers(), HttpHeaders.LAST_MODIFIED);
+		if (lastModified >= 0 && CACHEABLE_BY_DEFAULT.contains(cached.status())) {
+			return Math.min(MAX_HEURISTIC_LIFETIME, Math.max(0, origin - lastModified) / 10);
+		}
+		return 0;
+	}
+
+	/**
+	 * @return the current age of the stored response in milliseconds, see RFC 9111
+	 * section 4.2.3
+	 */
+	static long currentAge(CachedResponse cached, long now) {
+		long date = date(cached.headers(), HttpHeaders.DATE);
+		long apparentAge = date >= 0 ? Math.max(0, cached.responseTime() - date) : 0;
+		long ageValue = 0;
+		String age = header(cached.headers(), HttpHeaders.AGE);
+		if (age != null) {
+			try {
+				ageValue = Math.max(0, Long.parseLong(age.trim())) * 1000;
+			}
+			catch (NumberFormatException ignored) {
+			}
+		}
+		long responseDelay = cached.responseTime() - cached.requestTime();
+		long correctedInitialAge = Math.max(apparentAge, ageValue + responseDelay);
+		return correctedInitialAge + Math.max(0, now - cached.responseTime());
+	}
+
+	static List<String> varyFields(Map<String, ? extends Collection<String>> headers) {
+		List<String> fields = new ArrayList<>();
+		for (String value : headers(headers, HttpHeaders.VARY)) {
+			for (String field : value.split(",")) {
+				if (!field.trim().isEmpty()) {
+					fields.add(field.trim().toLowerCase(Locale.ROOT));
+				}
+			}
+		}
+		return fields;
+	}
+
+	static Collection<String> headers(Map<String, ? extends Collection<String>> headers, String name) {
+		for (Map.Entry<String, ? extends Collection<String>> header : headers.entrySet()) {
+			if (name.equalsIgnoreCase(header.getKey())) {
+				return header.getValue();
+			}
+		}
+		return Collections.emptyList();
+	}
+
+	static String header(Map<String, ? extends Collection<String>> headers, String name) {
+		Collection<String> values = headers(headers, name);
+		return values.isEmpty() ? null : values.iterator().next();
+	}
+
+	/**
+	 * @return the date held by the header in epoch milliseconds, or {@code -1} if it is
+	 * absent or invalid
+	 */
+	static long date(Map<String, ? extends Collection<String>> headers, String name) {
+		String value = header(headers, name);
+		if (value == null) {
+			return -1;
+		}
+		try {
+			return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+		}
+		catch (DateTimeParseException e) {
+			return -1;
+		}
+	}
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.httpcache;
+
+/**
+ * Usage statistics of a {@link HttpCacheStore}.
+ */
+public interface HttpCacheStatistics {
+
+	/**
+	 * @return the number of lookups that found a stored response
+	 */
+	long hitCount();
+
+	/**
+	 * @return the number of lookups that found no stored response
+	 */
+	long missCount();
+
+	/**
+	 * @return the number of responses evicted to make room for others
+	 */
+	long evictionCount();
+
+	/**
+	 * @return the number of stored responses
+	 */
+	int count();
+
+	/**
+	 * @return the number of bytes used by the stored responses
+	 */
+	long size();
+
+	/**
+	 * @return the maximum number of bytes the store may use
+	 */
+	long maxSize();
+
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.httpcache;
+
+/**
+ * Storage of the responses cached by {@link HttpCachingClient}. Implementations must be
+ * thread-safe and decide on their own which entries to evict.
+ */
+public interface HttpCacheStore {
+
+	/**
+	 * @param key the cache key of the request
+	 * @return the stored response, or {@code null} if there is none
+	 */
+	CachedResponse get(String key);
+
+	/**
+	 * Stores the response, replacing any response previously stored under the key.
+	 * @param key the cache key of the request
+	 * @param response the response to store
+	 */
+	void put(String key, CachedResponse response);
+
+	/**
+	 * Removes the response stored under the key, if any.
+	 * @param key the cache key of the request
+	 */
+	void remove(String key);
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.httpcache;
+
+import feign.Capability;
+import feign.Client;
+
+/**
+ * {@link Capability} decorating the {@link Client} of a Feign client with a
+ * {@link HttpCachingClient}.
+ */
+public class HttpCachingCapability implements Capability {
+
+	private final HttpCacheStore store;
+
+	private final boolean shared;
+
+	private final long maxEntrySize;
+
+	public HttpCachingCapability(HttpCacheStore store, boolean shared, long maxEntrySize) {
+		this.store = store;
+		this.shared = shared;
+		this.maxEntrySize = maxEntrySize;
+	}
+
+	@Override
+	public Client enrich(Client client) {
+		return client instanceof HttpCachingClient ? client
+				: new HttpCachingClient(client, store, shared, maxEntrySize);
+	}
+
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.httpcache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.time.Clock;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * {@link Client} caching responses according to RFC 9111. Fresh responses are served
+ * without any network I/O; stale responses carrying a validator are revalidated with a
+ * conditional request, a {@code 304 Not Modified} answer reusing the stored body. Only
+ * {@code GET} responses whose body is at most {@code maxEntrySize} bytes are stored;
+ * larger bodies are streamed through. Successful unsafe requests invalidate the response
+ * stored for their target URI.
+ */
+public class HttpCachingClient implements Client {
+
+	private final Client delegate;
+
+	private final HttpCacheStore store;
+
+	private final boolean shared;
+
+	private final long maxEntrySize;
+
+	private final Clock clock;
+
+	public HttpCachingClient(Client delegate, HttpCacheStore store, boolean shared, long maxEntrySize) {
+		this(delegate, store, shared, maxEntrySize, Clock.systemUTC());
+	}
+
+	public HttpCachingClient(Client delegate, HttpCacheStore store, boolean shared, long maxEntrySize,
+			Clock clock) {
+		this.delegate = delegate;
+		this.store = store;
+		this.shared = shared;
+		this.maxEntrySize = maxEntrySize;
+		this.clock = clock;
+	}
+
+	@Override
+	public Response execute(Request request, Request.Options options) throws IOException {
+		if (request.httpMethod() != Request.HttpMethod.GET) {
+			Response response = delegate.execute(request, options);
+			if (isUnsafe(request.httpMethod()) && response.status() < 400) {
+				store.remove(key(request));
+			}
+			return response;
+		}
+		if (bypassesCache(request)) {
+			return delegate.execute(request, options);
+		}
+		String key = key(request);
+		CacheDirectives requestDirectives = CacheDirectives.of(request.headers());
+		CachedResponse cached = requestDirectives.has(CacheDirectives.NO_STORE) ? null : store.get(key);
+		if (cached != null && !cached.matches(request)) {
+			cached = null;
+		}
+		long now = clock.millis();
+		if (cached != null && HttpCachePolicy.isFresh(cached, requestDirectives, now, shared)) {
+			return cached.toResponse(request, HttpCachePolicy.currentAge(cached, now));
+		}
+		if (requestDirectives.has(CacheDirectives.ONLY_IF_CACHED)) {
+			return Response.builder().status(504).reason("Gateway Timeout").request(request)
+					.headers(Collections.emptyMap()).body(new byte[0]).build();
+		}
+		Map<String, Collection<String>> conditional = cached != null ? cached.conditionalHeaders()
+				: Collections.emptyMap();
+		long requestTime = clock.millis();
+		Response response = delegate.execute(conditional.isEmpty() ? request : conditional(request, conditional),
+				options);
+		long responseTime = clock.millis();
+		if (response.status() == 304 && !conditional.isEmpty()) {
+			response.close();
+			CachedResponse revalidated = cached.revalidated(response.headers(), requestTime, responseTime);
+			store.put(key, revalidated);
+			return revalidated.toResponse(request, HttpCachePolicy.currentAge(revalidated, responseTime));
+		}
+		return store(key, request, response, requestDirectives, requestTime, responseTime);
+	}
+
+	private Response store(String key, Request request, Response response, CacheDirectives requestDirectives,
+			long requestTime, long responseTime) throws IOException {
+		if (!HttpCachePolicy.isStorable(request, response, requestDirectives, shared)) {
+			return response;
+		}
+		Response.Body body = response.body();
+		byte[] bytes = new byte[0];
+		if (body != null) {
+			if (body.length() != null && body.length() > maxEntrySize) {
+				return response;
+			}
+			InputStream in = body.asInputStream();
+			bytes = read(in, maxEntrySize + 1);
+			if (bytes.length > maxEntrySize) {
+				InputStream remaining = new SequenceInputStream(new ByteArrayInputStream(bytes), in);
+				return response.toBuilder().body(remaining, body.length()).build();
+			}
+			in.close();
+		}
+		store.put(key, CachedResponse.of(request, response, bytes, requestTime, responseTime));
+		return response.toBuilder().body(bytes).build();
+	}
+
+	public Client getDelegate() {
+		return delegate;
+	}
+
+	static String key(Request request) {
+		return request.url();
+	}
+
+	private static boolean bypassesCache(Request request) {
+		return !HttpCachePolicy.headers(request.headers(), HttpHeaders.RANGE).isEmpty()
+				|| !HttpCachePolicy.headers(request.headers(), HttpHeaders.IF_NONE_MATCH).isEmpty()
+				|| !HttpCachePolicy.headers(request.headers(), HttpHeaders.IF_MODIFIED_SINCE).isEmpty()
+				|| !HttpCachePolicy.headers(request.headers(), HttpHeaders.IF_MATCH).isEmpty()
+				|| !HttpCachePolicy.headers(request.headers(), HttpHeaders.IF_UNMODIFIED_SINCE).isEmpty();
+	}
+
+	private static boolean isUnsafe(Request.HttpMethod method) {
+		return method != Request.HttpMethod.HEAD && method != Request.HttpMethod.OPTIONS
+				&& method != Request.HttpMethod.TRACE;
+	}
+
+	private static Request conditional(Request request, Map<String, Collection<String>> conditional) {
+		Map<String, Collection<String>> headers = new LinkedHashMap<>(request.headers());
+		headers.putAll(conditional);
+		return Request.create(request.httpMethod(), request.url(), headers, request.body(), request.charset(),
+				request.requestTemplate());
+	}
+
+	private static byte[] read(InputStream in, long limit) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int read;
+		while (out.size() < limit
+				&& (read = in.read(buffer, 0, (int) Math.min(buffer.length, limit - out.size()))) != -1) {
+			out.write(buffer, 0, read);
+		}
+		return out.toByteArray();
+	}
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.httpcache;
+
+import java.util.function.BiFunction;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.cloud.openfeign.reactive.BlockingReactiveFeignClient;
+import org.springframework.cloud.openfeign.reactive.ReactiveFeignClient;
+
+/**
+ * {@link ReactiveFeignClient} looking responses up in the HTTP cache of a
+ * {@link HttpCachingCapability} before executing the request with its delegate. As the
+ * cache store is blocking, lookups run on the bounded elastic scheduler; streamed
+ * responses are passed through without being cached.
+ */
+public class HttpCachingReactiveFeignClient implements ReactiveFeignClient {
+
+	private final ReactiveFeignClient delegate;
+
+	private final Client cachingClient;
+
+	public HttpCachingReactiveFeignClient(ReactiveFeignClient delegate, HttpCachingCapability capability) {
+		this.delegate = delegate;
+		this.cachingClient = capability.enrich(new BlockingReactiveFeignClient(delegate));
+	}
+
+	@Override
+	public Mono<Response> exchange(Request request, Request.Options options) {
+		return Mono.fromCallable(() -> cachingClient.execute(request, options))
+				.subscribeOn(Schedulers.boundedElastic());
+	}
+
+	@Override
+	public <T> Flux<T> exchange(Request request, Request.Options options,
+			BiFunction<Response, Flux<byte[]>, Publisher<T>> handler) {
+		return delegate.exchange(request, options, handler);
+	}
+
+	public ReactiveFeignClient getDelegate() {
+		return delegate;
+	}
+
+}
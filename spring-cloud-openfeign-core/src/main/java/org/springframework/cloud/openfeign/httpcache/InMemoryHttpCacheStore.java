@@ -0,0 +1,154 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.httpcache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link HttpCacheStore} keeping responses on the heap. The sum of the response sizes is
+ * bounded, the least recently used responses being evicted first.
+ */
+public class InMemoryHttpCacheStore implements HttpCacheStore, HttpCacheStatistics {
+
+	private final long maxSize;
+
+	private final Lock lock = new ReentrantLock();
+
+	private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder evictions = new LongAdder();
+
+	private long size;
+
+	public InMemoryHttpCacheStore(long maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	@Override
+	public CachedResponse get(String key) {
+		CachedResponse response;
+		lock.lock();
+		try {
+			// access-ordered, so even lookups update the map
+			response = entries.get(key);
+		}
+		finally {
+			lock.unlock();
+		}
+		if (response != null) {
+			hits.increment();
+		}
+		else {
+			misses.increment();
+		}
+		return response;
+	}
+
+	@Override
+	public void put(String key, CachedResponse response) {
+		if (response.size() > maxSize) {
+			remove(key);
+			return;
+		}
+		lock.lock();
+		try {
+			CachedResponse previous = entries.put(key, response);
+			if (previous != null) {
+				size -= previous.size();
+			}
+			size += response.size();
+			Iterator<Map.Entry<String, CachedResponse>> eldest = entries.entrySet().iterator();
+			while (size > maxSize && eldest.hasNext()) {
+				size -= eldest.next().getValue().size();
+				eldest.remove();
+				evictions.increment();
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void remove(String key) {
+		lock.lock();
+		try {
+			CachedResponse removed = entries.remove(key);
+			if (removed != null) {
+				size -= removed.size();
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public long hitCount() {
+		return hits.sum();
+	}
+
+	@Override
+	public long missCount() {
+		return misses.sum();
+	}
+
+	@Override
+	public long evictionCount() {
+		return evictions.sum();
+	}
+
+	@Override
+	public int count() {
+		lock.lock();
+		try {
+			return entries.size();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return the sum of the sizes of the stored responses
+	 */
+	@Override
+	public long size() {
+		lock.lock();
+		try {
+			return size;
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public long maxSize() {
+		return maxSize;
+	}
+
+}
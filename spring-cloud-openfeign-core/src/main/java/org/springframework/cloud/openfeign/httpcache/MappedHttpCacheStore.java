@@ -0,0 +1,541 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.httpcache;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.util.Assert;
+
+/**
+ * {@link HttpCacheStore} persisting responses to memory-mapped segment files, so the
+ * cache survives restarts and instances come up warm. Stored responses keep the times
+ * they were requested and received, so their freshness is computed across restarts as
+ * if they were never stored, and stale responses are revalidated with their
+ * {@code ETag} or {@code Last-Modified} date.
+ * <p>
+ * Segments are append-only: every stored or removed response appends a checksummed
+ * record to the active segment, and an in-memory index maps each key to its latest
+ * record. The index is rebuilt by scanning the segments on first use, stopping at the
+ * first incomplete record of a segment. When the total size of the segments would
+ * exceed the maximum size, the oldest segment is deleted together with the responses it
+ * holds.
+ * <p>
+ * The lock only guards the index and reserves space for each record: records are copied
+ * to and from the segments, and segments are opened, flushed and deleted, outside of it.
+ * A record becomes visible once fully written.
+ */
+public class MappedHttpCacheStore implements HttpCacheStore, HttpCacheStatistics, Closeable {
+
+	private static final Log LOG = LogFactory.getLog(MappedHttpCacheStore.class);
+
+	private static final int MAGIC = 0x46484331;
+
+	private static final int RECORD_HEADER_SIZE = 16;
+
+	private static final int TOMBSTONE = -1;
+
+	private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d+)\\.dat");
+
+	private final Path directory;
+
+	private final long maxSize;
+
+	private final int segmentSize;
+
+	private final Lock lock = new ReentrantLock();
+
+	private final Deque<Segment> segments = new ArrayDeque<>();
+
+	private final Map<String, Location> index = new HashMap<>();
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder evictions = new LongAdder();
+
+	private boolean loaded;
+
+	private boolean closed;
+
+	private long sequence;
+
+	/**
+	 * @param directory directory holding the segment files, created if needed
+	 * @param maxSize maximum total size of the segment files
+	 * @param segmentSize size of each segment file
+	 */
+	public MappedHttpCacheStore(Path directory, long maxSize, int segmentSize) {
+		Assert.isTrue(segmentSize > RECORD_HEADER_SIZE, "Segment size is too small");
+		Assert.isTrue(maxSize >= segmentSize, "Maximum size must hold at least one segment");
+		this.directory = directory;
+		this.maxSize = maxSize;
+		this.segmentSize = segmentSize;
+	}
+
+	@Override
+	public CachedResponse get(String key) {
+		Location location;
+		lock.lock();
+		try {
+			location = loaded() ? index.get(key) : null;
+		}
+		finally {
+			lock.unlock();
+		}
+		if (location == null) {
+			misses.increment();
+			return null;
+		}
+		hits.increment();
+		try {
+			return CachedResponseSerializer.deserialize(location.read());
+		}
+		catch (IOException e) {
+			LOG.warn("Discarding unreadable cached response for " + key, e);
+			remove(key);
+			return null;
+		}
+	}
+
+	@Override
+	public void put(String key, CachedResponse response) {
+		byte[] data = CachedResponseSerializer.serialize(response);
+		byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+		if ((long) RECORD_HEADER_SIZE + keyBytes.length + data.length > segmentSize) {
+			remove(key);
+			return;
+		}
+		Location location;
+		try {
+			location = append(keyBytes, data);
+		}
+		catch (IOException e) {
+			LOG.warn("Could not persist cached response for " + key, e);
+			unindex(key);
+			return;
+		}
+		if (location == null) {
+			return;
+		}
+		lock.lock();
+		try {
+			// a concurrent put of the same key may have been reserved later but written first
+			Location current = index.get(key);
+			if (!closed && !location.segment.evicted && (current == null || current.sequence < location.sequence)) {
+				index.put(key, location);
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void remove(String key) {
+		if (!unindex(key)) {
+			return;
+		}
+		byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+		if ((long) RECORD_HEADER_SIZE + keyBytes.length > segmentSize) {
+			return;
+		}
+		try {
+			append(keyBytes, null);
+		}
+		catch (IOException e) {
+			LOG.warn("Could not persist removal of cached response for " + key, e);
+		}
+	}
+
+	@Override
+	public long hitCount() {
+		return hits.sum();
+	}
+
+	@Override
+	public long missCount() {
+		return misses.sum();
+	}
+
+	@Override
+	public long evictionCount() {
+		return evictions.sum();
+	}
+
+	@Override
+	public int count() {
+		lock.lock();
+		try {
+			return index.size();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return the number of bytes written to the segment files
+	 */
+	@Override
+	public long size() {
+		lock.lock();
+		try {
+			return segments.stream().mapToLong(segment -> segment.position).sum();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public long maxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Flushes the active segment to disk and releases the segment files.
+	 */
+	@Override
+	public void close() {
+		List<Segment> closing;
+		lock.lock();
+		try {
+			closing = detach();
+		}
+		finally {
+			lock.unlock();
+		}
+		closing.forEach(Segment::close);
+	}
+
+	private List<Segment> detach() {
+		closed = true;
+		List<Segment> detached = new ArrayList<>(segments);
+		segments.clear();
+		index.clear();
+		return detached;
+	}
+
+	private boolean unindex(String key) {
+		lock.lock();
+		try {
+			return loaded() && index.remove(key) != null;
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Loads the index on first use; a store whose directory can't be read behaves as an
+	 * empty, read-only store. Must be called with the lock held.
+	 */
+	private boolean loaded() {
+		if (closed) {
+			return false;
+		}
+		if (!loaded) {
+			loaded = true;
+			try {
+				load();
+			}
+			catch (IOException e) {
+				LOG.warn("Response cache directory " + directory + " is not usable, responses are not persisted", e);
+				detach().forEach(Segment::close);
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void load() throws IOException {
+		Files.createDirectories(directory);
+		List<Long> ids = new ArrayList<>();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "segment-*.dat")) {
+			for (Path file : files) {
+				Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+				if (matcher.matches()) {
+					ids.add(Long.parseLong(matcher.group(1)));
+				}
+			}
+		}
+		ids.sort(null);
+		for (long id : ids) {
+			Segment segment = Segment.open(file(id), id, segmentSize);
+			segments.addLast(segment);
+			scan(segment);
+		}
+		if (LOG.isDebugEnabled()) {
+			LOG.debug("Loaded " + index.size() + " cached responses from " + segments.size() + " segments in "
+					+ directory);
+		}
+	}
+
+	private void scan(Segment segment) {
+		ByteBuffer buffer = segment.buffer.duplicate();
+		int position = 0;
+		while (position + RECORD_HEADER_SIZE <= segmentSize) {
+			// called through Buffer, the ByteBuffer overrides do not exist on Java 8
+			((Buffer) buffer).position(position);
+			int magic = buffer.getInt();
+			int keyLength = buffer.getInt();
+			int dataLength = buffer.getInt();
+			int checksum = buffer.getInt();
+			int length = dataLength == TOMBSTONE ? 0 : dataLength;
+			if (magic != MAGIC || keyLength < 0 || length < 0
+					|| (long) position + RECORD_HEADER_SIZE + keyLength + length > segmentSize) {
+				break;
+			}
+			byte[] key = new byte[keyLength];
+			buffer.get(key);
+			int dataOffset = buffer.position();
+			byte[] data = new byte[length];
+			buffer.get(data);
+			CRC32 crc = new CRC32();
+			crc.update(key);
+			crc.update(data);
+			if ((int) crc.getValue() != checksum) {
+				break;
+			}
+			String name = new String(key, StandardCharsets.UTF_8);
+			if (dataLength == TOMBSTONE) {
+				index.remove(name);
+			}
+			else {
+				index.put(name, new Location(segment, dataOffset, length, ++sequence));
+			}
+			position = dataOffset + length;
+		}
+		segment.position = position;
+	}
+
+	/**
+	 * Reserves space for a record in the active segment, rolling to a new segment when it
+	 * is full, and writes the record once the lock is released.
+	 * @return the location of the appended data, or {@code null} for a tombstone or when
+	 * the store is not usable
+	 */
+	private Location append(byte[] key, byte[] data) throws IOException {
+		int length = data != null ? data.length : 0;
+		int recordSize = RECORD_HEADER_SIZE + key.length + length;
+		Segment opened = null;
+		while (true) {
+			Location location = null;
+			Segment full = null;
+			List<Segment> evicted = new ArrayList<>();
+			long nextId;
+			lock.lock();
+			try {
+				if (!loaded()) {
+					if (opened != null) {
+						opened.release();
+					}
+					return null;
+				}
+				Segment active = segments.peekLast();
+				nextId = active != null ? active.id + 1 : 1;
+				if (active != null && active.position + recordSize <= segmentSize) {
+					location = reserve(active, key.length, length);
+				}
+				else if (opened != null && opened.id == nextId) {
+					while (!segments.isEmpty() && (long) (segments.size() + 1) * segmentSize > maxSize) {
+						evicted.add(evict(segments.removeFirst()));
+					}
+					segments.addLast(opened);
+					location = reserve(opened, key.length, length);
+					full = active;
+					opened = null;
+				}
+			}
+			finally {
+				lock.unlock();
+			}
+			if (opened != null && (location != null || opened.id != nextId)) {
+				// another thread rolled to a new segment in the meantime
+				opened.release();
+				opened = null;
+			}
+			if (location != null) {
+				if (full != null) {
+					full.buffer.force();
+				}
+				evicted.forEach(this::delete);
+				location.write(key, data);
+				return data != null ? location : null;
+			}
+			if (opened == null) {
+				opened = Segment.open(file(nextId), nextId, segmentSize);
+			}
+		}
+	}
+
+	private Location reserve(Segment segment, int keyLength, int length) {
+		Location location = new Location(segment, segment.position + RECORD_HEADER_SIZE + keyLength, length,
+				++sequence);
+		segment.position = location.offset + length;
+		return location;
+	}
+
+	private Segment evict(Segment segment) {
+		segment.evicted = true;
+		Iterator<Location> locations = index.values().iterator();
+		while (locations.hasNext()) {
+			if (locations.next().segment == segment) {
+				locations.remove();
+				evictions.increment();
+			}
+		}
+		return segment;
+	}
+
+	private void delete(Segment segment) {
+		segment.close();
+		try {
+			Files.deleteIfExists(segment.file);
+		}
+		catch (IOException e) {
+			LOG.warn("Could not delete response cache segment " + segment.file, e);
+		}
+	}
+
+	private Path file(long id) {
+		return directory.resolve(String.format("segment-%08d.dat", id));
+	}
+
+	private static final class Segment {
+
+		private final Path file;
+
+		private final long id;
+
+		private final FileChannel channel;
+
+		private final MappedByteBuffer buffer;
+
+		private int position;
+
+		private boolean evicted;
+
+		private Segment(Path file, long id, FileChannel channel, MappedByteBuffer buffer) {
+			this.file = file;
+			this.id = id;
+			this.channel = channel;
+			this.buffer = buffer;
+		}
+
+		static Segment open(Path file, long id, int size) throws IOException {
+			FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+					StandardOpenOption.WRITE);
+			try {
+				return new Segment(file, id, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+			}
+			catch (IOException e) {
+				channel.close();
+				throw e;
+			}
+		}
+
+		void close() {
+			buffer.force();
+			release();
+		}
+
+		void release() {
+			try {
+				channel.close();
+			}
+			catch (IOException e) {
+				LOG.debug("Could not close response cache segment " + file, e);
+			}
+		}
+
+	}
+
+	/**
+	 * A record of a segment; the sequence orders the records of all segments as they
+	 * were reserved.
+	 */
+	private static final class Location {
+
+		private final Segment segment;
+
+		private final int offset;
+
+		private final int length;
+
+		private final long sequence;
+
+		private Location(Segment segment, int offset, int length, long sequence) {
+			this.segment = segment;
+			this.offset = offset;
+			this.length = length;
+			this.sequence = sequence;
+		}
+
+		byte[] read() {
+			byte[] data = new byte[length];
+			ByteBuffer buffer = segment.buffer.duplicate();
+			((Buffer) buffer).position(offset);
+			buffer.get(data);
+			return data;
+		}
+
+		void write(byte[] key, byte[] data) {
+			CRC32 crc = new CRC32();
+			crc.update(key);
+			if (data != null) {
+				crc.update(data);
+			}
+			ByteBuffer buffer = segment.buffer.duplicate();
+			((Buffer) buffer).position(offset - key.length - RECORD_HEADER_SIZE);
+			buffer.putInt(MAGIC).putInt(key.length).putInt(data != null ? data.length : TOMBSTONE)
+					.putInt((int) crc.getValue()).put(key);
+			if (data != null) {
+				buffer.put(data);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.httpcache;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.util.Assert;
+
+/**
+ * {@link HttpCacheStore} keeping serialized responses in direct memory, outside of the
+ * Java heap, so large cached datasets do not add to the old generation nor to garbage
+ * collection pauses. Responses are only materialized on the heap while they are served.
+ * <p>
+ * Memory is reserved in slabs of direct {@link ByteBuffer}s, allocated as the store fills
+ * up, and handed out in fixed-size pages; a response occupies as many pages as its
+ * serialized form needs, and the pages of evicted responses are reused. The least
+ * recently used responses are evicted first. Slabs are never released before the store
+ * is garbage collected, and count towards {@code -XX:MaxDirectMemorySize}.
+ * <p>
+ * Responses are copied to and from their pages while holding the lock of the store, as
+ * released pages are reused right away; they are serialized and deserialized outside of
+ * it.
+ */
+public class OffHeapHttpCacheStore implements HttpCacheStore, HttpCacheStatistics {
+
+	private static final Log LOG = LogFactory.getLog(OffHeapHttpCacheStore.class);
+
+	/**
+	 * Default size of the pages responses are stored in.
+	 */
+	public static final int DEFAULT_PAGE_SIZE = 4 * 1024;
+
+	/**
+	 * Default size of the direct buffers pages are carved from.
+	 */
+	public static final int DEFAULT_SLAB_SIZE = 16 * 1024 * 1024;
+
+	private final int pageSize;
+
+	private final int pagesPerSlab;
+
+	private final int maxPages;
+
+	private final Lock lock = new ReentrantLock();
+
+	private final List<ByteBuffer> slabs = new ArrayList<>();
+
+	private final int[] freePages;
+
+	private int freeCount;
+
+	private int allocatedPages;
+
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder evictions = new LongAdder();
+
+	public OffHeapHttpCacheStore(long maxSize) {
+		this(maxSize, DEFAULT_PAGE_SIZE, DEFAULT_SLAB_SIZE);
+	}
+
+	/**
+	 * @param maxSize maximum number of bytes of direct memory used by the store
+	 * @param pageSize size of the pages responses are stored in
+	 * @param slabSize size of the direct buffers pages are carved from, a multiple of the
+	 * page size
+	 */
+	public OffHeapHttpCacheStore(long maxSize, int pageSize, int slabSize) {
+		Assert.isTrue(pageSize > 0 && slabSize >= pageSize && slabSize % pageSize == 0,
+				"Slab size must be a positive multiple of the page size");
+		this.pageSize = pageSize;
+		this.pagesPerSlab = slabSize / pageSize;
+		this.maxPages = (int) Math.min(Integer.MAX_VALUE - 8, maxSize / pageSize);
+		this.freePages = new int[maxPages];
+	}
+
+	@Override
+	public CachedResponse get(String key) {
+		byte[] data;
+		lock.lock();
+		try {
+			Entry entry = entries.get(key);
+			data = entry != null ? read(entry) : null;
+		}
+		finally {
+			lock.unlock();
+		}
+		if (data == null) {
+			misses.increment();
+			return null;
+		}
+		hits.increment();
+		try {
+			return CachedResponseSerializer.deserialize(data);
+		}
+		catch (IOException e) {
+			LOG.warn("Discarding unreadable cached response for " + key, e);
+			remove(key);
+			return null;
+		}
+	}
+
+	@Override
+	public void put(String key, CachedResponse response) {
+		byte[] data = CachedResponseSerializer.serialize(response);
+		int pages = (data.length + pageSize - 1) / pageSize;
+		lock.lock();
+		try {
+			remove(key);
+			if (pages > maxPages) {
+				return;
+			}
+			Iterator<Entry> eldest = entries.values().iterator();
+			while (freeCount + maxPages - allocatedPages < pages && eldest.hasNext()) {
+				release(eldest.next());
+				eldest.remove();
+				evictions.increment();
+			}
+			Entry entry = new Entry(new int[pages], data.length);
+			for (int i = 0; i < pages; i++) {
+				entry.pages[i] = allocatePage();
+			}
+			write(entry, data);
+			entries.put(key, entry);
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void remove(String key) {
+		lock.lock();
+		try {
+			Entry removed = entries.remove(key);
+			if (removed != null) {
+				release(removed);
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public long hitCount() {
+		return hits.sum();
+	}
+
+	@Override
+	public long missCount() {
+		return misses.sum();
+	}
+
+	@Override
+	public long evictionCount() {
+		return evictions.sum();
+	}
+
+	@Override
+	public int count() {
+		lock.lock();
+		try {
+			return entries.size();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return the number of bytes of the pages holding responses
+	 */
+	@Override
+	public long size() {
+		lock.lock();
+		try {
+			return (long) (allocatedPages - freeCount) * pageSize;
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public long maxSize() {
+		return (long) maxPages * pageSize;
+	}
+
+	/**
+	 * @return the number of bytes of direct memory reserved by the store
+	 */
+	public long reservedSize() {
+		lock.lock();
+		try {
+			return slabs.stream().mapToLong(ByteBuffer::capacity).sum();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	private int allocatePage() {
+		if (freeCount > 0) {
+			return freePages[--freeCount];
+		}
+		int page = allocatedPages++;
+		if (page / pagesPerSlab == slabs.size()) {
+			int slabPages = Math.min(pagesPerSlab, maxPages - page);
+			slabs.add(ByteBuffer.allocateDirect(slabPages * pageSize));
+		}
+		return page;
+	}
+
+	private void release(Entry entry) {
+		for (int page : entry.pages) {
+			freePages[freeCount++] = page;
+		}
+	}
+
+	private void write(Entry entry, byte[] data) {
+		for (int i = 0; i < entry.pages.length; i++) {
+			int offset = i * pageSize;
+			page(entry.pages[i]).put(data, offset, Math.min(pageSize, data.length - offset));
+		}
+	}
+
+	private byte[] read(Entry entry) {
+		byte[] data = new byte[entry.length];
+		for (int i = 0; i < entry.pages.length; i++) {
+			int offset = i * pageSize;
+			page(entry.pages[i]).get(data, offset, Math.min(pageSize, data.length - offset));
+		}
+		return data;
+	}
+
+	private ByteBuffer page(int page) {
+		ByteBuffer slab = slabs.get(page / pagesPerSlab).duplicate();
+		// ByteBuffer.position(int) only exists since Java 9
+		((Buffer) slab).position((page % pagesPerSlab) * pageSize);
+		return slab;
+	}
+
+	private static final class Entry {
+
+		private final int[] pages;
+
+		private final int length;
+
+		private Entry(int[] pages, int length) {
+			this.pages = pages;
+			this.length = length;
+		}
+
+	}
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.httpcache;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * {@link HttpCacheStore} backing a memory tier with a persistent tier. Responses are
+ * stored in both tiers; a response missing from the memory tier is looked up in the
+ * persistent tier and promoted to the memory tier. Closing the store closes its tiers.
+ */
+public class TieredHttpCacheStore implements HttpCacheStore, Closeable {
+
+	private final HttpCacheStore memory;
+
+	private final HttpCacheStore persistent;
+
+	public TieredHttpCacheStore(HttpCacheStore memory, HttpCacheStore persistent) {
+		this.memory = memory;
+		this.persistent = persistent;
+	}
+
+	@Override
+	public CachedResponse get(String key) {
+		CachedResponse response = memory.get(key);
+		if (response == null) {
+			response = persistent.get(key);
+			if (response != null) {
+				memory.put(key, response);
+			}
+		}
+		return response;
+	}
+
+	@Override
+	public void put(String key, CachedResponse response) {
+		memory.put(key, response);
+		persistent.put(key, response);
+	}
+
+	@Override
+	public void remove(String key) {
+		memory.remove(key);
+		persistent.remove(key);
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			if (memory instanceof Closeable) {
+				((Closeable) memory).close();
+			}
+		}
+		finally {
+			if (persistent instanceof Closeable) {
+				((Closeable) persistent).close();
+			}
+		}
+	}
+
+	public HttpCacheStore getMemory() {
+		return memory;
+	}
+
+	public HttpCacheStore getPersistent() {
+		return persistent;
+	}
+
+}
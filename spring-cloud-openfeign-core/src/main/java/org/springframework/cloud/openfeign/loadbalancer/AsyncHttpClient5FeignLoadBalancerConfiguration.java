@@ -0,0 +1,85 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.loadbalancer;
+
+import feign.AsyncClient;
+import feign.Client;
+import feign.hc5.AsyncApacheHttp5Client;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.client.loadbalancer.LoadBalancedRetryFactory;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClientsProperties;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.openfeign.clientconfig.AsyncHttpClient5FeignConfiguration;
+import org.springframework.cloud.openfeign.reactive.AsyncReactiveFeignClient;
+import org.springframework.cloud.openfeign.reactive.ReactiveFeignClient;
+import org.springframework.cloud.openfeign.support.BlockingAsyncClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Configuration instantiating {@link LoadBalancerClient}-based {@link Client} and
+ * {@link ReactiveFeignClient} objects that use {@link AsyncApacheHttp5Client} under the
+ * hood. Methods returning {@code CompletableFuture}, {@code Mono} or {@code Flux} select
+ * the service instance without blocking.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(AsyncApacheHttp5Client.class)
+@ConditionalOnBean({ LoadBalancerClient.class, LoadBalancerClientFactory.class })
+@ConditionalOnProperty(value = "feign.httpclient.hc5.async.enabled", havingValue = "true")
+@Import(AsyncHttpClient5FeignConfiguration.class)
+@EnableConfigurationProperties(LoadBalancerClientsProperties.class)
+class AsyncHttpClient5FeignLoadBalancerConfiguration {
+
+	@Bean
+	@ConditionalOnMissingBean
+	public ReactiveFeignClient reactiveFeignClient(AsyncClient<?> feignAsyncClient,
+			LoadBalancerClientFactory loadBalancerClientFactory) {
+		return new ReactiveFeignLoadBalancerClient(new AsyncReactiveFeignClient(feignAsyncClient),
+				loadBalancerClientFactory);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@Conditional(OnRetryNotEnabledCondition.class)
+	public Client feignClient(LoadBalancerClient loadBalancerClient, AsyncClient<?> feignAsyncClient,
+			LoadBalancerClientFactory loadBalancerClientFactory) {
+		Client delegate = new BlockingAsyncClient(feignAsyncClient);
+		return new FeignBlockingLoadBalancerClient(delegate, loadBalancerClient, loadBalancerClientFactory);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnClass(name = "org.springframework.retry.support.RetryTemplate")
+	@ConditionalOnBean(LoadBalancedRetryFactory.class)
+	@ConditionalOnProperty(value = "spring.cloud.loadbalancer.retry.enabled", havingValue = "true",
+			matchIfMissing = true)
+	public Client feignRetryClient(LoadBalancerClient loadBalancerClient, AsyncClient<?> feignAsyncClient,
+			LoadBalancedRetryFactory loadBalancedRetryFactory, LoadBalancerClientFactory loadBalancerClientFactory) {
+		Client delegate = new BlockingAsyncClient(feignAsyncClient);
+		return new RetryableFeignBlockingLoadBalancerClient(delegate, loadBalancerClient, loadBalancedRetryFactory,
+				loadBalancerClientFactory);
+	}
+
+}
@@ -29,7 +29,10 @@ import org.springframework.cloud.client.loadbalancer.LoadBalancedRetryFactory;
 import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
 import org.springframework.cloud.client.loadbalancer.LoadBalancerClientsProperties;
 import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.openfeign.AsyncHttpClient5DisabledConditions;
+import org.springframework.cloud.openfeign.Http2ClientDisabledConditions;
 import org.springframework.cloud.openfeign.HttpClient5DisabledConditions;
+import org.springframework.cloud.openfeign.ReactorNettyDisabledConditions;
 import org.springframework.cloud.openfeign.clientconfig.HttpClientFeignConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Conditional;
@@ -48,7 +51,8 @@ import org.springframework.context.annotation.Import;
 @ConditionalOnClass(ApacheHttpClient.class)
 @ConditionalOnBean({ LoadBalancerClient.class, LoadBalancerClientFactory.class })
 @ConditionalOnProperty(value = "feign.httpclient.enabled", matchIfMissing = true)
-@Conditional(HttpClient5DisabledConditions.class)
+@Conditional({ HttpClient5DisabledConditions.class, Http2ClientDisabledConditions.class,
+		AsyncHttpClient5DisabledConditions.class, ReactorNettyDisabledConditions.class })
 @Import(HttpClientFeignConfiguration.class)
 @EnableConfigurationProperties(LoadBalancerClientsProperties.class)
 class HttpClientFeignLoadBalancerConfiguration {
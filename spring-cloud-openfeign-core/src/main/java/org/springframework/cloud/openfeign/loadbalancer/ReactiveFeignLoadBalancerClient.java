@@ -0,0 +1,193 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.loadbalancer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycleValidator;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerProperties;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerUriTools;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.openfeign.reactive.ReactiveFeignClient;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.Assert;
+
+import static org.springframework.cloud.openfeign.loadbalancer.LoadBalancerUtils.buildRequestData;
+import static org.springframework.cloud.openfeign.loadbalancer.LoadBalancerUtils.buildResponseData;
+
+/**
+ * A {@link ReactiveFeignClient} implementation that uses the {@link ReactiveLoadBalancer}
+ * of the service to select a {@link ServiceInstance} without blocking, and then
+ * delegates the request to it.
+ */
+@SuppressWarnings({ "unchecked", "rawtypes" })
+public class ReactiveFeignLoadBalancerClient implements ReactiveFeignClient {
+
+	private static final Log LOG = LogFactory.getLog(ReactiveFeignLoadBalancerClient.class);
+
+	private final ReactiveFeignClient delegate;
+
+	private final LoadBalancerClientFactory loadBalancerClientFactory;
+
+	public ReactiveFeignLoadBalancerClient(ReactiveFeignClient delegate,
+			LoadBalancerClientFactory loadBalancerClientFactory) {
+		this.delegate = delegate;
+		this.loadBalancerClientFactory = loadBalancerClientFactory;
+	}
+
+	@Override
+	public Mono<Response> exchange(Request request, Request.Options options) {
+		return Mono.from(loadBalanced(request, unavailable -> Mono.just(unavailable),
+				(newRequest, lifecycle) -> delegate.exchange(newRequest, options).doOnNext(lifecycle::onResponse)
+						.doOnError(lifecycle::onError)));
+	}
+
+	/**
+	 * Selects the service instance like {@link #exchange(Request, Request.Options)}, and
+	 * streams the body of the response of the instance to the handler.
+	 */
+	@Override
+	public <T> Flux<T> exchange(Request request, Request.Options options,
+			BiFunction<Response, Flux<byte[]>, Publisher<T>> handler) {
+		return Flux.from(loadBalanced(request,
+				unavailable -> handler.apply(unavailable.toBuilder().body((byte[]) null).build(), body(unavailable)),
+				(newRequest, lifecycle) -> delegate.exchange(newRequest, options, (response, body) -> {
+					lifecycle.onResponse(response);
+					return handler.apply(response, body);
+				}).doOnError(lifecycle::onError)));
+	}
+
+	private <T> Publisher<T> loadBalanced(Request request, Function<Response, Publisher<T>> unavailable,
+			BiFunction<Request, Lifecycle, Publisher<T>> execute) {
+		final URI originalUri = URI.create(request.url());
+		String serviceId = originalUri.getHost();
+		Assert.state(serviceId != null, "Request URI does not contain a valid hostname: " + originalUri);
+		ReactiveLoadBalancer<ServiceInstance> loadBalancer = loadBalancerClientFactory.getInstance(serviceId);
+		if (loadBalancer == null) {
+			return unavailable.apply(serviceUnavailable(request, serviceId));
+		}
+		LoadBalancerProperties properties = loadBalancerClientFactory.getProperties(serviceId);
+		DefaultRequest<RequestDataContext> lbRequest = new DefaultRequest<>(
+				new RequestDataContext(buildRequestData(request), getHint(serviceId, properties)));
+		Set<LoadBalancerLifecycle> supportedLifecycleProcessors = LoadBalancerLifecycleValidator
+				.getSupportedLifecycleProcessors(
+						loadBalancerClientFactory.getInstances(serviceId, LoadBalancerLifecycle.class),
+						RequestDataContext.class, ResponseData.class, ServiceInstance.class);
+		return Mono.defer(() -> {
+			supportedLifecycleProcessors.forEach(lifecycle -> lifecycle.onStart(lbRequest));
+			return Mono.from(loadBalancer.choose(lbRequest));
+		}).flatMapMany(lbResponse -> {
+			if (!lbResponse.hasServer()) {
+				supportedLifecycleProcessors.forEach(lifecycle -> lifecycle.onComplete(
+						new CompletionContext<>(CompletionContext.Status.DISCARD, lbRequest, lbResponse)));
+				return unavailable.apply(serviceUnavailable(request, serviceId));
+			}
+			ServiceInstance instance = lbResponse.getServer();
+			String reconstructedUrl = LoadBalancerUriTools.reconstructURI(instance, originalUri).toString();
+			Request newRequest = Request.create(request.httpMethod(), reconstructedUrl, request.headers(),
+					request.body(), request.charset(), request.requestTemplate());
+			supportedLifecycleProcessors.forEach(lifecycle -> lifecycle.onStartRequest(lbRequest, lbResponse));
+			return execute.apply(newRequest, new Lifecycle(supportedLifecycleProcessors, lbRequest, lbResponse,
+					properties.isUseRawStatusCodeInResponseData()));
+		});
+	}
+
+	public ReactiveFeignClient getDelegate() {
+		return delegate;
+	}
+
+	private Response serviceUnavailable(Request request, String serviceId) {
+		String message = "Load balancer does not contain an instance for the service " + serviceId;
+		if (LOG.isWarnEnabled()) {
+			LOG.warn(message);
+		}
+		return Response.builder().request(request).status(HttpStatus.SERVICE_UNAVAILABLE.value())
+				.body(message, StandardCharsets.UTF_8).build();
+	}
+
+	private static Flux<byte[]> body(Response response) {
+		try {
+			return Flux.just(Util.toByteArray(response.body().asInputStream()));
+		}
+		catch (IOException e) {
+			return Flux.error(e);
+		}
+	}
+
+	private String getHint(String serviceId, LoadBalancerProperties properties) {
+		String defaultHint = properties.getHint().getOrDefault("default", "default");
+		String hintPropertyValue = properties.getHint().get(serviceId);
+		return hintPropertyValue != null ? hintPropertyValue : defaultHint;
+	}
+
+	/**
+	 * Notifies the {@link LoadBalancerLifecycle} processors of the outcome of a request.
+	 */
+	private static final class Lifecycle {
+
+		private final Set<LoadBalancerLifecycle> processors;
+
+		private final DefaultRequest<RequestDataContext> lbRequest;
+
+		private final org.springframework.cloud.client.loadbalancer.Response<ServiceInstance> lbResponse;
+
+		private final boolean useRawStatusCode;
+
+		Lifecycle(Set<LoadBalancerLifecycle> processors, DefaultRequest<RequestDataContext> lbRequest,
+				org.springframework.cloud.client.loadbalancer.Response<ServiceInstance> lbResponse,
+				boolean useRawStatusCode) {
+			this.processors = processors;
+			this.lbRequest = lbRequest;
+			this.lbResponse = lbResponse;
+			this.useRawStatusCode = useRawStatusCode;
+		}
+
+		void onResponse(Response response) {
+			processors.forEach(lifecycle -> lifecycle.onComplete(new CompletionContext<>(
+					CompletionContext.Status.SUCCESS, lbRequest, lbResponse, buildResponseData(response,
+							useRawStatusCode))));
+		}
+
+		void onError(Throwable throwable) {
+			processors.forEach(lifecycle -> lifecycle.onComplete(
+					new CompletionContext<>(CompletionContext.Status.FAILED, throwable, lbRequest, lbResponse)));
+		}
+
+	}
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.loadbalancer;
+
+import feign.Client;
+import reactor.netty.http.client.HttpClient;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.client.loadbalancer.LoadBalancedRetryFactory;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClientsProperties;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.openfeign.clientconfig.ReactorNettyFeignConfiguration;
+import org.springframework.cloud.openfeign.reactive.BlockingReactiveFeignClient;
+import org.springframework.cloud.openfeign.reactive.ReactiveFeignClient;
+import org.springframework.cloud.openfeign.reactive.ReactorNettyClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Configuration instantiating {@link LoadBalancerClient}-based {@link Client} and
+ * {@link ReactiveFeignClient} objects that use {@link ReactorNettyClient} under the
+ * hood. Methods returning {@code Mono} or {@code Flux} select the service instance
+ * without blocking.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(name = "reactor.netty.http.client.HttpClient")
+@ConditionalOnBean({ LoadBalancerClient.class, LoadBalancerClientFactory.class })
+@ConditionalOnProperty(value = "feign.reactor-netty.enabled", havingValue = "true")
+@Import(ReactorNettyFeignConfiguration.class)
+@EnableConfigurationProperties(LoadBalancerClientsProperties.class)
+class ReactorNettyFeignLoadBalancerConfiguration {
+
+	@Bean
+	@ConditionalOnMissingBean
+	public ReactiveFeignClient reactiveFeignClient(HttpClient reactorNettyHttpClient,
+			LoadBalancerClientFactory loadBalancerClientFactory) {
+		return new ReactiveFeignLoadBalancerClient(new ReactorNettyClient(reactorNettyHttpClient),
+				loadBalancerClientFactory);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@Conditional(OnRetryNotEnabledCondition.class)
+	public Client feignClient(LoadBalancerClient loadBalancerClient, HttpClient reactorNettyHttpClient,
+			LoadBalancerClientFactory loadBalancerClientFactory) {
+		Client delegate = new BlockingReactiveFeignClient(new ReactorNettyClient(reactorNettyHttpClient));
+		return new FeignBlockingLoadBalancerClient(delegate, loadBalancerClient, loadBalancerClientFactory);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnClass(name = "org.springframework.retry.support.RetryTemplate")
+	@ConditionalOnBean(LoadBalancedRetryFactory.class)
+	@ConditionalOnProperty(value = "spring.cloud.loadbalancer.retry.enabled", havingValue = "true",
+			matchIfMissing = true)
+	public Client feignRetryClient(LoadBalancerClient loadBalancerClient, HttpClient reactorNettyHttpClient,
+			LoadBalancedRetryFactory loadBalancedRetryFactory, LoadBalancerClientFactory loadBalancerClientFactory) {
+		Client delegate = new BlockingReactiveFeignClient(new ReactorNettyClient(reactorNettyHttpClient));
+		return new RetryableFeignBlockingLoadBalancerClient(delegate, loadBalancerClient, loadBalancedRetryFactory,
+				loadBalancerClientFactory);
+	}
+
+}
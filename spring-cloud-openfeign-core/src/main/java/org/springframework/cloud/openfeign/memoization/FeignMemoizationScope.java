@@ -0,0 +1,35 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.memoization;
+
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Scope in which the results of idempotent Feign calls are memoized by the
+ * {@link RequestMemoizationCapability}. The memo lives as long as the scope, so its
+ * content never has to be invalidated.
+ */
+@FunctionalInterface
+public interface FeignMemoizationScope {
+
+	/**
+	 * @return the memo of the active scope, or {@code null} if no scope is active, in which
+	 * case calls are not memoized
+	 */
+	ConcurrentMap<Object, Object> currentMemo();
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.memoization;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * {@link FeignMemoizationScope} bound to the inbound request exposed by the
+ * {@link RequestContextHolder}. The memo is kept in a request attribute and is discarded
+ * together with the request.
+ */
+public class RequestAttributesMemoizationScope implements FeignMemoizationScope {
+
+	static final String MEMO_ATTRIBUTE = RequestAttributesMemoizationScope.class.getName() + ".MEMO";
+
+	/**
+	 * Only taken to create the memo of a request, once per request.
+	 */
+	private final Lock lock = new ReentrantLock();
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public ConcurrentMap<Object, Object> currentMemo() {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes == null) {
+			return null;
+		}
+		try {
+			Object memo = attributes.getAttribute(MEMO_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+			if (memo == null) {
+				lock.lock();
+				try {
+					memo = attributes.getAttribute(MEMO_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+					if (memo == null) {
+						memo = new ConcurrentHashMap<>();
+						attributes.setAttribute(MEMO_ATTRIBUTE, memo, RequestAttributes.SCOPE_REQUEST);
+					}
+				}
+				finally {
+					lock.unlock();
+				}
+			}
+			return (ConcurrentMap<Object, Object>) memo;
+		}
+		catch (IllegalStateException e) {
+			// the request has already completed
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.memoization;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.BaseStream;
+
+import feign.Capability;
+import feign.Contract;
+import feign.Feign;
+import feign.InvocationHandlerFactory;
+import feign.InvocationHandlerFactory.MethodHandler;
+import feign.MethodMetadata;
+import feign.Request.HttpMethod;
+import feign.Response;
+
+import org.springframework.cloud.openfeign.reactive.NonBlockingMethodHandler;
+import org.springframework.cloud.openfeign.reactive.NonBlockingResults;
+
+/**
+ * {@link Capability} memoizing the results of idempotent Feign calls for the lifetime of
+ * a {@link FeignMemoizationScope}, by default the current inbound request. Within the
+ * scope, invocations of the same method of the same client with equal arguments call the
+ * server once and share its result; concurrent invocations wait for the one in flight.
+ * Only {@code GET}, {@code HEAD} and {@code OPTIONS} methods are eligible, and methods
+ * returning streams or the raw {@link Response} are never memoized. Futures and
+ * {@code Mono} are memoized only when executed without blocking, and then share their
+ * value without waiting for it. Failed calls are not memoized.
+ */
+public class RequestMemoizationCapability implements Capability {
+
+	private static final Set<String> IDEMPOTENT_METHODS = Collections
+			.unmodifiableSet(new HashSet<>(Arrays.asList(HttpMethod.GET.name(), HttpMethod.HEAD.name(),
+					HttpMethod.OPTIONS.name())));
+
+	private final FeignMemoizationScope scope;
+
+	private final Set<Method> idempotentMethods = ConcurrentHashMap.newKeySet();
+
+	public RequestMemoizationCapability(FeignMemoizationScope scope) {
+		this.scope = scope;
+	}
+
+	/**
+	 * @param method a Feign client method
+	 * @return {@code true} if the result of the method can be shared between callers
+	 */
+	static boolean hasMemoizableResult(Method method) {
+		Class<?> type = method.getReturnType();
+		return type != void.class && !Response.class.isAssignableFrom(type) && !InputStream.class.isAssignableFrom(type)
+				&& !Reader.class.isAssignableFrom(type) && !BaseStream.class.isAssignableFrom(type)
+				&& !Iterator.class.isAssignableFrom(type) && !Future.class.isAssignableFrom(type);
+	}
+
+	@Override
+	public Contract enrich(Contract contract) {
+		return targetType -> {
+			List<MethodMetadata> metadata = contract.parseAndValidateMetadata(targetType);
+			for (MethodMetadata md : metadata) {
+				if (md.method() != null && md.template().method() != null
+						&& IDEMPOTENT_METHODS.contains(md.template().method())) {
+					idempotentMethods.add(md.method());
+				}
+			}
+			return metadata;
+		};
+	}
+
+	@Override
+	public InvocationHandlerFactory enrich(InvocationHandlerFactory invocationHandlerFactory) {
+		return (target, dispatch) -> {
+			Map<Method, MethodHandler> handlers = new LinkedHashMap<>(dispatch);
+			for (Map.Entry<Method, MethodHandler> entry : handlers.entrySet()) {
+				Method method = entry.getKey();
+				if (!idempotentMethods.contains(method)) {
+					continue;
+				}
+				String methodKey = target.url() + "#" + Feign.configKey(target.type(), method);
+				if (!(entry.getValue() instanceof NonBlockingMethodHandler)) {
+					if (hasMemoizableResult(method)) {
+						entry.setValue(new MemoizingMethodHandler(entry.getValue(), methodKey));
+					}
+				}
+				else if (NonBlockingResults.isSingleValue(method)) {
+					entry.setValue(new NonBlockingMemoizingMethodHandler(entry.getValue(), method, methodKey));
+				}
+			}
+			return invocationHandlerFactory.create(target, handlers);
+		};
+	}
+
+	private final class MemoizingMethodHandler implements MethodHandler {
+
+		private final MethodHandler delegate;
+
+		private final String methodKey;
+
+		private MemoizingMethodHandler(MethodHandler delegate, String methodKey) {
+			this.delegate = delegate;
+			this.methodKey = methodKey;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public Object invoke(Object[] argv) throws Throwable {
+			ConcurrentMap<Object, Object> memo = scope.currentMemo();
+			if (memo == null) {
+				return delegate.invoke(argv);
+			}
+			InvocationKey key = new InvocationKey(methodKey, argv != null ? argv : new Object[0]);
+			CompletableFuture<Object> result = new CompletableFuture<>();
+			Object existing = memo.putIfAbsent(key, result);
+			if (existing != null) {
+				return await((CompletableFuture<Object>) existing);
+			}
+			try {
+				Object value = delegate.invoke(argv);
+				result.complete(value);
+				return value;
+			}
+			catch (Throwable t) {
+				memo.remove(key, result);
+				result.completeExceptionally(t);
+				throw t;
+			}
+		}
+
+		private Object await(CompletableFuture<Object> result) throws Throwable {
+			try {
+				return result.get();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw e;
+			}
+			catch (ExecutionException e) {
+				throw e.getCause();
+			}
+		}
+
+	}
+
+	/**
+	 * Shares the value of methods returning a {@code CompletableFuture} or a {@code Mono}
+	 * without waiting for it. The scope is resolved when the method is invoked, as a
+	 * {@code Mono} may be subscribed to on another thread.
+	 */
+	private final class NonBlockingMemoizingMethodHandler implements NonBlockingMethodHandler {
+
+		private final MethodHandler delegate;
+
+		private final Method method;
+
+		private final String methodKey;
+
+		private NonBlockingMemoizingMethodHandler(MethodHandler delegate, Method method, String methodKey) {
+			this.delegate = delegate;
+			this.method = method;
+			this.methodKey = methodKey;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public Object invoke(Object[] argv) throws Throwable {
+			ConcurrentMap<Object, Object> memo = scope.currentMemo();
+			if (memo == null) {
+				return delegate.invoke(argv);
+			}
+			InvocationKey key = new InvocationKey(methodKey, argv != null ? argv : new Object[0]);
+			return NonBlockingResults.fromFuture(method, () -> {
+				CompletableFuture<Object> result = new CompletableFuture<>();
+				Object existing = memo.putIfAbsent(key, result);
+				if (existing != null) {
+					return ((CompletableFuture<Object>) existing).thenApply(Function.identity());
+				}
+				NonBlockingResults.toFuture(delegate, argv).whenComplete((value, failure) -> {
+					if (failure != null) {
+						memo.remove(key, result);
+						result.completeExceptionally(failure);
+					}
+					else {
+						result.complete(value);
+					}
+				});
+				return result.thenApply(Function.identity());
+			});
+		}
+
+	}
+
+	private static final class InvocationKey {
+
+		private final String methodKey;
+
+		private final Object[] arguments;
+
+		private final int hashCode;
+
+		private InvocationKey(String methodKey, Object[] arguments) {
+			this.methodKey = methodKey;
+			this.arguments = arguments.clone();
+			this.hashCode = 31 * methodKey.hashCode() + Arrays.deepHashCode(this.arguments);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof InvocationKey)) {
+				return false;
+			}
+			InvocationKey that = (InvocationKey) o;
+			return methodKey.equals(that.methodKey) && Arrays.deepEquals(arguments, that.arguments);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+	}
+
+}
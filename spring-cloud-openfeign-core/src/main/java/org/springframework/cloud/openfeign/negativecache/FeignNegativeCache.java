@@ -0,0 +1,133 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.negativecache;
+
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Negative results of the {@code @NegativeCached} methods of a Feign client, each kept
+ * until its own expiry time. The number of results is bounded independently of any
+ * other cache, the least recently used being evicted first.
+ */
+public class FeignNegativeCache {
+
+	private final int maxEntries;
+
+	private final Clock clock;
+
+	private final Lock lock = new ReentrantLock();
+
+	private final LinkedHashMap<Object, Entry> entries;
+
+	public FeignNegativeCache(int maxEntries) {
+		this(maxEntries, Clock.systemUTC());
+	}
+
+	FeignNegativeCache(int maxEntries, Clock clock) {
+		this.maxEntries = maxEntries;
+		this.clock = clock;
+		this.entries = new LinkedHashMap<Object, Entry>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+				return size() > FeignNegativeCache.this.maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * @param key the key of the invocation
+	 * @return the cached negative result, or {@code null} if there is none or it expired
+	 */
+	Entry get(Object key) {
+		long now = clock.millis();
+		lock.lock();
+		try {
+			Entry entry = entries.get(key);
+			if (entry != null && now >= entry.expiresAt) {
+				entries.remove(key);
+				return null;
+			}
+			return entry;
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	void put(Object key, Object result, long ttlMillis) {
+		if (maxEntries <= 0 || ttlMillis <= 0) {
+			return;
+		}
+		Entry entry = new Entry(result, clock.millis() + ttlMillis);
+		lock.lock();
+		try {
+			entries.put(key, entry);
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes all cached negative results.
+	 */
+	public void clear() {
+		lock.lock();
+		try {
+			entries.clear();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return the number of cached negative results, including expired ones not yet
+	 * removed
+	 */
+	public int size() {
+		lock.lock();
+		try {
+			return entries.size();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	static final class Entry {
+
+		private final Object result;
+
+		private final long expiresAt;
+
+		private Entry(Object result, long expiresAt) {
+			this.result = result;
+			this.expiresAt = expiresAt;
+		}
+
+		Object result() {
+			return result;
+		}
+
+	}
+
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.negativecache;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import feign.Capability;
+import feign.Feign;
+import feign.InvocationHandlerFactory;
+import feign.InvocationHandlerFactory.MethodHandler;
+
+import org.springframework.cloud.openfeign.NegativeCached;
+import org.springframework.cloud.openfeign.reactive.NonBlockingMethodHandler;
+import org.springframework.cloud.openfeign.reactive.NonBlockingResults;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.Assert;
+
+/**
+ * {@link Capability} caching the negative results of the methods annotated with
+ * {@link NegativeCached} in a {@link FeignNegativeCache}. While a negative result is
+ * cached, invocations with the same arguments return it without calling the server. For
+ * methods returning a {@code CompletableFuture} or a {@code Mono}, the value is cached once
+ * it is available; an empty {@code Mono} is a negative result.
+ */
+public class NegativeCachingCapability implements Capability {
+
+	private final FeignNegativeCache cache;
+
+	private final Duration defaultTtl;
+
+	public NegativeCachingCapability(FeignNegativeCache cache, Duration defaultTtl) {
+		this.cache = cache;
+		this.defaultTtl = defaultTtl;
+	}
+
+	/**
+	 * @param type a Feign client interface
+	 * @return {@code true} if the interface declares methods annotated with
+	 * {@link NegativeCached}
+	 */
+	public static boolean hasNegativeCachedMethods(Class<?> type) {
+		for (Method method : type.getMethods()) {
+			if (method.isAnnotationPresent(NegativeCached.class)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param result the result of a Feign client method
+	 * @return {@code true} if the result stands for a missing item
+	 */
+	static boolean isNegative(Object result) {
+		if (result == null) {
+			return true;
+		}
+		if (result instanceof Optional) {
+			return !((Optional<?>) result).isPresent();
+		}
+		return result instanceof ResponseEntity
+				&& ((ResponseEntity<?>) result).getStatusCodeValue() == HttpStatus.NOT_FOUND.value();
+	}
+
+	@Override
+	public InvocationHandlerFactory enrich(InvocationHandlerFactory invocationHandlerFactory) {
+		return (target, dispatch) -> {
+			Map<Method, MethodHandler> handlers = new LinkedHashMap<>(dispatch);
+			for (Map.Entry<Method, MethodHandler> entry : handlers.entrySet()) {
+				Method method = entry.getKey();
+				NegativeCached negativeCached = method.getAnnotation(NegativeCached.class);
+				if (negativeCached == null) {
+					continue;
+				}
+				Assert.isTrue(method.getReturnType() != void.class,
+						() -> "@NegativeCached method " + method + " must return a result");
+				long ttlMillis = negativeCached.ttlMillis() >= 0 ? negativeCached.ttlMillis() : defaultTtl.toMillis();
+				String configKey = Feign.configKey(target.type(), method);
+				if (!(entry.getValue() instanceof NonBlockingMethodHandler)) {
+					entry.setValue(new NegativeCachingMethodHandler(entry.getValue(), configKey, ttlMillis));
+				}
+				else if (NonBlockingResults.isSingleValue(method)) {
+					entry.setValue(
+							new NonBlockingNegativeCachingMethodHandler(entry.getValue(), method, configKey, ttlMillis));
+				}
+			}
+			return invocationHandlerFactory.create(target, handlers);
+		};
+	}
+
+	private final class NegativeCachingMethodHandler implements MethodHandler {
+
+		private final MethodHandler delegate;
+
+		private final String configKey;
+
+		private final long ttlMillis;
+
+		private NegativeCachingMethodHandler(MethodHandler delegate, String configKey, long ttlMillis) {
+			this.delegate = delegate;
+			this.configKey = configKey;
+			this.ttlMillis = ttlMillis;
+		}
+
+		@Override
+		public Object invoke(Object[] argv) throws Throwable {
+			InvocationKey key = new InvocationKey(configKey, argv != null ? argv : new Object[0]);
+			FeignNegativeCache.Entry cached = cache.get(key);
+			if (cached != null) {
+				return cached.result();
+			}
+			Object result = delegate.invoke(argv);
+			if (isNegative(result)) {
+				cache.put(key, result, ttlMillis);
+			}
+			return result;
+		}
+
+	}
+
+	/**
+	 * Caches the negative value of methods returning a {@code CompletableFuture} or a
+	 * {@code Mono} once it is available, without waiting for it.
+	 */
+	private final class NonBlockingNegativeCachingMethodHandler implements NonBlockingMethodHandler {
+
+		private final MethodHandler delegate;
+
+		private final Method method;
+
+		private final String configKey;
+
+		private final long ttlMillis;
+
+		private NonBlockingNegativeCachingMethodHandler(MethodHandler delegate, Method method, String configKey,
+				long ttlMillis) {
+			this.delegate = delegate;
+			this.method = method;
+			this.configKey = configKey;
+			this.ttlMillis = ttlMillis;
+		}
+
+		@Override
+		public Object invoke(Object[] argv) {
+			InvocationKey key = new InvocationKey(configKey, argv != null ? argv : new Object[0]);
+			return NonBlockingResults.fromFuture(method, () -> {
+				FeignNegativeCache.Entry cached = cache.get(key);
+				if (cached != null) {
+					return CompletableFuture.completedFuture(cached.result());
+				}
+				return NonBlockingResults.toFuture(delegate, argv).thenApply(result -> {
+					if (isNegative(result)) {
+						cache.put(key, result, ttlMillis);
+					}
+					return result;
+				});
+			});
+		}
+
+	}
+
+	private static final class InvocationKey {
+
+		private final String configKey;
+
+		private final Object[] arguments;
+
+		private final int hashCode;
+
+		private InvocationKey(String configKey, Object[] arguments) {
+			this.configKey = configKey;
+			this.arguments = arguments.clone();
+			this.hashCode = 31 * configKey.hashCode() + Arrays.deepHashCode(this.arguments);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof InvocationKey)) {
+				return false;
+			}
+			InvocationKey that = (InvocationKey) o;
+			return configKey.equals(that.configKey) && Arrays.deepEquals(arguments, that.arguments);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+	}
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.propagation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link FeignContextPropagator} delegating to several propagators. Contexts are
+ * restored in order and their scopes closed in reverse order.
+ */
+public class CompositeFeignContextPropagator implements FeignContextPropagator {
+
+	private final List<FeignContextPropagator> delegates;
+
+	public CompositeFeignContextPropagator(List<FeignContextPropagator> delegates) {
+		this.delegates = new ArrayList<>(delegates);
+	}
+
+	@Override
+	public Snapshot capture() {
+		if (delegates.size() == 1) {
+			return delegates.get(0).capture();
+		}
+		List<Snapshot> snapshots = new ArrayList<>(delegates.size());
+		for (FeignContextPropagator delegate : delegates) {
+			snapshots.add(delegate.capture());
+		}
+		return () -> {
+			List<Scope> scopes = new ArrayList<>(snapshots.size());
+			for (Snapshot snapshot : snapshots) {
+				scopes.add(snapshot.restore());
+			}
+			return () -> {
+				for (int i = scopes.size() - 1; i >= 0; i--) {
+					scopes.get(i).close();
+				}
+			};
+		};
+	}
+
+}
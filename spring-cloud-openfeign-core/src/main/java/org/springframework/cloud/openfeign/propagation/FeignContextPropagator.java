@@ -0,0 +1,67 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.propagation;
+
+/**
+ * SPI capturing selected thread-bound context, such as request attributes, MDC entries,
+ * tracing or security context, on the thread invoking a Feign client, and restoring it
+ * on the thread that executes the call. Snapshots are taken explicitly, so no
+ * {@link InheritableThreadLocal} is involved and the mechanism works the same way with
+ * pooled and virtual threads.
+ */
+public interface FeignContextPropagator {
+
+	/**
+	 * Captures the context of the current thread.
+	 * @return a snapshot of the context, never {@code null}
+	 */
+	Snapshot capture();
+
+	/**
+	 * Context captured on the calling thread.
+	 */
+	@FunctionalInterface
+	interface Snapshot {
+
+		/**
+		 * Restores the captured context on the current thread.
+		 * @return a scope that, when closed, restores the context the current thread had
+		 * before
+		 */
+		Scope restore();
+
+	}
+
+	/**
+	 * Scope of a restored context. Closing it reinstates the previous context of the
+	 * thread, clearing the restored values when there was none.
+	 */
+	@FunctionalInterface
+	interface Scope extends AutoCloseable {
+
+		/**
+		 * A scope with nothing to clean up.
+		 */
+		Scope NOOP = () -> {
+		};
+
+		@Override
+		void close();
+
+	}
+
+}
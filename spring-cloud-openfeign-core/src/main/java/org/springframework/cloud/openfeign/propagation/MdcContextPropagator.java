@@ -0,0 +1,65 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.propagation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.slf4j.MDC;
+
+/**
+ * {@link FeignContextPropagator} copying only the configured {@link MDC} entries, for
+ * instance trace and span ids.
+ */
+public class MdcContextPropagator implements FeignContextPropagator {
+
+	private final String[] keys;
+
+	public MdcContextPropagator(Collection<String> keys) {
+		this.keys = keys.toArray(new String[0]);
+	}
+
+	@Override
+	public Snapshot capture() {
+		String[] values = new String[keys.length];
+		boolean empty = true;
+		for (int i = 0; i < keys.length; i++) {
+			values[i] = MDC.get(keys[i]);
+			empty &= values[i] == null;
+		}
+		if (empty) {
+			return () -> Scope.NOOP;
+		}
+		return () -> {
+			List<Runnable> undo = new ArrayList<>(keys.length);
+			for (int i = 0; i < keys.length; i++) {
+				String key = keys[i];
+				String previous = MDC.get(key);
+				if (values[i] != null) {
+					MDC.put(key, values[i]);
+				}
+				else {
+					MDC.remove(key);
+				}
+				undo.add(previous != null ? () -> MDC.put(key, previous) : () -> MDC.remove(key));
+			}
+			return () -> undo.forEach(Runnable::run);
+		};
+	}
+
+}
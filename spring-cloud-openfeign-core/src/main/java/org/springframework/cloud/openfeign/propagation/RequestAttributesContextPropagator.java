@@ -0,0 +1,52 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.propagation;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * {@link FeignContextPropagator} for the {@link RequestAttributes} bound to
+ * {@link RequestContextHolder}, so that request interceptors can access the inbound
+ * request.
+ */
+public class RequestAttributesContextPropagator implements FeignContextPropagator {
+
+	@Override
+	public Snapshot capture() {
+		RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+		if (requestAttributes == null) {
+			return () -> Scope.NOOP;
+		}
+		return () -> {
+			RequestAttributes previous = RequestContextHolder.getRequestAttributes();
+			if (previous == requestAttributes) {
+				return Scope.NOOP;
+			}
+			RequestContextHolder.setRequestAttributes(requestAttributes);
+			return () -> {
+				if (previous != null) {
+					RequestContextHolder.setRequestAttributes(previous);
+				}
+				else {
+					RequestContextHolder.resetRequestAttributes();
+				}
+			};
+		};
+	}
+
+}
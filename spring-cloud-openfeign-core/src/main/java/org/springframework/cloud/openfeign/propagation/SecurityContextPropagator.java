@@ -0,0 +1,52 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.propagation;
+
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * {@link FeignContextPropagator} for the {@link SecurityContext} bound to
+ * {@link SecurityContextHolder}, so that interceptors can forward the caller's
+ * credentials.
+ */
+public class SecurityContextPropagator implements FeignContextPropagator {
+
+	@Override
+	public Snapshot capture() {
+		SecurityContext securityContext = SecurityContextHolder.getContext();
+		if (securityContext.getAuthentication() == null) {
+			return () -> Scope.NOOP;
+		}
+		return () -> {
+			SecurityContext previous = SecurityContextHolder.getContext();
+			if (previous == securityContext) {
+				return Scope.NOOP;
+			}
+			SecurityContextHolder.setContext(securityContext);
+			return () -> {
+				if (previous.getAuthentication() != null) {
+					SecurityContextHolder.setContext(previous);
+				}
+				else {
+					SecurityContextHolder.clearContext();
+				}
+			};
+		};
+	}
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.reactive;
+
+import java.util.Optional;
+
+import feign.AsyncClient;
+import feign.Request;
+import feign.Response;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ReactiveFeignClient} executing requests with a Feign {@link AsyncClient}, such as
+ * {@link feign.hc5.AsyncApacheHttp5Client}.
+ */
+public class AsyncReactiveFeignClient implements ReactiveFeignClient {
+
+	private final AsyncClient<?> delegate;
+
+	public AsyncReactiveFeignClient(AsyncClient<?> delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public Mono<Response> exchange(Request request, Request.Options options) {
+		return Mono.defer(() -> Mono.fromFuture(delegate.execute(request, options, Optional.empty())));
+	}
+
+	public AsyncClient<?> getDelegate() {
+		return delegate;
+	}
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.reactive;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import reactor.core.Exceptions;
+
+/**
+ * {@link Client} running classic, blocking Feign calls through a
+ * {@link ReactiveFeignClient}. The calling thread only waits for the response; all
+ * network I/O is performed by the reactive client.
+ */
+public class BlockingReactiveFeignClient implements Client {
+
+	private static final String READ_TIMEOUT_EXCEPTION = "io.netty.handler.timeout.ReadTimeoutException";
+
+	private final ReactiveFeignClient delegate;
+
+	public BlockingReactiveFeignClient(ReactiveFeignClient delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public Response execute(Request request, Request.Options options) throws IOException {
+		try {
+			return delegate.exchange(request, options).block();
+		}
+		catch (RuntimeException e) {
+			Throwable cause = Exceptions.unwrap(e);
+			if (READ_TIMEOUT_EXCEPTION.equals(cause.getClass().getName())) {
+				SocketTimeoutException timeout = new SocketTimeoutException("Read timed out");
+				timeout.initCause(cause);
+				throw timeout;
+			}
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			throw e;
+		}
+	}
+
+	public ReactiveFeignClient getDelegate() {
+		return delegate;
+	}
+
+}
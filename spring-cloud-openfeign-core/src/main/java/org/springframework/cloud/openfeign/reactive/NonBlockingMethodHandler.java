@@ -0,0 +1,28 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.reactive;
+
+import feign.InvocationHandlerFactory.MethodHandler;
+
+/**
+ * Marks a {@link MethodHandler} that returns without waiting for the response, so that
+ * callers wrapping the handler, such as circuit breakers, do not need to run it on a
+ * separate thread.
+ */
+public interface NonBlockingMethodHandler extends MethodHandler {
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.reactive;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import feign.InvocationHandlerFactory.MethodHandler;
+import reactor.core.publisher.Mono;
+
+/**
+ * Lets policies wrapping a {@link NonBlockingMethodHandler}, such as caches or batching,
+ * work on a {@link CompletableFuture} of the single value of methods returning a
+ * {@link CompletableFuture} or a {@link Mono}. For a {@link Mono}, the policy is applied
+ * each time it is subscribed to, so no request is sent before subscription.
+ */
+public final class NonBlockingResults {
+
+	private static final String MONO = "reactor.core.publisher.Mono";
+
+	private NonBlockingResults() {
+	}
+
+	/**
+	 * @param method a Feign client method
+	 * @return {@code true} if the method returns a {@link CompletableFuture} or a
+	 * {@link Mono}
+	 */
+	public static boolean isSingleValue(Method method) {
+		Class<?> type = method.getReturnType();
+		return type == CompletableFuture.class || type.getName().equals(MONO);
+	}
+
+	/**
+	 * @param method a method for which {@link #isSingleValue(Method)} is {@code true}
+	 * @param value supplies the future of the value; called right away for a
+	 * {@link CompletableFuture}, and on every subscription for a {@link Mono}
+	 * @return the result to return from the method
+	 */
+	public static Object fromFuture(Method method, Supplier<CompletableFuture<Object>> value) {
+		if (method.getReturnType() == CompletableFuture.class) {
+			return value.get();
+		}
+		return MonoResults.fromFuture(value);
+	}
+
+	/**
+	 * @param handler the handler of a method for which {@link #isSingleValue(Method)} is
+	 * {@code true}
+	 * @param argv the arguments of the invocation
+	 * @return the future of the value returned by the handler, subscribing to it if it is
+	 * a {@link Mono}
+	 */
+	@SuppressWarnings("unchecked")
+	public static CompletableFuture<Object> toFuture(MethodHandler handler, Object[] argv) {
+		Object result;
+		try {
+			result = handler.invoke(argv);
+		}
+		catch (Throwable t) {
+			CompletableFuture<Object> failed = new CompletableFuture<>();
+			failed.completeExceptionally(t);
+			return failed;
+		}
+		if (result instanceof CompletableFuture) {
+			return (CompletableFuture<Object>) result;
+		}
+		return MonoResults.toFuture(result);
+	}
+
+	/**
+	 * Keeps references to Reactor out of the enclosing class, which is used by
+	 * capabilities loaded without Reactor on the classpath.
+	 */
+	private static final class MonoResults {
+
+		static Object fromFuture(Supplier<CompletableFuture<Object>> value) {
+			return Mono.defer(() -> Mono.fromFuture(value.get()));
+		}
+
+		@SuppressWarnings("unchecked")
+		static CompletableFuture<Object> toFuture(Object mono) {
+			return ((Mono<Object>) mono).toFuture();
+		}
+
+	}
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.reactive;
+
+import java.io.IOException;
+import java.util.function.BiFunction;
+
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Executes Feign requests without blocking the calling thread. Used to run Feign methods
+ * returning {@link Mono}, {@link reactor.core.publisher.Flux} or
+ * {@link java.util.concurrent.CompletableFuture}.
+ */
+public interface ReactiveFeignClient {
+
+	/**
+	 * Executes the given request once the returned {@link Mono} is subscribed to.
+	 * @param request the fully resolved request
+	 * @param options the options of the invoked method
+	 * @return a {@link Mono} emitting the response, whose body is fully read
+	 */
+	Mono<Response> exchange(Request request, Request.Options options);
+
+	/**
+	 * Executes the given request once the returned {@link Flux} is subscribed to, passing
+	 * the body to the handler in chunks. Implementations should emit the chunks as they
+	 * are received, honouring the demand of the handler, and release the connection when
+	 * the subscription is cancelled; by default, the body is fully read first and passed
+	 * as a single chunk.
+	 * @param request the fully resolved request
+	 * @param options the options of the invoked method
+	 * @param handler maps the response, without its body, and the chunks of the body to
+	 * the emitted elements
+	 * @param <T> the type of the elements
+	 * @return a {@link Flux} emitting the elements produced by the handler
+	 */
+	default <T> Flux<T> exchange(Request request, Request.Options options,
+			BiFunction<Response, Flux<byte[]>, Publisher<T>> handler) {
+		return exchange(request, options).flatMapMany(response -> {
+			byte[] body;
+			try {
+				body = response.body() != null ? Util.toByteArray(response.body().asInputStream()) : new byte[0];
+			}
+			catch (IOException e) {
+				return Flux.error(e);
+			}
+			return handler.apply(response.toBuilder().body((byte[]) null).build(), Flux.just(body));
+		});
+	}
+
+}
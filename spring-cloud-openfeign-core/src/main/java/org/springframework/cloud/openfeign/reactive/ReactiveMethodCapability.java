@@ -0,0 +1,347 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.reactive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import feign.Capability;
+import feign.Client;
+import feign.Contract;
+import feign.Feign;
+import feign.InvocationHandlerFactory;
+import feign.InvocationHandlerFactory.MethodHandler;
+import feign.MethodMetadata;
+import feign.QueryMapEncoder;
+import feign.Request;
+import feign.RequestInterceptor;
+import feign.Response;
+import feign.Target;
+import feign.Util;
+import feign.codec.Decoder;
+import feign.codec.Encoder;
+import feign.codec.ErrorDecoder;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.cloud.openfeign.streaming.EventDecoder;
+import org.springframework.cloud.openfeign.streaming.StreamingDecoder;
+import org.springframework.core.ResolvableType;
+
+/**
+ * {@link Capability} adding support for Feign methods returning {@link Mono} or
+ * {@link Flux}. The request is built from the metadata parsed by the contract, with the
+ * encoder, the request interceptors and the target of the Feign client, and is executed
+ * by the {@link ReactiveFeignClient} once the returned publisher is subscribed to. Responses are decoded with the decoder of the Feign client; a
+ * {@link Flux} is decoded as a {@link List} of its elements, unless the response is a
+ * stream of server-sent events or of newline-delimited JSON documents, whose elements are
+ * decoded and emitted as they are received.
+ * <p>
+ * When no {@link ReactiveFeignClient} is given, the blocking {@link Client} of the Feign
+ * client is used on the bounded elastic scheduler. Otherwise, methods returning
+ * {@link CompletableFuture} are executed by the {@link ReactiveFeignClient} as well, the
+ * request being sent as soon as the method is invoked.
+ * <p>
+ * These methods do not go through the method handlers of Feign: the retryer and the
+ * logger of the Feign client are not used, and neither are the capabilities enriching the
+ * {@link Client}. Policies such as bulkheads or HTTP caching must be applied to the
+ * {@link ReactiveFeignClient} directly.
+ */
+public class ReactiveMethodCapability implements Capability {
+
+	private final ReactiveFeignClient reactiveClient;
+
+	private final ErrorDecoder errorDecoder;
+
+	private final boolean decode404;
+
+	private final int maxEventSize;
+
+	private final Map<String, MethodMetadata> metadata = new ConcurrentHashMap<>();
+
+	private final List<RequestInterceptor> requestInterceptors = new ArrayList<>();
+
+	private Client client;
+
+	private Encoder encoder;
+
+	private Decoder decoder;
+
+	private QueryMapEncoder queryMapEncoder;
+
+	private Request.Options options;
+
+	public ReactiveMethodCapability(ReactiveFeignClient reactiveClient, ErrorDecoder errorDecoder,
+			boolean decode404) {
+		this(reactiveClient, errorDecoder, decode404, StreamingDecoder.DEFAULT_MAX_EVENT_SIZE);
+	}
+
+	/**
+	 * @param reactiveClient executes the requests, or {@code null} to use the blocking
+	 * client of the Feign client
+	 * @param errorDecoder decodes unsuccessful responses
+	 * @param decode404 whether 404 responses are decoded
+	 * @param maxEventSize maximum size in bytes of a single streamed event or line
+	 */
+	public ReactiveMethodCapability(ReactiveFeignClient reactiveClient, ErrorDecoder errorDecoder,
+			boolean decode404, int maxEventSize) {
+		this.reactiveClient = reactiveClient;
+		this.errorDecoder = errorDecoder != null ? errorDecoder : new ErrorDecoder.Default();
+		this.decode404 = decode404;
+		this.maxEventSize = maxEventSize;
+	}
+
+	/**
+	 * @param type a Feign client interface
+	 * @return {@code true} if the interface declares methods returning {@link Mono} or
+	 * {@link Flux}
+	 */
+	public static boolean hasReactiveMethods(Class<?> type) {
+		for (Method method : type.getMethods()) {
+			if (isReactive(method)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param type a Feign client interface
+	 * @return {@code true} if the interface declares methods returning
+	 * {@link CompletableFuture}
+	 */
+	public static boolean hasFutureMethods(Class<?> type) {
+		for (Method method : type.getMethods()) {
+			if (isFuture(method)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isReactive(Method method) {
+		return !method.isDefault() && (method.getReturnType() == Mono.class || method.getReturnType() == Flux.class);
+	}
+
+	private static boolean isFuture(Method method) {
+		return !method.isDefault() && method.getReturnType() == CompletableFuture.class;
+	}
+
+	private boolean isHandled(Method method) {
+		return isReactive(method) || (reactiveClient != null && isFuture(method));
+	}
+
+	@Override
+	public Client enrich(Client client) {
+		// the client is enriched first, the interceptors of a previous build are dropped
+		this.client = client;
+		requestInterceptors.clear();
+		return client;
+	}
+
+	@Override
+	public RequestInterceptor enrich(RequestInterceptor requestInterceptor) {
+		requestInterceptors.add(requestInterceptor);
+		return requestInterceptor;
+	}
+
+	@Override
+	public Contract enrich(Contract contract) {
+		return targetType -> {
+			List<MethodMetadata> parsed = contract.parseAndValidateMetadata(targetType);
+			for (MethodMetadata methodMetadata : parsed) {
+				metadata.put(methodMetadata.configKey(), methodMetadata);
+			}
+			return parsed;
+		};
+	}
+
+	@Override
+	public Request.Options enrich(Request.Options options) {
+		this.options = options;
+		return options;
+	}
+
+	@Override
+	public Encoder enrich(Encoder encoder) {
+		this.encoder = encoder;
+		return encoder;
+	}
+
+	@Override
+	public Decoder enrich(Decoder decoder) {
+		this.decoder = decoder;
+		return decoder;
+	}
+
+	@Override
+	public QueryMapEncoder enrich(QueryMapEncoder queryMapEncoder) {
+		this.queryMapEncoder = queryMapEncoder;
+		return queryMapEncoder;
+	}
+
+	@Override
+	public InvocationHandlerFactory enrich(InvocationHandlerFactory invocationHandlerFactory) {
+		return (target, dispatch) -> {
+			Map<Method, MethodHandler> handlers = new LinkedHashMap<>(dispatch);
+			handlers.replaceAll((method, handler) -> isHandled(method) && !(handler instanceof NonBlockingMethodHandler)
+					? new ReactiveMethodHandler(target, method, requestFactory(target, method)) : handler);
+			return invocationHandlerFactory.create(target, handlers);
+		};
+	}
+
+	private ReactiveRequestFactory requestFactory(Target<?> target, Method method) {
+		MethodMetadata methodMetadata = metadata.get(Feign.configKey(target.type(), method));
+		if (methodMetadata == null) {
+			throw new IllegalStateException("No metadata parsed for " + method);
+		}
+		return new ReactiveRequestFactory(methodMetadata, target, encoder, queryMapEncoder,
+				new ArrayList<>(requestInterceptors), options);
+	}
+
+	private ReactiveFeignClient reactiveClient() {
+		if (reactiveClient != null) {
+			return reactiveClient;
+		}
+		return (request, options) -> Mono.fromCallable(() -> client.execute(request, options))
+				.subscribeOn(Schedulers.boundedElastic());
+	}
+
+	private final class ReactiveMethodHandler implements NonBlockingMethodHandler {
+
+		private final ReactiveRequestFactory requestFactory;
+
+		private final String methodKey;
+
+		private final boolean flux;
+
+		private final boolean future;
+
+		private final boolean empty;
+
+		private final Type elementType;
+
+		private final Type decodeType;
+
+		ReactiveMethodHandler(Target<?> target, Method method, ReactiveRequestFactory requestFactory) {
+			this.requestFactory = requestFactory;
+			this.methodKey = Feign.configKey(target.type(), method);
+			this.flux = method.getReturnType() == Flux.class;
+			this.future = method.getReturnType() == CompletableFuture.class;
+			ResolvableType element = ResolvableType.forMethodReturnType(method, target.type()).getGeneric(0);
+			if (element.resolve() == null) {
+				element = ResolvableType.forClass(Object.class);
+			}
+			this.empty = element.resolve() == Void.class;
+			this.elementType = element.getType();
+			this.decodeType = flux ? ResolvableType.forClassWithGenerics(List.class, element).getType()
+					: element.getType();
+		}
+
+		@Override
+		public Object invoke(Object[] argv) {
+			if (flux) {
+				return Flux.defer(() -> executeMany(argv));
+			}
+			Mono<Object> result = Mono.defer(() -> execute(argv));
+			return future ? result.toFuture() : result;
+		}
+
+		private Mono<Object> execute(Object[] argv) {
+			Request request;
+			try {
+				request = requestFactory.create(argv);
+			}
+			catch (RuntimeException e) {
+				return Mono.error(e);
+			}
+			return reactiveClient().exchange(request, requestFactory.options(argv)).flatMap(this::decode);
+		}
+
+		private Flux<Object> executeMany(Object[] argv) {
+			Request request;
+			try {
+				request = requestFactory.create(argv);
+			}
+			catch (RuntimeException e) {
+				return Flux.error(e);
+			}
+			return reactiveClient().exchange(request, requestFactory.options(argv), this::decodeMany);
+		}
+
+		/**
+		 * Streamed responses are decoded chunk by chunk, requesting a single chunk at a
+		 * time so that the demand of the subscriber is propagated to the connection.
+		 */
+		private Publisher<Object> decodeMany(Response response, Flux<byte[]> body) {
+			if (response.status() >= 200 && response.status() < 300 && StreamingDecoder.isStreaming(response)) {
+				EventDecoder events = new EventDecoder(response, elementType, decoder, maxEventSize);
+				return body.concatMap(chunk -> decodeChunk(() -> events.decode(chunk, 0, chunk.length)), 1)
+						.concatWith(Flux.defer(() -> decodeChunk(events::finish)));
+			}
+			return body.collect(ByteArrayOutputStream::new, (out, chunk) -> out.write(chunk, 0, chunk.length))
+					.flatMap(out -> decode(response.toBuilder().body(out.toByteArray()).build()))
+					.flatMapIterable(list -> (List<?>) list);
+		}
+
+		private Flux<Object> decodeChunk(ChunkDecoder chunkDecoder) {
+			try {
+				return Flux.fromIterable(chunkDecoder.decode());
+			}
+			catch (IOException | RuntimeException e) {
+				return Flux.error(e);
+			}
+		}
+
+		private Mono<Object> decode(Response response) {
+			try {
+				if ((response.status() >= 200 && response.status() < 300) || (response.status() == 404 && decode404)) {
+					if (empty) {
+						return Mono.empty();
+					}
+					return Mono.justOrEmpty(decoder.decode(response, decodeType));
+				}
+				return Mono.error(errorDecoder.decode(methodKey, response));
+			}
+			catch (IOException | RuntimeException e) {
+				return Mono.error(e);
+			}
+			finally {
+				Util.ensureClosed(response.body());
+			}
+		}
+
+	}
+
+	@FunctionalInterface
+	private interface ChunkDecoder {
+
+		List<Object> decode() throws IOException;
+
+	}
+
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.reactive;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import feign.MethodMetadata;
+import feign.Param;
+import feign.QueryMapEncoder;
+import feign.Request;
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import feign.Target;
+import feign.Util;
+import feign.codec.EncodeException;
+import feign.codec.Encoder;
+import feign.template.UriUtils;
+
+/**
+ * Builds the {@link Request} of a method from its {@link MethodMetadata} and arguments,
+ * the same way the method handlers of Feign do: the template of the method is expanded
+ * and encoded, then the request interceptors and the target are applied to it.
+ */
+class ReactiveRequestFactory {
+
+	private final MethodMetadata metadata;
+
+	private final Target<?> target;
+
+	private final Encoder encoder;
+
+	private final QueryMapEncoder queryMapEncoder;
+
+	private final List<RequestInterceptor> requestInterceptors;
+
+	private final Request.Options options;
+
+	private final Map<Integer, Param.Expander> indexToExpander = new LinkedHashMap<>();
+
+	ReactiveRequestFactory(MethodMetadata metadata, Target<?> target, Encoder encoder, QueryMapEncoder queryMapEncoder,
+			List<RequestInterceptor> requestInterceptors, Request.Options options) {
+		this.metadata = metadata;
+		this.target = target;
+		this.encoder = encoder;
+		this.queryMapEncoder = queryMapEncoder;
+		this.requestInterceptors = requestInterceptors;
+		this.options = options;
+		if (metadata.indexToExpander() != null) {
+			indexToExpander.putAll(metadata.indexToExpander());
+		}
+		else {
+			metadata.indexToExpanderClass()
+					.forEach((index, expanderClass) -> indexToExpander.put(index, newExpander(expanderClass)));
+		}
+	}
+
+	private static Param.Expander newExpander(Class<? extends Param.Expander> expanderClass) {
+		try {
+			return expanderClass.getDeclaredConstructor().newInstance();
+		}
+		catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Could not instantiate expander " + expanderClass.getName(), e);
+		}
+	}
+
+	/**
+	 * @param argv the arguments of the method
+	 * @return the request to send
+	 */
+	Request create(Object[] argv) {
+		RequestTemplate template = RequestTemplate.from(metadata.template());
+		template.feignTarget(target);
+		if (metadata.urlIndex() != null) {
+			int urlIndex = metadata.urlIndex();
+			Util.checkArgument(argv[urlIndex] != null, "URI parameter %s was null", urlIndex);
+			template.target(String.valueOf(argv[urlIndex]));
+		}
+		Map<String, Object> variables = new LinkedHashMap<>();
+		metadata.indexToName().forEach((index, names) -> {
+			Object value = argv[index];
+			if (value != null) {
+				Param.Expander expander = indexToExpander.get(index);
+				Object expanded = expander != null ? expand(expander, value) : value;
+				names.forEach(name -> variables.put(name, expanded));
+			}
+		});
+		encodeBody(argv, template, variables);
+		template = template.resolve(variables);
+		if (metadata.queryMapIndex() != null) {
+			addQueryMap(toQueryMap(argv[metadata.queryMapIndex()]), template);
+		}
+		if (metadata.headerMapIndex() != null) {
+			addHeaderMap(asMap(argv[metadata.headerMapIndex()]), template);
+		}
+		for (RequestInterceptor interceptor : requestInterceptors) {
+			interceptor.apply(template);
+		}
+		return target.apply(template);
+	}
+
+	/**
+	 * @param argv the arguments of the method
+	 * @return the options passed as an argument, or the options of the client
+	 */
+	Request.Options options(Object[] argv) {
+		if (argv != null) {
+			for (Object arg : argv) {
+				if (arg instanceof Request.Options) {
+					return (Request.Options) arg;
+				}
+			}
+		}
+		return options;
+	}
+
+	private void encodeBody(Object[] argv, RequestTemplate template, Map<String, Object> variables) {
+		Object body;
+		Type bodyType;
+		if (!metadata.formParams().isEmpty() && metadata.template().bodyTemplate() == null) {
+			Map<String, Object> formVariables = new LinkedHashMap<>();
+			variables.forEach((name, value) -> {
+				if (metadata.formParams().contains(name)) {
+					formVariables.put(name, value);
+				}
+			});
+			body = formVariables;
+			bodyType = Encoder.MAP_STRING_WILDCARD;
+		}
+		else if (metadata.alwaysEncodeBody()) {
+			body = argv != null ? argv : new Object[0];
+			bodyType = Object[].class;
+		}
+		else if (metadata.bodyIndex() != null) {
+			body = argv[metadata.bodyIndex()];
+			Util.checkArgument(body != null, "Body parameter %s was null", metadata.bodyIndex());
+			bodyType = metadata.bodyType();
+		}
+		else {
+			return;
+		}
+		try {
+			encoder.encode(body, bodyType, template);
+		}
+		catch (EncodeException e) {
+			throw e;
+		}
+		catch (RuntimeException e) {
+			throw new EncodeException(e.getMessage(), e);
+		}
+	}
+
+	private static Object expand(Param.Expander expander, Object value) {
+		if (!(value instanceof Iterable)) {
+			return expander.expand(value);
+		}
+		List<String> values = new ArrayList<>();
+		for (Object element : (Iterable<?>) value) {
+			if (element != null) {
+				values.add(expander.expand(element));
+			}
+		}
+		return values;
+	}
+
+	private Map<String, Object> toQueryMap(Object value) {
+		if (value instanceof Map) {
+			return asMap(value);
+		}
+		try {
+			return queryMapEncoder.encode(value);
+		}
+		catch (EncodeException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> asMap(Object value) {
+		return (Map<String, Object>) value;
+	}
+
+	private void addQueryMap(Map<String, Object> queryMap, RequestTemplate template) {
+		boolean encoded = metadata.queryMapEncoded();
+		queryMap.forEach((name, value) -> {
+			Collection<String> values = new ArrayList<>();
+			if (value instanceof Iterable) {
+				((Iterable<?>) value).forEach(element -> values.add(queryValue(element, encoded)));
+			}
+			else if (value instanceof Object[]) {
+				for (Object element : (Object[]) value) {
+					values.add(queryValue(element, encoded));
+				}
+			}
+			else if (value != null) {
+				values.add(queryValue(value, encoded));
+			}
+			template.query(encoded ? name : UriUtils.encode(name), values);
+		});
+	}
+
+	private static String queryValue(Object value, boolean encoded) {
+		if (value == null) {
+			return null;
+		}
+		return encoded ? value.toString() : UriUtils.encode(value.toString());
+	}
+
+	private static void addHeaderMap(Map<String, Object> headerMap, RequestTemplate template) {
+		headerMap.forEach((name, value) -> {
+			Collection<String> values = new ArrayList<>();
+			if (value instanceof Iterable) {
+				((Iterable<?>) value).forEach(element -> values.add(element != null ? element.toString() : null));
+			}
+			else {
+				values.add(value != null ? value.toString() : null);
+			}
+			template.header(name, values);
+		});
+	}
+
+}
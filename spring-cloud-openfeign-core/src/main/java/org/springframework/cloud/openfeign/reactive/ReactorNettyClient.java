@@ -0,0 +1,96 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.reactive;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+import feign.Request;
+import feign.Response;
+import io.netty.handler.codec.http.HttpMethod;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientResponse;
+
+/**
+ * {@link ReactiveFeignClient} backed by Reactor Netty. Requests are written and read by
+ * Netty event loops using pooled connections. Classic, blocking Feign methods use it
+ * through a {@link BlockingReactiveFeignClient}.
+ * <p>
+ * The connect timeout and the redirect policy are those of the given {@link HttpClient},
+ * so that all requests share the same connection pool; the read timeout is taken from the
+ * {@link Request.Options} of each request.
+ */
+public class ReactorNettyClient implements ReactiveFeignClient {
+
+	private static final byte[] EMPTY_BODY = new byte[0];
+
+	private final HttpClient httpClient;
+
+	public ReactorNettyClient(HttpClient httpClient) {
+		this.httpClient = httpClient;
+	}
+
+	@Override
+	public Mono<Response> exchange(Request request, Request.Options options) {
+		return send(request, options).responseSingle((response, content) -> content.asByteArray()
+				.defaultIfEmpty(EMPTY_BODY).map(body -> toFeignResponse(request, response, body)));
+	}
+
+	/**
+	 * Passes the chunks of the body to the handler as they are read. Netty stops reading
+	 * from the connection while the handler has no demand, and closes it when the
+	 * subscription is cancelled. The read timeout applies between two chunks.
+	 */
+	@Override
+	public <T> Flux<T> exchange(Request request, Request.Options options,
+			BiFunction<Response, Flux<byte[]>, Publisher<T>> handler) {
+		return send(request, options).response(
+				(response, content) -> handler.apply(toFeignResponse(request, response, null), content.asByteArray()));
+	}
+
+	private HttpClient.ResponseReceiver<?> send(Request request, Request.Options options) {
+		Duration readTimeout = Duration.ofMillis(options.readTimeoutMillis());
+		return httpClient.request(HttpMethod.valueOf(request.httpMethod().name())).uri(request.url())
+				.send((httpRequest, outbound) -> {
+					httpRequest.responseTimeout(readTimeout);
+					request.headers().forEach((name, values) -> httpRequest.requestHeaders().add(name, values));
+					byte[] body = request.body();
+					return body != null && body.length > 0 ? outbound.sendByteArray(Mono.just(body)) : outbound;
+				});
+	}
+
+	public HttpClient getHttpClient() {
+		return httpClient;
+	}
+
+	private static Response toFeignResponse(Request request, HttpClientResponse response, byte[] body) {
+		Map<String, Collection<String>> headers = new LinkedHashMap<>();
+		for (String name : response.responseHeaders().names()) {
+			headers.put(name, new ArrayList<>(response.responseHeaders().getAll(name)));
+		}
+		return Response.builder().request(request).status(response.status().code())
+				.reason(response.status().reasonPhrase()).headers(headers).body(body).build();
+	}
+
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.streaming;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import feign.Response;
+import feign.codec.DecodeException;
+import feign.codec.Decoder;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+
+/**
+ * Incrementally decodes the body of a {@code text/event-stream} or
+ * {@code application/x-ndjson} response. Chunks of the body are passed as they are
+ * received, and every complete event, or line, is decoded into an element as soon as it
+ * is available, so that at most one incomplete event is buffered.
+ * <p>
+ * The data of an event is decoded with the Feign {@link Decoder} as a JSON document,
+ * unless the element type is {@link String}. Server-sent events are decoded into a
+ * {@link ServerSentEvent} of the data, including the id, the event type, the retry delay
+ * and the comments, when it is the element type. Instances are not thread-safe; one is
+ * created per response.
+ */
+public final class EventDecoder {
+
+	private static final Map<String, Collection<String>> JSON_HEADERS = Collections.singletonMap(
+			HttpHeaders.CONTENT_TYPE, Collections.singletonList(MediaType.APPLICATION_JSON_VALUE));
+
+	private final Response response;
+
+	private final Decoder decoder;
+
+	private final int maxEventSize;
+
+	private final boolean serverSentEvents;
+
+	private final boolean wrapped;
+
+	private final Type dataType;
+
+	private final ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+
+	private boolean skipLineFeed;
+
+	private int eventSize;
+
+	private StringBuilder data;
+
+	private StringBuilder comment;
+
+	private String id;
+
+	private String event;
+
+	private Duration retry;
+
+	/**
+	 * @param response the response, used for its content type and as the request of the
+	 * decoded elements
+	 * @param elementType the type of the elements
+	 * @param decoder decodes the data of the events
+	 * @param maxEventSize maximum size in bytes of a single event or line
+	 */
+	public EventDecoder(Response response, Type elementType, Decoder decoder, int maxEventSize) {
+		this.response = response;
+		this.decoder = decoder;
+		this.maxEventSize = maxEventSize;
+		this.serverSentEvents = MediaType.TEXT_EVENT_STREAM.isCompatibleWith(StreamingDecoder.contentType(response));
+		this.wrapped = rawType(elementType) == ServerSentEvent.class;
+		this.dataType = wrapped ? dataType(elementType) : elementType;
+	}
+
+	/**
+	 * Decodes the events completed by the given chunk of the body.
+	 * @param chunk the bytes received
+	 * @param offset the offset of the first byte in the chunk
+	 * @param length the number of bytes received
+	 * @return the decoded elements, possibly empty
+	 * @throws IOException if the data of an event cannot be decoded
+	 */
+	public List<Object> decode(byte[] chunk, int offset, int length) throws IOException {
+		List<Object> elements = new ArrayList<>();
+		for (int i = offset; i < offset + length; i++) {
+			byte b = chunk[i];
+			if (b == '\n' && skipLineFeed) {
+				skipLineFeed = false;
+				continue;
+			}
+			skipLineFeed = b == '\r';
+			if (b == '\r' || b == '\n') {
+				onLine(elements);
+			}
+			else {
+				if (line.size() >= maxEventSize) {
+					throw tooLarge();
+				}
+				line.write(b);
+			}
+		}
+		return elements;
+	}
+
+	/**
+	 * Decodes the last line of the body once it has been fully received. An incomplete
+	 * server-sent event is discarded.
+	 * @return the decoded elements, possibly empty
+	 * @throws IOException if the data of an event cannot be decoded
+	 */
+	public List<Object> finish() throws IOException {
+		List<Object> elements = new ArrayList<>();
+		if (line.size() > 0) {
+			onLine(elements);
+		}
+		return elements;
+	}
+
+	private void onLine(List<Object> elements) throws IOException {
+		String value = new String(line.toByteArray(), StandardCharsets.UTF_8);
+		line.reset();
+		if (!serverSentEvents) {
+			if (!value.trim().isEmpty()) {
+				addIfPresent(elements, decodeData(value));
+			}
+			return;
+		}
+		if (value.isEmpty()) {
+			dispatch(elements);
+			return;
+		}
+		eventSize += value.length();
+		if (eventSize > maxEventSize) {
+			throw tooLarge();
+		}
+		if (value.charAt(0) == ':') {
+			comment = append(comment, value.substring(1).trim());
+			return;
+		}
+		int colon = value.indexOf(':');
+		String field = colon < 0 ? value : value.substring(0, colon);
+		String fieldValue = colon < 0 ? "" : value.substring(value.startsWith(" ", colon + 1) ? colon + 2 : colon + 1);
+		switch (field) {
+		case "data":
+			data = append(data, fieldValue);
+			break;
+		case "id":
+			id = fieldValue;
+			break;
+		case "event":
+			event = fieldValue;
+			break;
+		case "retry":
+			try {
+				retry = Duration.ofMillis(Long.parseLong(fieldValue));
+			}
+			catch (NumberFormatException e) {
+				// ignored, as required by the specification
+			}
+			break;
+		default:
+			break;
+		}
+	}
+
+	private void dispatch(List<Object> elements) throws IOException {
+		if (data != null || (wrapped && (comment != null || id != null || event != null || retry != null))) {
+			Object value = data != null ? decodeData(data.toString()) : null;
+			if (wrapped) {
+				value = ServerSentEvent.builder(value).id(id).event(event).retry(retry)
+						.comment(comment != null ? comment.toString() : null).build();
+			}
+			addIfPresent(elements, value);
+		}
+		data = null;
+		comment = null;
+		id = null;
+		event = null;
+		retry = null;
+		eventSize = 0;
+	}
+
+	private Object decodeData(String value) throws IOException {
+		if (dataType == String.class) {
+			return value;
+		}
+		if (value.isEmpty()) {
+			return null;
+		}
+		Response element = Response.builder().status(200).reason("OK").request(response.request())
+				.headers(JSON_HEADERS).body(value, StandardCharsets.UTF_8).build();
+		return decoder.decode(element, dataType);
+	}
+
+	private DecodeException tooLarge() {
+		return new DecodeException(response.status(), "Event exceeds the maximum size of " + maxEventSize + " bytes",
+				response.request());
+	}
+
+	private static void addIfPresent(List<Object> elements, Object element) {
+		if (element != null) {
+			elements.add(element);
+		}
+	}
+
+	private static StringBuilder append(StringBuilder builder, String value) {
+		return builder == null ? new StringBuilder(value) : builder.append('\n').append(value);
+	}
+
+	private static Class<?> rawType(Type type) {
+		if (type instanceof ParameterizedType) {
+			return (Class<?>) ((ParameterizedType) type).getRawType();
+		}
+		return type instanceof Class ? (Class<?>) type : Object.class;
+	}
+
+	private static Type dataType(Type serverSentEventType) {
+		if (serverSentEventType instanceof ParameterizedType) {
+			Type dataType = ((ParameterizedType) serverSentEventType).getActualTypeArguments()[0];
+			return dataType instanceof WildcardType ? ((WildcardType) dataType).getUpperBounds()[0] : dataType;
+		}
+		return String.class;
+	}
+
+}
@@ -0,0 +1,420 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.streaming;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import feign.Capability;
+import feign.Client;
+import feign.Contract;
+import feign.InvocationHandlerFactory;
+import feign.InvocationHandlerFactory.MethodHandler;
+import feign.MethodMetadata;
+import feign.Response;
+import feign.codec.Decoder;
+
+import org.springframework.cloud.openfeign.propagation.FeignContextPropagator;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * {@link Capability} writing response bodies directly to a file or a channel, without
+ * holding them in memory. Download methods return {@code void}, {@code long} (the number
+ * of bytes written) or {@link Path}, and either take a {@link Path} or a
+ * {@link WritableByteChannel} as their body parameter, which is not sent but receives the
+ * response body, or return a {@link Path} to a new temporary file holding it.
+ * <p>
+ * Bodies are transferred with {@link FileChannel#transferFrom} when writing to a file.
+ * Files are written next to their destination and only moved to it once the body has
+ * been fully received and its length matches the {@code Content-Length} of the response,
+ * so a failed download never leaves a partial file behind.
+ * <p>
+ * When created with a concurrency and a chunk size, downloads to a {@link Path} are
+ * performed in ranges, see {@link RangedDownloader}.
+ */
+public class FileDownloadCapability implements Capability {
+
+	private static final long TRANSFER_SIZE = 8 * 1024 * 1024;
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private static final ThreadLocal<Object> DESTINATION = new ThreadLocal<>();
+
+	private final RangedDownloader rangedDownloader;
+
+	public FileDownloadCapability() {
+		this.rangedDownloader = null;
+	}
+
+	/**
+	 * Creates a capability downloading files in ranges fetched concurrently.
+	 * @param concurrency maximum number of ranges of a file fetched concurrently
+	 * @param chunkSize size in bytes of a range
+	 * @param executor executes the requests of the ranges
+	 * @param contextPropagator propagates the context of the invoking thread to the
+	 * threads fetching the ranges
+	 */
+	public FileDownloadCapability(int concurrency, long chunkSize, Executor executor,
+			FeignContextPropagator contextPropagator) {
+		this.rangedDownloader = new RangedDownloader(concurrency, chunkSize, executor, contextPropagator);
+	}
+
+	/**
+	 * @param type a Feign client interface
+	 * @return {@code true} if the interface declares download methods
+	 */
+	public static boolean hasDownloadMethods(Class<?> type) {
+		for (Method method : type.getMethods()) {
+			if (!method.isDefault() && (destinationIndex(method) >= 0 || method.getReturnType() == Path.class)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isDownloadResult(Class<?> returnType) {
+		return returnType == void.class || returnType == long.class || returnType == Long.class
+				|| returnType == Path.class;
+	}
+
+	private static int destinationIndex(Method method) {
+		if (!isDownloadResult(method.getReturnType())) {
+			return -1;
+		}
+		Class<?>[] parameterTypes = method.getParameterTypes();
+		for (int i = 0; i < parameterTypes.length; i++) {
+			if (parameterTypes[i] == Path.class || WritableByteChannel.class.isAssignableFrom(parameterTypes[i])) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static boolean isDownload(Method method) {
+		return destinationIndex(method) >= 0 || method.getReturnType() == Path.class;
+	}
+
+	@Override
+	public Decoder enrich(Decoder decoder) {
+		return new DownloadDecoder(decoder);
+	}
+
+	@Override
+	public Client enrich(Client client) {
+		if (rangedDownloader == null) {
+			return client;
+		}
+		return (request, options) -> {
+			Object destination = DESTINATION.get();
+			return client.execute(
+					destination instanceof RangedDownloader.Range ? ((RangedDownloader.Range) destination).apply(request)
+							: request,
+					options);
+		};
+	}
+
+	/**
+	 * The destination of a download method is not part of the request, and the response
+	 * is decoded as a {@link Download}, since Feign does not decode responses of
+	 * {@code void} methods.
+	 */
+	@Override
+	public Contract enrich(Contract contract) {
+		return targetType -> {
+			List<MethodMetadata> metadata = contract.parseAndValidateMetadata(targetType);
+			for (MethodMetadata methodMetadata : metadata) {
+				Method method = methodMetadata.method();
+				if (method != null && isDownload(method)) {
+					int destinationIndex = destinationIndex(method);
+					if (destinationIndex >= 0 && Integer.valueOf(destinationIndex).equals(methodMetadata.bodyIndex())) {
+						methodMetadata.bodyIndex(null);
+						methodMetadata.bodyType(null);
+					}
+					methodMetadata.returnType(Download.class);
+				}
+			}
+			return metadata;
+		};
+	}
+
+	@Override
+	public InvocationHandlerFactory enrich(InvocationHandlerFactory invocationHandlerFactory) {
+		return (target, dispatch) -> {
+			Map<Method, MethodHandler> handlers = new LinkedHashMap<>(dispatch);
+			handlers.replaceAll(
+					(method, handler) -> isDownload(method) ? new DownloadMethodHandler(method, handler) : handler);
+			return invocationHandlerFactory.create(target, handlers);
+		};
+	}
+
+	/**
+	 * Transfers the body to a file, starting at the given position.
+	 * @param count maximum number of bytes to transfer
+	 * @return the number of bytes transferred
+	 */
+	static long transferAt(ReadableByteChannel source, FileChannel file, long position, long count)
+			throws IOException {
+		long length = 0;
+		while (length < count) {
+			long transferred = file.transferFrom(source, position + length, Math.min(TRANSFER_SIZE, count - length));
+			if (transferred <= 0) {
+				break;
+			}
+			length += transferred;
+		}
+		return length;
+	}
+
+	/**
+	 * Compares the number of bytes received with the {@code Content-Length} of the
+	 * response, unless the body was transformed by a {@code Content-Encoding}.
+	 */
+	static void verifyLength(Response response, long length) throws IOException {
+		String contentLength = header(response, HttpHeaders.CONTENT_LENGTH);
+		if (contentLength == null || header(response, HttpHeaders.CONTENT_ENCODING) != null) {
+			return;
+		}
+		long expected;
+		try {
+			expected = Long.parseLong(contentLength.trim());
+		}
+		catch (NumberFormatException e) {
+			return;
+		}
+		if (length != expected) {
+			throw new IOException("Incomplete download: received " + length + " bytes, but Content-Length is "
+					+ expected + " bytes");
+		}
+	}
+
+	static String header(Response response, String name) {
+		for (Map.Entry<String, Collection<String>> header : response.headers().entrySet()) {
+			if (name.equalsIgnoreCase(header.getKey()) && !header.getValue().isEmpty()) {
+				return header.getValue().iterator().next();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Moves a complete file to its destination, atomically if supported.
+	 */
+	static void move(Path file, Path target) throws IOException {
+		try {
+			Files.move(file, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (AtomicMoveNotSupportedException e) {
+			Files.move(file, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private final class DownloadMethodHandler implements MethodHandler {
+
+		private final MethodHandler delegate;
+
+		private final int destinationIndex;
+
+		private final Class<?> returnType;
+
+		DownloadMethodHandler(Method method, MethodHandler delegate) {
+			this.delegate = delegate;
+			this.destinationIndex = destinationIndex(method);
+			this.returnType = method.getReturnType();
+		}
+
+		@Override
+		public Object invoke(Object[] argv) throws Throwable {
+			Object destination = destinationIndex >= 0 ? argv[destinationIndex] : null;
+			if (destinationIndex >= 0 && destination == null) {
+				throw new IllegalArgumentException("Download destination must not be null");
+			}
+			Download download = rangedDownloader != null && destination instanceof Path
+					? rangedDownloader.download((Path) destination, range -> invoke(range, argv))
+					: invoke(destination, argv);
+			if (returnType == long.class || returnType == Long.class) {
+				return download != null ? download.length : 0L;
+			}
+			if (returnType == Path.class) {
+				return download != null ? download.path : null;
+			}
+			return null;
+		}
+
+		private Download invoke(Object destination, Object[] argv) throws Throwable {
+			Object previous = DESTINATION.get();
+			DESTINATION.set(destination);
+			try {
+				return (Download) delegate.invoke(argv);
+			}
+			finally {
+				if (previous != null) {
+					DESTINATION.set(previous);
+				}
+				else {
+					DESTINATION.remove();
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Result of a download.
+	 */
+	static final class Download {
+
+		final long length;
+
+		final Path path;
+
+		/**
+		 * Length of the complete file when only a range was received.
+		 */
+		final long total;
+
+		/**
+		 * Strong entity tag or last modification date of the file.
+		 */
+		final String validator;
+
+		final boolean ranged;
+
+		Download(long length, Path path) {
+			this(length, path, length, null, false);
+		}
+
+		Download(long length, Path path, long total, String validator, boolean ranged) {
+			this.length = length;
+			this.path = path;
+			this.total = total;
+			this.validator = validator;
+			this.ranged = ranged;
+		}
+
+	}
+
+	private static final class DownloadDecoder implements Decoder {
+
+		private final Decoder delegate;
+
+		DownloadDecoder(Decoder delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public Object decode(Response response, Type type) throws IOException {
+			if (type != Download.class) {
+				return delegate.decode(response, type);
+			}
+			try {
+				if (response.status() == 404 || response.status() == 204 || response.body() == null) {
+					// decode404 or no content
+					return null;
+				}
+				Object destination = DESTINATION.get();
+				try (InputStream in = response.body().asInputStream()) {
+					if (destination instanceof RangedDownloader.Range) {
+						return ((RangedDownloader.Range) destination).receive(response, Channels.newChannel(in));
+					}
+					if (destination instanceof WritableByteChannel) {
+						long length = transfer(Channels.newChannel(in), (WritableByteChannel) destination);
+						verifyLength(response, length);
+						return new Download(length, null);
+					}
+					return download(response, in, (Path) destination);
+				}
+			}
+			finally {
+				response.close();
+			}
+		}
+
+		/**
+		 * Writes the body to a temporary file, moved to the target once complete.
+		 * @param target the destination, or {@code null} to keep the temporary file
+		 */
+		private Download download(Response response, InputStream in, Path target) throws IOException {
+			Path file = target != null ? Files.createTempFile(target.toAbsolutePath().getParent(),
+					target.getFileName() + ".", ".part") : Files.createTempFile("feign-", ".download");
+			try {
+				long length;
+				try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE,
+						StandardOpenOption.TRUNCATE_EXISTING)) {
+					length = transfer(Channels.newChannel(in), channel);
+					channel.force(false);
+				}
+				verifyLength(response, length);
+				if (target == null) {
+					return new Download(length, file);
+				}
+				move(file, target);
+				return new Download(length, target);
+			}
+			catch (IOException | RuntimeException | Error e) {
+				try {
+					Files.deleteIfExists(file);
+				}
+				catch (IOException suppressed) {
+					e.addSuppressed(suppressed);
+				}
+				throw e;
+			}
+		}
+
+		private static long transfer(ReadableByteChannel source, WritableByteChannel destination)
+				throws IOException {
+			if (destination instanceof FileChannel) {
+				FileChannel file = (FileChannel) destination;
+				long position = file.position();
+				long length = transferAt(source, file, position, Long.MAX_VALUE);
+				file.position(position + length);
+				return length;
+			}
+			long length = 0;
+			ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+			while (source.read(buffer) >= 0) {
+				// the covariant ByteBuffer.flip() and clear() were only added in Java 9
+				((Buffer) buffer).flip();
+				while (buffer.hasRemaining()) {
+					length += destination.write(buffer);
+				}
+				((Buffer) buffer).clear();
+			}
+			return length;
+		}
+
+	}
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.streaming;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.hc.client5.http.classic.ExecChain;
+import org.apache.hc.client5.http.classic.ExecChainHandler;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.io.entity.AbstractHttpEntity;
+
+/**
+ * Apache HttpClient 5 {@link ExecChainHandler} sending the {@link StreamingRequestBody}
+ * referenced by a request. It replaces the entity of the request before the protocol
+ * interceptors compute the framing of the body, which is chunked when the length of the
+ * body is unknown.
+ */
+public class HttpClient5StreamingRequestHandler implements ExecChainHandler {
+
+	/**
+	 * Name of the handler in the execution chain.
+	 */
+	public static final String NAME = "feign-streaming-request-body";
+
+	@Override
+	public ClassicHttpResponse execute(ClassicHttpRequest request, ExecChain.Scope scope, ExecChain chain)
+			throws IOException, HttpException {
+		Header header = request.getFirstHeader(StreamingRequests.BODY_HEADER);
+		if (header == null) {
+			return chain.proceed(request, scope);
+		}
+		StreamingRequestBody body = StreamingRequests.body(header.getValue());
+		request.removeHeaders(StreamingRequests.BODY_HEADER);
+		request.setEntity(new StreamingEntity(body, contentType(request)));
+		return chain.proceed(request, scope);
+	}
+
+	private static ContentType contentType(ClassicHttpRequest request) {
+		HttpEntity entity = request.getEntity();
+		String contentType = entity != null && entity.getContentType() != null ? entity.getContentType()
+				: request.getFirstHeader(HttpHeaders.CONTENT_TYPE) != null
+						? request.getFirstHeader(HttpHeaders.CONTENT_TYPE).getValue() : null;
+		return contentType != null ? ContentType.parse(contentType) : null;
+	}
+
+	private static final class StreamingEntity extends AbstractHttpEntity {
+
+		private final StreamingRequestBody body;
+
+		private StreamingEntity(StreamingRequestBody body, ContentType contentType) {
+			super(contentType, null, body.contentLength() < 0);
+			this.body = body;
+		}
+
+		@Override
+		public InputStream getContent() {
+			throw new UnsupportedOperationException("Streaming request bodies can only be written");
+		}
+
+		@Override
+		public long getContentLength() {
+			return body.contentLength();
+		}
+
+		@Override
+		public boolean isRepeatable() {
+			return body.isRepeatable();
+		}
+
+		@Override
+		public boolean isStreaming() {
+			return !body.isRepeatable();
+		}
+
+		@Override
+		public void writeTo(OutputStream out) throws IOException {
+			body.writeTo(out);
+		}
+
+		@Override
+		public void close() {
+		}
+
+	}
+
+}
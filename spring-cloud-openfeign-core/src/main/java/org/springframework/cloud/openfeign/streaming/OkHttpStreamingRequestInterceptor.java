@@ -0,0 +1,83 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.streaming;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.BufferedSink;
+
+/**
+ * OkHttp {@link Interceptor} sending the {@link StreamingRequestBody} referenced by a
+ * request. It has to be registered as an application interceptor, so that it runs on the
+ * thread invoking the Feign method.
+ */
+public class OkHttpStreamingRequestInterceptor implements Interceptor {
+
+	@Override
+	public Response intercept(Chain chain) throws IOException {
+		Request request = chain.request();
+		String id = request.header(StreamingRequests.BODY_HEADER);
+		if (id == null) {
+			return chain.proceed(request);
+		}
+		String contentType = request.header("Content-Type");
+		MediaType mediaType = contentType != null ? MediaType.parse(contentType)
+				: request.body() != null ? request.body().contentType() : null;
+		RequestBody body = new StreamingBody(StreamingRequests.body(id), mediaType);
+		return chain.proceed(
+				request.newBuilder().removeHeader(StreamingRequests.BODY_HEADER).method(request.method(), body).build());
+	}
+
+	private static final class StreamingBody extends RequestBody {
+
+		private final StreamingRequestBody body;
+
+		private final MediaType mediaType;
+
+		private StreamingBody(StreamingRequestBody body, MediaType mediaType) {
+			this.body = body;
+			this.mediaType = mediaType;
+		}
+
+		@Override
+		public MediaType contentType() {
+			return mediaType;
+		}
+
+		@Override
+		public long contentLength() {
+			return body.contentLength();
+		}
+
+		@Override
+		public boolean isOneShot() {
+			return !body.isRepeatable();
+		}
+
+		@Override
+		public void writeTo(BufferedSink sink) throws IOException {
+			body.writeTo(sink.outputStream());
+		}
+
+	}
+
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.streaming;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import feign.Request;
+import feign.Response;
+
+import org.springframework.cloud.openfeign.propagation.FeignContextPropagator;
+import org.springframework.cloud.openfeign.streaming.FileDownloadCapability.Download;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Downloads a file in ranges fetched concurrently, each by a separate Feign call, and
+ * written at their position in a pre-allocated {@code .part} file next to the
+ * destination.
+ * <p>
+ * The first range doubles as a probe: a server that does not support ranges answers with
+ * the whole file, which is then simply written out. Otherwise, the length of the file and
+ * its validator (a strong entity tag or its last modification date) are taken from the
+ * first range, and the remaining ranges are fetched with an {@code If-Range} condition,
+ * so that a file modified in the meantime fails the download instead of mixing versions.
+ * <p>
+ * Completed ranges are recorded in a {@code .part.progress} file. A failed download
+ * keeps both files, and the next download of the same destination only fetches the
+ * missing ranges, as long as the length and validator of the file are unchanged.
+ */
+final class RangedDownloader {
+
+	private static final Pattern CONTENT_RANGE = Pattern.compile("bytes\\s+(\\d+)-(\\d+)/(\\d+|\\*)");
+
+	private final int concurrency;
+
+	private final long chunkSize;
+
+	private final Executor executor;
+
+	private final FeignContextPropagator contextPropagator;
+
+	RangedDownloader(int concurrency, long chunkSize, Executor executor, FeignContextPropagator contextPropagator) {
+		if (concurrency < 1 || chunkSize < 1) {
+			throw new IllegalArgumentException("Concurrency and chunk size of ranged downloads must be positive");
+		}
+		this.concurrency = concurrency;
+		this.chunkSize = chunkSize;
+		this.executor = executor;
+		this.contextPropagator = contextPropagator;
+	}
+
+	Download download(Path target, RangeFetcher fetcher) throws Throwable {
+		Path part = target.resolveSibling(target.getFileName() + ".part");
+		Path progressFile = target.resolveSibling(target.getFileName() + ".part.progress");
+		long length;
+		try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE)) {
+			Download probe = fetcher.fetch(new Range(channel, 0, 0, chunkSize - 1, null));
+			if (probe == null) {
+				// not found, with decode404
+				channel.close();
+				Files.deleteIfExists(part);
+				return null;
+			}
+			if (!probe.ranged) {
+				channel.truncate(probe.length);
+				channel.force(false);
+				length = probe.length;
+			}
+			else {
+				length = probe.total;
+				Progress progress = Progress.open(progressFile, length, chunkSize, probe.validator);
+				preallocate(channel, length);
+				channel.force(false);
+				progress.complete(0);
+				List<Range> pending = new ArrayList<>();
+				int chunks = (int) ((length + chunkSize - 1) / chunkSize);
+				for (int index = 1; index < chunks; index++) {
+					if (!progress.isComplete(index)) {
+						long start = index * chunkSize;
+						pending.add(new Range(channel, index, start, Math.min(start + chunkSize, length) - 1,
+								probe.validator));
+					}
+				}
+				fetchAll(pending, fetcher, progress);
+				channel.force(true);
+			}
+		}
+		FileDownloadCapability.move(part, target);
+		Files.deleteIfExists(progressFile);
+		return new Download(length, target);
+	}
+
+	private static void preallocate(FileChannel channel, long length) throws IOException {
+		if (channel.size() > length) {
+			channel.truncate(length);
+		}
+		else if (channel.size() < length) {
+			channel.write(ByteBuffer.wrap(new byte[1]), length - 1);
+		}
+	}
+
+	/**
+	 * Fetches the ranges with up to {@code concurrency} workers, one of them being the
+	 * calling thread, stopping at the first failure.
+	 */
+	private void fetchAll(List<Range> pending, RangeFetcher fetcher, Progress progress) throws Throwable {
+		AtomicInteger cursor = new AtomicInteger();
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		Runnable worker = () -> {
+			for (int i = cursor.getAndIncrement(); i < pending.size() && failure.get() == null; i = cursor
+					.getAndIncrement()) {
+				Range range = pending.get(i);
+				try {
+					if (fetcher.fetch(range) == null) {
+						throw new IOException("No content for bytes " + range.start + "-" + range.end);
+					}
+					range.channel.force(false);
+					progress.complete(range.index);
+				}
+				catch (Throwable e) {
+					failure.compareAndSet(null, e);
+				}
+			}
+		};
+		FeignContextPropagator.Snapshot snapshot = contextPropagator.capture();
+		List<CompletableFuture<Void>> workers = new ArrayList<>();
+		for (int i = 1; i < Math.min(concurrency, pending.size()); i++) {
+			try {
+				workers.add(CompletableFuture.runAsync(() -> {
+					try (FeignContextPropagator.Scope scope = snapshot.restore()) {
+						worker.run();
+					}
+				}, executor));
+			}
+			catch (RejectedExecutionException e) {
+				break;
+			}
+		}
+		worker.run();
+		for (CompletableFuture<Void> running : workers) {
+			running.join();
+		}
+		if (failure.get() != null) {
+			throw failure.get();
+		}
+	}
+
+	/**
+	 * Executes the Feign call of a download method for a range of the file.
+	 */
+	@FunctionalInterface
+	interface RangeFetcher {
+
+		Download fetch(Range range) throws Throwable;
+
+	}
+
+	/**
+	 * Range of a file, written to the {@code .part} file at its position.
+	 */
+	static final class Range {
+
+		final FileChannel channel;
+
+		final int index;
+
+		final long start;
+
+		final long end;
+
+		final String validator;
+
+		Range(FileChannel channel, int index, long start, long end, String validator) {
+			this.channel = channel;
+			this.index = index;
+			this.start = start;
+			this.end = end;
+			this.validator = validator;
+		}
+
+		/**
+		 * @return the request for this range
+		 */
+		Request apply(Request request) {
+			Map<String, Collection<String>> headers = new LinkedHashMap<>(request.headers());
+			headers.put(HttpHeaders.RANGE, Collections.singletonList("bytes=" + start + "-" + end));
+			if (validator != null) {
+				headers.put(HttpHeaders.IF_RANGE, Collections.singletonList(validator));
+			}
+			return Request.create(request.httpMethod(), request.url(), headers, request.body(), request.charset(),
+					request.requestTemplate());
+		}
+
+		/**
+		 * Writes the body of the response to this range.
+		 */
+		Download receive(Response response, ReadableByteChannel body) throws IOException {
+			if (response.status() == 200 && start == 0 && validator == null) {
+				// ranges not supported: the body is the whole file
+				long length = FileDownloadCapability.transferAt(body, channel, 0, Long.MAX_VALUE);
+				FileDownloadCapability.verifyLength(response, length);
+				return new Download(length, null);
+			}
+			if (response.status() != 206) {
+				throw new IOException("Expected a partial response for bytes " + start + "-" + end
+						+ ", but received status " + response.status() + "; the file may have changed");
+			}
+			String contentRange = FileDownloadCapability.header(response, HttpHeaders.CONTENT_RANGE);
+			Matcher matcher = contentRange != null ? CONTENT_RANGE.matcher(contentRange.trim()) : null;
+			if (matcher == null || !matcher.matches() || Long.parseLong(matcher.group(1)) != start
+					|| "*".equals(matcher.group(3))) {
+				throw new IOException("Unexpected Content-Range " + contentRange + " for bytes " + start + "-" + end);
+			}
+			long expected = Long.parseLong(matcher.group(2)) - start + 1;
+			long length = FileDownloadCapability.transferAt(body, channel, start, expected);
+			if (length != expected) {
+				throw new IOException("Incomplete range: received " + length + " bytes, but expected " + expected
+						+ " bytes");
+			}
+			return new Download(length, null, Long.parseLong(matcher.group(3)), validator(response), true);
+		}
+
+		private static String validator(Response response) {
+			String etag = FileDownloadCapability.header(response, HttpHeaders.ETAG);
+			if (etag != null && !etag.startsWith("W/")) {
+				return etag;
+			}
+			return FileDownloadCapability.header(response, HttpHeaders.LAST_MODIFIED);
+		}
+
+	}
+
+	/**
+	 * Sidecar file recording the completed ranges of a download. Its first line identifies
+	 * the file being downloaded; each following line holds the index of a range written
+	 * and flushed to disk.
+	 */
+	static final class Progress {
+
+		private final Path file;
+
+		private final Set<Integer> completed = ConcurrentHashMap.newKeySet();
+
+		private Progress(Path file) {
+			this.file = file;
+		}
+
+		static Progress open(Path file, long length, long chunkSize, String validator) throws IOException {
+			Progress progress = new Progress(file);
+			String header = "length=" + length + " chunk-size=" + chunkSize + " validator=" + validator;
+			if (validator != null && Files.exists(file)) {
+				List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+				if (!lines.isEmpty() && lines.get(0).equals(header)) {
+					for (String line : lines.subList(1, lines.size())) {
+						try {
+							progress.completed.add(Integer.valueOf(line.trim()));
+						}
+						catch (NumberFormatException ignored) {
+							// line interrupted by a crash
+						}
+					}
+					return progress;
+				}
+			}
+			Files.write(file, (header + "\n").getBytes(StandardCharsets.UTF_8));
+			return progress;
+		}
+
+		boolean isComplete(int index) {
+			return completed.contains(index);
+		}
+
+		/**
+		 * Ranges completing concurrently are recorded without locking: each index is
+		 * appended by a single write, which the file system does not interleave.
+		 */
+		void complete(int index) throws IOException {
+			if (completed.add(index)) {
+				Files.write(file, (index + "\n").getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.streaming;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import feign.Capability;
+import feign.Contract;
+import feign.InvocationHandlerFactory;
+import feign.InvocationHandlerFactory.MethodHandler;
+import feign.MethodMetadata;
+import feign.codec.Decoder;
+
+import org.springframework.core.ResolvableType;
+
+/**
+ * {@link Capability} adding support for streaming responses. Methods returning a
+ * {@link Stream} are decoded by the {@link StreamingDecoder}, and methods returning
+ * {@code void} whose only parameter is a {@link Consumer} pass every element of the
+ * response to that consumer as soon as it is decoded, returning once the response has
+ * been fully read.
+ */
+public class StreamingCapability implements Capability {
+
+	private final int maxEventSize;
+
+	/**
+	 * @param maxEventSize maximum size in bytes of a single event or line
+	 */
+	public StreamingCapability(int maxEventSize) {
+		this.maxEventSize = maxEventSize;
+	}
+
+	/**
+	 * @param type a Feign client interface
+	 * @return {@code true} if the interface declares methods returning a {@link Stream} or
+	 * taking a {@link Consumer} of the elements of the response
+	 */
+	public static boolean hasStreamingMethods(Class<?> type) {
+		for (Method method : type.getMethods()) {
+			if (!method.isDefault() && (method.getReturnType() == Stream.class || isCallback(method))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isCallback(Method method) {
+		return !method.isDefault() && method.getReturnType() == void.class && method.getParameterCount() == 1
+				&& method.getParameterTypes()[0] == Consumer.class;
+	}
+
+	private static Type elementType(Method method) {
+		Type consumerType = method.getGenericParameterTypes()[0];
+		if (!(consumerType instanceof ParameterizedType)) {
+			return Object.class;
+		}
+		Type elementType = ((ParameterizedType) consumerType).getActualTypeArguments()[0];
+		if (elementType instanceof WildcardType) {
+			WildcardType wildcard = (WildcardType) elementType;
+			return wildcard.getLowerBounds().length > 0 ? wildcard.getLowerBounds()[0] : wildcard.getUpperBounds()[0];
+		}
+		return elementType;
+	}
+
+	@Override
+	public Decoder enrich(Decoder decoder) {
+		return new StreamingDecoder(decoder, maxEventSize);
+	}
+
+	/**
+	 * The consumer of a callback method is not part of the request, and the response is
+	 * decoded as a {@link Stream} of its elements.
+	 */
+	@Override
+	public Contract enrich(Contract contract) {
+		return targetType -> {
+			List<MethodMetadata> metadata = contract.parseAndValidateMetadata(targetType);
+			for (MethodMetadata methodMetadata : metadata) {
+				Method method = methodMetadata.method();
+				if (method != null && isCallback(method)) {
+					if (Integer.valueOf(0).equals(methodMetadata.bodyIndex())) {
+						methodMetadata.bodyIndex(null);
+						methodMetadata.bodyType(null);
+					}
+					methodMetadata.returnType(ResolvableType
+							.forClassWithGenerics(Stream.class, ResolvableType.forType(elementType(method))).getType());
+				}
+			}
+			return metadata;
+		};
+	}
+
+	@Override
+	public InvocationHandlerFactory enrich(InvocationHandlerFactory invocationHandlerFactory) {
+		return (target, dispatch) -> {
+			Map<Method, MethodHandler> handlers = new LinkedHashMap<>(dispatch);
+			handlers.replaceAll((method, handler) -> isCallback(method) ? new CallbackMethodHandler(handler) : handler);
+			return invocationHandlerFactory.create(target, handlers);
+		};
+	}
+
+	private static final class CallbackMethodHandler implements MethodHandler {
+
+		private final MethodHandler delegate;
+
+		CallbackMethodHandler(MethodHandler delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public Object invoke(Object[] argv) throws Throwable {
+			Consumer<Object> consumer = (Consumer<Object>) argv[0];
+			try (Stream<Object> elements = (Stream<Object>) delegate.invoke(argv)) {
+				if (elements != null) {
+					elements.forEach(consumer);
+				}
+			}
+			return null;
+		}
+
+	}
+
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.streaming;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import feign.Response;
+import feign.Util;
+import feign.codec.Decoder;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+/**
+ * {@link Decoder} returning a lazily read {@link Stream} for methods returning a
+ * {@link Stream} when the response is a {@code text/event-stream} or an
+ * {@code application/x-ndjson} document. The body is read in small chunks as the stream
+ * is consumed, and the response, with its connection, is released once the stream is
+ * exhausted, fails or is closed. Other {@link Stream} responses are decoded as a
+ * {@link List} of their elements.
+ * <p>
+ * Feign clients using this decoder must not close the response after decoding it, see
+ * {@link feign.Feign.Builder#doNotCloseAfterDecode()}; this decoder closes the responses
+ * of all other methods itself.
+ *
+ * @see EventDecoder
+ */
+public class StreamingDecoder implements Decoder {
+
+	/**
+	 * Property holding the maximum size in bytes of a single event or line.
+	 */
+	public static final String MAX_EVENT_SIZE_PROPERTY = "feign.streaming.max-event-size";
+
+	/**
+	 * Default maximum size in bytes of a single event or line.
+	 */
+	public static final int DEFAULT_MAX_EVENT_SIZE = 256 * 1024;
+
+	private static final int CHUNK_SIZE = 8192;
+
+	private final Decoder delegate;
+
+	private final int maxEventSize;
+
+	public StreamingDecoder(Decoder delegate) {
+		this(delegate, DEFAULT_MAX_EVENT_SIZE);
+	}
+
+	/**
+	 * @param delegate decodes other responses and the data of the events
+	 * @param maxEventSize maximum size in bytes of a single event or line
+	 */
+	public StreamingDecoder(Decoder delegate, int maxEventSize) {
+		this.delegate = delegate;
+		this.maxEventSize = maxEventSize;
+	}
+
+	/**
+	 * @param response a response
+	 * @return {@code true} if the response is a stream of server-sent events or of
+	 * newline-delimited JSON documents
+	 */
+	public static boolean isStreaming(Response response) {
+		MediaType contentType = contentType(response);
+		return MediaType.TEXT_EVENT_STREAM.isCompatibleWith(contentType)
+				|| MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType);
+	}
+
+	static MediaType contentType(Response response) {
+		Collection<String> values = response.headers().get(HttpHeaders.CONTENT_TYPE);
+		if (values == null || values.isEmpty()) {
+			return MediaType.APPLICATION_OCTET_STREAM;
+		}
+		try {
+			return MediaType.parseMediaType(values.iterator().next());
+		}
+		catch (InvalidMediaTypeException e) {
+			return MediaType.APPLICATION_OCTET_STREAM;
+		}
+	}
+
+	@Override
+	public Object decode(Response response, Type type) throws IOException {
+		boolean stream = type instanceof ParameterizedType
+				&& ((ParameterizedType) type).getRawType() == Stream.class;
+		if (stream && response.body() != null && isStreaming(response)) {
+			return stream(response, Util.resolveLastTypeParameter(type, Stream.class));
+		}
+		try {
+			if (stream) {
+				Type listType = ResolvableType
+						.forClassWithGenerics(List.class,
+								ResolvableType.forType(Util.resolveLastTypeParameter(type, Stream.class)))
+						.getType();
+				List<?> elements = (List<?>) delegate.decode(response, listType);
+				return elements != null ? elements.stream() : Stream.empty();
+			}
+			return delegate.decode(response, type);
+		}
+		finally {
+			Util.ensureClosed(response.body());
+		}
+	}
+
+	private Stream<Object> stream(Response response, Type elementType) throws IOException {
+		EventReader reader = new EventReader(response, new EventDecoder(response, elementType, delegate, maxEventSize));
+		return StreamSupport.stream(
+				Spliterators.spliteratorUnknownSize(reader, Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.onClose(reader::close);
+	}
+
+	private static final class EventReader implements Iterator<Object> {
+
+		private final Response response;
+
+		private final InputStream body;
+
+		private final EventDecoder events;
+
+		private final Deque<Object> decoded = new ArrayDeque<>();
+
+		private final byte[] chunk = new byte[CHUNK_SIZE];
+
+		private boolean finished;
+
+		EventReader(Response response, EventDecoder events) throws IOException {
+			this.response = response;
+			this.body = response.body().asInputStream();
+			this.events = events;
+		}
+
+		@Override
+		public boolean hasNext() {
+			try {
+				while (decoded.isEmpty() && !finished) {
+					int read = body.read(chunk);
+					if (read < 0) {
+						decoded.addAll(events.finish());
+						close();
+					}
+					else {
+						decoded.addAll(events.decode(chunk, 0, read));
+					}
+				}
+			}
+			catch (IOException e) {
+				close();
+				throw new UncheckedIOException(e);
+			}
+			catch (RuntimeException e) {
+				close();
+				throw e;
+			}
+			return !decoded.isEmpty();
+		}
+
+		@Override
+		public Object next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return decoded.poll();
+		}
+
+		void close() {
+			finished = true;
+			Util.ensureClosed(response.body());
+		}
+
+	}
+
+}
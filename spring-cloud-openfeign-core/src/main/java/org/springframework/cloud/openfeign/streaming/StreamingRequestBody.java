@@ -0,0 +1,54 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.streaming;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Body of a request written directly to the connection of the HTTP client, instead of
+ * being encoded into a byte array first.
+ *
+ * @see StreamingRequests
+ */
+public interface StreamingRequestBody {
+
+	/**
+	 * Writes the body.
+	 * @param out the output stream of the connection, which must not be closed
+	 * @throws IOException if the body cannot be written, or if it has already been
+	 * written and is not repeatable
+	 */
+	void writeTo(OutputStream out) throws IOException;
+
+	/**
+	 * @return the length of the body in bytes, or {@code -1} if it is unknown and the
+	 * body has to be sent with chunked transfer encoding
+	 */
+	default long contentLength() {
+		return -1;
+	}
+
+	/**
+	 * @return {@code true} if the body can be written more than once, for instance when
+	 * the request is retried or redirected
+	 */
+	default boolean isRepeatable() {
+		return false;
+	}
+
+}
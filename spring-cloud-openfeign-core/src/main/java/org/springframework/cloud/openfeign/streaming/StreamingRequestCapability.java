@@ -0,0 +1,132 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.streaming;
+
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import feign.Capability;
+import feign.Contract;
+import feign.InvocationHandlerFactory;
+import feign.InvocationHandlerFactory.MethodHandler;
+import feign.MethodMetadata;
+import org.reactivestreams.Publisher;
+
+import org.springframework.cloud.openfeign.reactive.NonBlockingMethodHandler;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.Resource;
+import org.springframework.util.ClassUtils;
+
+/**
+ * {@link Capability} sending request bodies of type {@link InputStream},
+ * {@link Resource}, {@link Stream} or {@link Iterable} as {@link StreamingRequestBody
+ * streaming bodies}, by opening a {@link StreamingRequests.Scope} around the invocation of
+ * the methods taking such a body. It must only be added to Feign clients whose HTTP
+ * client supports streaming bodies.
+ * <p>
+ * Methods returning a {@link Publisher} are not handled, since their request is sent by
+ * another thread than the one encoding it.
+ */
+public class StreamingRequestCapability implements Capability {
+
+	private static final boolean REACTIVE_STREAMS_PRESENT = ClassUtils.isPresent("org.reactivestreams.Publisher",
+			StreamingRequestCapability.class.getClassLoader());
+
+	private final Set<Method> streamingMethods = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * @param type a Feign client interface
+	 * @return {@code true} if the interface declares methods that may take a streaming
+	 * body
+	 */
+	public static boolean hasStreamingBodies(Class<?> type) {
+		for (Method method : type.getMethods()) {
+			if (!method.isDefault() && isHandled(method)) {
+				for (Class<?> parameterType : method.getParameterTypes()) {
+					if (isStreamable(parameterType)) {
+						return true;
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param bodyType the type of a request body
+	 * @return {@code true} if bodies of that type may be sent as streaming bodies
+	 */
+	public static boolean isStreamable(Class<?> bodyType) {
+		return InputStream.class.isAssignableFrom(bodyType) || Resource.class.isAssignableFrom(bodyType)
+				|| Stream.class.isAssignableFrom(bodyType) || Iterable.class.isAssignableFrom(bodyType);
+	}
+
+	private static boolean isHandled(Method method) {
+		return !REACTIVE_STREAMS_PRESENT || !Publisher.class.isAssignableFrom(method.getReturnType());
+	}
+
+	@Override
+	public Contract enrich(Contract contract) {
+		return targetType -> {
+			List<MethodMetadata> metadata = contract.parseAndValidateMetadata(targetType);
+			for (MethodMetadata methodMetadata : metadata) {
+				Method method = methodMetadata.method();
+				if (method != null && methodMetadata.bodyIndex() != null && methodMetadata.bodyType() != null
+						&& isHandled(method)
+						&& isStreamable(ResolvableType.forType(methodMetadata.bodyType()).toClass())) {
+					streamingMethods.add(method);
+				}
+			}
+			return metadata;
+		};
+	}
+
+	@Override
+	public InvocationHandlerFactory enrich(InvocationHandlerFactory invocationHandlerFactory) {
+		return (target, dispatch) -> {
+			Map<Method, MethodHandler> handlers = new LinkedHashMap<>(dispatch);
+			handlers.replaceAll((method, handler) -> streamingMethods.contains(method)
+					&& !(handler instanceof NonBlockingMethodHandler) ? new StreamingRequestMethodHandler(handler)
+							: handler);
+			return invocationHandlerFactory.create(target, handlers);
+		};
+	}
+
+	private static final class StreamingRequestMethodHandler implements MethodHandler {
+
+		private final MethodHandler delegate;
+
+		StreamingRequestMethodHandler(MethodHandler delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public Object invoke(Object[] argv) throws Throwable {
+			try (StreamingRequests.Scope scope = StreamingRequests.open()) {
+				return delegate.invoke(argv);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.streaming;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import feign.Client;
+import feign.RequestTemplate;
+
+/**
+ * Hands streaming request bodies from the encoder over to the HTTP client. Feign requests
+ * carry their body as a byte array, so a streaming body is instead registered for the
+ * thread executing the Feign method, and the request only carries an internal header
+ * referencing it. HTTP clients supporting streaming bodies replace that header with the
+ * body when the request is sent, on the same thread.
+ * <p>
+ * Bodies are only registered within a {@link Scope} opened around the invocation of the
+ * Feign method, and only when the HTTP client of the Feign client supports streaming
+ * bodies; encoders write the body into a byte array otherwise.
+ */
+public final class StreamingRequests {
+
+	/**
+	 * Internal header referencing the streaming body of a request. It is removed before
+	 * the request is sent.
+	 */
+	public static final String BODY_HEADER = "X-Feign-Streaming-Body";
+
+	private static final ThreadLocal<Map<String, StreamingRequestBody>> BODIES = new ThreadLocal<>();
+
+	private static final AtomicLong IDS = new AtomicLong();
+
+	private StreamingRequests() {
+		throw new IllegalStateException("Can't instantiate a utility class");
+	}
+
+	/**
+	 * Opens a scope in which streaming bodies can be registered by the current thread.
+	 * @return the scope, releasing its bodies when closed
+	 */
+	public static Scope open() {
+		Map<String, StreamingRequestBody> previous = BODIES.get();
+		BODIES.set(new HashMap<>());
+		return () -> {
+			if (previous != null) {
+				BODIES.set(previous);
+			}
+			else {
+				BODIES.remove();
+			}
+		};
+	}
+
+	/**
+	 * Registers a streaming body for the request, if a scope is open on the current
+	 * thread.
+	 * @param template the request
+	 * @param body the body
+	 * @return {@code true} if the body was registered, {@code false} if it has to be
+	 * encoded into the request
+	 */
+	public static boolean register(RequestTemplate template, StreamingRequestBody body) {
+		Map<String, StreamingRequestBody> bodies = BODIES.get();
+		if (bodies == null) {
+			return false;
+		}
+		String id = Long.toString(IDS.incrementAndGet());
+		bodies.put(id, body);
+		template.removeHeader(BODY_HEADER);
+		template.header(BODY_HEADER, id);
+		return true;
+	}
+
+	/**
+	 * Resolves the streaming body referenced by a request.
+	 * @param id the value of the {@link #BODY_HEADER} of the request
+	 * @return the body
+	 * @throws IllegalStateException if the body was not registered by the current thread
+	 */
+	public static StreamingRequestBody body(String id) {
+		Map<String, StreamingRequestBody> bodies = BODIES.get();
+		StreamingRequestBody body = bodies != null ? bodies.get(id) : null;
+		if (body == null) {
+			throw new IllegalStateException(
+					"Streaming request body " + id + " must be sent by the thread invoking the Feign method");
+		}
+		return body;
+	}
+
+	/**
+	 * Scope of the streaming bodies of a Feign method invocation.
+	 */
+	public interface Scope extends AutoCloseable {
+
+		@Override
+		void close();
+
+	}
+
+	/**
+	 * Declares a {@link Client} type sending streaming bodies, because the HTTP client it
+	 * is built on was configured to replace the {@link #BODY_HEADER}.
+	 */
+	public static final class Transport {
+
+		private final Class<? extends Client> clientType;
+
+		public Transport(Class<? extends Client> clientType) {
+			this.clientType = clientType;
+		}
+
+		/**
+		 * @param client the Feign client, without load balancing
+		 * @return {@code true} if the client sends streaming bodies
+		 */
+		public boolean supports(Client client) {
+			return clientType.isInstance(client);
+		}
+
+	}
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.support;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import feign.AsyncClient;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+/**
+ * {@link Client} running blocking Feign calls through an {@link AsyncClient}. The calling
+ * thread only waits for the response; all network I/O is performed by the threads of the
+ * async client, which can therefore serve blocking and future-returning calls alike. The
+ * wait is bounded by the connect and read timeouts of the call, after which the exchange
+ * is cancelled.
+ */
+public class BlockingAsyncClient implements Client {
+
+	private final AsyncClient<?> delegate;
+
+	public BlockingAsyncClient(AsyncClient<?> delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public Response execute(Request request, Request.Options options) throws IOException {
+		CompletableFuture<Response> response = delegate.execute(request, options, Optional.empty());
+		try {
+			return response.get(maxWaitMillis(options), TimeUnit.MILLISECONDS);
+		}
+		catch (TimeoutException e) {
+			response.cancel(true);
+			throw new SocketTimeoutException("Timed out waiting for a response to " + request.url());
+		}
+		catch (InterruptedException e) {
+			response.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(e.getMessage());
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IOException(cause);
+		}
+	}
+
+	private static long maxWaitMillis(Request.Options options) {
+		return options.connectTimeoutUnit().toMillis(options.connectTimeout())
+				+ options.readTimeoutUnit().toMillis(options.readTimeout());
+	}
+
+	public AsyncClient<?> getDelegate() {
+		return delegate;
+	}
+
+}
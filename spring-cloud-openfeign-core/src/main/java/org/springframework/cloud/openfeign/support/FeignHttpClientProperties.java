@@ -97,6 +97,16 @@ public class FeignHttpClientProperties {
 	 */
 	private OkHttp okHttp = new OkHttp();
 
+	/**
+	 * Additional {@code java.net.http.HttpClient}-specific properties.
+	 */
+	private Http2Properties http2 = new Http2Properties();
+
+	/**
+	 * Additional Reactor Netty-specific properties.
+	 */
+	private ReactorNetty reactorNetty = new ReactorNetty();
+
 	public int getConnectionTimerRepeat() {
 		return connectionTimerRepeat;
 	}
@@ -177,6 +187,22 @@ public class FeignHttpClientProperties {
 		this.okHttp = okHttp;
 	}
 
+	public Http2Properties getHttp2() {
+		return http2;
+	}
+
+	public void setHttp2(Http2Properties http2) {
+		this.http2 = http2;
+	}
+
+	public ReactorNetty getReactorNetty() {
+		return reactorNetty;
+	}
+
+	public void setReactorNetty(ReactorNetty reactorNetty) {
+		this.reactorNetty = reactorNetty;
+	}
+
 	public static class Hc5Properties {
 
 		/**
@@ -199,6 +225,11 @@ public class FeignHttpClientProperties {
 		 */
 		public static final TimeUnit DEFAULT_SOCKET_TIMEOUT_UNIT = TimeUnit.SECONDS;
 
+		/**
+		 * Default value for HTTP version policy of the async client.
+		 */
+		public static final HttpVersionPolicy DEFAULT_HTTP_VERSION_POLICY = HttpVersionPolicy.NEGOTIATE;
+
 		/**
 		 * Pool concurrency policies.
 		 */
@@ -219,6 +250,18 @@ public class FeignHttpClientProperties {
 		 */
 		private TimeUnit socketTimeoutUnit = DEFAULT_SOCKET_TIMEOUT_UNIT;
 
+		/**
+		 * Number of I/O reactor threads of the async client, shared by all connections.
+		 * Defaults to the number of available processors.
+		 */
+		private Integer ioThreadCount;
+
+		/**
+		 * HTTP version policy of the async client. With {@code NEGOTIATE}, HTTP/2 is used
+		 * when the server offers it through TLS ALPN.
+		 */
+		private HttpVersionPolicy httpVersionPolicy = DEFAULT_HTTP_VERSION_POLICY;
+
 		public PoolConcurrencyPolicy getPoolConcurrencyPolicy() {
 			return poolConcurrencyPolicy;
 		}
@@ -251,6 +294,22 @@ public class FeignHttpClientProperties {
 			this.socketTimeout = socketTimeout;
 		}
 
+		public int getIoThreadCount() {
+			return ioThreadCount != null ? ioThreadCount : Runtime.getRuntime().availableProcessors();
+		}
+
+		public void setIoThreadCount(Integer ioThreadCount) {
+			this.ioThreadCount = ioThreadCount;
+		}
+
+		public HttpVersionPolicy getHttpVersionPolicy() {
+			return httpVersionPolicy;
+		}
+
+		public void setHttpVersionPolicy(HttpVersionPolicy httpVersionPolicy) {
+			this.httpVersionPolicy = httpVersionPolicy;
+		}
+
 		/**
 		 * Enumeration of pool concurrency policies.
 		 */
@@ -287,6 +346,28 @@ public class FeignHttpClientProperties {
 
 		}
 
+		/**
+		 * Enumeration of HTTP version policies of the async client.
+		 */
+		public enum HttpVersionPolicy {
+
+			/**
+			 * Always use HTTP/1.1.
+			 */
+			FORCE_HTTP_1,
+
+			/**
+			 * Always use HTTP/2.
+			 */
+			FORCE_HTTP_2,
+
+			/**
+			 * Negotiate the protocol version with the server.
+			 */
+			NEGOTIATE
+
+		}
+
 	}
 
 	/**
@@ -309,4 +390,84 @@ public class FeignHttpClientProperties {
 
 	}
 
+	/**
+	 * {@code java.net.http.HttpClient}-specific properties.
+	 */
+	public static class Http2Properties {
+
+		/**
+		 * Default value for the HTTP protocol version.
+		 */
+		public static final HttpVersion DEFAULT_VERSION = HttpVersion.HTTP_2;
+
+		/**
+		 * HTTP protocol version requested by {@code java.net.http.HttpClient}. With
+		 * {@code HTTP_2}, requests to the same host are multiplexed over a single
+		 * connection; plain-text connections are upgraded to h2c when the server
+		 * supports it.
+		 */
+		private HttpVersion version = DEFAULT_VERSION;
+
+		public HttpVersion getVersion() {
+			return version;
+		}
+
+		public void setVersion(HttpVersion version) {
+			this.version = version;
+		}
+
+		/**
+		 * Enumeration of the HTTP protocol versions of {@code java.net.http.HttpClient}.
+		 */
+		public enum HttpVersion {
+
+			/**
+			 * Use HTTP/1.1.
+			 */
+			HTTP_1_1,
+
+			/**
+			 * Prefer HTTP/2, falling back to HTTP/1.1 when the server does not support
+			 * it.
+			 */
+			HTTP_2
+
+		}
+
+	}
+
+	/**
+	 * Reactor Netty-specific properties.
+	 */
+	public static class ReactorNetty {
+
+		/**
+		 * Maximum number of requests waiting for a pooled connection; a negative value
+		 * means no limit.
+		 */
+		private int pendingAcquireMaxCount = 1000;
+
+		/**
+		 * Maximum time a request waits for a pooled connection.
+		 */
+		private Duration pendingAcquireTimeout = Duration.ofSeconds(45);
+
+		public int getPendingAcquireMaxCount() {
+			return pendingAcquireMaxCount;
+		}
+
+		public void setPendingAcquireMaxCount(int pendingAcquireMaxCount) {
+			this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+		}
+
+		public Duration getPendingAcquireTimeout() {
+			return pendingAcquireTimeout;
+		}
+
+		public void setPendingAcquireTimeout(Duration pendingAcquireTimeout) {
+			this.pendingAcquireTimeout = pendingAcquireTimeout;
+		}
+
+	}
+
 }
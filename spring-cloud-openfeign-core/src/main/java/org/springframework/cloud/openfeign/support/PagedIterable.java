@@ -0,0 +1,194 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.support;
+
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link Iterable} over the elements of successive Spring Data {@link Page pages}. Pages
+ * are requested lazily, starting with the first {@link Pageable}, until a page without a
+ * next page is returned. Once the total number of pages is known, up to
+ * {@code prefetch} following pages are requested on the executor while the current page
+ * is consumed, so that iterating does not wait for every page in turn.
+ * <p>
+ * Every call to {@link #iterator()} requests the pages again. Closing the iterable, or a
+ * stream returned by {@link #stream()}, cancels the pages that were requested but not
+ * consumed yet.
+ *
+ * @param <T> the type of the elements
+ */
+public class PagedIterable<T> implements Iterable<T>, Closeable {
+
+	private final Function<Pageable, Page<T>> fetcher;
+
+	private final Pageable first;
+
+	private final int prefetch;
+
+	private final Executor executor;
+
+	private final Set<PageIterator> iterators = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+	/**
+	 * @param fetcher requests a page
+	 * @param first the first page to request
+	 * @param prefetch maximum number of pages requested ahead of the current page
+	 * @param executor executes the requests of the following pages
+	 */
+	public PagedIterable(Function<Pageable, Page<T>> fetcher, Pageable first, int prefetch, Executor executor) {
+		Assert.notNull(fetcher, "fetcher must not be null");
+		Assert.isTrue(first != null && first.isPaged(), "first must be a paged Pageable");
+		Assert.isTrue(prefetch >= 0, "prefetch must not be negative");
+		this.fetcher = fetcher;
+		this.first = first;
+		this.prefetch = prefetch;
+		this.executor = executor;
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		PageIterator iterator = new PageIterator();
+		iterators.add(iterator);
+		return iterator;
+	}
+
+	/**
+	 * @return a sequential stream of the elements, cancelling the pending pages when it is
+	 * closed
+	 */
+	public Stream<T> stream() {
+		PageIterator iterator = (PageIterator) iterator();
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+				.onClose(iterator::close);
+	}
+
+	@Override
+	public void close() {
+		for (PageIterator iterator : iterators) {
+			iterator.close();
+		}
+	}
+
+	private final class PageIterator implements Iterator<T> {
+
+		private final Deque<CompletableFuture<Page<T>>> pending = new ConcurrentLinkedDeque<>();
+
+		private Pageable next = first;
+
+		private int totalPages = -1;
+
+		private volatile boolean finished;
+
+		private Iterator<T> current = Collections.emptyIterator();
+
+		@Override
+		public boolean hasNext() {
+			while (!current.hasNext()) {
+				if (finished) {
+					return false;
+				}
+				Page<T> page;
+				try {
+					page = nextPage();
+				}
+				catch (RuntimeException | Error e) {
+					close();
+					throw e;
+				}
+				if (!page.hasContent() || !page.hasNext()) {
+					close();
+				}
+				else {
+					totalPages = page.getTotalPages();
+					requestAhead();
+				}
+				current = page.getContent().iterator();
+			}
+			return true;
+		}
+
+		@Override
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return current.next();
+		}
+
+		private Page<T> nextPage() {
+			CompletableFuture<Page<T>> future = pending.poll();
+			if (future == null) {
+				// pages that were not prefetched, including the first one, are requested by the
+				// consuming thread
+				Pageable pageable = next;
+				next = pageable.next();
+				return fetcher.apply(pageable);
+			}
+			try {
+				return future.join();
+			}
+			catch (CompletionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw e;
+			}
+		}
+
+		private void requestAhead() {
+			while (pending.size() < prefetch && next.getPageNumber() < totalPages) {
+				Pageable pageable = next;
+				next = pageable.next();
+				pending.add(CompletableFuture.supplyAsync(() -> fetcher.apply(pageable), executor));
+			}
+		}
+
+		void close() {
+			finished = true;
+			CompletableFuture<Page<T>> future;
+			while ((future = pending.poll()) != null) {
+				future.cancel(false);
+			}
+			iterators.remove(this);
+		}
+
+	}
+
+}
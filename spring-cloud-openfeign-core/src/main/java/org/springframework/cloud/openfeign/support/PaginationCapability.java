@@ -0,0 +1,177 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.support;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import feign.Capability;
+import feign.Contract;
+import feign.InvocationHandlerFactory;
+import feign.InvocationHandlerFactory.MethodHandler;
+import feign.MethodMetadata;
+import feign.Util;
+
+import org.springframework.cloud.openfeign.Paginated;
+import org.springframework.cloud.openfeign.batch.FeignBatchExecutor;
+import org.springframework.cloud.openfeign.propagation.FeignContextPropagator;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link Capability} paginating methods that take a {@link Pageable} and return a
+ * {@link PagedIterable} or a {@link Stream} of elements. The response of such a method
+ * is decoded as a {@link Page} of the elements, and each invocation returns a lazy
+ * {@link PagedIterable} requesting the pages through the Feign method handler. The
+ * following pages are prefetched on the {@link FeignBatchExecutor}, with the context of
+ * the invoking thread restored by the {@link FeignContextPropagator}.
+ *
+ * @see Paginated
+ */
+public class PaginationCapability implements Capability {
+
+	private final FeignBatchExecutor batchExecutor;
+
+	private final FeignContextPropagator contextPropagator;
+
+	/**
+	 * @param batchExecutor executes the requests of prefetched pages
+	 * @param contextPropagator propagates the context of the invoking thread to the
+	 * prefetched pages
+	 */
+	public PaginationCapability(FeignBatchExecutor batchExecutor, FeignContextPropagator contextPropagator) {
+		this.batchExecutor = batchExecutor;
+		this.contextPropagator = contextPropagator;
+	}
+
+	/**
+	 * @param type a Feign client interface
+	 * @return {@code true} if the interface declares paginated methods
+	 */
+	public static boolean hasPaginatedMethods(Class<?> type) {
+		for (Method method : type.getMethods()) {
+			if (isPaginated(method)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isPaginated(Method method) {
+		Class<?> returnType = method.getReturnType();
+		return (returnType == PagedIterable.class || returnType == Stream.class) && pageableIndex(method) >= 0;
+	}
+
+	private static int pageableIndex(Method method) {
+		Class<?>[] parameterTypes = method.getParameterTypes();
+		for (int i = 0; i < parameterTypes.length; i++) {
+			if (Pageable.class.isAssignableFrom(parameterTypes[i])) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public Contract enrich(Contract contract) {
+		return targetType -> {
+			List<MethodMetadata> metadata = contract.parseAndValidateMetadata(targetType);
+			for (MethodMetadata methodMetadata : metadata) {
+				Method method = methodMetadata.method();
+				if (method != null && isPaginated(method)) {
+					Type elementType = Util.resolveLastTypeParameter(method.getGenericReturnType(),
+							method.getReturnType());
+					methodMetadata.returnType(
+							ResolvableType.forClassWithGenerics(Page.class, ResolvableType.forType(elementType))
+									.getType());
+				}
+			}
+			return metadata;
+		};
+	}
+
+	@Override
+	public InvocationHandlerFactory enrich(InvocationHandlerFactory invocationHandlerFactory) {
+		return (target, dispatch) -> {
+			Map<Method, MethodHandler> handlers = new LinkedHashMap<>(dispatch);
+			handlers.replaceAll(
+					(method, handler) -> isPaginated(method) ? new PaginatingMethodHandler(method, handler) : handler);
+			return invocationHandlerFactory.create(target, handlers);
+		};
+	}
+
+	private final class PaginatingMethodHandler implements MethodHandler {
+
+		private final MethodHandler delegate;
+
+		private final int index;
+
+		private final boolean stream;
+
+		private final int pageSize;
+
+		private final int prefetch;
+
+		PaginatingMethodHandler(Method method, MethodHandler delegate) {
+			Paginated paginated = method.getAnnotation(Paginated.class);
+			this.delegate = delegate;
+			this.index = pageableIndex(method);
+			this.stream = method.getReturnType() == Stream.class;
+			this.pageSize = paginated != null ? paginated.pageSize() : 20;
+			this.prefetch = paginated != null ? paginated.prefetch() : 1;
+			Assert.isTrue(pageSize > 0 && prefetch >= 0,
+					() -> "pageSize of @Paginated on " + method + " must be positive and prefetch not negative");
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public Object invoke(Object[] argv) {
+			FeignContextPropagator.Snapshot snapshot = contextPropagator.capture();
+			PagedIterable<Object> pages = new PagedIterable<>(pageable -> {
+				Object[] pageArgv = argv.clone();
+				pageArgv[index] = pageable;
+				try (FeignContextPropagator.Scope scope = snapshot.restore()) {
+					return (Page<Object>) delegate.invoke(pageArgv);
+				}
+				catch (RuntimeException | Error e) {
+					throw e;
+				}
+				catch (Throwable throwable) {
+					throw new UndeclaredThrowableException(throwable);
+				}
+			}, firstPage((Pageable) argv[index]), prefetch, batchExecutor::execute);
+			return stream ? pages.stream() : pages;
+		}
+
+		private Pageable firstPage(Pageable pageable) {
+			if (pageable != null && pageable.isPaged()) {
+				return pageable;
+			}
+			return pageable != null ? PageRequest.of(0, pageSize, pageable.getSort()) : PageRequest.of(0, pageSize);
+		}
+
+	}
+
+}
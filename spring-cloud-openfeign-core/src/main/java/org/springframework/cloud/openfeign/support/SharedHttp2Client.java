@@ -0,0 +1,253 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.support;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.http2client.Http2Client;
+
+import org.springframework.cloud.openfeign.streaming.StreamingRequestBody;
+import org.springframework.cloud.openfeign.streaming.StreamingRequests;
+
+/**
+ * {@link Client} executing all requests through a single, shared {@link HttpClient}, so
+ * that requests to the same host are multiplexed over one HTTP/2 connection.
+ * <p>
+ * {@link Http2Client} builds a new {@link HttpClient}, and therefore new connections,
+ * whenever the connect timeout or the redirect policy of a request differs from the one
+ * of its client. Those settings are therefore always taken from the shared client
+ * (configured through {@link FeignHttpClientProperties}); only the read timeout, applied
+ * per request, is taken from the {@link Request.Options} of the Feign client.
+ * <p>
+ * Requests referencing a {@link StreamingRequestBody} are sent directly by this client:
+ * the body is written to a bounded pipe by the executor of the {@link HttpClient}, while
+ * the client reads it from the other end, so that it is never held in memory as a whole.
+ */
+public class SharedHttp2Client implements Client {
+
+	private static final Set<String> RESTRICTED_HEADERS = new HashSet<>(Arrays.asList("connection",
+			"content-length", "expect", "host", "upgrade", StreamingRequests.BODY_HEADER.toLowerCase()));
+
+	private final HttpClient httpClient;
+
+	private final Http2Client delegate;
+
+	private final long connectTimeoutMillis;
+
+	private final boolean followRedirects;
+
+	public SharedHttp2Client(HttpClient httpClient) {
+		this.httpClient = httpClient;
+		this.delegate = new Http2Client(httpClient);
+		this.connectTimeoutMillis = httpClient.connectTimeout().map(Duration::toMillis).orElse(-1L);
+		this.followRedirects = httpClient.followRedirects() == HttpClient.Redirect.ALWAYS;
+	}
+
+	@Override
+	public Response execute(Request request, Request.Options options) throws IOException {
+		Collection<String> streamingBody = request.headers().get(StreamingRequests.BODY_HEADER);
+		if (streamingBody != null && !streamingBody.isEmpty()) {
+			return executeStreaming(request, StreamingRequests.body(streamingBody.iterator().next()), options);
+		}
+		long connectTimeout = connectTimeoutMillis >= 0 ? connectTimeoutMillis : options.connectTimeoutMillis();
+		return delegate.execute(request, new Request.Options(connectTimeout, TimeUnit.MILLISECONDS,
+				options.readTimeoutMillis(), TimeUnit.MILLISECONDS, followRedirects));
+	}
+
+	private Response executeStreaming(Request request, StreamingRequestBody body, Request.Options options)
+			throws IOException {
+		HttpRequest.BodyPublisher publisher = HttpRequest.BodyPublishers.ofInputStream(pipe(body));
+		if (body.contentLength() >= 0) {
+			publisher = HttpRequest.BodyPublishers.fromPublisher(publisher, body.contentLength());
+		}
+		HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(request.url()))
+				.timeout(Duration.ofMillis(options.readTimeoutMillis()))
+				.method(request.httpMethod().name(), publisher);
+		request.headers().forEach((name, values) -> {
+			if (!RESTRICTED_HEADERS.contains(name.toLowerCase())) {
+				values.forEach(value -> builder.header(name, value));
+			}
+		});
+		HttpResponse<InputStream> response;
+		try {
+			response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(e.getMessage());
+		}
+		Map<String, Collection<String>> headers = new LinkedHashMap<>();
+		response.headers().map().forEach((name, values) -> headers.put(name, Collections.unmodifiableList(values)));
+		long length = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+		return Response.builder().request(request).status(response.statusCode()).headers(headers)
+				.body(response.body(), length >= 0 && length <= Integer.MAX_VALUE ? (int) length : null).build();
+	}
+
+	private Supplier<InputStream> pipe(StreamingRequestBody body) {
+		Executor executor = httpClient.executor().orElse(ForkJoinPool.commonPool());
+		return () -> {
+			BodyPipe pipe = new BodyPipe();
+			executor.execute(() -> {
+				try {
+					OutputStream out = pipe.outputStream();
+					body.writeTo(out);
+					out.close();
+				}
+				catch (IOException | RuntimeException e) {
+					pipe.fail(e);
+				}
+			});
+			return pipe;
+		};
+	}
+
+	/**
+	 * Bounded pipe between the thread writing a streaming body and the thread of the
+	 * {@link HttpClient} sending it. The writer blocks while {@link #CAPACITY} chunks are
+	 * pending, and fails once the reader is closed; the reader fails instead of sending a
+	 * truncated body if the writer failed.
+	 */
+	private static final class BodyPipe extends InputStream {
+
+		private static final int CAPACITY = 8;
+
+		private static final int CHUNK_SIZE = 8 * 1024;
+
+		private static final byte[] END = new byte[0];
+
+		private final BlockingQueue<byte[]> chunks = new ArrayBlockingQueue<>(CAPACITY + 1);
+
+		private volatile Exception failure;
+
+		private volatile boolean closed;
+
+		private byte[] chunk;
+
+		private int position;
+
+		OutputStream outputStream() {
+			return new BufferedOutputStream(new OutputStream() {
+
+				@Override
+				public void write(int b) throws IOException {
+					write(new byte[] { (byte) b }, 0, 1);
+				}
+
+				@Override
+				public void write(byte[] b, int off, int len) throws IOException {
+					if (len > 0) {
+						put(Arrays.copyOfRange(b, off, off + len));
+					}
+				}
+
+				@Override
+				public void close() throws IOException {
+					put(END);
+				}
+
+			}, CHUNK_SIZE);
+		}
+
+		void fail(Exception failure) {
+			this.failure = failure;
+			chunks.clear();
+			chunks.offer(END);
+		}
+
+		private void put(byte[] chunk) throws IOException {
+			if (closed) {
+				throw new IOException("Streaming request body is no longer read");
+			}
+			try {
+				chunks.put(chunk);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException(e.getMessage());
+			}
+		}
+
+		@Override
+		public int read() throws IOException {
+			byte[] b = new byte[1];
+			return read(b, 0, 1) < 0 ? -1 : b[0] & 0xff;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			if (chunk == null || position == chunk.length) {
+				if (chunk == END) {
+					return -1;
+				}
+				try {
+					chunk = chunks.take();
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException(e.getMessage());
+				}
+				position = 0;
+				if (chunk == END) {
+					if (failure != null) {
+						throw new IOException("Error writing streaming request body", failure);
+					}
+					return -1;
+				}
+			}
+			int read = Math.min(len, chunk.length - position);
+			System.arraycopy(chunk, position, b, off, read);
+			position += read;
+			return read;
+		}
+
+		@Override
+		public void close() {
+			closed = true;
+			chunks.clear();
+		}
+
+	}
+
+}
@@ -18,14 +18,17 @@ package org.springframework.cloud.openfeign.support;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.Type;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Stream;
 
 import feign.RequestTemplate;
@@ -39,14 +42,21 @@ import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
 import org.springframework.cloud.openfeign.encoding.HttpEncoding;
+import org.springframework.cloud.openfeign.streaming.StreamingRequestBody;
+import org.springframework.cloud.openfeign.streaming.StreamingRequestCapability;
+import org.springframework.cloud.openfeign.streaming.StreamingRequests;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpOutputMessage;
 import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.converter.ByteArrayHttpMessageConverter;
 import org.springframework.http.converter.GenericHttpMessageConverter;
 import org.springframework.http.converter.HttpMessageConversionException;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.protobuf.ProtobufHttpMessageConverter;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import static org.springframework.cloud.openfeign.support.FeignUtils.getHeaders;
@@ -131,10 +141,74 @@ public class SpringEncoder implements Encoder {
 							+ "should be specified as MediaType.MULTIPART_FORM_DATA_VALUE");
 				}
 			}
+			if (StreamingRequestCapability.isStreamable(requestBody.getClass())
+					&& encodeStreaming(requestBody, bodyType, request, requestContentType)) {
+				return;
+			}
 			encodeWithMessageConverter(requestBody, bodyType, request, requestContentType);
 		}
 	}
 
+	/**
+	 * Encodes {@link InputStream} and {@link Resource} bodies as raw bytes, and
+	 * {@link Stream} and {@link Iterable} bodies as a JSON array or, when the content type
+	 * is {@code application/x-ndjson}, as newline delimited JSON. The body is registered
+	 * as a {@link StreamingRequestBody} when the HTTP client supports it; otherwise it is
+	 * written into the request, unless the message converters handle it already.
+	 * @return {@code true} if the body was encoded
+	 */
+	private boolean encodeStreaming(Object requestBody, Type bodyType, RequestTemplate request,
+			MediaType requestContentType) {
+		StreamingRequestBody body;
+		MediaType contentType;
+		boolean converted;
+		if (requestBody instanceof InputStream) {
+			body = new InputStreamBody((InputStream) requestBody);
+			contentType = requestContentType != null ? requestContentType : MediaType.APPLICATION_OCTET_STREAM;
+			converted = false;
+		}
+		else if (requestBody instanceof Resource) {
+			Resource resource = (Resource) requestBody;
+			body = new ResourceBody(resource);
+			contentType = requestContentType != null ? requestContentType
+					: MediaTypeFactory.getMediaType(resource).orElse(MediaType.APPLICATION_OCTET_STREAM);
+			converted = true;
+		}
+		else if (MediaType.APPLICATION_NDJSON.isCompatibleWith(requestContentType)) {
+			body = new JsonElementsBody(requestBody, bodyType, true);
+			contentType = requestContentType;
+			converted = false;
+		}
+		else if (!(requestBody instanceof Collection)
+				&& (requestContentType == null || MediaType.APPLICATION_JSON.isCompatibleWith(requestContentType))) {
+			body = new JsonElementsBody(requestBody, bodyType, false);
+			contentType = requestContentType != null ? requestContentType : MediaType.APPLICATION_JSON;
+			converted = true;
+		}
+		else {
+			return false;
+		}
+		if (StreamingRequests.register(request, body)) {
+			request.removeHeader(HttpEncoding.CONTENT_TYPE);
+			request.header(HttpEncoding.CONTENT_TYPE, contentType.toString());
+			return true;
+		}
+		if (converted) {
+			return false;
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try {
+			body.writeTo(out);
+		}
+		catch (IOException | HttpMessageConversionException ex) {
+			throw new EncodeException("Error converting request body", ex);
+		}
+		request.removeHeader(HttpEncoding.CONTENT_TYPE);
+		request.header(HttpEncoding.CONTENT_TYPE, contentType.toString());
+		request.body(out.toByteArray(), requestBody instanceof InputStream ? null : StandardCharsets.UTF_8);
+		return true;
+	}
+
 	private void encodeWithMessageConverter(Object requestBody, Type bodyType, RequestTemplate request,
 			MediaType requestContentType) {
 		List<HttpMessageConverter<?>> converters = messageConverters.getObject().getConverters();
@@ -255,6 +329,164 @@ public class SpringEncoder implements Encoder {
 				.anyMatch(mediaType -> mediaType.includes(contentType));
 	}
 
+	private static final class InputStreamBody implements StreamingRequestBody {
+
+		private final AtomicBoolean written = new AtomicBoolean();
+
+		private final InputStream inputStream;
+
+		private InputStreamBody(InputStream inputStream) {
+			this.inputStream = inputStream;
+		}
+
+		@Override
+		public void writeTo(OutputStream out) throws IOException {
+			if (!written.compareAndSet(false, true)) {
+				throw new IOException("InputStream request body can only be sent once");
+			}
+			try (InputStream in = inputStream) {
+				StreamUtils.copy(in, out);
+			}
+		}
+
+	}
+
+	private static final class ResourceBody implements StreamingRequestBody {
+
+		private final Resource resource;
+
+		private ResourceBody(Resource resource) {
+			this.resource = resource;
+		}
+
+		@Override
+		public void writeTo(OutputStream out) throws IOException {
+			try (InputStream in = resource.getInputStream()) {
+				StreamUtils.copy(in, out);
+			}
+		}
+
+		@Override
+		public long contentLength() {
+			try {
+				return resource.isFile() ? resource.contentLength() : -1;
+			}
+			catch (IOException ex) {
+				return -1;
+			}
+		}
+
+		@Override
+		public boolean isRepeatable() {
+			return !resource.isOpen();
+		}
+
+	}
+
+	/**
+	 * Writes the elements of a {@link Stream} or {@link Iterable} one by one with the
+	 * first {@link GenericHttpMessageConverter} writing JSON, so that only a single
+	 * element is held in memory at a time.
+	 */
+	private final class JsonElementsBody implements StreamingRequestBody {
+
+		private final AtomicBoolean written = new AtomicBoolean();
+
+		private final Object elements;
+
+		private final Type elementType;
+
+		private final boolean delimited;
+
+		private JsonElementsBody(Object elements, Type bodyType, boolean delimited) {
+			this.elements = elements;
+			ResolvableType type = ResolvableType.forType(bodyType);
+			ResolvableType elementType = (elements instanceof Stream ? type.as(Stream.class) : type.as(Iterable.class))
+					.getGeneric(0);
+			this.elementType = elementType.resolve() != null ? elementType.getType() : null;
+			this.delimited = delimited;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public void writeTo(OutputStream out) throws IOException {
+			if (!isRepeatable() && !written.compareAndSet(false, true)) {
+				throw new IOException("Stream request body can only be sent once");
+			}
+			List<HttpMessageConverter<?>> converters = messageConverters.getObject().getConverters();
+			customizers.forEach(customizer -> customizer.accept(converters));
+			OutputStream body = StreamUtils.nonClosing(out);
+			Iterator<Object> iterator = elements instanceof Stream ? ((Stream<Object>) elements).iterator()
+					: ((Iterable<Object>) elements).iterator();
+			try {
+				if (!delimited) {
+					body.write('[');
+				}
+				boolean first = true;
+				while (iterator.hasNext()) {
+					Object element = iterator.next();
+					if (!delimited && !first) {
+						body.write(',');
+					}
+					writeElement(element, converters, body);
+					if (delimited) {
+						body.write('\n');
+					}
+					first = false;
+				}
+				if (!delimited) {
+					body.write(']');
+				}
+			}
+			finally {
+				if (elements instanceof Stream) {
+					((Stream<?>) elements).close();
+				}
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private void writeElement(Object element, List<HttpMessageConverter<?>> converters, OutputStream body)
+				throws IOException {
+			if (element == null) {
+				body.write("null".getBytes(StandardCharsets.UTF_8));
+				return;
+			}
+			Type type = elementType != null ? elementType : element.getClass();
+			for (HttpMessageConverter<?> converter : converters) {
+				if (converter instanceof GenericHttpMessageConverter && ((GenericHttpMessageConverter) converter)
+						.canWrite(type, element.getClass(), MediaType.APPLICATION_JSON)) {
+					((GenericHttpMessageConverter) converter).write(element, type, MediaType.APPLICATION_JSON,
+							new HttpOutputMessage() {
+
+								private final HttpHeaders headers = new HttpHeaders();
+
+								@Override
+								public OutputStream getBody() {
+									return body;
+								}
+
+								@Override
+								public HttpHeaders getHeaders() {
+									return headers;
+								}
+
+							});
+					return;
+				}
+			}
+			throw new EncodeException("Could not write request: no suitable HttpMessageConverter found for element "
+					+ "type [" + element.getClass().getName() + "] and content type [" + MediaType.APPLICATION_JSON
+					+ "]");
+		}
+
+		@Override
+		public boolean isRepeatable() {
+			return !(elements instanceof Stream);
+		}
+
+	}
+
 	private final class FeignOutputMessage implements HttpOutputMessage {
 
 		private final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
@@ -29,6 +29,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import feign.Contract;
 import feign.Feign;
@@ -108,7 +109,7 @@ public class SpringMvcContract extends Contract.BaseContract implements Resource
 
 	private final Map<Class<? extends Annotation>, AnnotatedParameterProcessor> annotatedArgumentProcessors;
 
-	private final Map<String, Method> processedMethods = new HashMap<>();
+	private final Map<String, Method> processedMethods = new ConcurrentHashMap<>();
 
 	private final ConversionService conversionService;
 
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.support;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Creates virtual threads on JDK 21 and later runtimes. The JDK API is invoked
+ * reflectively, since the project is compiled for Java 8.
+ */
+public final class VirtualThreads {
+
+	/**
+	 * Property enabling virtual threads for the executors created by Spring Cloud
+	 * OpenFeign.
+	 */
+	public static final String ENABLED_PROPERTY = "feign.virtual-threads.enabled";
+
+	private static final Log LOG = LogFactory.getLog(VirtualThreads.class);
+
+	private static final Method OF_VIRTUAL;
+
+	private static final Method NAME;
+
+	private static final Method FACTORY;
+
+	private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+	static {
+		Method ofVirtual = null;
+		Method name = null;
+		Method factory = null;
+		Method newThreadPerTaskExecutor = null;
+		try {
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			ofVirtual = Thread.class.getMethod("ofVirtual");
+			name = builderClass.getMethod("name", String.class, long.class);
+			factory = builderClass.getMethod("factory");
+			newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+		}
+		catch (ReflectiveOperationException ignored) {
+			ofVirtual = null;
+		}
+		OF_VIRTUAL = ofVirtual;
+		NAME = name;
+		FACTORY = factory;
+		NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+	}
+
+	private VirtualThreads() {
+		throw new IllegalStateException("Can't instantiate a utility class");
+	}
+
+	/**
+	 * @return {@code true} if the current runtime supports virtual threads
+	 */
+	public static boolean isSupported() {
+		return OF_VIRTUAL != null;
+	}
+
+	/**
+	 * @param enabled whether virtual threads were requested through
+	 * {@link #ENABLED_PROPERTY}
+	 * @return {@code true} if virtual threads were requested and are supported; a warning
+	 * is logged when they were requested on a runtime without support
+	 */
+	public static boolean isEnabled(boolean enabled) {
+		if (enabled && !isSupported()) {
+			LOG.warn(ENABLED_PROPERTY + " is set but virtual threads require Java 21 or later, "
+					+ "falling back to platform threads");
+			return false;
+		}
+		return enabled;
+	}
+
+	/**
+	 * @param prefix prefix of the thread names, followed by a sequence number
+	 * @return a factory creating a new virtual thread for each task
+	 * @throws IllegalStateException if virtual threads are not supported
+	 */
+	public static ThreadFactory threadFactory(String prefix) {
+		assertSupported();
+		Object builder = ReflectionUtils.invokeMethod(OF_VIRTUAL, null);
+		builder = ReflectionUtils.invokeMethod(NAME, builder, prefix, 0L);
+		return (ThreadFactory) ReflectionUtils.invokeMethod(FACTORY, builder);
+	}
+
+	/**
+	 * @param prefix prefix of the thread names, followed by a sequence number
+	 * @return an unbounded executor starting a new virtual thread for each task
+	 * @throws IllegalStateException if virtual threads are not supported
+	 */
+	public static ExecutorService newThreadPerTaskExecutor(String prefix) {
+		return (ExecutorService) ReflectionUtils.invokeMethod(NEW_THREAD_PER_TASK_EXECUTOR, null,
+				threadFactory(prefix));
+	}
+
+	private static void assertSupported() {
+		if (!isSupported()) {
+			throw new IllegalStateException("Virtual threads require Java 21 or later, current runtime is Java "
+					+ System.getProperty("java.specification.version"));
+		}
+	}
+
+}
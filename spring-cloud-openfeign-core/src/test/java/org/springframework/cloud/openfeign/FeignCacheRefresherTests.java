@@ -0,0 +1,195 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import feign.Feign;
+import feign.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.annotation.AnnotationCacheOperationSource;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.CacheInterceptor;
+import org.springframework.cloud.openfeign.propagation.FeignContextPropagator;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link FeignCacheRefresher}.
+ */
+class FeignCacheRefresherTests {
+
+	private final AtomicInteger calls = new AtomicInteger();
+
+	private final List<Runnable> backgroundRefreshes = new ArrayList<>();
+
+	private final MutableClock clock = new MutableClock();
+
+	private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+
+	private RatesClient client;
+
+	@BeforeEach
+	void setUp() {
+		CacheInterceptor cacheInterceptor = new CacheInterceptor();
+		cacheInterceptor.setCacheOperationSource(new AnnotationCacheOperationSource());
+		cacheInterceptor.setCacheManager(cacheManager);
+		cacheInterceptor.afterPropertiesSet();
+		cacheInterceptor.afterSingletonsInstantiated();
+		FeignClientProperties.CachePolicy policy = new FeignClientProperties.CachePolicy();
+		policy.setTtl(Duration.ofSeconds(60));
+		policy.setRefreshAhead(Duration.ofSeconds(10));
+		policy.setGrace(Duration.ofSeconds(30));
+		Map<String, FeignClientProperties.CachePolicy> caches = Collections.singletonMap("rates", policy);
+		FeignCacheRefresher refresher = new FeignCacheRefresher(caches, backgroundRefreshes::add,
+				() -> () -> FeignContextPropagator.Scope.NOOP, null, clock);
+		client = Feign.builder().contract(new SpringMvcContract())
+				.addCapability(new CachingCapability(cacheInterceptor, refresher))
+				.client((request, options) -> Response.builder().status(200).request(request)
+						.headers(Collections.emptyMap())
+						.body("rate-" + calls.incrementAndGet(), StandardCharsets.UTF_8).build())
+				.target(RatesClient.class, "http://localhost");
+	}
+
+	@Test
+	void shouldServeCachedResultBeforeRefreshWindow() {
+		assertThat(client.rate("EUR")).isEqualTo("rate-1");
+		clock.advance(49);
+
+		assertThat(client.rate("EUR")).isEqualTo("rate-1");
+		assertThat(calls).hasValue(1);
+		assertThat(backgroundRefreshes).isEmpty();
+	}
+
+	@Test
+	void shouldRefreshAheadOfExpiryInBackground() {
+		client.rate("EUR");
+		clock.advance(55);
+
+		assertThat(client.rate("EUR")).isEqualTo("rate-1");
+		assertThat(client.rate("EUR")).isEqualTo("rate-1");
+		assertThat(backgroundRefreshes).hasSize(1);
+
+		backgroundRefreshes.get(0).run();
+
+		assertThat(client.rate("EUR")).isEqualTo("rate-2");
+		clock.advance(50);
+		assertThat(client.rate("EUR")).isEqualTo("rate-2");
+		assertThat(calls).hasValue(2);
+	}
+
+	@Test
+	void shouldServeStaleResultWithinGrace() {
+		client.rate("EUR");
+		clock.advance(75);
+
+		assertThat(client.rate("EUR")).isEqualTo("rate-1");
+		assertThat(backgroundRefreshes).hasSize(1);
+		assertThat(calls).hasValue(1);
+	}
+
+	@Test
+	void shouldLoadOnCallingThreadAfterGrace() {
+		client.rate("EUR");
+		clock.advance(95);
+
+		assertThat(client.rate("EUR")).isEqualTo("rate-2");
+		assertThat(cacheManager.getCache("rates").get("EUR", String.class)).isEqualTo("rate-2");
+		assertThat(backgroundRefreshes).isEmpty();
+	}
+
+	@Test
+	void shouldTrackEachKeySeparately() {
+		client.rate("EUR");
+		clock.advance(30);
+		client.rate("USD");
+		clock.advance(25);
+
+		client.rate("EUR");
+		client.rate("USD");
+
+		assertThat(backgroundRefreshes).hasSize(1);
+	}
+
+	@Test
+	void shouldNotRefreshMethodsOfOtherCaches() {
+		client.currencies();
+		clock.advance(1000);
+
+		assertThat(client.currencies()).isEqualTo("rate-1");
+		assertThat(backgroundRefreshes).isEmpty();
+	}
+
+	interface RatesClient {
+
+		@GetMapping("/rates/{currency}")
+		@Cacheable("rates")
+		String rate(@PathVariable("currency") String currency);
+
+		@GetMapping("/currencies")
+		@Cacheable("currencies")
+		String currencies();
+
+	}
+
+	static class MutableClock extends Clock {
+
+		private long millis = 1_600_000_000_000L;
+
+		void advance(long seconds) {
+			millis += seconds * 1000;
+		}
+
+		@Override
+		public long millis() {
+			return millis;
+		}
+
+		@Override
+		public Instant instant() {
+			return Instant.ofEpochMilli(millis);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+	}
+
+}
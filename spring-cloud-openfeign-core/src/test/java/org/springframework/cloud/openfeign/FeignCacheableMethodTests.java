@@ -0,0 +1,161 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import feign.Feign;
+import feign.Response;
+import feign.codec.Decoder;
+import feign.optionals.OptionalDecoder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.annotation.AnnotationCacheOperationSource;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.CacheInterceptor;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link FeignCacheableMethod}.
+ */
+class FeignCacheableMethodTests {
+
+	private final AtomicInteger calls = new AtomicInteger();
+
+	private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+
+	private final CacheInterceptor cacheInterceptor = new CacheInterceptor();
+
+	private RatesClient client;
+
+	@BeforeEach
+	void setUp() {
+		cacheInterceptor.setCacheOperationSource(new AnnotationCacheOperationSource());
+		cacheInterceptor.setCacheManager(cacheManager);
+		cacheInterceptor.afterPropertiesSet();
+		cacheInterceptor.afterSingletonsInstantiated();
+		client = Feign.builder().contract(new SpringMvcContract())
+				.decoder(new OptionalDecoder(new Decoder.Default()))
+				.addCapability(new CachingCapability(cacheInterceptor))
+				.client((request, options) -> Response.builder().status(200).request(request)
+						.headers(Collections.emptyMap())
+						.body("rate-" + calls.incrementAndGet(), StandardCharsets.UTF_8).build())
+				.target(RatesClient.class, "http://localhost");
+	}
+
+	@Test
+	void shouldCompileDefaultAndArgumentKeys() throws NoSuchMethodException {
+		assertThat(compile("rate", String.class, String.class)).isNotNull();
+		assertThat(compile("rateByIndex", String.class, String.class)).isNotNull();
+		assertThat(compile("rateByRootArgs", String.class, String.class)).isNotNull();
+		assertThat(compile("optionalRate", String.class)).isNotNull();
+	}
+
+	@Test
+	void shouldLeaveComplexOperationsToInterceptor() throws NoSuchMethodException {
+		assertThat(compile("rateByExpression", String.class, String.class)).isNull();
+		assertThat(compile("conditionalRate", String.class)).isNull();
+		assertThat(compile("uncachedRate", String.class)).isNull();
+	}
+
+	@Test
+	void shouldCacheWithDefaultKey() {
+		assertThat(client.rate("EUR", "USD")).isEqualTo("rate-1");
+		assertThat(client.rate("EUR", "USD")).isEqualTo("rate-1");
+
+		assertThat(calls).hasValue(1);
+		assertThat(cacheManager.getCache("rates").get(new SimpleKey("EUR", "USD"), String.class))
+				.isEqualTo("rate-1");
+	}
+
+	@Test
+	void shouldCacheWithArgumentKey() {
+		assertThat(client.rateByIndex("EUR", "USD")).isEqualTo("rate-1");
+		assertThat(client.rateByIndex("EUR", "GBP")).isEqualTo("rate-1");
+		assertThat(client.rateByRootArgs("EUR", "USD")).isEqualTo("rate-2");
+		assertThat(client.rateByRootArgs("GBP", "USD")).isEqualTo("rate-2");
+
+		assertThat(cacheManager.getCache("rates-by-base").get("EUR", String.class)).isEqualTo("rate-1");
+		assertThat(cacheManager.getCache("rates-by-target").get("USD", String.class)).isEqualTo("rate-2");
+	}
+
+	@Test
+	void shouldUnwrapOptionalResults() {
+		assertThat(client.optionalRate("EUR")).contains("rate-1");
+		assertThat(client.optionalRate("EUR")).contains("rate-1");
+
+		assertThat(calls).hasValue(1);
+		assertThat(cacheManager.getCache("optional-rates").get("EUR", String.class)).isEqualTo("rate-1");
+	}
+
+	@Test
+	void shouldCacheComplexOperationsThroughInterceptor() {
+		assertThat(client.rateByExpression("EUR", "USD")).isEqualTo("rate-1");
+		assertThat(client.rateByExpression("EUR", "USD")).isEqualTo("rate-1");
+
+		assertThat(cacheManager.getCache("rates-by-pair").get("EUR-USD", String.class)).isEqualTo("rate-1");
+	}
+
+	private FeignCacheableMethod compile(String name, Class<?>... parameterTypes) throws NoSuchMethodException {
+		Method method = RatesClient.class.getMethod(name, parameterTypes);
+		return FeignCacheableMethod.compile(method, RatesClient.class, cacheInterceptor);
+	}
+
+	interface RatesClient {
+
+		@GetMapping("/rates/{base}")
+		@Cacheable("rates")
+		String rate(@PathVariable("base") String base, @RequestParam("target") String target);
+
+		@GetMapping("/rates/{base}")
+		@Cacheable(cacheNames = "rates-by-base", key = "#p0")
+		String rateByIndex(@PathVariable("base") String base, @RequestParam("target") String target);
+
+		@GetMapping("/rates/{base}")
+		@Cacheable(cacheNames = "rates-by-target", key = "#root.args[1]")
+		String rateByRootArgs(@PathVariable("base") String base, @RequestParam("target") String target);
+
+		@GetMapping("/rates/{base}")
+		@Cacheable(cacheNames = "rates-by-pair", key = "#p0 + '-' + #p1")
+		String rateByExpression(@PathVariable("base") String base, @RequestParam("target") String target);
+
+		@GetMapping("/rates/{base}")
+		@Cacheable(cacheNames = "optional-rates")
+		Optional<String> optionalRate(@PathVariable("base") String base);
+
+		@GetMapping("/rates/{base}")
+		@Cacheable(cacheNames = "conditional-rates", condition = "#p0 != 'EUR'")
+		String conditionalRate(@PathVariable("base") String base);
+
+		@GetMapping("/rates/{base}")
+		String uncachedRate(@PathVariable("base") String base);
+
+	}
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import feign.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.cloud.client.circuitbreaker.ConfigBuilder;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link FeignCircuitBreakerInvocationHandler}.
+ */
+class FeignCircuitBreakerInvocationHandlerTests {
+
+	private HelloClient client;
+
+	@BeforeEach
+	void setUp() {
+		FeignCircuitBreaker.Builder builder = FeignCircuitBreaker.builder()
+				.circuitBreakerFactory(new PassThroughCircuitBreakerFactory())
+				.circuitBreakerNameResolver((feignClientName, target, method) -> method.getName())
+				.feignClientName("hello");
+		client = builder.contract(new SpringMvcContract())
+				.client((request, options) -> Response.builder().status(200).request(request)
+						.headers(Collections.emptyMap()).body("hello", StandardCharsets.UTF_8).build())
+				.target(HelloClient.class, "http://localhost");
+	}
+
+	@Test
+	void shouldRunBlockingMethodsWithoutAsyncCircuitBreaker() {
+		assertThat(client.hello()).isEqualTo("hello");
+	}
+
+	@Test
+	void shouldRejectAsyncMethodsWithoutAsyncCircuitBreaker() {
+		assertThatIllegalStateException().isThrownBy(client::helloAsync)
+				.withMessageContaining("No FeignAsyncCircuitBreaker configured for Feign client 'hello'");
+	}
+
+	interface HelloClient {
+
+		@GetMapping("/hello")
+		String hello();
+
+		@GetMapping("/hello")
+		CompletableFuture<String> helloAsync();
+
+	}
+
+	static class PassThroughCircuitBreakerFactory extends CircuitBreakerFactory<Object, ConfigBuilder<Object>> {
+
+		@Override
+		public CircuitBreaker create(String id) {
+			return new CircuitBreaker() {
+				@Override
+				public <T> T run(Supplier<T> toRun, Function<Throwable, T> fallback) {
+					return toRun.get();
+				}
+			};
+		}
+
+		@Override
+		protected ConfigBuilder<Object> configBuilder(String id) {
+			return Object::new;
+		}
+
+		@Override
+		public void configureDefault(Function<String, Object> defaultConfiguration) {
+		}
+
+	}
+
+}
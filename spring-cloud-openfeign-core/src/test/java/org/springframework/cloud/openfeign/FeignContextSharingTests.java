@@ -0,0 +1,119 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import java.util.Arrays;
+
+import feign.Contract;
+import feign.Logger;
+import feign.codec.Encoder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cloud.openfeign.FeignClientProperties.FeignClientConfiguration;
+import org.springframework.cloud.openfeign.FeignClientProperties.MetricsProperties;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for sharing child contexts between equivalent Feign clients.
+ */
+class FeignContextSharingTests {
+
+	private final AnnotationConfigApplicationContext parent = new AnnotationConfigApplicationContext();
+
+	private final FeignContext feignContext = new FeignContext();
+
+	@AfterEach
+	void tearDown() {
+		feignContext.destroy();
+		parent.close();
+	}
+
+	@Test
+	void equivalentClientsShareContext() {
+		init(true, "metrics-off");
+
+		assertThat(feignContext.getInstance("foo", Encoder.class))
+				.isSameAs(feignContext.getInstance("bar", Encoder.class));
+		assertThat(feignContext.getInstance("foo", Contract.class))
+				.isSameAs(feignContext.getInstance("bar", Contract.class));
+		assertThat(feignContext.getContextName("bar")).isEqualTo("foo");
+		assertThat(feignContext.getContextNames()).containsExactly("foo");
+	}
+
+	@Test
+	void clientsWithOwnConfigurationDoNotShareContext() {
+		init(true, "metrics-off");
+
+		assertThat(feignContext.getInstance("custom", Encoder.class))
+				.isNotSameAs(feignContext.getInstance("foo", Encoder.class));
+		assertThat(feignContext.getInstanceWithoutAncestors("custom", Logger.Level.class))
+				.isEqualTo(Logger.Level.FULL);
+		assertThat(feignContext.getInstanceWithoutAncestors("foo", Logger.Level.class)).isNull();
+	}
+
+	@Test
+	void clientsWithOtherMetricsSettingDoNotShareContext() {
+		init(true, "metrics-off");
+
+		assertThat(feignContext.getContextName("metrics-off")).isEqualTo("metrics-off");
+		assertThat(feignContext.getInstance("metrics-off", Encoder.class))
+				.isNotSameAs(feignContext.getInstance("foo", Encoder.class));
+	}
+
+	@Test
+	void contextsAreNotSharedByDefault() {
+		init(false, "metrics-off");
+
+		assertThat(feignContext.getInstance("foo", Encoder.class))
+				.isNotSameAs(feignContext.getInstance("bar", Encoder.class));
+		assertThat(feignContext.getContextName("bar")).isEqualTo("bar");
+	}
+
+	private void init(boolean shareContexts, String metricsDisabledClient) {
+		FeignClientProperties properties = new FeignClientProperties();
+		FeignClientConfiguration clientConfiguration = new FeignClientConfiguration();
+		MetricsProperties metrics = new MetricsProperties();
+		metrics.setEnabled(false);
+		clientConfiguration.setMetrics(metrics);
+		properties.getConfig().put(metricsDisabledClient, clientConfiguration);
+		parent.registerBean(FeignClientProperties.class, () -> properties);
+		parent.refresh();
+
+		feignContext.setApplicationContext(parent);
+		feignContext.setShareContexts(shareContexts);
+		feignContext.setConfigurations(Arrays.asList(new FeignClientSpecification("foo", new Class<?>[0]),
+				new FeignClientSpecification("bar", new Class<?>[0]),
+				new FeignClientSpecification(metricsDisabledClient, new Class<?>[0]),
+				new FeignClientSpecification("custom", new Class<?>[] { CustomConfiguration.class })));
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	protected static class CustomConfiguration {
+
+		@Bean
+		public Logger.Level loggerLevel() {
+			return Logger.Level.FULL;
+		}
+
+	}
+
+}
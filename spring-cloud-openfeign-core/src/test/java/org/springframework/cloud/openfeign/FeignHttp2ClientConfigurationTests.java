@@ -0,0 +1,84 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+import feign.Client;
+import feign.httpclient.ApacheHttpClient;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cloud.commons.httpclient.HttpClientConfiguration;
+import org.springframework.cloud.openfeign.support.SharedHttp2Client;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the JDK {@link HttpClient} based Feign client configuration.
+ */
+class FeignHttp2ClientConfigurationTests {
+
+	@Test
+	void shouldConfigureSharedHttp2Client() {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder()
+				.properties("feign.http2client.enabled=true", "feign.httpclient.connection-timeout=1500",
+						"feign.httpclient.follow-redirects=false")
+				.web(WebApplicationType.NONE).sources(HttpClientConfiguration.class, FeignAutoConfiguration.class)
+				.run()) {
+			HttpClient httpClient = context.getBean(HttpClient.class);
+			assertThat(httpClient.version()).isEqualTo(HttpClient.Version.HTTP_2);
+			assertThat(httpClient.connectTimeout()).contains(Duration.ofMillis(1500));
+			assertThat(httpClient.followRedirects()).isEqualTo(HttpClient.Redirect.NEVER);
+			assertThat(context.getBean(Client.class)).isInstanceOf(SharedHttp2Client.class);
+		}
+	}
+
+	@Test
+	void shouldUseConfiguredProtocolVersion() {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder()
+				.properties("feign.http2client.enabled=true", "feign.httpclient.http2.version=http_1_1")
+				.web(WebApplicationType.NONE).sources(HttpClientConfiguration.class, FeignAutoConfiguration.class)
+				.run()) {
+			assertThat(context.getBean(HttpClient.class).version()).isEqualTo(HttpClient.Version.HTTP_1_1);
+		}
+	}
+
+	@Test
+	void shouldRejectUnknownProtocolVersion() {
+		SpringApplicationBuilder builder = new SpringApplicationBuilder()
+				.properties("feign.http2client.enabled=true", "feign.httpclient.http2.version=HTTP_3")
+				.web(WebApplicationType.NONE).sources(HttpClientConfiguration.class, FeignAutoConfiguration.class);
+
+		assertThatThrownBy(builder::run).hasStackTraceContaining("feign.httpclient.http2.version")
+				.hasRootCauseInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void hc4ShouldBeTheDefaultIfHttp2ClientNotEnabled() {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder().web(WebApplicationType.NONE)
+				.sources(HttpClientConfiguration.class, FeignAutoConfiguration.class).run()) {
+			assertThat(context.getBeanNamesForType(HttpClient.class)).isEmpty();
+			assertThat(context.getBean(Client.class)).isInstanceOf(ApacheHttpClient.class);
+		}
+	}
+
+}
@@ -16,17 +16,22 @@
 
 package org.springframework.cloud.openfeign;
 
+import feign.AsyncClient;
 import feign.Client;
 import feign.hc5.ApacheHttp5Client;
+import feign.hc5.AsyncApacheHttp5Client;
 import feign.httpclient.ApacheHttpClient;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
 import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.core5.reactor.IOReactorStatus;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.cloud.commons.httpclient.HttpClientConfiguration;
+import org.springframework.cloud.openfeign.support.BlockingAsyncClient;
 import org.springframework.cloud.test.ClassPathExclusions;
 import org.springframework.context.ConfigurableApplicationContext;
 
@@ -86,6 +91,24 @@ class FeignHttpClient5ConfigurationTests {
 		}
 	}
 
+	@Test
+	void verifyAsyncHttpClient5AutoConfig() {
+		ConfigurableApplicationContext context = new SpringApplicationBuilder()
+				.properties("feign.httpclient.hc5.async.enabled=true", "feign.httpclient.hc5.io-thread-count=2")
+				.web(WebApplicationType.NONE).sources(HttpClientConfiguration.class, FeignAutoConfiguration.class)
+				.run();
+
+		assertThat(context.getBean(CloseableHttpAsyncClient.class).getStatus()).isEqualTo(IOReactorStatus.ACTIVE);
+		assertThat(context.getBean(AsyncClient.class)).isInstanceOf(AsyncApacheHttp5Client.class);
+		Client client = context.getBean(Client.class);
+		assertThat(client).isInstanceOf(BlockingAsyncClient.class);
+		assertThat(((BlockingAsyncClient) client).getDelegate()).isSameAs(context.getBean(AsyncClient.class));
+
+		if (context != null) {
+			context.close();
+		}
+	}
+
 	@Test
 	void hc4ShouldBeTheDefaultIfHc5NotEnabled() {
 		ConfigurableApplicationContext context = new SpringApplicationBuilder()
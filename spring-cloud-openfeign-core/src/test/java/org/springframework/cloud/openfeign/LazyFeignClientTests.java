@@ -0,0 +1,129 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import feign.Client;
+import feign.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link LazyFeignClientInvocationHandler}.
+ */
+class LazyFeignClientTests {
+
+	private static final List<String> CREATED_CONTEXTS = new CopyOnWriteArrayList<>();
+
+	@BeforeEach
+	void reset() {
+		CREATED_CONTEXTS.clear();
+	}
+
+	@Test
+	void shouldBuildClientOnFirstCall() {
+		try (ConfigurableApplicationContext context = lazyApplication()) {
+			GreetingClient client = context.getBean(GreetingClient.class);
+
+			assertThat(Proxy.getInvocationHandler(client)).isInstanceOf(LazyFeignClientInvocationHandler.class);
+			assertThat(client.toString()).contains("GreetingClient", "greeting");
+			assertThat(client).isEqualTo(client).hasSameHashCodeAs(client);
+			assertThat(CREATED_CONTEXTS).isEmpty();
+
+			assertThat(client.greeting()).isEqualTo("hello");
+			assertThat(client.greeting()).isEqualTo("hello");
+			assertThat(((LazyFeignClientInvocationHandler) Proxy.getInvocationHandler(client)).isInitialized())
+					.isTrue();
+			assertThat(CREATED_CONTEXTS).containsExactly("greeting");
+		}
+	}
+
+	@Test
+	void shouldBuildClientOnceForConcurrentCalls() {
+		try (ConfigurableApplicationContext context = lazyApplication()) {
+			GreetingClient client = context.getBean(GreetingClient.class);
+			List<CompletableFuture<String>> calls = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				calls.add(CompletableFuture.supplyAsync(client::greeting));
+			}
+
+			calls.forEach(call -> assertThat(call.join()).isEqualTo("hello"));
+			assertThat(CREATED_CONTEXTS).containsExactly("greeting");
+		}
+	}
+
+	@Test
+	void shouldBuildClientsEagerlyByDefault() {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder().web(WebApplicationType.NONE)
+				.sources(TestConfiguration.class).run()) {
+			GreetingClient client = context.getBean(GreetingClient.class);
+
+			assertThat(Proxy.getInvocationHandler(client)).isNotInstanceOf(LazyFeignClientInvocationHandler.class);
+			assertThat(CREATED_CONTEXTS).containsExactly("greeting");
+		}
+	}
+
+	private ConfigurableApplicationContext lazyApplication() {
+		return new SpringApplicationBuilder().properties("feign.client.lazy-init=true")
+				.web(WebApplicationType.NONE).sources(TestConfiguration.class).run();
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@EnableAutoConfiguration
+	@EnableFeignClients(clients = GreetingClient.class)
+	protected static class TestConfiguration {
+
+	}
+
+	public static class GreetingConfiguration {
+
+		@Bean
+		Client greetingFeignClient(Environment environment) {
+			CREATED_CONTEXTS.add(environment.getProperty("feign.client.name"));
+			return (request, options) -> Response.builder().status(200).request(request)
+					.headers(Collections.emptyMap()).body("hello", StandardCharsets.UTF_8).build();
+		}
+
+	}
+
+	@FeignClient(name = "greeting", url = "http://localhost", configuration = GreetingConfiguration.class)
+	interface GreetingClient {
+
+		@GetMapping("/greeting")
+		String greeting();
+
+	}
+
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import feign.Contract;
+import feign.MethodMetadata;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ParallelContextInitializer}.
+ */
+class ParallelContextInitializerTests {
+
+	private static final List<String> CREATED_CONTEXTS = new CopyOnWriteArrayList<>();
+
+	private static final List<String> PARSED_TYPES = new CopyOnWriteArrayList<>();
+
+	private static final AtomicBoolean CREATED_CONCURRENTLY = new AtomicBoolean();
+
+	private static volatile CountDownLatch concurrentContexts;
+
+	@BeforeEach
+	void reset() {
+		CREATED_CONTEXTS.clear();
+		PARSED_TYPES.clear();
+		CREATED_CONCURRENTLY.set(false);
+		concurrentContexts = new CountDownLatch(2);
+	}
+
+	@Test
+	@Timeout(value = 60, unit = TimeUnit.SECONDS)
+	void shouldCreateContextsOfAllClients() {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder()
+				.properties("feign.client.parallel-init.enabled=true", "feign.client.parallel-init.parallelism=2")
+				.web(WebApplicationType.NONE).sources(TestConfiguration.class).run()) {
+			ClientUser clientUser = context.getBean(ClientUser.class);
+			assertThat(clientUser.alpha).isNotNull();
+			assertThat(clientUser.beta).isNotNull();
+			assertThat(clientUser.gamma).isNotNull();
+
+			FeignContext feignContext = context.getBean(FeignContext.class);
+			assertThat(feignContext.getInstance("alpha", Marker.class))
+					.isSameAs(feignContext.getInstance("alpha", Marker.class))
+					.isNotSameAs(feignContext.getInstance("beta", Marker.class));
+			assertThat(feignContext.getInstance("gamma", Contract.class)).isNotNull();
+			assertThat(CREATED_CONTEXTS).containsOnly("alpha", "beta", "gamma").hasSize(3);
+			assertThat(CREATED_CONCURRENTLY).isTrue();
+		}
+	}
+
+	@Test
+	@Timeout(value = 60, unit = TimeUnit.SECONDS)
+	void shouldBuildClientsWithMetadataParsedInParallel() {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder()
+				.properties("feign.client.parallel-init.enabled=true", "feign.client.parallel-init.parallelism=2")
+				.web(WebApplicationType.NONE).sources(TestConfiguration.class).run()) {
+			ClientUser clientUser = context.getBean(ClientUser.class);
+
+			assertThat(((LazyFeignClientInvocationHandler) Proxy.getInvocationHandler(clientUser.alpha))
+					.isInitialized()).isTrue();
+			assertThat(((LazyFeignClientInvocationHandler) Proxy.getInvocationHandler(clientUser.gamma))
+					.isInitialized()).isTrue();
+			assertThat(PARSED_TYPES).containsOnly("AlphaClient", "BetaClient", "GammaClient").hasSize(3);
+		}
+	}
+
+	@Test
+	void shouldNotCreateContextsInParallelByDefault() {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder().web(WebApplicationType.NONE)
+				.sources(TestConfiguration.class).run()) {
+			assertThat(context.getBean(ClientUser.class).alpha).isNotNull();
+			assertThat(CREATED_CONTEXTS).containsOnly("alpha", "beta", "gamma").hasSize(3);
+			assertThat(CREATED_CONCURRENTLY).isFalse();
+		}
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@EnableAutoConfiguration
+	@EnableFeignClients(clients = { AlphaClient.class, BetaClient.class, GammaClient.class })
+	protected static class TestConfiguration {
+
+		// the clients are injected while this bean is created, holding the singleton lock
+		@Bean
+		ClientUser clientUser(AlphaClient alpha, BetaClient beta, GammaClient gamma) {
+			return new ClientUser(alpha, beta, gamma);
+		}
+
+		// created after the clients, so creating the contexts at that point would wait for
+		// the singleton lock
+		@Bean
+		ParentService parentService() {
+			return new ParentService();
+		}
+
+	}
+
+	public static class ClientConfiguration {
+
+		@Bean
+		Marker marker(ParentService parentService, Environment environment) {
+			CREATED_CONTEXTS.add(environment.getProperty("feign.client.name"));
+			if (Thread.currentThread().getName().startsWith("feign-init-")) {
+				awaitConcurrentContext();
+			}
+			return new Marker();
+		}
+
+		@Bean
+		Contract feignContract() {
+			return new SpringMvcContract() {
+				@Override
+				public List<MethodMetadata> parseAndValidateMetadata(Class<?> targetType) {
+					String thread = Thread.currentThread().getName();
+					PARSED_TYPES.add(thread.startsWith("feign-init-") ? targetType.getSimpleName()
+							: targetType.getSimpleName() + " on " + thread);
+					return super.parseAndValidateMetadata(targetType);
+				}
+			};
+		}
+
+		private static void awaitConcurrentContext() {
+			concurrentContexts.countDown();
+			try {
+				if (concurrentContexts.await(10, TimeUnit.SECONDS)) {
+					CREATED_CONCURRENTLY.set(true);
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+	}
+
+	static class ClientUser {
+
+		final AlphaClient alpha;
+
+		final BetaClient beta;
+
+		final GammaClient gamma;
+
+		ClientUser(AlphaClient alpha, BetaClient beta, GammaClient gamma) {
+			this.alpha = alpha;
+			this.beta = beta;
+			this.gamma = gamma;
+		}
+
+	}
+
+	static class ParentService {
+
+	}
+
+	static class Marker {
+
+	}
+
+	@FeignClient(name = "alpha", url = "http://localhost", configuration = ClientConfiguration.class)
+	interface AlphaClient {
+
+		@GetMapping("/alpha")
+		String alpha();
+
+	}
+
+	@FeignClient(name = "beta", url = "http://localhost", configuration = ClientConfiguration.class)
+	interface BetaClient {
+
+		@GetMapping("/beta")
+		String beta();
+
+	}
+
+	@FeignClient(name = "gamma", url = "http://localhost", configuration = ClientConfiguration.class)
+	interface GammaClient {
+
+		@GetMapping("/gamma")
+		String gamma();
+
+	}
+
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.batch;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.openfeign.Batched;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.cloud.openfeign.test.NoSecurityConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+/**
+ * Tests for {@link BatchingCapability}.
+ */
+@SpringBootTest(classes = BatchingCapabilityTests.Application.class, webEnvironment = RANDOM_PORT,
+		value = { "spring.application.name=batchingtest", "feign.circuitbreaker.enabled=false" })
+class BatchingCapabilityTests {
+
+	private static final int CALLERS = 25;
+
+	@Autowired
+	private ProductClient productClient;
+
+	@Autowired
+	private Application application;
+
+	private final ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+
+	@BeforeEach
+	void setup() {
+		application.bulkRequests.clear();
+		application.singleRequests.set(0);
+	}
+
+	@AfterEach
+	void tearDown() {
+		callers.shutdownNow();
+	}
+
+	@Test
+	void shouldBatchConcurrentInvocationsIntoBulkCalls() throws Exception {
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Product>> products = new ArrayList<>();
+		for (long id = 0; id < CALLERS; id++) {
+			long productId = id;
+			products.add(callers.submit(() -> {
+				start.await();
+				return productClient.getProduct(productId);
+			}));
+		}
+		start.countDown();
+
+		for (int id = 0; id < CALLERS; id++) {
+			assertThat(products.get(id).get(5, TimeUnit.SECONDS)).isEqualTo(new Product(id));
+		}
+		assertThat(application.singleRequests).hasValue(0);
+		assertThat(application.bulkRequests).hasSizeBetween(3, CALLERS - 1)
+				.allSatisfy(ids -> assertThat(ids).hasSizeLessThanOrEqualTo(10));
+	}
+
+	@Test
+	void shouldShareResultOfDuplicateKeys() throws Exception {
+		CompletableFuture<Product> first = productClient.getProductAsync(7L);
+		CompletableFuture<Product> second = productClient.getProductAsync(7L);
+
+		assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(new Product(7));
+		assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(new Product(7));
+		assertThat(application.bulkRequests).containsExactly(Collections.singletonList(7L));
+	}
+
+	@Test
+	void shouldBatchMonoInvocationsWhenSubscribed() {
+		Mono<Product> first = productClient.getProductMono(3L);
+		Mono<Product> second = productClient.getProductMono(4L);
+		assertThat(application.bulkRequests).isEmpty();
+
+		StepVerifier.create(Mono.zip(first, second))
+				.assertNext(products -> assertThat(products.toList()).containsExactly(new Product(3), new Product(4)))
+				.verifyComplete();
+		assertThat(application.bulkRequests).containsExactly(Arrays.asList(3L, 4L));
+	}
+
+	@Test
+	void shouldResolveMissingKeysToNull() throws Exception {
+		assertThat(productClient.getProductAsync(-1L).get(5, TimeUnit.SECONDS)).isNull();
+	}
+
+	@Test
+	void shouldRecordBatchSizeAndWaitTime() throws Exception {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		FeignBatchExecutor batchExecutor = new FeignBatchExecutor();
+		new FeignBatchMetrics(batchExecutor).bindTo(registry);
+		CountDownLatch published = new CountDownLatch(1);
+		batchExecutor.onBatch(event -> published.countDown());
+		FeignBatcher batcher = new FeignBatcher("products", "ProductClient#getProduct(Long)", 10,
+				Duration.ofMillis(20),
+				keys -> keys.stream().collect(Collectors.toMap(key -> key, key -> "product " + key)), batchExecutor);
+		try {
+			CompletableFuture<Object> first = batcher.submit(1L);
+			CompletableFuture<Object> second = batcher.submit(2L);
+			CompletableFuture<Object> duplicate = batcher.submit(2L);
+
+			assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("product 1");
+			assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("product 2");
+			assertThat(duplicate.get(5, TimeUnit.SECONDS)).isEqualTo("product 2");
+			assertThat(published.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(registry.get("feign.batch.size").tag("client", "products").summary().totalAmount())
+					.isEqualTo(2);
+			assertThat(registry.get("feign.batch.wait").tag("client", "products").timer().count()).isEqualTo(3);
+		}
+		finally {
+			batchExecutor.destroy();
+		}
+	}
+
+	@FeignClient(name = "batchingProducts", url = "http://localhost:${local.server.port}")
+	protected interface ProductClient {
+
+		@Batched(bulkMethod = "getProducts", maxBatchSize = 10, maxDelayMillis = 50)
+		@GetMapping("/products/{id}")
+		Product getProduct(@PathVariable("id") Long id);
+
+		@Batched(bulkMethod = "getProductsById", maxDelayMillis = 50)
+		@GetMapping("/products/{id}")
+		CompletableFuture<Product> getProductAsync(@PathVariable("id") Long id);
+
+		@Batched(bulkMethod = "getProductsById", maxDelayMillis = 50)
+		@GetMapping("/products/{id}")
+		Mono<Product> getProductMono(@PathVariable("id") Long id);
+
+		@GetMapping("/products")
+		List<Product> getProducts(@RequestParam("ids") List<Long> ids);
+
+		@PostMapping("/products/byId")
+		Map<Long, Product> getProductsById(@RequestBody Set<Long> ids);
+
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@EnableAutoConfiguration
+	@RestController
+	@EnableFeignClients(clients = ProductClient.class)
+	@Import(NoSecurityConfiguration.class)
+	protected static class Application {
+
+		final List<List<Long>> bulkRequests = new CopyOnWriteArrayList<>();
+
+		final AtomicInteger singleRequests = new AtomicInteger();
+
+		@GetMapping("/products/{id}")
+		Product getProduct(@PathVariable long id) {
+			singleRequests.incrementAndGet();
+			return new Product(id);
+		}
+
+		@GetMapping("/products")
+		List<Product> getProducts(@RequestParam List<Long> ids) {
+			bulkRequests.add(ids);
+			return ids.stream().map(Product::new).collect(Collectors.toList());
+		}
+
+		@PostMapping("/products/byId")
+		Map<Long, Product> getProductsById(@RequestBody List<Long> ids) {
+			bulkRequests.add(ids);
+			Map<Long, Product> products = new LinkedHashMap<>();
+			ids.stream().filter(id -> id >= 0).forEach(id -> products.put(id, new Product(id)));
+			return products;
+		}
+
+	}
+
+	public static class Product {
+
+		private long id;
+
+		Product() {
+		}
+
+		Product(long id) {
+			this.id = id;
+		}
+
+		public long getId() {
+			return id;
+		}
+
+		public void setId(long id) {
+			this.id = id;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			return id == ((Product) o).id;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(id);
+		}
+
+	}
+
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.batch;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.servlet.http.HttpServletRequest;
+
+import feign.FeignException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.openfeign.CollectionFormat;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.cloud.openfeign.Partitioned;
+import org.springframework.cloud.openfeign.test.NoSecurityConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+/**
+ * Tests for {@link ScatterGatherCapability}.
+ */
+@SpringBootTest(classes = ScatterGatherCapabilityTests.Application.class, webEnvironment = RANDOM_PORT,
+		value = { "spring.application.name=scattergathertest", "feign.circuitbreaker.enabled=false" })
+class ScatterGatherCapabilityTests {
+
+	@Autowired
+	private LookupClient lookupClient;
+
+	@Autowired
+	private Application application;
+
+	@BeforeEach
+	void setup() {
+		application.queries.clear();
+		application.maxInFlight.set(0);
+	}
+
+	@Test
+	void shouldSplitArgumentAndConcatenateResultsInOrder() {
+		List<String> ids = ids(10);
+
+		assertThat(lookupClient.lookup(ids)).isEqualTo(ids.stream().map(id -> "value-" + id)
+				.collect(Collectors.toList()));
+		assertThat(application.queries).hasSize(4);
+	}
+
+	@Test
+	void shouldNotSplitSmallArguments() {
+		assertThat(lookupClient.lookup(ids(3))).hasSize(3);
+		assertThat(application.queries).hasSize(1);
+	}
+
+	@Test
+	void shouldExpandChunksWithCollectionFormat() {
+		Map<String, String> values = lookupClient.lookupMap(new LinkedHashSet<>(ids(5)));
+
+		assertThat(values).hasSize(5).containsEntry("id-4", "value-id-4");
+		assertThat(application.queries).hasSize(3).allSatisfy(query -> assertThat(query).doesNotContain("&"));
+	}
+
+	@Test
+	void shouldBoundConcurrentChunks() {
+		assertThat(lookupClient.lookup(ids(12))).hasSize(12);
+		assertThat(application.maxInFlight.get()).isBetween(1, 2);
+	}
+
+	@Test
+	void shouldRethrowFailureOfAnyChunk() {
+		List<String> ids = ids(10);
+		ids.set(7, "fail");
+
+		assertThatExceptionOfType(FeignException.class).isThrownBy(() -> lookupClient.lookup(ids));
+	}
+
+	@Test
+	void shouldMergePages() {
+		Page<String> first = new PageImpl<>(Arrays.asList("a", "b"));
+		Page<String> second = new PageImpl<>(Arrays.asList("c"));
+
+		Object combined = new DefaultResultCombiner().combine(Arrays.asList(first, second),
+				ResolvableType.forClassWithGenerics(Page.class, String.class).getType());
+
+		assertThat(combined).isInstanceOf(Page.class);
+		@SuppressWarnings("unchecked")
+		Page<String> merged = (Page<String>) combined;
+		assertThat(merged.getContent()).containsExactly("a", "b", "c");
+		assertThat(merged.getTotalElements()).isEqualTo(3);
+	}
+
+	private static List<String> ids(int count) {
+		return IntStream.range(0, count).mapToObj(i -> "id-" + i).collect(Collectors.toList());
+	}
+
+	@FeignClient(name = "scatterGatherLookup", url = "http://localhost:${local.server.port}")
+	protected interface LookupClient {
+
+		@GetMapping("/lookup")
+		List<String> lookup(@Partitioned(size = 3, maxConcurrency = 2) @RequestParam("ids") List<String> ids);
+
+		@CollectionFormat(feign.CollectionFormat.CSV)
+		@GetMapping("/lookupMap")
+		Map<String, String> lookupMap(@Partitioned(size = 2) @RequestParam("ids") Set<String> ids);
+
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@EnableAutoConfiguration
+	@RestController
+	@EnableFeignClients(clients = LookupClient.class)
+	@Import(NoSecurityConfiguration.class)
+	protected static class Application {
+
+		final List<String> queries = new CopyOnWriteArrayList<>();
+
+		final AtomicInteger maxInFlight = new AtomicInteger();
+
+		private final AtomicInteger inFlight = new AtomicInteger();
+
+		@GetMapping("/lookup")
+		List<String> lookup(@RequestParam List<String> ids) throws InterruptedException {
+			queries.add(String.join(",", ids));
+			int current = inFlight.incrementAndGet();
+			maxInFlight.accumulateAndGet(current, Math::max);
+			try {
+				if (ids.contains("fail")) {
+					throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR);
+				}
+				Thread.sleep(50);
+				return ids.stream().map(id -> "value-" + id).collect(Collectors.toList());
+			}
+			finally {
+				inFlight.decrementAndGet();
+			}
+		}
+
+		@GetMapping("/lookupMap")
+		Map<String, String> lookupMap(@RequestParam("ids") String ids, HttpServletRequest request) {
+			queries.add(request.getQueryString());
+			Map<String, String> values = new LinkedHashMap<>();
+			for (String id : ids.split(",")) {
+				values.put(id, "value-" + id);
+			}
+			return values;
+		}
+
+	}
+
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.bulkhead;
+
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cloud.openfeign.FeignClientProperties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link FeignBulkhead} implementations.
+ */
+class FeignBulkheadTests {
+
+	private final ExecutorService callers = Executors.newCachedThreadPool();
+
+	private final CountDownLatch started = new CountDownLatch(1);
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	private final Client blockingClient = (request, options) -> {
+		started.countDown();
+		try {
+			release.await(5, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return Response.builder().request(request).status(200).headers(Collections.emptyMap()).build();
+	};
+
+	private final Request request = Request.create(Request.HttpMethod.GET, "http://test/hello", Collections.emptyMap(),
+			null, StandardCharsets.UTF_8, null);
+
+	private final Request.Options options = new Request.Options();
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		callers.shutdownNow();
+	}
+
+	@Test
+	void semaphoreBulkheadRejectsCallsWhenPermitsAreExhausted() throws Exception {
+		SemaphoreFeignBulkhead bulkhead = new SemaphoreFeignBulkhead("test", 1, Duration.ofMillis(10));
+		CompletableFuture<Response> firstCall = execute(bulkhead);
+		started.await(5, TimeUnit.SECONDS);
+
+		assertThat(bulkhead.getActiveCalls()).isEqualTo(1);
+		assertThat(bulkhead.getAvailablePermits()).isZero();
+		assertThatExceptionOfType(BulkheadFullException.class)
+				.isThrownBy(() -> bulkhead.execute(blockingClient, request, options));
+		assertThat(bulkhead.getRejectedCalls()).isEqualTo(1);
+
+		release.countDown();
+		assertThat(firstCall.get(5, TimeUnit.SECONDS).status()).isEqualTo(200);
+		assertThat(bulkhead.getAvailablePermits()).isEqualTo(1);
+	}
+
+	@Test
+	void threadPoolBulkheadRejectsCallsWhenQueueIsFull() throws Exception {
+		ThreadPoolFeignBulkhead bulkhead = new ThreadPoolFeignBulkhead("test", 1, 1);
+		try {
+			CompletableFuture<Response> firstCall = execute(bulkhead);
+			started.await(5, TimeUnit.SECONDS);
+			CompletableFuture<Response> queuedCall = execute(bulkhead);
+			while (bulkhead.getQueueDepth() == 0) {
+				Thread.sleep(10);
+			}
+
+			assertThat(bulkhead.getActiveCalls()).isEqualTo(1);
+			assertThatExceptionOfType(BulkheadFullException.class)
+					.isThrownBy(() -> bulkhead.execute(blockingClient, request, options));
+			assertThat(bulkhead.getRejectedCalls()).isEqualTo(1);
+
+			release.countDown();
+			assertThat(firstCall.get(5, TimeUnit.SECONDS).status()).isEqualTo(200);
+			assertThat(queuedCall.get(5, TimeUnit.SECONDS).status()).isEqualTo(200);
+		}
+		finally {
+			bulkhead.destroy();
+		}
+	}
+
+	@Test
+	void threadPoolBulkheadCountsEachActiveCallOnce() throws Exception {
+		ThreadPoolFeignBulkhead bulkhead = new ThreadPoolFeignBulkhead("test", 2, 1);
+		try {
+			CompletableFuture<Response> pooledCall = execute(bulkhead);
+			started.await(5, TimeUnit.SECONDS);
+			bulkhead.acquireNonBlockingPermit();
+
+			assertThat(bulkhead.getActiveCalls()).isEqualTo(2);
+
+			bulkhead.releaseNonBlockingPermit();
+			release.countDown();
+			assertThat(pooledCall.get(5, TimeUnit.SECONDS).status()).isEqualTo(200);
+			while (bulkhead.getActiveCalls() > 0) {
+				Thread.sleep(10);
+			}
+			assertThat(bulkhead.getAvailablePermits()).isEqualTo(2);
+		}
+		finally {
+			bulkhead.destroy();
+		}
+	}
+
+	@Test
+	void threadPoolBulkheadCancelsCallsExceedingTheTimeouts() throws Exception {
+		ThreadPoolFeignBulkhead bulkhead = new ThreadPoolFeignBulkhead("test", 1, 1);
+		Request.Options shortTimeouts = new Request.Options(10, TimeUnit.MILLISECONDS, 50, TimeUnit.MILLISECONDS,
+				true);
+		try {
+			assertThatExceptionOfType(SocketTimeoutException.class)
+					.isThrownBy(() -> bulkhead.execute(blockingClient, request, shortTimeouts));
+			while (bulkhead.getActiveCalls() > 0) {
+				Thread.sleep(10);
+			}
+
+			assertThat(started.getCount()).isZero();
+			assertThat(release.getCount()).isEqualTo(1);
+		}
+		finally {
+			bulkhead.destroy();
+		}
+	}
+
+	@Test
+	void registryCreatesOneBulkheadPerClient() {
+		FeignBulkheadRegistry registry = new FeignBulkheadRegistry();
+		FeignClientProperties.BulkheadProperties properties = new FeignClientProperties.BulkheadProperties();
+		properties.setType(FeignClientProperties.BulkheadProperties.BulkheadType.THREAD_POOL);
+
+		FeignBulkhead bulkhead = registry.bulkhead("foo", properties);
+
+		assertThat(bulkhead).isInstanceOf(ThreadPoolFeignBulkhead.class);
+		assertThat(registry.bulkhead("foo", properties)).isSameAs(bulkhead);
+		assertThat(registry.bulkhead("bar", new FeignClientProperties.BulkheadProperties()))
+				.isInstanceOf(SemaphoreFeignBulkhead.class).isNotSameAs(bulkhead);
+		registry.destroy();
+	}
+
+	@Test
+	void metricsArePublishedForEveryBulkhead() {
+		FeignBulkheadRegistry registry = new FeignBulkheadRegistry();
+		registry.bulkhead("foo", new FeignClientProperties.BulkheadProperties());
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+		new FeignBulkheadMetrics(registry).bindTo(meterRegistry);
+		registry.bulkhead("bar", new FeignClientProperties.BulkheadProperties());
+
+		assertThat(meterRegistry.get("feign.bulkhead.available.permits").tag("client", "foo").gauge().value())
+				.isEqualTo(25);
+		assertThat(meterRegistry.get("feign.bulkhead.rejected").tag("client", "bar").functionCounter().count())
+				.isZero();
+	}
+
+	private CompletableFuture<Response> execute(FeignBulkhead bulkhead) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return bulkhead.execute(blockingClient, request, options);
+			}
+			catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		}, callers);
+	}
+
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.circuitbreaker;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import feign.RequestInterceptor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.cloud.client.circuitbreaker.ConfigBuilder;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.cloud.openfeign.test.NoSecurityConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+/**
+ * Tests for Feign methods returning {@link CompletableFuture} with circuit breaker
+ * enabled.
+ */
+@SpringBootTest(classes = AsyncMethodCircuitBreakerTests.Application.class, webEnvironment = RANDOM_PORT,
+		value = { "spring.application.name=asynccircuittest", "spring.jmx.enabled=false",
+				"feign.circuitbreaker.enabled=true" })
+class AsyncMethodCircuitBreakerTests {
+
+	@Autowired
+	AsyncClient asyncClient;
+
+	@Autowired
+	MyCircuitBreaker myCircuitBreaker;
+
+	@Autowired
+	AtomicReference<String> callingThread;
+
+	@BeforeEach
+	void setup() {
+		myCircuitBreaker.clear();
+		callingThread.set(null);
+	}
+
+	@Test
+	void shouldDecodeValueWrappedByFuture() throws Exception {
+		CompletableFuture<Hello> hello = asyncClient.getHello();
+
+		assertThat(hello.get(5, TimeUnit.SECONDS)).isEqualTo(new Hello("hello world 1"));
+		assertThat(myCircuitBreaker.runWasCalled).as("Circuit Breaker was called").isTrue();
+	}
+
+	@Test
+	void shouldNotExecuteOnCallingThread() throws Exception {
+		asyncClient.getHello().get(5, TimeUnit.SECONDS);
+
+		assertThat(callingThread.get()).isNotEqualTo(Thread.currentThread().getName())
+				.startsWith("feign-circuitbreaker-");
+	}
+
+	@Test
+	void shouldUseAsyncFallback() throws ExecutionException, InterruptedException {
+		assertThat(asyncClient.getException().get()).isEqualTo("Fixed response");
+	}
+
+	@FeignClient(name = "asyncClient", url = "http://localhost:${local.server.port}/",
+			fallback = AsyncClientFallback.class)
+	protected interface AsyncClient {
+
+		@GetMapping("/hello")
+		CompletableFuture<Hello> getHello();
+
+		@GetMapping("/hellonotfound")
+		CompletableFuture<String> getException();
+
+	}
+
+	static class AsyncClientFallback implements AsyncClient {
+
+		@Override
+		public CompletableFuture<Hello> getHello() {
+			return CompletableFuture.completedFuture(null);
+		}
+
+		@Override
+		public CompletableFuture<String> getException() {
+			return CompletableFuture.completedFuture("Fixed response");
+		}
+
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@EnableAutoConfiguration
+	@RestController
+	@EnableFeignClients(clients = AsyncClient.class)
+	@Import(NoSecurityConfiguration.class)
+	protected static class Application {
+
+		@Bean
+		MyCircuitBreaker myCircuitBreaker() {
+			return new MyCircuitBreaker();
+		}
+
+		@Bean
+		AtomicReference<String> callingThread() {
+			return new AtomicReference<>();
+		}
+
+		@Bean
+		RequestInterceptor callingThreadRecorder(AtomicReference<String> callingThread) {
+			return template -> callingThread.set(Thread.currentThread().getName());
+		}
+
+		@Bean
+		CircuitBreakerFactory circuitBreakerFactory(MyCircuitBreaker myCircuitBreaker) {
+			return new CircuitBreakerFactory() {
+				@Override
+				public CircuitBreaker create(String id) {
+					return myCircuitBreaker;
+				}
+
+				@Override
+				protected ConfigBuilder configBuilder(String id) {
+					return Object::new;
+				}
+
+				@Override
+				public void configureDefault(Function defaultConfiguration) {
+
+				}
+			};
+		}
+
+		@Bean
+		AsyncClientFallback asyncClientFallback() {
+			return new AsyncClientFallback();
+		}
+
+		@GetMapping("/hello")
+		Hello getHello() {
+			return new Hello("hello world 1");
+		}
+
+	}
+
+}
@@ -0,0 +1,312 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.httpcache;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import feign.Client;
+import feign.Feign;
+import feign.Request;
+import feign.Response;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link HttpCachingClient}.
+ */
+class HttpCachingClientTests {
+
+	private final List<Request> requests = new ArrayList<>();
+
+	private final MutableClock clock = new MutableClock();
+
+	private final InMemoryHttpCacheStore store = new InMemoryHttpCacheStore(64 * 1024);
+
+	@Test
+	void shouldServeFreshResponseWithoutRequest() {
+		TestClient client = client(request -> response(request, 200, "one", "Cache-Control", "max-age=60"));
+
+		assertThat(client.item("1")).isEqualTo("one");
+		clock.advance(30);
+		assertThat(client.item("1")).isEqualTo("one");
+
+		assertThat(requests).hasSize(1);
+	}
+
+	@Test
+	void shouldRevalidateStaleResponseWithEtag() {
+		TestClient client = client(request -> request.headers().containsKey("If-None-Match")
+				? response(request, 304, null, "ETag", "\"v1\"", "Cache-Control", "max-age=10")
+				: response(request, 200, "one", "ETag", "\"v1\"", "Cache-Control", "max-age=10"));
+
+		assertThat(client.item("1")).isEqualTo("one");
+		clock.advance(11);
+		assertThat(client.item("1")).isEqualTo("one");
+		clock.advance(5);
+		assertThat(client.item("1")).isEqualTo("one");
+
+		assertThat(requests).hasSize(2);
+		assertThat(requests.get(1).headers().get("If-None-Match")).containsExactly("\"v1\"");
+	}
+
+	@Test
+	void shouldRevalidateWithLastModified() {
+		String lastModified = date(clock.millis() - 3_600_000);
+		TestClient client = client(request -> request.headers().containsKey("If-Modified-Since")
+				? response(request, 304, null)
+				: response(request, 200, "one", "Last-Modified", lastModified, "Cache-Control", "no-cache"));
+
+		client.item("1");
+		assertThat(client.item("1")).isEqualTo("one");
+
+		assertThat(requests).hasSize(2);
+		assertThat(requests.get(1).headers().get("If-Modified-Since")).containsExactly(lastModified);
+	}
+
+	@Test
+	void shouldReplaceResponseModifiedOnServer() {
+		TestClient client = client(request -> request.headers().containsKey("If-None-Match")
+				? response(request, 200, "two", "ETag", "\"v2\"", "Cache-Control", "max-age=10")
+				: response(request, 200, "one", "ETag", "\"v1\"", "Cache-Control", "max-age=10"));
+
+		client.item("1");
+		clock.advance(11);
+		assertThat(client.item("1")).isEqualTo("two");
+		assertThat(client.item("1")).isEqualTo("two");
+
+		assertThat(requests).hasSize(2);
+	}
+
+	@Test
+	void shouldUseHeuristicFreshnessOfLastModified() {
+		String lastModified = date(clock.millis() - 1_000_000);
+		TestClient client = client(request -> response(request, 200, "one", "Last-Modified", lastModified));
+
+		client.item("1");
+		clock.advance(99);
+		client.item("1");
+		clock.advance(2);
+		client.item("1");
+
+		assertThat(requests).hasSize(2);
+	}
+
+	@Test
+	void shouldNotStoreNoStoreOrPrivateResponses() {
+		TestClient client = client(request -> request.url().endsWith("/1")
+				? response(request, 200, "one", "Cache-Control", "no-store, max-age=60")
+				: response(request, 200, "two", "Cache-Control", "private, max-age=60"));
+
+		client.item("1");
+		client.item("1");
+		client.item("2");
+		client.item("2");
+
+		assertThat(requests).hasSize(4);
+		assertThat(store.count()).isZero();
+	}
+
+	@Test
+	void shouldHonorRequestNoCache() {
+		TestClient client = client(request -> response(request, 200, "one", "Cache-Control", "max-age=60"));
+
+		client.item("1");
+		client.itemWithCacheControl("1", "no-cache");
+
+		assertThat(requests).hasSize(2);
+	}
+
+	@Test
+	void shouldAnswerOnlyIfCachedWithoutStoredResponse() {
+		Client caching = new HttpCachingClient(stub(request -> response(request, 200, "one")), store, true, 1024,
+				clock);
+		Request request = Request.create(Request.HttpMethod.GET, "http://localhost/items/1",
+				Collections.singletonMap("Cache-Control", Collections.singletonList("only-if-cached")), null, null,
+				null);
+
+		assertThat(execute(caching, request).status()).isEqualTo(504);
+		assertThat(requests).isEmpty();
+	}
+
+	@Test
+	void shouldSelectResponseByVaryHeader() {
+		TestClient client = client(request -> response(request, 200,
+				String.join(",", request.headers().get("Accept-Language")), "Cache-Control", "max-age=60", "Vary",
+				"Accept-Language"));
+
+		assertThat(client.item("1", "en")).isEqualTo("en");
+		assertThat(client.item("1", "en")).isEqualTo("en");
+		assertThat(client.item("1", "fr")).isEqualTo("fr");
+
+		assertThat(requests).hasSize(2);
+	}
+
+	@Test
+	void shouldInvalidateOnUnsafeRequest() {
+		TestClient client = client(request -> response(request, 200, "one", "Cache-Control", "max-age=60"));
+
+		client.item("1");
+		client.update("1", "changed");
+		client.item("1");
+
+		assertThat(requests).hasSize(3);
+	}
+
+	@Test
+	void shouldStreamLargeBodiesWithoutStoring() {
+		String large = new String(new char[2048]).replace('\0', 'x');
+		TestClient client = client(request -> Response.builder().status(200).request(request)
+				.headers(headers("Cache-Control", "max-age=60"))
+				.body(new ByteArrayInputStream(large.getBytes(StandardCharsets.UTF_8)), null).build());
+
+		assertThat(client.item("1")).isEqualTo(large);
+		assertThat(client.item("1")).isEqualTo(large);
+
+		assertThat(requests).hasSize(2);
+		assertThat(store.count()).isZero();
+	}
+
+	@Test
+	void shouldEvictLeastRecentlyUsedResponses() {
+		InMemoryHttpCacheStore store = new InMemoryHttpCacheStore(500);
+		CachedResponse response = new CachedResponse(200, "OK", Collections.emptyMap(), new byte[100], 0, 0,
+				Collections.emptyMap());
+
+		store.put("a", response);
+		store.put("b", response);
+		store.put("c", response);
+		store.get("a");
+		store.put("d", response);
+
+		assertThat(store.get("b")).isNull();
+		assertThat(store.get("a")).isNotNull();
+		assertThat(store.size()).isLessThanOrEqualTo(500);
+	}
+
+	private TestClient client(Function<Request, Response> server) {
+		return Feign.builder().contract(new SpringMvcContract())
+				.client(new HttpCachingClient(stub(server), store, true, 1024, clock))
+				.target(TestClient.class, "http://localhost");
+	}
+
+	private Client stub(Function<Request, Response> server) {
+		return (request, options) -> {
+			requests.add(request);
+			return server.apply(request);
+		};
+	}
+
+	private static Response execute(Client client, Request request) {
+		try {
+			return client.execute(request, new Request.Options());
+		}
+		catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private Response response(Request request, int status, String body, String... headers) {
+		Map<String, Collection<String>> responseHeaders = headers(headers);
+		responseHeaders.put("Date", Collections.singletonList(date(clock.millis())));
+		return Response.builder().status(status).request(request).headers(responseHeaders)
+				.body(body != null ? body.getBytes(StandardCharsets.UTF_8) : null).build();
+	}
+
+	private static Map<String, Collection<String>> headers(String... headers) {
+		Map<String, Collection<String>> map = new LinkedHashMap<>();
+		for (int i = 0; i < headers.length; i += 2) {
+			map.put(headers[i], Collections.singletonList(headers[i + 1]));
+		}
+		return map;
+	}
+
+	private static String date(long millis) {
+		return DateTimeFormatter.RFC_1123_DATE_TIME
+				.format(ZonedDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC));
+	}
+
+	interface TestClient {
+
+		@GetMapping("/items/{id}")
+		String item(@PathVariable("id") String id);
+
+		@GetMapping("/items/{id}")
+		String item(@PathVariable("id") String id, @RequestHeader("Accept-Language") String language);
+
+		@GetMapping("/items/{id}")
+		String itemWithCacheControl(@PathVariable("id") String id,
+				@RequestHeader("Cache-Control") String cacheControl);
+
+		@PostMapping("/items/{id}")
+		void update(@PathVariable("id") String id, @RequestBody String item);
+
+	}
+
+	static class MutableClock extends Clock {
+
+		private long millis = 1_600_000_000_000L;
+
+		void advance(long seconds) {
+			millis += seconds * 1000;
+		}
+
+		@Override
+		public long millis() {
+			return millis;
+		}
+
+		@Override
+		public Instant instant() {
+			return Instant.ofEpochMilli(millis);
+		}
+
+		@Override
+		public ZoneOffset getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+	}
+
+}
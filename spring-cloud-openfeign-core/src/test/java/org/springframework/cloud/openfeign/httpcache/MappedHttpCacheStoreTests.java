@@ -0,0 +1,196 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.httpcache;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link MappedHttpCacheStore}.
+ */
+class MappedHttpCacheStoreTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void shouldReloadResponsesAfterRestart() {
+		MappedHttpCacheStore store = new MappedHttpCacheStore(directory, 64 * 1024, 16 * 1024);
+		store.put("http://localhost/rates", response("\"v1\"", "rates-1"));
+		store.put("http://localhost/currencies", response("\"v1\"", "currencies"));
+		store.put("http://localhost/rates", response("\"v2\"", "rates-2"));
+		store.close();
+
+		MappedHttpCacheStore reopened = new MappedHttpCacheStore(directory, 64 * 1024, 16 * 1024);
+
+		CachedResponse rates = reopened.get("http://localhost/rates");
+		assertThat(new String(rates.body(), StandardCharsets.UTF_8)).isEqualTo("rates-2");
+		assertThat(rates.headers().get("ETag")).containsExactly("\"v2\"");
+		assertThat(rates.responseTime()).isEqualTo(2000);
+		assertThat(reopened.count()).isEqualTo(2);
+		reopened.close();
+	}
+
+	@Test
+	void shouldPersistRemovals() {
+		MappedHttpCacheStore store = new MappedHttpCacheStore(directory, 64 * 1024, 16 * 1024);
+		store.put("a", response("\"v1\"", "a"));
+		store.put("b", response("\"v1\"", "b"));
+		store.remove("a");
+		store.close();
+
+		MappedHttpCacheStore reopened = new MappedHttpCacheStore(directory, 64 * 1024, 16 * 1024);
+
+		assertThat(reopened.get("a")).isNull();
+		assertThat(reopened.get("b")).isNotNull();
+		reopened.close();
+	}
+
+	@Test
+	void shouldAppendAfterExistingRecords() {
+		MappedHttpCacheStore store = new MappedHttpCacheStore(directory, 64 * 1024, 16 * 1024);
+		store.put("a", response("\"v1\"", "a"));
+		store.close();
+		MappedHttpCacheStore reopened = new MappedHttpCacheStore(directory, 64 * 1024, 16 * 1024);
+		reopened.put("b", response("\"v1\"", "b"));
+		reopened.close();
+
+		MappedHttpCacheStore again = new MappedHttpCacheStore(directory, 64 * 1024, 16 * 1024);
+
+		assertThat(again.get("a")).isNotNull();
+		assertThat(again.get("b")).isNotNull();
+		again.close();
+	}
+
+	@Test
+	void shouldDeleteOldestSegmentWhenFull() throws IOException {
+		MappedHttpCacheStore store = new MappedHttpCacheStore(directory, 3 * 1024, 1024);
+		for (int i = 0; i < 8; i++) {
+			store.put("key-" + i, response("\"v1\"", body(300)));
+		}
+
+		assertThat(store.get("key-0")).isNull();
+		assertThat(store.get("key-7")).isNotNull();
+		assertThat(store.evictionCount()).isPositive();
+		assertThat(segmentFiles()).hasSizeLessThanOrEqualTo(3);
+		store.close();
+	}
+
+	@Test
+	void shouldIgnoreIncompleteRecord() throws IOException {
+		MappedHttpCacheStore store = new MappedHttpCacheStore(directory, 64 * 1024, 16 * 1024);
+		store.put("a", response("\"v1\"", "a"));
+		store.put("b", response("\"v1\"", "b"));
+		long end = store.size();
+		store.close();
+		try (RandomAccessFile file = new RandomAccessFile(segmentFiles()[0].toFile(), "rw")) {
+			file.seek(end - 1);
+			file.write('!');
+		}
+
+		MappedHttpCacheStore reopened = new MappedHttpCacheStore(directory, 64 * 1024, 16 * 1024);
+
+		assertThat(reopened.get("a")).isNotNull();
+		assertThat(reopened.get("b")).isNull();
+		reopened.put("c", response("\"v1\"", "c"));
+		assertThat(reopened.get("c")).isNotNull();
+		reopened.close();
+	}
+
+	@Test
+	void shouldKeepEveryRecordWrittenConcurrently() throws Exception {
+		MappedHttpCacheStore store = new MappedHttpCacheStore(directory, 1024 * 1024, 16 * 1024);
+		ExecutorService writers = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> writes = new ArrayList<>();
+			for (int writer = 0; writer < 8; writer++) {
+				int id = writer;
+				writes.add(writers.submit(() -> {
+					for (int i = 0; i < 50; i++) {
+						store.put("key-" + id + "-" + i, response("\"v1\"", id + "-" + i + body(300)));
+					}
+				}));
+			}
+			for (Future<?> write : writes) {
+				write.get(10, TimeUnit.SECONDS);
+			}
+		}
+		finally {
+			writers.shutdownNow();
+		}
+		store.close();
+
+		MappedHttpCacheStore reopened = new MappedHttpCacheStore(directory, 1024 * 1024, 16 * 1024);
+
+		CachedResponse response = reopened.get("key-3-42");
+		assertThat(new String(response.body(), StandardCharsets.UTF_8)).startsWith("3-42x");
+		assertThat(reopened.count()).isEqualTo(400);
+		reopened.close();
+	}
+
+	@Test
+	void shouldPromotePersistedResponsesToMemory() throws IOException {
+		MappedHttpCacheStore disk = new MappedHttpCacheStore(directory, 64 * 1024, 16 * 1024);
+		disk.put("a", response("\"v1\"", "a"));
+		InMemoryHttpCacheStore memory = new InMemoryHttpCacheStore(64 * 1024);
+
+		try (TieredHttpCacheStore store = new TieredHttpCacheStore(memory, disk)) {
+			assertThat(store.get("a")).isNotNull();
+			assertThat(memory.get("a")).isNotNull();
+			store.put("b", response("\"v1\"", "b"));
+			assertThat(disk.get("b")).isNotNull();
+		}
+	}
+
+	private Path[] segmentFiles() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.sorted().toArray(Path[]::new);
+		}
+	}
+
+	private static String body(int length) {
+		char[] chars = new char[length];
+		Arrays.fill(chars, 'x');
+		return new String(chars);
+	}
+
+	private static CachedResponse response(String etag, String body) {
+		Map<String, Collection<String>> headers = Collections.singletonMap("ETag", Collections.singletonList(etag));
+		Map<String, List<String>> noVary = Collections.emptyMap();
+		return new CachedResponse(200, "OK", headers, body.getBytes(StandardCharsets.UTF_8), 1000, 2000, noVary);
+	}
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.httpcache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link OffHeapHttpCacheStore}.
+ */
+class OffHeapHttpCacheStoreTests {
+
+	@Test
+	void shouldRoundTripResponses() {
+		OffHeapHttpCacheStore store = new OffHeapHttpCacheStore(64 * 1024, 256, 1024);
+		Map<String, Collection<String>> headers = new LinkedHashMap<>();
+		headers.put("ETag", Collections.singletonList("\"v1\""));
+		headers.put("Set-Cookie", Arrays.asList("a=1", "b=2"));
+		byte[] body = new byte[1000];
+		Arrays.fill(body, (byte) 'x');
+		store.put("a", new CachedResponse(200, null, headers, body, 10, 20,
+				Collections.singletonMap("accept-language", Collections.singletonList("fr"))));
+
+		CachedResponse cached = store.get("a");
+
+		assertThat(cached.status()).isEqualTo(200);
+		assertThat(cached.reason()).isNull();
+		assertThat(cached.headers().get("etag")).containsExactly("\"v1\"");
+		assertThat(cached.headers().get("Set-Cookie")).containsExactly("a=1", "b=2");
+		assertThat(cached.body()).isEqualTo(body);
+		assertThat(cached.requestTime()).isEqualTo(10);
+		assertThat(cached.responseTime()).isEqualTo(20);
+		assertThat(cached.varyValues()).containsEntry("accept-language", Collections.singletonList("fr"));
+	}
+
+	@Test
+	void shouldEvictLeastRecentlyUsedResponses() {
+		OffHeapHttpCacheStore store = new OffHeapHttpCacheStore(4 * 1024, 1024, 2048);
+
+		store.put("a", response(900));
+		store.put("b", response(900));
+		store.put("c", response(900));
+		store.put("d", response(900));
+		store.get("a");
+		store.put("e", response(900));
+
+		assertThat(store.get("b")).isNull();
+		assertThat(store.get("a").body()).hasSize(900);
+		assertThat(store.get("e").body()).hasSize(900);
+		assertThat(store.evictionCount()).isEqualTo(1);
+		assertThat(store.size()).isEqualTo(4 * 1024);
+		assertThat(store.reservedSize()).isEqualTo(4 * 1024);
+	}
+
+	@Test
+	void shouldReusePagesOfReplacedResponses() {
+		OffHeapHttpCacheStore store = new OffHeapHttpCacheStore(4 * 1024, 1024, 4096);
+
+		store.put("a", response(3000));
+		store.put("a", response(100));
+		store.put("b", response(2000));
+
+		assertThat(store.count()).isEqualTo(2);
+		assertThat(store.size()).isEqualTo(3 * 1024);
+		assertThat(new String(store.get("a").body(), StandardCharsets.UTF_8)).hasSize(100);
+	}
+
+	@Test
+	void shouldNotStoreResponsesLargerThanTheStore() {
+		OffHeapHttpCacheStore store = new OffHeapHttpCacheStore(2 * 1024, 1024, 1024);
+		store.put("a", response(100));
+
+		store.put("a", response(5000));
+
+		assertThat(store.get("a")).isNull();
+		assertThat(store.size()).isZero();
+	}
+
+	@Test
+	void shouldCountHitsAndMisses() {
+		OffHeapHttpCacheStore store = new OffHeapHttpCacheStore(4 * 1024);
+		store.put("a", response(10));
+
+		store.get("a");
+		store.get("a");
+		store.get("b");
+
+		assertThat(store.hitCount()).isEqualTo(2);
+		assertThat(store.missCount()).isEqualTo(1);
+	}
+
+	private static CachedResponse response(int length) {
+		byte[] body = new byte[length];
+		Arrays.fill(body, (byte) 'y');
+		Map<String, List<String>> noVary = Collections.emptyMap();
+		return new CachedResponse(200, "OK", Collections.emptyMap(), body, 0, 0, noVary);
+	}
+
+}
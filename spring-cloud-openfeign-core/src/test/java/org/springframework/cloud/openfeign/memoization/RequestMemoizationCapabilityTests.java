@@ -0,0 +1,171 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.memoization;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import feign.Feign;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import org.springframework.cloud.openfeign.reactive.ReactiveMethodCapability;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link RequestMemoizationCapability}.
+ */
+class RequestMemoizationCapabilityTests {
+
+	private final List<String> requests = new CopyOnWriteArrayList<>();
+
+	private final UserClient client = Feign.builder().contract(new SpringMvcContract())
+			.addCapability(new RequestMemoizationCapability(new RequestAttributesMemoizationScope()))
+			.client(this::respond).target(UserClient.class, "http://localhost");
+
+	@AfterEach
+	void resetRequest() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	void shouldMemoizeCallsWithinRequest() {
+		startRequest();
+
+		assertThat(client.user("alice")).isEqualTo("/users/alice");
+		assertThat(client.user("alice")).isEqualTo("/users/alice");
+		assertThat(client.user("bob")).isEqualTo("/users/bob");
+
+		assertThat(requests).containsExactly("GET /users/alice", "GET /users/bob");
+	}
+
+	@Test
+	void shouldNotShareResultsBetweenRequests() {
+		startRequest();
+		client.user("alice");
+		startRequest();
+		client.user("alice");
+
+		assertThat(requests).hasSize(2);
+	}
+
+	@Test
+	void shouldNotMemoizeOutsideOfRequest() {
+		client.user("alice");
+		client.user("alice");
+
+		assertThat(requests).hasSize(2);
+	}
+
+	@Test
+	void shouldNotMemoizeCompletedRequest() {
+		ServletRequestAttributes attributes = startRequest();
+		attributes.requestCompleted();
+
+		client.user("alice");
+		client.user("alice");
+
+		assertThat(requests).hasSize(2);
+	}
+
+	@Test
+	void shouldNotMemoizeNonIdempotentMethods() {
+		startRequest();
+
+		client.rename("alice");
+		client.rename("alice");
+
+		assertThat(requests).containsExactly("POST /users/alice", "POST /users/alice");
+	}
+
+	@Test
+	void shouldNotMemoizeFailures() {
+		startRequest();
+
+		assertThatThrownBy(() -> client.user("failing")).isInstanceOf(FeignException.class);
+		assertThatThrownBy(() -> client.user("failing")).isInstanceOf(FeignException.class);
+
+		assertThat(requests).hasSize(2);
+	}
+
+	@Test
+	void shouldMemoizeMonoCallsWithinRequestWithoutFailures() {
+		ReactiveUserClient reactiveClient = Feign.builder().contract(new SpringMvcContract())
+				.addCapability(new RequestMemoizationCapability(new RequestAttributesMemoizationScope()))
+				.addCapability(new ReactiveMethodCapability(null, null, false)).client(this::respond)
+				.target(ReactiveUserClient.class, "http://localhost");
+		startRequest();
+
+		Mono<String> user = reactiveClient.user("alice");
+		assertThat(requests).isEmpty();
+
+		StepVerifier.create(user).expectNext("/users/alice").verifyComplete();
+		StepVerifier.create(reactiveClient.user("alice")).expectNext("/users/alice").verifyComplete();
+		StepVerifier.create(reactiveClient.user("failing")).expectError(FeignException.class).verify();
+		StepVerifier.create(reactiveClient.user("failing")).expectError(FeignException.class).verify();
+
+		assertThat(requests).containsExactly("GET /users/alice", "GET /users/failing", "GET /users/failing");
+	}
+
+	private Response respond(Request request, Request.Options options) {
+		String path = request.url().substring("http://localhost".length());
+		requests.add(request.httpMethod() + " " + path);
+		boolean failed = path.endsWith("/failing");
+		return Response.builder().status(failed ? 500 : 200).request(request).headers(Collections.emptyMap())
+				.body(path.getBytes(StandardCharsets.UTF_8)).build();
+	}
+
+	private ServletRequestAttributes startRequest() {
+		ServletRequestAttributes attributes = new ServletRequestAttributes(new MockHttpServletRequest());
+		RequestContextHolder.setRequestAttributes(attributes);
+		return attributes;
+	}
+
+	interface UserClient {
+
+		@GetMapping("/users/{id}")
+		String user(@PathVariable("id") String id);
+
+		@PostMapping("/users/{id}")
+		String rename(@PathVariable("id") String id);
+
+	}
+
+	interface ReactiveUserClient {
+
+		@GetMapping("/users/{id}")
+		Mono<String> user(@PathVariable("id") String id);
+
+	}
+
+}
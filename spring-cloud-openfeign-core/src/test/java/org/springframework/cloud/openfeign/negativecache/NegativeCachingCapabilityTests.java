@@ -0,0 +1,224 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.negativecache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import feign.Feign;
+import feign.Request;
+import feign.Response;
+import feign.codec.Decoder;
+import feign.optionals.OptionalDecoder;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import org.springframework.cloud.openfeign.NegativeCached;
+import org.springframework.cloud.openfeign.reactive.ReactiveMethodCapability;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link NegativeCachingCapability}.
+ */
+class NegativeCachingCapabilityTests {
+
+	private final List<String> requests = new ArrayList<>();
+
+	private final MutableClock clock = new MutableClock();
+
+	@Test
+	void shouldCacheEmptyOptional() {
+		UserClient client = client(new FeignNegativeCache(100, clock));
+
+		assertThat(client.user("missing")).isEmpty();
+		assertThat(client.user("missing")).isEmpty();
+		assertThat(client.user("other-missing")).isEmpty();
+
+		assertThat(requests).containsExactly("/users/missing", "/users/other-missing");
+	}
+
+	@Test
+	void shouldCacheNotFoundResult() {
+		UserClient client = client(new FeignNegativeCache(100, clock));
+
+		assertThat(client.name("missing")).isNull();
+		assertThat(client.name("missing")).isNull();
+
+		assertThat(requests).hasSize(1);
+	}
+
+	@Test
+	void shouldNotCacheFoundResults() {
+		UserClient client = client(new FeignNegativeCache(100, clock));
+
+		assertThat(client.user("alice")).contains("alice");
+		assertThat(client.user("alice")).contains("alice");
+
+		assertThat(requests).hasSize(2);
+	}
+
+	@Test
+	void shouldCallServerAgainOnceExpired() {
+		UserClient client = client(new FeignNegativeCache(100, clock));
+
+		client.user("missing");
+		clock.advance(Duration.ofSeconds(29));
+		client.user("missing");
+		clock.advance(Duration.ofSeconds(2));
+		client.user("missing");
+
+		assertThat(requests).hasSize(2);
+	}
+
+	@Test
+	void shouldUseTtlOfMethod() {
+		UserClient client = client(new FeignNegativeCache(100, clock));
+
+		client.shortLivedName("missing");
+		clock.advance(Duration.ofSeconds(2));
+		client.shortLivedName("missing");
+
+		assertThat(requests).hasSize(2);
+	}
+
+	@Test
+	void shouldBoundNumberOfNegativeResults() {
+		FeignNegativeCache cache = new FeignNegativeCache(2, clock);
+		UserClient client = client(cache);
+
+		client.user("missing-1");
+		client.user("missing-2");
+		client.user("missing-3");
+		client.user("missing-1");
+
+		assertThat(requests).hasSize(4);
+		assertThat(cache.size()).isEqualTo(2);
+	}
+
+	@Test
+	void shouldNotCacheMethodsWithoutAnnotation() {
+		UserClient client = client(new FeignNegativeCache(100, clock));
+
+		client.uncached("missing");
+		client.uncached("missing");
+
+		assertThat(requests).hasSize(2);
+	}
+
+	@Test
+	void shouldCacheEmptyMonoWhenSubscribed() {
+		ReactiveUserClient client = Feign.builder().contract(new SpringMvcContract()).decode404()
+				.addCapability(
+						new NegativeCachingCapability(new FeignNegativeCache(100, clock), Duration.ofSeconds(30)))
+				.addCapability(new ReactiveMethodCapability(null, null, true)).client(this::respond)
+				.target(ReactiveUserClient.class, "http://localhost");
+
+		Mono<String> name = client.name("missing");
+		assertThat(requests).isEmpty();
+
+		StepVerifier.create(name).verifyComplete();
+		StepVerifier.create(client.name("missing")).verifyComplete();
+		StepVerifier.create(client.name("alice")).expectNext("alice").verifyComplete();
+
+		assertThat(requests).containsExactly("/names/missing", "/names/alice");
+	}
+
+	private UserClient client(FeignNegativeCache cache) {
+		return Feign.builder().contract(new SpringMvcContract()).decoder(new OptionalDecoder(new Decoder.Default()))
+				.decode404().addCapability(new NegativeCachingCapability(cache, Duration.ofSeconds(30)))
+				.client(this::respond).target(UserClient.class, "http://localhost");
+	}
+
+	private Response respond(Request request, Request.Options options) {
+		String path = request.url().substring("http://localhost".length());
+		requests.add(path);
+		boolean found = path.endsWith("/alice");
+		return Response.builder().status(found ? 200 : 404).request(request).headers(Collections.emptyMap())
+				.body(found ? "alice".getBytes(StandardCharsets.UTF_8) : new byte[0]).build();
+	}
+
+	interface UserClient {
+
+		@NegativeCached
+		@GetMapping("/users/{id}")
+		Optional<String> user(@PathVariable("id") String id);
+
+		@NegativeCached
+		@GetMapping("/names/{id}")
+		String name(@PathVariable("id") String id);
+
+		@NegativeCached(ttlMillis = 1000)
+		@GetMapping("/short-lived/{id}")
+		String shortLivedName(@PathVariable("id") String id);
+
+		@GetMapping("/uncached/{id}")
+		String uncached(@PathVariable("id") String id);
+
+	}
+
+	interface ReactiveUserClient {
+
+		@NegativeCached
+		@GetMapping("/names/{id}")
+		Mono<String> name(@PathVariable("id") String id);
+
+	}
+
+	static class MutableClock extends Clock {
+
+		private long millis = 1_600_000_000_000L;
+
+		void advance(Duration duration) {
+			millis += duration.toMillis();
+		}
+
+		@Override
+		public long millis() {
+			return millis;
+		}
+
+		@Override
+		public Instant instant() {
+			return Instant.ofEpochMilli(millis);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+	}
+
+}
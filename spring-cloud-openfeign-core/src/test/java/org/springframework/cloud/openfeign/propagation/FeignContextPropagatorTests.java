@@ -0,0 +1,141 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.propagation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link FeignContextPropagator} implementations.
+ */
+class FeignContextPropagatorTests {
+
+	private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+		RequestContextHolder.resetRequestAttributes();
+		SecurityContextHolder.clearContext();
+		MDC.clear();
+	}
+
+	@Test
+	void shouldRestoreRequestAttributesAndClearThemOnClose() throws Exception {
+		RequestAttributes requestAttributes = new ServletRequestAttributes(new MockHttpServletRequest());
+		RequestContextHolder.setRequestAttributes(requestAttributes);
+		FeignContextPropagator.Snapshot snapshot = new RequestAttributesContextPropagator().capture();
+
+		List<RequestAttributes> seen = new ArrayList<>();
+		executor.submit(() -> {
+			try (FeignContextPropagator.Scope scope = snapshot.restore()) {
+				seen.add(RequestContextHolder.getRequestAttributes());
+			}
+			seen.add(RequestContextHolder.getRequestAttributes());
+		}).get(5, TimeUnit.SECONDS);
+
+		assertThat(seen).containsExactly(requestAttributes, null);
+	}
+
+	@Test
+	void shouldReinstatePreviousRequestAttributesOnClose() {
+		RequestAttributes captured = new ServletRequestAttributes(new MockHttpServletRequest());
+		RequestAttributes previous = new ServletRequestAttributes(new MockHttpServletRequest());
+		RequestContextHolder.setRequestAttributes(captured);
+		FeignContextPropagator.Snapshot snapshot = new RequestAttributesContextPropagator().capture();
+		RequestContextHolder.setRequestAttributes(previous);
+
+		try (FeignContextPropagator.Scope scope = snapshot.restore()) {
+			assertThat(RequestContextHolder.getRequestAttributes()).isSameAs(captured);
+		}
+
+		assertThat(RequestContextHolder.getRequestAttributes()).isSameAs(previous);
+	}
+
+	@Test
+	void shouldOnlyPropagateConfiguredMdcKeys() throws Exception {
+		MDC.put("traceId", "abc");
+		MDC.put("user", "joe");
+		FeignContextPropagator.Snapshot snapshot = new MdcContextPropagator(Collections.singletonList("traceId"))
+				.capture();
+
+		List<String> seen = new ArrayList<>();
+		executor.submit(() -> {
+			try (FeignContextPropagator.Scope scope = snapshot.restore()) {
+				seen.add(MDC.get("traceId"));
+				seen.add(MDC.get("user"));
+			}
+			seen.add(MDC.get("traceId"));
+		}).get(5, TimeUnit.SECONDS);
+
+		assertThat(seen).containsExactly("abc", null, null);
+	}
+
+	@Test
+	void shouldRestoreAndClearSecurityContext() throws Exception {
+		SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("joe", "secret"));
+		FeignContextPropagator.Snapshot snapshot = new SecurityContextPropagator().capture();
+
+		List<Object> seen = new ArrayList<>();
+		executor.submit(() -> {
+			try (FeignContextPropagator.Scope scope = snapshot.restore()) {
+				seen.add(SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+			}
+			seen.add(SecurityContextHolder.getContext().getAuthentication());
+		}).get(5, TimeUnit.SECONDS);
+
+		assertThat(seen).containsExactly("joe", null);
+	}
+
+	@Test
+	void shouldCloseCompositeScopesInReverseOrder() {
+		List<String> events = new ArrayList<>();
+		FeignContextPropagator first = () -> () -> {
+			events.add("restore first");
+			return () -> events.add("close first");
+		};
+		FeignContextPropagator second = () -> () -> {
+			events.add("restore second");
+			return () -> events.add("close second");
+		};
+
+		FeignContextPropagator.Snapshot snapshot = new CompositeFeignContextPropagator(Arrays.asList(first, second))
+				.capture();
+		snapshot.restore().close();
+
+		assertThat(events).containsExactly("restore first", "restore second", "close second", "close first");
+	}
+
+}
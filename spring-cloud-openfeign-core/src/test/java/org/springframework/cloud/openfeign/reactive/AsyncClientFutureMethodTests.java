@@ -0,0 +1,145 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.reactive;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import feign.FeignException;
+import feign.RequestInterceptor;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.cloud.openfeign.loadbalancer.ReactiveFeignLoadBalancerClient;
+import org.springframework.cloud.openfeign.reactive.ReactorNettyClientTests.Hello;
+import org.springframework.cloud.openfeign.test.NoSecurityConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+/**
+ * Tests for Feign methods returning {@link CompletableFuture} executed through the
+ * asynchronous Apache HttpClient 5.
+ */
+@SpringBootTest(classes = AsyncClientFutureMethodTests.Application.class, webEnvironment = RANDOM_PORT,
+		value = { "spring.application.name=asyncclientfuturetest", "feign.httpclient.hc5.async.enabled=true",
+				"feign.circuitbreaker.enabled=false" })
+class AsyncClientFutureMethodTests {
+
+	@Autowired
+	private HelloClient helloClient;
+
+	@Autowired
+	private ReactiveFeignClient reactiveFeignClient;
+
+	@Autowired
+	private AtomicReference<String> interceptorThread;
+
+	@Test
+	void shouldExposeAsyncClientAsReactiveClient() {
+		assertThat(reactiveFeignClient).isInstanceOf(ReactiveFeignLoadBalancerClient.class);
+		assertThat(((ReactiveFeignLoadBalancerClient) reactiveFeignClient).getDelegate())
+				.isInstanceOf(AsyncReactiveFeignClient.class);
+	}
+
+	@Test
+	void shouldDecodeValueWrappedByFuture() throws Exception {
+		CompletableFuture<Hello> hello = helloClient.getHello("world");
+
+		assertThat(hello.get(5, TimeUnit.SECONDS)).isEqualTo(new Hello("hello world"));
+	}
+
+	@Test
+	void shouldBuildRequestOnCallingThread() throws Exception {
+		helloClient.getHello("world").get(5, TimeUnit.SECONDS);
+
+		assertThat(interceptorThread.get()).isEqualTo(Thread.currentThread().getName());
+	}
+
+	@Test
+	void shouldCompleteVoidFuture() throws Exception {
+		assertThat(helloClient.postHello(new Hello("posted")).get(5, TimeUnit.SECONDS)).isNull();
+	}
+
+	@Test
+	void shouldCompleteExceptionallyWithErrorDecoderException() {
+		assertThatThrownBy(() -> helloClient.getNotFound().get(5, TimeUnit.SECONDS))
+				.isInstanceOf(ExecutionException.class).hasCauseInstanceOf(FeignException.NotFound.class);
+	}
+
+	@FeignClient(name = "asyncClientFutureHello", url = "http://localhost:${local.server.port}")
+	protected interface HelloClient {
+
+		@GetMapping("/hello/{name}")
+		CompletableFuture<Hello> getHello(@PathVariable("name") String name);
+
+		@PostMapping("/hello")
+		CompletableFuture<Void> postHello(@RequestBody Hello hello);
+
+		@GetMapping("/notfound")
+		CompletableFuture<Hello> getNotFound();
+
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@EnableAutoConfiguration
+	@RestController
+	@EnableFeignClients(clients = HelloClient.class)
+	@Import(NoSecurityConfiguration.class)
+	protected static class Application {
+
+		@Bean
+		AtomicReference<String> interceptorThread() {
+			return new AtomicReference<>();
+		}
+
+		@Bean
+		RequestInterceptor interceptorThreadRecorder(AtomicReference<String> interceptorThread) {
+			return template -> interceptorThread.set(Thread.currentThread().getName());
+		}
+
+		@GetMapping("/hello/{name}")
+		Hello getHello(@PathVariable String name) {
+			return new Hello("hello " + name);
+		}
+
+		@PostMapping("/hello")
+		@ResponseStatus(HttpStatus.NO_CONTENT)
+		void postHello(@RequestBody Hello hello) {
+			assertThat(hello.getMessage()).isEqualTo("posted");
+		}
+
+	}
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.reactive;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import feign.Request;
+import feign.Response;
+import feign.hc5.ApacheHttp5Client;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the throughput of the blocking Apache HttpClient 5 transport with the
+ * {@link ReactorNettyClient} against a stub server with a fixed latency. Run with
+ * {@code -Dfeign.benchmark=true}. Both transports get as many connections, and the
+ * blocking one as many threads, as there are requests in flight.
+ */
+@EnabledIfSystemProperty(named = "feign.benchmark", matches = "true")
+class ReactorNettyClientBenchmarkTests {
+
+	private static final Log LOG = LogFactory.getLog(ReactorNettyClientBenchmarkTests.class);
+
+	private static final Duration LATENCY = Duration.ofMillis(50);
+
+	private static final Request.Options OPTIONS = new Request.Options(5, TimeUnit.SECONDS, 30, TimeUnit.SECONDS,
+			true);
+
+	private static DisposableServer server;
+
+	@BeforeAll
+	static void startServer() {
+		server = HttpServer.create().port(0).route(routes -> routes.get("/delay", (request, response) -> response
+				.sendString(Mono.just("{\"message\":\"hello\"}").delayElement(LATENCY))))
+				.bindNow();
+	}
+
+	@AfterAll
+	static void stopServer() {
+		server.disposeNow();
+	}
+
+	@Test
+	void inFlight1000() throws Exception {
+		compare(1000);
+	}
+
+	@Test
+	void inFlight10000() throws Exception {
+		compare(10000);
+	}
+
+	private void compare(int inFlight) throws Exception {
+		long blocking = blocking(inFlight);
+		long reactive = reactive(inFlight);
+		LOG.info(String.format("%d in-flight requests: apache-hc5 %d ms (%.0f req/s), reactor-netty %d ms (%.0f req/s)",
+				inFlight, blocking, inFlight * 1000.0 / blocking, reactive, inFlight * 1000.0 / reactive));
+	}
+
+	private long blocking(int inFlight) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(inFlight);
+		try (CloseableHttpClient httpClient = HttpClients.custom()
+				.setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create().setMaxConnTotal(inFlight)
+						.setMaxConnPerRoute(inFlight).build())
+				.build()) {
+			ApacheHttp5Client client = new ApacheHttp5Client(httpClient);
+			long start = System.nanoTime();
+			List<Future<Integer>> results = new ArrayList<>(inFlight);
+			for (int i = 0; i < inFlight; i++) {
+				results.add(executor.submit(() -> {
+					try (Response response = client.execute(request(), OPTIONS)) {
+						return response.status();
+					}
+				}));
+			}
+			for (Future<Integer> result : results) {
+				assertThat(result.get()).isEqualTo(200);
+			}
+			return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private long reactive(int inFlight) {
+		ConnectionProvider provider = ConnectionProvider.builder("benchmark").maxConnections(inFlight)
+				.pendingAcquireMaxCount(-1).build();
+		try {
+			ReactorNettyClient client = new ReactorNettyClient(HttpClient.create(provider));
+			long start = System.nanoTime();
+			List<Integer> statuses = Flux.range(0, inFlight)
+					.flatMap(i -> client.exchange(request(), OPTIONS).map(Response::status), inFlight).collectList()
+					.block();
+			assertThat(statuses).hasSize(inFlight).containsOnly(200);
+			return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		}
+		finally {
+			provider.disposeLater().block();
+		}
+	}
+
+	private static Request request() {
+		return Request.create(Request.HttpMethod.GET, "http://localhost:" + server.port() + "/delay",
+				Collections.emptyMap(), null, StandardCharsets.UTF_8, null);
+	}
+
+}
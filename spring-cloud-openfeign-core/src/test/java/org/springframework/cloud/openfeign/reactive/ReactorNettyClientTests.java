@@ -0,0 +1,314 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.reactive;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import feign.Client;
+import feign.FeignException;
+import feign.RequestInterceptor;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.cloud.openfeign.FeignClientProperties;
+import org.springframework.cloud.openfeign.bulkhead.BulkheadFullException;
+import org.springframework.cloud.openfeign.bulkhead.FeignBulkhead;
+import org.springframework.cloud.openfeign.bulkhead.FeignBulkheadRegistry;
+import org.springframework.cloud.openfeign.loadbalancer.RetryableFeignBlockingLoadBalancerClient;
+import org.springframework.cloud.openfeign.test.NoSecurityConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+/**
+ * Tests for Feign methods returning {@link Mono} or {@link Flux} executed through the
+ * {@link ReactorNettyClient}.
+ */
+@SpringBootTest(classes = ReactorNettyClientTests.Application.class, webEnvironment = RANDOM_PORT,
+		value = { "spring.application.name=reactornettyclienttest", "feign.reactor-netty.enabled=true",
+				"feign.circuitbreaker.enabled=false",
+				"feign.client.config.reactorNettyBulkhead.bulkhead.max-concurrent-calls=1" })
+class ReactorNettyClientTests {
+
+	private static final CountDownLatch SLOW_STARTED = new CountDownLatch(1);
+
+	private static final CountDownLatch SLOW_RELEASE = new CountDownLatch(1);
+
+	@Autowired
+	private HelloClient helloClient;
+
+	@Autowired
+	private BulkheadClient bulkheadClient;
+
+	@Autowired
+	private FeignBulkheadRegistry bulkheadRegistry;
+
+	@Autowired
+	private Client client;
+
+	@Test
+	void shouldUseBlockingBridgeForClassicMethods() {
+		assertThat(client).isInstanceOf(RetryableFeignBlockingLoadBalancerClient.class);
+		assertThat(((RetryableFeignBlockingLoadBalancerClient) client).getDelegate())
+				.isInstanceOf(BlockingReactiveFeignClient.class);
+		assertThat(helloClient.getHello()).isEqualTo(new Hello("hello world"));
+	}
+
+	@Test
+	void shouldDecodeMono() {
+		StepVerifier.create(helloClient.getHelloMono()).expectNext(new Hello("hello world"))
+				.verifyComplete();
+	}
+
+	@Test
+	void shouldDecodeFluxElements() {
+		StepVerifier.create(helloClient.getHellos()).expectNext(new Hello("hello 1"), new Hello("hello 2"))
+				.verifyComplete();
+	}
+
+	@Test
+	void shouldEmitStreamedElements() {
+		StepVerifier.create(helloClient.streamHellos()).expectNext(new Hello("hello 1"), new Hello("hello 2"))
+				.verifyComplete();
+	}
+
+	@Test
+	void shouldReleaseStreamedResponseOnCancel() {
+		StepVerifier.create(helloClient.liveHellos().take(2)).expectNextCount(2).expectComplete()
+				.verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	void shouldSendBodyAndCompleteEmptyForVoid() {
+		StepVerifier.create(helloClient.postHello(new Hello("posted"))).verifyComplete();
+	}
+
+	@Test
+	void shouldNotSendRequestBeforeSubscription() {
+		Mono<Hello> hello = helloClient.getHelloByName("deferred");
+
+		StepVerifier.create(hello).expectNext(new Hello("deferred")).verifyComplete();
+		StepVerifier.create(hello).expectNext(new Hello("deferred")).verifyComplete();
+	}
+
+	@Test
+	void shouldBuildRequestFromArgumentsAndInterceptors() {
+		StepVerifier.create(helloClient.greet("world", "hi")).expectNext(new Hello("hi world!")).verifyComplete();
+	}
+
+	@Test
+	void shouldSignalErrorDecoderException() {
+		StepVerifier.create(helloClient.getNotFound()).expectError(FeignException.NotFound.class)
+				.verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	void shouldLimitConcurrentMonoCallsWithBulkhead() throws Exception {
+		CompletableFuture<Hello> first = bulkheadClient.getSlowHello().toFuture();
+		assertThat(SLOW_STARTED.await(5, TimeUnit.SECONDS)).isTrue();
+		FeignBulkhead bulkhead = bulkheadRegistry.bulkhead("reactorNettyBulkhead",
+				new FeignClientProperties.BulkheadProperties());
+
+		assertThat(bulkhead.getActiveCalls()).isEqualTo(1);
+		StepVerifier.create(bulkheadClient.getSlowHello()).expectError(BulkheadFullException.class)
+				.verify(Duration.ofSeconds(5));
+		assertThat(bulkhead.getRejectedCalls()).isEqualTo(1);
+
+		SLOW_RELEASE.countDown();
+		assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(new Hello("slow"));
+		while (bulkhead.getActiveCalls() > 0) {
+			Thread.sleep(10);
+		}
+		StepVerifier.create(bulkheadClient.getSlowHello()).expectNext(new Hello("slow")).verifyComplete();
+	}
+
+	@FeignClient(name = "reactorNettyHello", url = "http://localhost:${local.server.port}")
+	protected interface HelloClient {
+
+		@GetMapping("/hello")
+		Hello getHello();
+
+		@GetMapping("/hello")
+		Mono<Hello> getHelloMono();
+
+		@GetMapping("/hello/{name}")
+		Mono<Hello> getHelloByName(@PathVariable("name") String name);
+
+		@GetMapping("/hellos")
+		Flux<Hello> getHellos();
+
+		@GetMapping("/hellos/stream")
+		Flux<Hello> streamHellos();
+
+		@GetMapping("/hellos/live")
+		Flux<Hello> liveHellos();
+
+		@PostMapping("/hello")
+		Mono<Void> postHello(@RequestBody Hello hello);
+
+		@GetMapping("/notfound")
+		Mono<Hello> getNotFound();
+
+		@GetMapping("/greeting")
+		Mono<Hello> greet(@RequestParam("name") String name, @RequestHeader("X-Greeting") String greeting);
+
+	}
+
+	@FeignClient(name = "reactorNettyBulkhead", url = "http://localhost:${local.server.port}")
+	protected interface BulkheadClient {
+
+		@GetMapping("/hello/slow")
+		Mono<Hello> getSlowHello();
+
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@EnableAutoConfiguration
+	@RestController
+	@EnableFeignClients(clients = { HelloClient.class, BulkheadClient.class })
+	@Import(NoSecurityConfiguration.class)
+	protected static class Application {
+
+		@Bean
+		RequestInterceptor punctuationInterceptor() {
+			return template -> template.header("X-Punctuation", "!");
+		}
+
+		@GetMapping("/hello")
+		Hello getHello() {
+			return new Hello("hello world");
+		}
+
+		@GetMapping("/greeting")
+		Hello greet(@RequestParam String name, @RequestHeader("X-Greeting") String greeting,
+				@RequestHeader("X-Punctuation") String punctuation) {
+			return new Hello(greeting + " " + name + punctuation);
+		}
+
+		@GetMapping("/hello/slow")
+		Hello getSlowHello() throws InterruptedException {
+			SLOW_STARTED.countDown();
+			SLOW_RELEASE.await(5, TimeUnit.SECONDS);
+			return new Hello("slow");
+		}
+
+		@GetMapping("/hello/{name}")
+		Hello getHelloByName(@PathVariable String name) {
+			return new Hello(name);
+		}
+
+		@GetMapping("/hellos")
+		Hello[] getHellos() {
+			return new Hello[] { new Hello("hello 1"), new Hello("hello 2") };
+		}
+
+		@GetMapping(value = "/hellos/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+		String streamHellos() {
+			return "{\"message\":\"hello 1\"}\n{\"message\":\"hello 2\"}\n";
+		}
+
+		@GetMapping("/hellos/live")
+		SseEmitter liveHellos() {
+			SseEmitter emitter = new SseEmitter(10000L);
+			new Thread(() -> {
+				try {
+					for (int i = 0; i < 100; i++) {
+						emitter.send(new Hello("hello " + i), MediaType.APPLICATION_JSON);
+						Thread.sleep(50);
+					}
+					emitter.complete();
+				}
+				catch (IOException | InterruptedException e) {
+					emitter.completeWithError(e);
+				}
+			}).start();
+			return emitter;
+		}
+
+		@PostMapping("/hello")
+		@ResponseStatus(HttpStatus.NO_CONTENT)
+		void postHello(@RequestBody Hello hello) {
+			assertThat(hello.getMessage()).isEqualTo("posted");
+		}
+
+	}
+
+	public static class Hello {
+
+		private String message;
+
+		Hello() {
+		}
+
+		Hello(String message) {
+			this.message = message;
+		}
+
+		public String getMessage() {
+			return message;
+		}
+
+		public void setMessage(String message) {
+			this.message = message;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			Hello that = (Hello) o;
+			return Objects.equals(message, that.message);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(message);
+		}
+
+	}
+
+}
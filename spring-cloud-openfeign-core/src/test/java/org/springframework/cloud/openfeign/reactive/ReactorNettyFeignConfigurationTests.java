@@ -0,0 +1,56 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.reactive;
+
+import feign.Client;
+import feign.httpclient.ApacheHttpClient;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cloud.commons.httpclient.HttpClientConfiguration;
+import org.springframework.cloud.openfeign.FeignAutoConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the Reactor Netty based Feign client configuration.
+ */
+class ReactorNettyFeignConfigurationTests {
+
+	@Test
+	void shouldConfigureReactorNettyClient() {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder()
+				.properties("feign.reactor-netty.enabled=true").web(WebApplicationType.NONE)
+				.sources(HttpClientConfiguration.class, FeignAutoConfiguration.class).run()) {
+			assertThat(context.getBean(ReactiveFeignClient.class)).isInstanceOf(ReactorNettyClient.class);
+			assertThat(context.getBean(Client.class)).isInstanceOf(BlockingReactiveFeignClient.class);
+			assertThat(context.getBeanNamesForType(org.apache.http.impl.client.CloseableHttpClient.class)).isEmpty();
+		}
+	}
+
+	@Test
+	void hc4ShouldBeTheDefaultIfReactorNettyNotEnabled() {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder().web(WebApplicationType.NONE)
+				.sources(HttpClientConfiguration.class, FeignAutoConfiguration.class).run()) {
+			assertThat(context.getBeanNamesForType(ReactiveFeignClient.class)).isEmpty();
+			assertThat(context.getBean(Client.class)).isInstanceOf(ApacheHttpClient.class);
+		}
+	}
+
+}
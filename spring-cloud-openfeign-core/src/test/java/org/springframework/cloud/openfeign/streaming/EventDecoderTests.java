@@ -0,0 +1,119 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.streaming;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import feign.Request;
+import feign.Response;
+import feign.codec.DecodeException;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link EventDecoder}.
+ */
+class EventDecoderTests {
+
+	private final SpringDecoder decoder = new SpringDecoder(
+			() -> new HttpMessageConverters(new MappingJackson2HttpMessageConverter()));
+
+	@Test
+	void shouldDecodeLinesSplitAcrossChunks() throws IOException {
+		EventDecoder events = new EventDecoder(response(MediaType.APPLICATION_NDJSON_VALUE), Map.class, decoder, 1024);
+
+		List<Object> elements = decode(events, "{\"id\":1}\n{\"i", "d\":2}\r\n\n{\"id\":3}");
+
+		assertThat(elements).hasSize(3);
+		assertThat(elements).extracting(element -> (Object) ((Map<?, ?>) element).get("id"))
+				.containsExactly(1, 2, 3);
+	}
+
+	@Test
+	void shouldDecodeServerSentEventData() throws IOException {
+		EventDecoder events = new EventDecoder(response(MediaType.TEXT_EVENT_STREAM_VALUE), String.class, decoder,
+				1024);
+
+		List<Object> elements = decode(events, "data: first\r\ndata: line\r\n\r\n: keep-alive\n\n", "data:second\n\n",
+				"data: incomplete");
+
+		assertThat(elements).containsExactly("first\nline", "second");
+	}
+
+	@Test
+	void shouldDecodeServerSentEventMetadata() throws IOException {
+		Type type = ResolvableType.forClassWithGenerics(ServerSentEvent.class, Map.class).getType();
+		EventDecoder events = new EventDecoder(response(MediaType.TEXT_EVENT_STREAM_VALUE), type, decoder, 1024);
+
+		List<Object> elements = decode(events, "id: 7\nevent: update\nretry: 500\n: note\ndata: {\"id\":7}\n\n");
+
+		assertThat(elements).hasSize(1);
+		ServerSentEvent<?> event = (ServerSentEvent<?>) elements.get(0);
+		assertThat(event.id()).isEqualTo("7");
+		assertThat(event.event()).isEqualTo("update");
+		assertThat(event.retry()).isEqualTo(Duration.ofMillis(500));
+		assertThat(event.comment()).isEqualTo("note");
+		assertThat(event.data()).isEqualTo(Collections.singletonMap("id", 7));
+	}
+
+	@Test
+	void shouldRejectEventsLargerThanMaximum() {
+		EventDecoder events = new EventDecoder(response(MediaType.TEXT_EVENT_STREAM_VALUE), String.class, decoder, 16);
+
+		assertThatExceptionOfType(DecodeException.class)
+				.isThrownBy(() -> decode(events, "data: 0123456789\n", "data: 0123456789\n\n"));
+	}
+
+	private static List<Object> decode(EventDecoder events, String... chunks) throws IOException {
+		List<Object> elements = new ArrayList<>();
+		for (String chunk : chunks) {
+			byte[] bytes = chunk.getBytes(StandardCharsets.UTF_8);
+			elements.addAll(events.decode(bytes, 0, bytes.length));
+		}
+		elements.addAll(events.finish());
+		return elements;
+	}
+
+	private static Response response(String contentType) {
+		Map<String, Collection<String>> headers = new HashMap<>();
+		headers.put(HttpHeaders.CONTENT_TYPE, Collections.singletonList(contentType));
+		return Response.builder().status(200).headers(headers)
+				.request(Request.create(Request.HttpMethod.GET, "http://localhost/events", Collections.emptyMap(),
+						null, StandardCharsets.UTF_8, null))
+				.build();
+	}
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.streaming;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import feign.Feign;
+import feign.FeignException;
+import feign.Response;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link FileDownloadCapability}.
+ */
+class FileDownloadCapabilityTests {
+
+	private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.UTF_8);
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void shouldDownloadToPath() throws Exception {
+		Path target = directory.resolve("artifact.bin");
+
+		long length = client(CONTENT, CONTENT.length).download("artifact", target);
+
+		assertThat(length).isEqualTo(CONTENT.length);
+		assertThat(Files.readAllBytes(target)).isEqualTo(CONTENT);
+		assertThat(partialFiles()).isZero();
+	}
+
+	@Test
+	void shouldDownloadToChannel() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		client(CONTENT, CONTENT.length).download("artifact", Channels.newChannel(out));
+
+		assertThat(out.toByteArray()).isEqualTo(CONTENT);
+	}
+
+	@Test
+	void shouldDownloadToTemporaryFile() throws Exception {
+		Path file = client(CONTENT, CONTENT.length).download("artifact");
+
+		try {
+			assertThat(Files.readAllBytes(file)).isEqualTo(CONTENT);
+		}
+		finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test
+	void shouldDeletePartialFileWhenBodyIsIncomplete() throws Exception {
+		Path target = directory.resolve("artifact.bin");
+
+		assertThatThrownBy(() -> client(CONTENT, CONTENT.length * 2).download("artifact", target))
+				.isInstanceOf(FeignException.class).hasMessageContaining("Incomplete download");
+
+		assertThat(target).doesNotExist();
+		assertThat(partialFiles()).isZero();
+	}
+
+	@Test
+	void shouldKeepExistingFileWhenDownloadFails() throws Exception {
+		Path target = Files.write(directory.resolve("artifact.bin"), "previous".getBytes(StandardCharsets.UTF_8));
+
+		assertThatThrownBy(() -> client(CONTENT, CONTENT.length + 1).download("artifact", target))
+				.isInstanceOf(FeignException.class);
+
+		assertThat(new String(Files.readAllBytes(target), StandardCharsets.UTF_8)).isEqualTo("previous");
+	}
+
+	private long partialFiles() throws Exception {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(file -> file.getFileName().toString().endsWith(".part")).count();
+		}
+	}
+
+	private static DownloadClient client(byte[] body, long contentLength) {
+		return Feign.builder().contract(new SpringMvcContract()).addCapability(new FileDownloadCapability())
+				.client((request, options) -> {
+					Map<String, Collection<String>> headers = new HashMap<>();
+					headers.put("Content-Length", Collections.singletonList(String.valueOf(contentLength)));
+					return Response.builder().request(request).status(200).headers(headers)
+							.body(Arrays.copyOf(body, body.length)).build();
+				}).target(DownloadClient.class, "http://localhost");
+	}
+
+	interface DownloadClient {
+
+		@GetMapping("/artifacts/{name}")
+		long download(@PathVariable("name") String name, Path target);
+
+		@GetMapping("/artifacts/{name}")
+		void download(@PathVariable("name") String name, WritableByteChannel target);
+
+		@GetMapping("/artifacts/{name}")
+		Path download(@PathVariable("name") String name);
+
+	}
+
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.streaming;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import feign.FeignException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.cloud.openfeign.test.NoSecurityConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+/**
+ * Tests for {@link RangedDownloader}.
+ */
+@SpringBootTest(classes = RangedDownloaderTests.Application.class, webEnvironment = RANDOM_PORT,
+		value = { "spring.application.name=rangeddownloadtest", "feign.circuitbreaker.enabled=false",
+				"feign.client.config.rangedDownloads.ranged-download.chunk-size=1KB",
+				"feign.client.config.rangedDownloads.ranged-download.concurrency=3" })
+class RangedDownloaderTests {
+
+	private static final byte[] CONTENT = new byte[10_000];
+
+	static {
+		new Random(42).nextBytes(CONTENT);
+	}
+
+	@TempDir
+	Path directory;
+
+	@Autowired
+	private ObjectClient objectClient;
+
+	@Autowired
+	private Application application;
+
+	@BeforeEach
+	void reset() {
+		application.rangeRequests.set(0);
+		application.failAt = -1;
+	}
+
+	@Test
+	void shouldDownloadRangesConcurrently() throws Exception {
+		Path target = directory.resolve("object.bin");
+
+		long length = objectClient.download("object", target);
+
+		assertThat(length).isEqualTo(CONTENT.length);
+		assertThat(Files.readAllBytes(target)).isEqualTo(CONTENT);
+		assertThat(application.rangeRequests).hasValue(10);
+		assertThat(directory.resolve("object.bin.part")).doesNotExist();
+		assertThat(directory.resolve("object.bin.part.progress")).doesNotExist();
+	}
+
+	@Test
+	void shouldResumeFailedDownload() throws Exception {
+		Path target = directory.resolve("object.bin");
+		application.failAt = 5 * 1024;
+
+		assertThatThrownBy(() -> objectClient.download("object", target)).isInstanceOf(FeignException.class);
+
+		assertThat(target).doesNotExist();
+		assertThat(directory.resolve("object.bin.part")).exists();
+		assertThat(directory.resolve("object.bin.part.progress")).exists();
+		application.rangeRequests.set(0);
+
+		objectClient.download("object", target);
+
+		assertThat(Files.readAllBytes(target)).isEqualTo(CONTENT);
+		assertThat(application.rangeRequests.get()).isLessThan(10);
+		assertThat(directory.resolve("object.bin.part.progress")).doesNotExist();
+	}
+
+	@Test
+	void shouldDownloadWholeFileWhenRangesAreNotSupported() throws Exception {
+		Path target = directory.resolve("plain.bin");
+
+		long length = objectClient.downloadWithoutRanges("plain", target);
+
+		assertThat(length).isEqualTo(CONTENT.length);
+		assertThat(Files.readAllBytes(target)).isEqualTo(CONTENT);
+	}
+
+	@FeignClient(name = "rangedDownloads", url = "http://localhost:${local.server.port}")
+	protected interface ObjectClient {
+
+		@GetMapping("/objects/{name}")
+		long download(@PathVariable("name") String name, Path target);
+
+		@GetMapping("/plain/{name}")
+		long downloadWithoutRanges(@PathVariable("name") String name, Path target);
+
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@EnableAutoConfiguration
+	@RestController
+	@EnableFeignClients(clients = ObjectClient.class)
+	@Import(NoSecurityConfiguration.class)
+	protected static class Application {
+
+		final AtomicInteger rangeRequests = new AtomicInteger();
+
+		volatile long failAt = -1;
+
+		@GetMapping("/objects/{name}")
+		ResponseEntity<Resource> object(@PathVariable("name") String name,
+				@RequestHeader(value = HttpHeaders.RANGE, required = false) String range) {
+			if (range != null) {
+				rangeRequests.incrementAndGet();
+				if (failAt >= 0 && range.startsWith("bytes=" + failAt + "-")) {
+					failAt = -1;
+					return ResponseEntity.status(500).build();
+				}
+			}
+			return ResponseEntity.ok().eTag("\"v1\"").body(new ByteArrayResource(CONTENT));
+		}
+
+		@GetMapping("/plain/{name}")
+		byte[] plain(@PathVariable("name") String name) {
+			return CONTENT;
+		}
+
+	}
+
+}
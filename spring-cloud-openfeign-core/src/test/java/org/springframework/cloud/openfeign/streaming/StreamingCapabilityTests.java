@@ -0,0 +1,192 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.streaming;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.cloud.openfeign.test.NoSecurityConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+/**
+ * Tests for {@link StreamingCapability}.
+ */
+@SpringBootTest(classes = StreamingCapabilityTests.Application.class, webEnvironment = RANDOM_PORT,
+		value = { "spring.application.name=streamingtest", "feign.circuitbreaker.enabled=false" })
+class StreamingCapabilityTests {
+
+	@Autowired
+	private EventClient eventClient;
+
+	@Autowired
+	private Application application;
+
+	@Test
+	void shouldStreamNewlineDelimitedJson() {
+		try (Stream<Event> events = eventClient.ndjson()) {
+			assertThat(events.map(Event::getName).collect(Collectors.toList())).containsExactly("a", "b", "c");
+		}
+	}
+
+	@Test
+	void shouldStreamServerSentEvents() {
+		try (Stream<ServerSentEvent<Event>> events = eventClient.sse()) {
+			List<ServerSentEvent<Event>> received = events.collect(Collectors.toList());
+			assertThat(received).extracting(ServerSentEvent::id).containsExactly("1", null, "2");
+			assertThat(received).extracting(ServerSentEvent::comment).containsExactly(null, "keep-alive", null);
+			assertThat(received).filteredOn(event -> event.data() != null)
+					.extracting(event -> event.data().getName()).containsExactly("a", "b");
+		}
+	}
+
+	@Test
+	void shouldEmitEventsAsTheyArrive() {
+		try (Stream<String> events = eventClient.live()) {
+			Iterator<String> iterator = events.iterator();
+			assertThat(iterator.next()).isEqualTo("first");
+			application.firstReceived.countDown();
+			assertThat(iterator.next()).isEqualTo("second");
+			assertThat(iterator.hasNext()).isFalse();
+		}
+	}
+
+	@Test
+	void shouldPassEventsToCallback() {
+		List<Event> received = new ArrayList<>();
+
+		eventClient.ndjson(received::add);
+
+		assertThat(received).extracting(Event::getName).containsExactly("a", "b", "c");
+	}
+
+	@Test
+	void shouldStreamJsonArrays() {
+		try (Stream<Event> events = eventClient.array()) {
+			assertThat(events.map(Event::getName).collect(Collectors.toList())).containsExactly("a", "b");
+		}
+	}
+
+	@FeignClient(name = "streamingEvents", url = "http://localhost:${local.server.port}")
+	protected interface EventClient {
+
+		@GetMapping("/ndjson")
+		Stream<Event> ndjson();
+
+		@GetMapping("/ndjson")
+		void ndjson(Consumer<Event> consumer);
+
+		@GetMapping("/sse")
+		Stream<ServerSentEvent<Event>> sse();
+
+		@GetMapping("/live")
+		Stream<String> live();
+
+		@GetMapping("/array")
+		Stream<Event> array();
+
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@EnableAutoConfiguration
+	@RestController
+	@EnableFeignClients(clients = EventClient.class)
+	@Import(NoSecurityConfiguration.class)
+	protected static class Application {
+
+		final CountDownLatch firstReceived = new CountDownLatch(1);
+
+		@GetMapping(value = "/ndjson", produces = MediaType.APPLICATION_NDJSON_VALUE)
+		String ndjson() {
+			return "{\"name\":\"a\"}\n{\"name\":\"b\"}\n{\"name\":\"c\"}\n";
+		}
+
+		@GetMapping(value = "/sse", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+		String sse() {
+			return "id: 1\ndata: {\"name\":\"a\"}\n\n: keep-alive\n\nid: 2\ndata: {\"name\":\"b\"}\n\n";
+		}
+
+		@GetMapping("/live")
+		SseEmitter live() {
+			SseEmitter emitter = new SseEmitter(10000L);
+			new Thread(() -> {
+				try {
+					emitter.send("first");
+					emitter.send(firstReceived.await(5, TimeUnit.SECONDS) ? "second" : "buffered");
+					emitter.complete();
+				}
+				catch (IOException | InterruptedException e) {
+					emitter.completeWithError(e);
+				}
+			}).start();
+			return emitter;
+		}
+
+		@GetMapping("/array")
+		List<Event> array() {
+			List<Event> events = new ArrayList<>();
+			events.add(new Event("a"));
+			events.add(new Event("b"));
+			return events;
+		}
+
+	}
+
+	public static class Event {
+
+		private String name;
+
+		Event() {
+		}
+
+		Event(String name) {
+			this.name = name;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+	}
+
+}
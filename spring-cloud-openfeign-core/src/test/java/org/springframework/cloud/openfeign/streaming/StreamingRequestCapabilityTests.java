@@ -0,0 +1,228 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.streaming;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.cloud.openfeign.test.NoSecurityConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+/**
+ * Tests for {@link StreamingRequestCapability}.
+ */
+@SpringBootTest(classes = StreamingRequestCapabilityTests.Application.class, webEnvironment = RANDOM_PORT,
+		value = { "spring.application.name=streamingrequesttest", "feign.circuitbreaker.enabled=false",
+				"feign.httpclient.enabled=false", "feign.okhttp.enabled=true",
+				"spring.cloud.httpclientfactories.ok.enabled=true" })
+@DirtiesContext
+class StreamingRequestCapabilityTests {
+
+	private static final long UPLOAD_SIZE = 16 * 1024 * 1024;
+
+	@Autowired
+	private UploadClient uploadClient;
+
+	@Test
+	void shouldStreamInputStreamWithChunkedEncoding() {
+		Upload upload = uploadClient.upload(new GeneratedInputStream(UPLOAD_SIZE));
+
+		assertThat(upload.getLength()).isEqualTo(UPLOAD_SIZE);
+		assertThat(upload.isChunked()).isTrue();
+	}
+
+	@Test
+	void shouldStreamNewlineDelimitedJson() {
+		List<String> names = uploadClient.ndjson(Stream.of(new Event("a"), new Event("b"), new Event("c")));
+
+		assertThat(names).containsExactly("a", "b", "c");
+	}
+
+	@Test
+	void shouldStreamIterableAsJsonArray() {
+		Iterable<Event> events = () -> Stream.of(new Event("a"), new Event("b")).iterator();
+
+		List<String> names = uploadClient.array(events);
+
+		assertThat(names).containsExactly("a", "b");
+	}
+
+	@FeignClient(name = "streamingUploads", url = "http://localhost:${local.server.port}")
+	protected interface UploadClient {
+
+		@PostMapping(value = "/upload", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+		Upload upload(InputStream body);
+
+		@PostMapping(value = "/ndjson", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+		List<String> ndjson(Stream<Event> events);
+
+		@PostMapping(value = "/array", consumes = MediaType.APPLICATION_JSON_VALUE)
+		List<String> array(Iterable<Event> events);
+
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@EnableAutoConfiguration
+	@RestController
+	@EnableFeignClients(clients = UploadClient.class)
+	@Import(NoSecurityConfiguration.class)
+	protected static class Application {
+
+		@PostMapping("/upload")
+		Upload upload(HttpServletRequest request) throws IOException {
+			long length = 0;
+			byte[] buffer = new byte[8192];
+			try (InputStream in = request.getInputStream()) {
+				for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+					length += read;
+				}
+			}
+			return new Upload(length, "chunked".equalsIgnoreCase(request.getHeader("Transfer-Encoding")));
+		}
+
+		@PostMapping(value = "/ndjson", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+		List<String> ndjson(HttpServletRequest request) throws IOException {
+			List<String> lines = new ArrayList<>();
+			try (BufferedReader reader = request.getReader()) {
+				for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+					lines.add(line);
+				}
+			}
+			return lines.stream().map(line -> line.replaceAll(".*\"name\":\"([^\"]*)\".*", "$1"))
+					.collect(Collectors.toList());
+		}
+
+		@PostMapping("/array")
+		List<String> array(@RequestBody List<Event> events) {
+			return events.stream().map(Event::getName).collect(Collectors.toList());
+		}
+
+	}
+
+	/**
+	 * Generates its content on the fly, so that the test does not hold the upload in
+	 * memory either.
+	 */
+	static class GeneratedInputStream extends InputStream {
+
+		private long remaining;
+
+		GeneratedInputStream(long length) {
+			this.remaining = length;
+		}
+
+		@Override
+		public int read() {
+			if (remaining <= 0) {
+				return -1;
+			}
+			remaining--;
+			return 'x';
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (remaining <= 0) {
+				return -1;
+			}
+			int read = (int) Math.min(len, remaining);
+			for (int i = off; i < off + read; i++) {
+				b[i] = 'x';
+			}
+			remaining -= read;
+			return read;
+		}
+
+	}
+
+	public static class Upload {
+
+		private long length;
+
+		private boolean chunked;
+
+		Upload() {
+		}
+
+		Upload(long length, boolean chunked) {
+			this.length = length;
+			this.chunked = chunked;
+		}
+
+		public long getLength() {
+			return length;
+		}
+
+		public void setLength(long length) {
+			this.length = length;
+		}
+
+		public boolean isChunked() {
+			return chunked;
+		}
+
+		public void setChunked(boolean chunked) {
+			this.chunked = chunked;
+		}
+
+	}
+
+	public static class Event {
+
+		private String name;
+
+		Event() {
+		}
+
+		Event(String name) {
+			this.name = name;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+	}
+
+}
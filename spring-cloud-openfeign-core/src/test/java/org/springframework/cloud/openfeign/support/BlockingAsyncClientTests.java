@@ -0,0 +1,60 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.support;
+
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import feign.Request;
+import feign.Response;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link BlockingAsyncClient}.
+ */
+class BlockingAsyncClientTests {
+
+	private final Request request = Request.create(Request.HttpMethod.GET, "http://test/hello", Collections.emptyMap(),
+			null, StandardCharsets.UTF_8, null);
+
+	@Test
+	void shouldReturnCompletedResponse() throws Exception {
+		BlockingAsyncClient client = new BlockingAsyncClient((request, options, context) -> CompletableFuture
+				.completedFuture(Response.builder().request(request).status(200).headers(Collections.emptyMap()).build()));
+
+		assertThat(client.execute(request, new Request.Options()).status()).isEqualTo(200);
+	}
+
+	@Test
+	void shouldCancelExchangeExceedingTheTimeouts() {
+		CompletableFuture<Response> response = new CompletableFuture<>();
+		BlockingAsyncClient client = new BlockingAsyncClient((request, options, context) -> response);
+		Request.Options shortTimeouts = new Request.Options(10, TimeUnit.MILLISECONDS, 50, TimeUnit.MILLISECONDS,
+				true);
+
+		assertThatExceptionOfType(SocketTimeoutException.class)
+				.isThrownBy(() -> client.execute(request, shortTimeouts));
+		assertThat(response).isCancelled();
+	}
+
+}
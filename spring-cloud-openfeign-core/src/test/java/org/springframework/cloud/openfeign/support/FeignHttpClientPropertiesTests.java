@@ -67,6 +67,7 @@ class FeignHttpClientPropertiesTests {
 		assertThat(getProperties().getHc5().getPoolReusePolicy()).isEqualTo(PoolReusePolicy.FIFO);
 		assertThat(getProperties().getHc5().getSocketTimeout()).isEqualTo(DEFAULT_SOCKET_TIMEOUT);
 		assertThat(getProperties().getHc5().getSocketTimeoutUnit()).isEqualTo(DEFAULT_SOCKET_TIMEOUT_UNIT);
+		assertThat(getProperties().getHc5().getIoThreadCount()).isEqualTo(Runtime.getRuntime().availableProcessors());
 	}
 
 	@Test
@@ -77,7 +78,8 @@ class FeignHttpClientPropertiesTests {
 						"feign.httpclient.disableSslValidation=true", "feign.httpclient.followRedirects=false",
 						"feign.httpclient.disableSslValidation=true", "feign.httpclient.followRedirects=false",
 						"feign.httpclient.hc5.poolConcurrencyPolicy=lax", "feign.httpclient.hc5.poolReusePolicy=lifo",
-						"feign.httpclient.hc5.socketTimeout=200", "feign.httpclient.hc5.socketTimeoutUnit=milliseconds")
+						"feign.httpclient.hc5.socketTimeout=200", "feign.httpclient.hc5.socketTimeoutUnit=milliseconds",
+						"feign.httpclient.hc5.ioThreadCount=3")
 				.applyTo(this.context);
 		setupContext();
 		assertThat(getProperties().getMaxConnections()).isEqualTo(2);
@@ -90,6 +92,7 @@ class FeignHttpClientPropertiesTests {
 		assertThat(getProperties().getHc5().getPoolReusePolicy()).isEqualTo(PoolReusePolicy.LIFO);
 		assertThat(getProperties().getHc5().getSocketTimeout()).isEqualTo(200);
 		assertThat(getProperties().getHc5().getSocketTimeoutUnit()).isEqualTo(TimeUnit.MILLISECONDS);
+		assertThat(getProperties().getHc5().getIoThreadCount()).isEqualTo(3);
 	}
 
 	private void setupContext() {
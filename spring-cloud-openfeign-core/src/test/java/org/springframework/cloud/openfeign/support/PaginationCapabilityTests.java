@@ -0,0 +1,142 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.support;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.cloud.openfeign.Paginated;
+import org.springframework.cloud.openfeign.test.NoSecurityConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+/**
+ * Tests for {@link PaginationCapability}.
+ */
+@SpringBootTest(classes = PaginationCapabilityTests.Application.class, webEnvironment = RANDOM_PORT,
+		value = { "spring.application.name=paginationtest", "feign.circuitbreaker.enabled=false",
+				"feign.autoconfiguration.jackson.enabled=true" })
+class PaginationCapabilityTests {
+
+	private static final List<String> ITEMS = IntStream.range(0, 45).mapToObj(i -> "item-" + i)
+			.collect(Collectors.toList());
+
+	@Autowired
+	private ItemClient itemClient;
+
+	@Autowired
+	private Application application;
+
+	@BeforeEach
+	void setup() {
+		application.requestedPages.clear();
+		application.requestedSizes.clear();
+	}
+
+	@Test
+	void shouldIterateOverAllPages() {
+		PagedIterable<String> items = itemClient.items(PageRequest.of(0, 10));
+
+		assertThat(items).containsExactlyElementsOf(ITEMS);
+		assertThat(application.requestedPages).containsExactlyInAnyOrder(0, 1, 2, 3, 4);
+	}
+
+	@Test
+	void shouldNotRequestPagesBeforeIteration() {
+		itemClient.items(PageRequest.of(0, 10));
+
+		assertThat(application.requestedPages).isEmpty();
+	}
+
+	@Test
+	void shouldStartFromGivenPage() {
+		assertThat(itemClient.items(PageRequest.of(3, 10))).containsExactlyElementsOf(ITEMS.subList(30, 45));
+	}
+
+	@Test
+	void shouldStreamWithConfiguredPageSize() {
+		try (Stream<String> items = itemClient.stream(Pageable.unpaged())) {
+			assertThat(items.collect(Collectors.toList())).containsExactlyElementsOf(ITEMS);
+		}
+		assertThat(application.requestedPages).hasSize(3);
+		assertThat(application.requestedSizes).containsOnly(20);
+	}
+
+	@Test
+	void shouldPrefetchAtMostConfiguredPages() {
+		try (Stream<String> items = itemClient.stream(PageRequest.of(0, 5))) {
+			assertThat(items.limit(3).collect(Collectors.toList())).containsExactly("item-0", "item-1", "item-2");
+		}
+		assertThat(application.requestedPages).hasSizeLessThanOrEqualTo(3).contains(0);
+	}
+
+	@FeignClient(name = "paginationItems", url = "http://localhost:${local.server.port}")
+	protected interface ItemClient {
+
+		@GetMapping("/items")
+		PagedIterable<String> items(Pageable pageable);
+
+		@Paginated(pageSize = 20, prefetch = 2)
+		@GetMapping("/items")
+		Stream<String> stream(Pageable pageable);
+
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@EnableAutoConfiguration
+	@RestController
+	@EnableFeignClients(clients = ItemClient.class)
+	@Import(NoSecurityConfiguration.class)
+	protected static class Application {
+
+		final List<Integer> requestedPages = new CopyOnWriteArrayList<>();
+
+		final List<Integer> requestedSizes = new CopyOnWriteArrayList<>();
+
+		@GetMapping("/items")
+		Page<String> items(@RequestParam("page") int page, @RequestParam("size") int size) {
+			requestedPages.add(page);
+			requestedSizes.add(size);
+			int from = Math.min(page * size, ITEMS.size());
+			return new PageImpl<>(ITEMS.subList(from, Math.min(from + size, ITEMS.size())), PageRequest.of(page, size),
+					ITEMS.size());
+		}
+
+	}
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.support;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import feign.Client;
+import feign.Feign;
+import feign.Request;
+import feign.RequestLine;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Compares 10k concurrent blocking Feign calls executed on a pool of platform threads
+ * and on virtual threads, against a stub server with a fixed latency. Run on Java 21 or
+ * later with {@code -Dfeign.benchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "feign.benchmark", matches = "true")
+class VirtualThreadsBenchmarkTests {
+
+	private static final Log LOG = LogFactory.getLog(VirtualThreadsBenchmarkTests.class);
+
+	private static final int CALLS = 10000;
+
+	private static final Duration LATENCY = Duration.ofMillis(100);
+
+	private static DisposableServer server;
+
+	private static Stub stub;
+
+	@BeforeAll
+	static void startServer() {
+		server = HttpServer.create().port(0)
+				.route(routes -> routes.get("/delay",
+						(request, response) -> response.sendString(Mono.just("hello").delayElement(LATENCY))))
+				.bindNow();
+		stub = Feign.builder().client(new Client.Default(null, null))
+				.options(new Request.Options(5, TimeUnit.SECONDS, 30, TimeUnit.SECONDS, true))
+				.target(Stub.class, "http://localhost:" + server.port());
+	}
+
+	@AfterAll
+	static void stopServer() {
+		server.disposeNow();
+	}
+
+	@Test
+	void concurrentBlockingCalls() throws Exception {
+		assumeTrue(VirtualThreads.isSupported());
+		long platform = run(Executors.newFixedThreadPool(200));
+		long virtual = run(VirtualThreads.newThreadPerTaskExecutor("feign-benchmark-"));
+		LOG.info(String.format("%d blocking calls: 200 platform threads %d ms (%.0f req/s), virtual threads %d ms "
+				+ "(%.0f req/s)", CALLS, platform, CALLS * 1000.0 / platform, virtual, CALLS * 1000.0 / virtual));
+	}
+
+	private long run(ExecutorService executor) throws Exception {
+		try {
+			long start = System.nanoTime();
+			List<Future<String>> results = new ArrayList<>(CALLS);
+			for (int i = 0; i < CALLS; i++) {
+				results.add(executor.submit(stub::delay));
+			}
+			for (Future<String> result : results) {
+				assertThat(result.get()).isEqualTo("hello");
+			}
+			return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	interface Stub {
+
+		@RequestLine("GET /delay")
+		String delay();
+
+	}
+
+}
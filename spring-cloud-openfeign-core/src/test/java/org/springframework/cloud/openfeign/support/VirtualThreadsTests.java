@@ -0,0 +1,100 @@
+/*
+ * Copyright 2013-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.openfeign.support;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.util.ReflectionUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests for {@link VirtualThreads}.
+ */
+class VirtualThreadsTests {
+
+	private static final Pattern COMMENTS_AND_LITERALS = Pattern
+			.compile("(?s)/\\*.*?\\*/|//[^\\n]*|\"(\\\\.|[^\"\\\\])*\"|'(\\\\.|[^'\\\\])'");
+
+	private static final Pattern SYNCHRONIZED = Pattern.compile("\\bsynchronized\\b");
+
+	@Test
+	void shouldRunTasksOnNamedVirtualThreads() throws Exception {
+		assumeTrue(VirtualThreads.isSupported());
+		ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("feign-test-");
+		try {
+			Thread thread = executor.submit(Thread::currentThread).get();
+			assertThat(thread.getName()).startsWith("feign-test-");
+			assertThat(ReflectionUtils.invokeMethod(Thread.class.getMethod("isVirtual"), thread)).isEqualTo(true);
+			assertThat(VirtualThreads.isEnabled(true)).isTrue();
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void shouldFallBackToPlatformThreadsWhenUnsupported() {
+		assumeFalse(VirtualThreads.isSupported());
+		assertThat(VirtualThreads.isEnabled(true)).isFalse();
+		assertThatIllegalStateException().isThrownBy(() -> VirtualThreads.newThreadPerTaskExecutor("feign-test-"));
+	}
+
+	@Test
+	void shouldNotBeEnabledUnlessRequested() {
+		assertThat(VirtualThreads.isEnabled(false)).isFalse();
+	}
+
+	/**
+	 * A virtual thread blocking inside a {@code synchronized} section pins its carrier
+	 * thread, so the main sources guard shared state with locks instead.
+	 */
+	@Test
+	void shouldNotUseSynchronizedInMainSources() throws IOException {
+		try (Stream<Path> sources = Files.walk(Paths.get("src", "main", "java"))) {
+			List<Path> synchronizedSources = sources.filter(path -> path.toString().endsWith(".java"))
+					.filter(VirtualThreadsTests::usesSynchronized).collect(Collectors.toList());
+			assertThat(synchronizedSources).isEmpty();
+		}
+	}
+
+	private static boolean usesSynchronized(Path source) {
+		try {
+			String code = new String(Files.readAllBytes(source), StandardCharsets.UTF_8);
+			return SYNCHRONIZED.matcher(COMMENTS_AND_LITERALS.matcher(code).replaceAll("")).find();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+}